@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.generator.FieldScope;
+import com.github.victools.jsonschema.generator.MethodScope;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the annotation look-up via {@link JavaxValidationModule#getAnnotationFromFieldOrGetter}, with and without validation groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnotationLookupBenchmark {
+
+    @Param({"false", "true"})
+    boolean withValidationGroups;
+
+    private JavaxValidationModule module;
+    private FieldScope annotatedField;
+    private FieldScope groupAnnotatedField;
+    private FieldScope unannotatedField;
+    private FieldScope fieldWithAnnotatedGetter;
+    private MethodScope annotatedGetter;
+
+    /**
+     * Initialise the module and look-up the member scopes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.module = new JavaxValidationModule();
+        if (this.withValidationGroups) {
+            this.module.forValidationGroups(BenchmarkModel.Creation.class);
+        }
+        BenchmarkMembers members = new BenchmarkMembers();
+        this.annotatedField = members.getField("notNullInteger");
+        this.groupAnnotatedField = members.getField("tagsOnCreation");
+        this.unannotatedField = members.getField("unannotatedString");
+        this.fieldWithAnnotatedGetter = members.getField("getterAnnotatedString");
+        this.annotatedGetter = members.getMethod("getGetterAnnotatedString");
+    }
+
+    @Benchmark
+    public Object annotationOnField() {
+        return this.module.getAnnotationFromFieldOrGetter(this.annotatedField, NotNull.class, NotNull::groups);
+    }
+
+    @Benchmark
+    public Object annotationWithGroupOnField() {
+        return this.module.getAnnotationFromFieldOrGetter(this.groupAnnotatedField, Size.class, Size::groups);
+    }
+
+    @Benchmark
+    public Object missingAnnotation() {
+        return this.module.getAnnotationFromFieldOrGetter(this.unannotatedField, Email.class, Email::groups);
+    }
+
+    @Benchmark
+    public Object annotationOnGetterOfField() {
+        return this.module.getAnnotationFromFieldOrGetter(this.fieldWithAnnotatedGetter, Size.class, Size::groups);
+    }
+
+    @Benchmark
+    public Object annotationOnMethod() {
+        return this.module.getAnnotationFromFieldOrGetter(this.annotatedGetter, Size.class, Size::groups);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.classmate.ResolvedTypeWithMembers;
+import com.github.victools.jsonschema.generator.FieldScope;
+import com.github.victools.jsonschema.generator.MethodScope;
+import com.github.victools.jsonschema.generator.TypeContext;
+import com.github.victools.jsonschema.generator.impl.TypeContextFactory;
+import java.util.stream.Stream;
+
+/**
+ * Helper class for constructing {@link FieldScope} and {@link MethodScope} instances of the {@link BenchmarkModel}.
+ */
+public class BenchmarkMembers {
+
+    private final TypeContext context;
+    private final ResolvedTypeWithMembers modelMembers;
+
+    /**
+     * Constructor.
+     */
+    public BenchmarkMembers() {
+        this.context = TypeContextFactory.createDefaultTypeContext();
+        this.modelMembers = this.context.resolveWithMembers(this.context.resolve(BenchmarkModel.class));
+    }
+
+    /**
+     * Look-up a field of the {@link BenchmarkModel}.
+     *
+     * @param fieldName name of the field
+     * @return created field scope
+     */
+    public FieldScope getField(String fieldName) {
+        return Stream.of(this.modelMembers.getMemberFields())
+                .filter(field -> fieldName.equals(field.getName()))
+                .findAny()
+                .map(field -> this.context.createFieldScope(field, this.modelMembers))
+                .get();
+    }
+
+    /**
+     * Look-up a method of the {@link BenchmarkModel}.
+     *
+     * @param methodName name of the method
+     * @return created method scope
+     */
+    public MethodScope getMethod(String methodName) {
+        return Stream.of(this.modelMembers.getMemberMethods())
+                .filter(method -> methodName.equals(method.getName()))
+                .findAny()
+                .map(method -> this.context.createMethodScope(method, this.modelMembers))
+                .get();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Null;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+
+/**
+ * Representative type being used in the benchmarks: covering the supported constraints on fields and getters, with and without validation groups.
+ */
+public class BenchmarkModel {
+
+    /**
+     * Validation group being referenced on some of the constraints.
+     */
+    public interface Creation {
+    }
+
+    String unannotatedString;
+    @NotNull
+    Integer notNullInteger;
+    @NotEmpty
+    @Size(max = 10)
+    List<String> nonEmptyMaxSizeTenList;
+    @NotBlank
+    @Email
+    String emailString;
+    @Size(min = 8, max = 64)
+    @Pattern(regexp = "^[a-zA-Z0-9]+$")
+    String patternString;
+    @Min(1)
+    @Max(100)
+    int percentage;
+    @DecimalMin(value = "0.01", inclusive = false)
+    @DecimalMax("99999.99")
+    BigDecimal amount;
+    @Positive
+    long positiveLong;
+    @Null(groups = Creation.class)
+    Long id;
+    @NotNull(groups = Creation.class)
+    @Size(min = 1, groups = Creation.class)
+    Set<String> tagsOnCreation;
+    String getterAnnotatedString;
+    BenchmarkModel nested;
+
+    @NotBlank
+    @Size(max = 255)
+    public String getGetterAnnotatedString() {
+        return this.getterAnnotatedString;
+    }
+
+    public BenchmarkModel getNested() {
+        return this.nested;
+    }
+}
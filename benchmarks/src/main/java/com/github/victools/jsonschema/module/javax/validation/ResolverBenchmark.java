@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.generator.FieldScope;
+import com.github.victools.jsonschema.generator.MethodScope;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the individual attribute resolvers of the {@link JavaxValidationModule} on representative members.
+ * <ul>
+ * <li>"warm": the module's per-member constraint profiles are already populated (i.e. the steady state during a single schema generation).</li>
+ * <li>"cold": every invocation starts with a fresh module (without any constraint profiles), i.e. including the resolution of the constraint
+ * profile of the respective member.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResolverBenchmark {
+
+    @Param({"false", "true"})
+    boolean withValidationGroups;
+
+    @Param({"warm", "cold"})
+    String profileCache;
+
+    private BenchmarkMembers members;
+    private JavaxValidationModule module;
+    private FieldScope notNullInteger;
+    private FieldScope nonEmptyMaxSizeTenList;
+    private FieldScope emailString;
+    private FieldScope patternString;
+    private FieldScope percentage;
+    private FieldScope amount;
+    private FieldScope unannotatedString;
+    private MethodScope getterAnnotatedString;
+
+    /**
+     * Initialise the module and member scopes (once per trial).
+     */
+    @Setup(Level.Trial)
+    public void setUpModule() {
+        this.members = new BenchmarkMembers();
+        this.module = this.createModule();
+        this.setUpMembers();
+    }
+
+    /**
+     * Replace the module (before each invocation), if constraint profiles should not be re-used. The profiles are being kept per module and
+     * keyed by the raw member, i.e. looking-up new member scopes alone would still hit the already populated profiles.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        if ("cold".equals(this.profileCache)) {
+            this.module = this.createModule();
+        }
+    }
+
+    /**
+     * Create the module under test.
+     *
+     * @return new module instance (without any constraint profiles yet)
+     */
+    private JavaxValidationModule createModule() {
+        JavaxValidationModule newModule = new JavaxValidationModule(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED,
+                JavaxValidationOption.NOT_NULLABLE_METHOD_IS_REQUIRED, JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS);
+        if (this.withValidationGroups) {
+            newModule.forValidationGroups(BenchmarkModel.Creation.class);
+        }
+        return newModule;
+    }
+
+    /**
+     * Look-up the member scopes to run the resolvers against.
+     */
+    private void setUpMembers() {
+        this.notNullInteger = this.members.getField("notNullInteger");
+        this.nonEmptyMaxSizeTenList = this.members.getField("nonEmptyMaxSizeTenList");
+        this.emailString = this.members.getField("emailString");
+        this.patternString = this.members.getField("patternString");
+        this.percentage = this.members.getField("percentage");
+        this.amount = this.members.getField("amount");
+        this.unannotatedString = this.members.getField("unannotatedString");
+        this.getterAnnotatedString = this.members.getMethod("getGetterAnnotatedString");
+    }
+
+    @Benchmark
+    public Object isNullable() {
+        return this.module.isNullable(this.notNullInteger);
+    }
+
+    @Benchmark
+    public boolean isRequired() {
+        return this.module.isRequired(this.notNullInteger);
+    }
+
+    @Benchmark
+    public boolean isRequiredUnannotated() {
+        return this.module.isRequired(this.unannotatedString);
+    }
+
+    @Benchmark
+    public Object resolveArrayMinItems() {
+        return this.module.resolveArrayMinItems(this.nonEmptyMaxSizeTenList);
+    }
+
+    @Benchmark
+    public Object resolveArrayMaxItems() {
+        return this.module.resolveArrayMaxItems(this.nonEmptyMaxSizeTenList);
+    }
+
+    @Benchmark
+    public Object resolveStringMinLength() {
+        return this.module.resolveStringMinLength(this.patternString);
+    }
+
+    @Benchmark
+    public Object resolveStringMaxLength() {
+        return this.module.resolveStringMaxLength(this.patternString);
+    }
+
+    @Benchmark
+    public Object resolveStringMaxLengthOnGetter() {
+        return this.module.resolveStringMaxLength(this.getterAnnotatedString);
+    }
+
+    @Benchmark
+    public Object resolveStringFormat() {
+        return this.module.resolveStringFormat(this.emailString);
+    }
+
+    @Benchmark
+    public Object resolveStringPattern() {
+        return this.module.resolveStringPattern(this.patternString);
+    }
+
+    @Benchmark
+    public Object resolveNumberInclusiveMinimum() {
+        return this.module.resolveNumberInclusiveMinimum(this.percentage);
+    }
+
+    @Benchmark
+    public Object resolveNumberExclusiveMinimum() {
+        return this.module.resolveNumberExclusiveMinimum(this.amount);
+    }
+
+    @Benchmark
+    public Object resolveNumberInclusiveMaximum() {
+        return this.module.resolveNumberInclusiveMaximum(this.amount);
+    }
+
+    @Benchmark
+    public Object resolveNumberExclusiveMaximum() {
+        return this.module.resolveNumberExclusiveMaximum(this.percentage);
+    }
+}
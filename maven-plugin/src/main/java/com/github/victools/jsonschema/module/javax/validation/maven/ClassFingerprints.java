@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation.maven;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Calculation of a fingerprint per class, covering the bytecode of the class itself and of all classes (from the same directory) it references
+ * directly or indirectly. A schema only needs to be regenerated if the fingerprint of its root class changed.
+ * <br>
+ * The references are being determined from the constant pool of each class file (i.e. without loading the class), including those only
+ * appearing in generic signatures (e.g. the element type of a {@code List}). Classes outside of the directory (e.g. from dependencies) are not
+ * covered here.
+ */
+final class ClassFingerprints {
+
+    /**
+     * Type references within descriptors and signatures, e.g. {@code Lcom/example/Type;} or {@code Lcom/example/Generic<}.
+     */
+    private static final Pattern TYPE_REFERENCE = Pattern.compile("L([^;<>:\\[\\.]+)[;<]");
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final Path classesDirectory;
+    private final Map<String, byte[]> classFiles = new HashMap<>();
+    private final Map<String, Set<String>> referencedTypes = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param classesDirectory root directory of the compiled classes
+     */
+    ClassFingerprints(Path classesDirectory) {
+        this.classesDirectory = classesDirectory;
+    }
+
+    /**
+     * Calculate the fingerprint of the given class.
+     *
+     * @param internalName class name in its internal form (e.g. {@code com/example/Type})
+     * @return hex-encoded hash over the bytecode of the class and all (transitively) referenced classes from the same directory
+     * @throws IOException when failing to read any of the class files
+     */
+    String getFingerprint(String internalName) throws IOException {
+        Map<String, byte[]> closure = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(internalName);
+        while (!pending.isEmpty()) {
+            String typeName = pending.poll();
+            if (closure.containsKey(typeName)) {
+                continue;
+            }
+            byte[] classFile = this.readClassFile(typeName);
+            if (classFile.length > 0) {
+                closure.put(typeName, classFile);
+                pending.addAll(this.getReferencedTypes(typeName, classFile));
+            }
+        }
+        MessageDigest digest = ClassFingerprints.createDigest();
+        for (Map.Entry<String, byte[]> entry : closure.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update(entry.getValue());
+        }
+        return ClassFingerprints.toHex(digest.digest());
+    }
+
+    /**
+     * Read the class file for the given class (once).
+     *
+     * @param internalName class name in its internal form
+     * @return bytecode (empty if the class is not located in the classes directory)
+     * @throws IOException when failing to read the class file
+     */
+    private byte[] readClassFile(String internalName) throws IOException {
+        byte[] classFile = this.classFiles.get(internalName);
+        if (classFile == null) {
+            Path classFilePath = this.classesDirectory.resolve(internalName + ".class");
+            classFile = Files.isRegularFile(classFilePath) ? Files.readAllBytes(classFilePath) : new byte[0];
+            this.classFiles.put(internalName, classFile);
+        }
+        return classFile;
+    }
+
+    /**
+     * Look-up the types being referenced by the given class (once).
+     *
+     * @param internalName class name in its internal form
+     * @param classFile bytecode of the class
+     * @return internal names of referenced types
+     * @throws IOException when failing to parse the class file
+     */
+    private Set<String> getReferencedTypes(String internalName, byte[] classFile) throws IOException {
+        Set<String> result = this.referencedTypes.get(internalName);
+        if (result == null) {
+            result = ClassFingerprints.parseReferencedTypes(classFile);
+            this.referencedTypes.put(internalName, result);
+        }
+        return result;
+    }
+
+    /**
+     * Collect the types being referenced in the constant pool of the given class file.
+     *
+     * @param classFile bytecode to parse
+     * @return internal names of referenced types (may include names of classes that are not present in the classes directory)
+     * @throws IOException when failing to parse the class file
+     */
+    static Set<String> parseReferencedTypes(byte[] classFile) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(classFile));
+        // skip magic number, minor and major version
+        input.skipBytes(8);
+        int constantPoolCount = input.readUnsignedShort();
+        String[] utf8Constants = new String[constantPoolCount];
+        Set<Integer> classNameIndexes = new HashSet<>();
+        for (int index = 1; index < constantPoolCount; index++) {
+            int tag = input.readUnsignedByte();
+            if (tag == CONSTANT_UTF8) {
+                utf8Constants[index] = input.readUTF();
+            } else if (tag == CONSTANT_CLASS) {
+                classNameIndexes.add(input.readUnsignedShort());
+            } else if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+                // these occupy two entries in the constant pool
+                input.skipBytes(8);
+                index++;
+            } else {
+                input.skipBytes(ClassFingerprints.getConstantLength(tag));
+            }
+        }
+        Set<String> result = new HashSet<>();
+        for (int classNameIndex : classNameIndexes) {
+            String className = utf8Constants[classNameIndex];
+            if (className != null && className.charAt(0) != '[') {
+                result.add(className);
+            }
+        }
+        for (String constant : utf8Constants) {
+            if (constant != null) {
+                Matcher matcher = TYPE_REFERENCE.matcher(constant);
+                while (matcher.find()) {
+                    result.add(matcher.group(1));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determine the number of bytes of a (fixed-length) constant pool entry with the given tag.
+     *
+     * @param tag type of constant pool entry
+     * @return number of bytes following the tag
+     * @throws IOException in case of an unknown tag
+     */
+    private static int getConstantLength(int tag) throws IOException {
+        switch (tag) {
+        case CONSTANT_STRING:
+        case CONSTANT_METHOD_TYPE:
+        case CONSTANT_MODULE:
+        case CONSTANT_PACKAGE:
+            return 2;
+        case CONSTANT_METHOD_HANDLE:
+            return 3;
+        case CONSTANT_INTEGER:
+        case CONSTANT_FLOAT:
+        case CONSTANT_FIELD_REF:
+        case CONSTANT_METHOD_REF:
+        case CONSTANT_INTERFACE_METHOD_REF:
+        case CONSTANT_NAME_AND_TYPE:
+        case CONSTANT_DYNAMIC:
+        case CONSTANT_INVOKE_DYNAMIC:
+            return 4;
+        default:
+            throw new IOException("Unsupported constant pool tag: " + tag);
+        }
+    }
+
+    /**
+     * Create a hash over the given text.
+     *
+     * @param text content to hash
+     * @return hex-encoded hash
+     */
+    static String hash(String text) {
+        return ClassFingerprints.toHex(ClassFingerprints.createDigest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Create the message digest for calculating fingerprints.
+     *
+     * @return new digest instance
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // SHA-256 is required to be supported by every Java platform
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Convert the given bytes into a hexadecimal representation.
+     *
+     * @param bytes bytes to convert
+     * @return hex-encoded text
+     */
+    private static String toHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            result.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation.maven;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.victools.jsonschema.generator.SchemaGenerator;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
+import com.github.victools.jsonschema.generator.SchemaVersion;
+import com.github.victools.jsonschema.module.javax.validation.JavaxValidationModule;
+import com.github.victools.jsonschema.module.javax.validation.JavaxValidationModuleConfig;
+import com.github.victools.jsonschema.module.javax.validation.JavaxValidationOption;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generate a JSON Schema file for each top-level class in the configured packages, applying the {@link JavaxValidationModule}.
+ * <br>
+ * A fingerprint of each class (including all classes of the same project it references) and of the plugin configuration is being recorded. On
+ * subsequent builds, only those schemas are being regenerated whose fingerprint changed. Schemas of classes that no longer exist are removed.
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE,
+        threadSafe = true)
+public class GenerateSchemaMojo extends AbstractMojo {
+
+    /**
+     * Name of the file (in the schema directory) containing the fingerprints of the previous build.
+     */
+    static final String FINGERPRINTS_FILE = ".fingerprints.properties";
+    /**
+     * Key in the fingerprints file, under which the fingerprint of the plugin configuration is being stored.
+     */
+    static final String CONFIGURATION_KEY = "#configuration";
+    /**
+     * Suffix of each generated schema file, being appended to the fully qualified class name.
+     */
+    static final String SCHEMA_FILE_SUFFIX = ".schema.json";
+
+    /**
+     * The project being built.
+     */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    MavenProject project;
+
+    /**
+     * This plugin (incl. its resolved dependencies), whose version affects all generated schemas.
+     */
+    @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+    PluginDescriptor plugin;
+
+    /**
+     * Packages containing the classes to generate schemas for (including sub-packages).
+     */
+    @Parameter(required = true)
+    List<String> packageNames;
+
+    /**
+     * Directory containing the compiled classes.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    File classesDirectory;
+
+    /**
+     * Directory to write the schema files to.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/generated-schemas", required = true)
+    File schemaDirectory;
+
+    /**
+     * Version of the JSON Schema specification to generate schemas for.
+     */
+    @Parameter(defaultValue = "DRAFT_2019_09")
+    SchemaVersion schemaVersion;
+
+    /**
+     * Features of the {@link JavaxValidationModule} to enable.
+     */
+    @Parameter
+    List<JavaxValidationOption> options;
+
+    /**
+     * Fully qualified names of the validation groups to consider. If not specified, validation groups are being ignored.
+     *
+     * @see JavaxValidationModuleConfig.Builder#forValidationGroups(Class...)
+     */
+    @Parameter
+    List<String> validationGroups;
+
+    /**
+     * Flag for skipping the schema generation.
+     */
+    @Parameter(property = "jsonschema.skip", defaultValue = "false")
+    boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (this.skip) {
+            this.getLog().info("Skipping schema generation");
+            return;
+        }
+        try (URLClassLoader classLoader = this.createProjectClassLoader()) {
+            this.generateSchemas(classLoader);
+        } catch (IOException | ReflectiveOperationException | DependencyResolutionRequiredException ex) {
+            throw new MojoExecutionException("Failed to generate schemas", ex);
+        }
+    }
+
+    /**
+     * Generate the schemas for all classes in the configured packages, whose fingerprint changed since the previous build.
+     *
+     * @param classLoader class loader for the project classes
+     * @throws IOException when failing to read a class file or to write a schema file
+     * @throws ReflectiveOperationException when failing to load a class
+     * @throws DependencyResolutionRequiredException when the project's classpath is not available
+     */
+    private void generateSchemas(ClassLoader classLoader) throws IOException, ReflectiveOperationException,
+            DependencyResolutionRequiredException {
+        Path schemaPath = this.schemaDirectory.toPath();
+        Files.createDirectories(schemaPath);
+        Properties previousFingerprints = GenerateSchemaMojo.loadFingerprints(schemaPath.resolve(FINGERPRINTS_FILE));
+        Properties currentFingerprints = new Properties();
+        String configurationFingerprint = this.getConfigurationFingerprint();
+        currentFingerprints.setProperty(CONFIGURATION_KEY, configurationFingerprint);
+        boolean configurationChanged = !configurationFingerprint.equals(previousFingerprints.getProperty(CONFIGURATION_KEY));
+
+        ClassFingerprints classFingerprints = new ClassFingerprints(this.classesDirectory.toPath());
+        SchemaGenerator generator = null;
+        int generatedCount = 0;
+        for (String internalName : this.findRootTypes()) {
+            String className = internalName.replace('/', '.');
+            String fingerprint = classFingerprints.getFingerprint(internalName);
+            currentFingerprints.setProperty(className, fingerprint);
+            Path schemaFile = schemaPath.resolve(className + SCHEMA_FILE_SUFFIX);
+            if (!configurationChanged && fingerprint.equals(previousFingerprints.getProperty(className)) && Files.isRegularFile(schemaFile)) {
+                continue;
+            }
+            if (generator == null) {
+                generator = this.createSchemaGenerator(classLoader);
+            }
+            JsonNode schema = generator.generateSchema(classLoader.loadClass(className));
+            Files.write(schemaFile, schema.toPrettyString().getBytes(StandardCharsets.UTF_8));
+            generatedCount++;
+        }
+        int removedCount = 0;
+        for (String className : previousFingerprints.stringPropertyNames()) {
+            if (!currentFingerprints.containsKey(className) && Files.deleteIfExists(schemaPath.resolve(className + SCHEMA_FILE_SUFFIX))) {
+                removedCount++;
+            }
+        }
+        GenerateSchemaMojo.storeFingerprints(schemaPath.resolve(FINGERPRINTS_FILE), currentFingerprints);
+        this.getLog().info("Generated " + generatedCount + " schema(s), " + (currentFingerprints.size() - 1 - generatedCount)
+                + " up-to-date, " + removedCount + " removed");
+    }
+
+    /**
+     * Create the class loader for the project's classes and its compile-time dependencies. Classes available to this plugin (e.g. the
+     * {@code javax.validation} annotations) are being loaded via the plugin's own class loader, in order to be recognised by the module.
+     *
+     * @return created class loader
+     * @throws DependencyResolutionRequiredException when the project's classpath is not available
+     * @throws MalformedURLException when a classpath element cannot be converted into a URL
+     */
+    private URLClassLoader createProjectClassLoader() throws DependencyResolutionRequiredException, MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        urls.add(this.classesDirectory.toURI().toURL());
+        for (String classpathElement : this.project.getCompileClasspathElements()) {
+            urls.add(new File(classpathElement).toURI().toURL());
+        }
+        return new URLClassLoader(urls.toArray(new URL[0]), this.getClass().getClassLoader());
+    }
+
+    /**
+     * Create the schema generator, including the {@link JavaxValidationModule} as per the plugin configuration.
+     *
+     * @param classLoader class loader for the project classes (e.g. the validation groups)
+     * @return created schema generator
+     * @throws ClassNotFoundException when failing to load a configured validation group
+     */
+    private SchemaGenerator createSchemaGenerator(ClassLoader classLoader) throws ClassNotFoundException {
+        JavaxValidationModuleConfig.Builder moduleConfig = new JavaxValidationModuleConfig.Builder();
+        if (this.options != null) {
+            moduleConfig.with(this.options.toArray(new JavaxValidationOption[0]));
+        }
+        if (this.validationGroups != null) {
+            List<Class<?>> groups = new ArrayList<>();
+            for (String groupName : this.validationGroups) {
+                groups.add(classLoader.loadClass(groupName));
+            }
+            moduleConfig.forValidationGroups(groups.toArray(new Class<?>[0]));
+        }
+        return new SchemaGenerator(new SchemaGeneratorConfigBuilder(new ObjectMapper(), this.schemaVersion)
+                .with(new JavaxValidationModule(moduleConfig.build()))
+                .build());
+    }
+
+    /**
+     * Calculate the fingerprint of the plugin configuration and the project's dependencies, which affect all generated schemas alike.
+     *
+     * @return hex-encoded hash
+     * @throws DependencyResolutionRequiredException when the project's classpath is not available
+     */
+    private String getConfigurationFingerprint() throws DependencyResolutionRequiredException {
+        StringBuilder configuration = new StringBuilder()
+                .append("schemaVersion=").append(this.schemaVersion)
+                .append("\noptions=").append(this.options == null ? "" : new TreeSet<>(this.options))
+                .append("\nvalidationGroups=").append(this.validationGroups)
+                .append("\nplugin=").append(this.plugin.getId());
+        if (this.plugin.getArtifacts() != null) {
+            // the plugin's dependencies (e.g. the module and generator) may be overridden in the project's plugin declaration
+            this.plugin.getArtifacts().stream()
+                    .map(Artifact::getId)
+                    .sorted()
+                    .forEach(artifactId -> configuration.append("\nplugin-dependency=").append(artifactId));
+        }
+        String classesPath = this.classesDirectory.getAbsolutePath();
+        for (String classpathElement : this.project.getCompileClasspathElements()) {
+            File dependency = new File(classpathElement);
+            if (!classesPath.equals(dependency.getAbsolutePath())) {
+                configuration.append('\n').append(classpathElement)
+                        .append(':').append(dependency.length())
+                        .append(':').append(dependency.lastModified());
+            }
+        }
+        return ClassFingerprints.hash(configuration.toString());
+    }
+
+    /**
+     * Collect the top-level classes in the configured packages (and their sub-packages).
+     *
+     * @return internal class names (e.g. {@code com/example/Type})
+     * @throws IOException when failing to list the class files
+     */
+    private List<String> findRootTypes() throws IOException {
+        Path classesPath = this.classesDirectory.toPath();
+        TreeSet<String> result = new TreeSet<>();
+        for (String packageName : this.packageNames) {
+            Path packagePath = classesPath.resolve(packageName.replace('.', '/'));
+            if (!Files.isDirectory(packagePath)) {
+                this.getLog().warn("No classes found in package " + packageName);
+                continue;
+            }
+            try (Stream<Path> classFiles = Files.walk(packagePath)) {
+                result.addAll(classFiles
+                        .map(classFile -> classesPath.relativize(classFile).toString().replace(File.separatorChar, '/'))
+                        .filter(GenerateSchemaMojo::isTopLevelClassFile)
+                        .map(fileName -> fileName.substring(0, fileName.length() - ".class".length()))
+                        .collect(Collectors.toList()));
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Check whether the given file name refers to a top-level class (i.e. excluding nested/anonymous classes and package/module descriptors).
+     *
+     * @param fileName relative path of the file to check
+     * @return whether a schema should be generated for the class
+     */
+    static boolean isTopLevelClassFile(String fileName) {
+        return fileName.endsWith(".class") && fileName.indexOf('$') == -1 && !fileName.endsWith("package-info.class")
+                && !fileName.endsWith("module-info.class");
+    }
+
+    /**
+     * Load the fingerprints recorded during the previous build.
+     *
+     * @param fingerprintsFile file to load
+     * @return loaded fingerprints (empty if there was no previous build)
+     * @throws IOException when failing to read an existing file
+     */
+    private static Properties loadFingerprints(Path fingerprintsFile) throws IOException {
+        Properties fingerprints = new Properties();
+        if (Files.isRegularFile(fingerprintsFile)) {
+            try (InputStream input = Files.newInputStream(fingerprintsFile)) {
+                fingerprints.load(input);
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Record the fingerprints of the current build.
+     *
+     * @param fingerprintsFile file to write
+     * @param fingerprints fingerprints to record
+     * @throws IOException when failing to write the file
+     */
+    private static void storeFingerprints(Path fingerprintsFile, Properties fingerprints) throws IOException {
+        try (OutputStream output = Files.newOutputStream(fingerprintsFile)) {
+            fingerprints.store(output, "fingerprints of the classes the schemas were generated from");
+        }
+    }
+}
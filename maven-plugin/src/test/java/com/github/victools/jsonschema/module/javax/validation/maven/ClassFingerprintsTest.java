@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation.maven;
+
+import com.github.victools.jsonschema.module.javax.validation.maven.model.Address;
+import com.github.victools.jsonschema.module.javax.validation.maven.model.Person;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the {@link ClassFingerprints}.
+ */
+public class ClassFingerprintsTest {
+
+    private Path classesDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.classesDirectory = Files.createTempDirectory("class-fingerprints");
+        copyClassFile(Person.class, this.classesDirectory);
+        copyClassFile(Address.class, this.classesDirectory);
+    }
+
+    static void copyClassFile(Class<?> type, Path classesDirectory) throws IOException {
+        String internalName = type.getName().replace('.', '/');
+        Path target = classesDirectory.resolve(internalName + ".class");
+        Files.createDirectories(target.getParent());
+        try (InputStream classFile = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            Files.copy(classFile, target);
+        }
+    }
+
+    static void modifyClassFile(Class<?> type, Path classesDirectory) throws IOException {
+        Files.write(classesDirectory.resolve(type.getName().replace('.', '/') + ".class"), new byte[]{0}, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void testParseReferencedTypes() throws IOException {
+        byte[] classFile = Files.readAllBytes(this.classesDirectory.resolve("com/github/victools/jsonschema/module/javax/validation/maven/model/Person.class"));
+        Set<String> referencedTypes = ClassFingerprints.parseReferencedTypes(classFile);
+
+        Assert.assertTrue(referencedTypes.contains("com/github/victools/jsonschema/module/javax/validation/maven/model/Person"));
+        // only referenced in the generic signature of the "addresses" field
+        Assert.assertTrue(referencedTypes.contains("com/github/victools/jsonschema/module/javax/validation/maven/model/Address"));
+        Assert.assertTrue(referencedTypes.contains("java/util/List"));
+        Assert.assertTrue(referencedTypes.contains("javax/validation/constraints/NotNull"));
+    }
+
+    @Test
+    public void testFingerprintIsStable() throws IOException {
+        String personName = Person.class.getName().replace('.', '/');
+        Assert.assertEquals(new ClassFingerprints(this.classesDirectory).getFingerprint(personName),
+                new ClassFingerprints(this.classesDirectory).getFingerprint(personName));
+    }
+
+    @Test
+    public void testFingerprintCoversReferencedTypes() throws IOException {
+        String personName = Person.class.getName().replace('.', '/');
+        String addressName = Address.class.getName().replace('.', '/');
+        String personFingerprint = new ClassFingerprints(this.classesDirectory).getFingerprint(personName);
+        String addressFingerprint = new ClassFingerprints(this.classesDirectory).getFingerprint(addressName);
+
+        modifyClassFile(Address.class, this.classesDirectory);
+
+        Assert.assertNotEquals(personFingerprint, new ClassFingerprints(this.classesDirectory).getFingerprint(personName));
+        Assert.assertNotEquals(addressFingerprint, new ClassFingerprints(this.classesDirectory).getFingerprint(addressName));
+    }
+
+    @Test
+    public void testFingerprintIgnoresUnrelatedTypes() throws IOException {
+        String addressName = Address.class.getName().replace('.', '/');
+        String addressFingerprint = new ClassFingerprints(this.classesDirectory).getFingerprint(addressName);
+
+        modifyClassFile(Person.class, this.classesDirectory);
+
+        Assert.assertEquals(addressFingerprint, new ClassFingerprints(this.classesDirectory).getFingerprint(addressName));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation.maven;
+
+import com.github.victools.jsonschema.generator.SchemaVersion;
+import com.github.victools.jsonschema.module.javax.validation.JavaxValidationOption;
+import com.github.victools.jsonschema.module.javax.validation.maven.model.Address;
+import com.github.victools.jsonschema.module.javax.validation.maven.model.Person;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the {@link GenerateSchemaMojo}.
+ */
+public class GenerateSchemaMojoTest {
+
+    private static final FileTime MARKER_TIME = FileTime.fromMillis(0L);
+
+    private Path classesDirectory;
+    private Path schemaDirectory;
+    private GenerateSchemaMojo mojo;
+
+    @Before
+    public void setUp() throws IOException {
+        this.classesDirectory = Files.createTempDirectory("classes");
+        this.schemaDirectory = Files.createTempDirectory("schemas");
+        ClassFingerprintsTest.copyClassFile(Person.class, this.classesDirectory);
+        ClassFingerprintsTest.copyClassFile(Address.class, this.classesDirectory);
+
+        this.mojo = new GenerateSchemaMojo();
+        this.mojo.project = new MavenProject() {
+            @Override
+            public List<String> getCompileClasspathElements() {
+                return Collections.emptyList();
+            }
+        };
+        this.mojo.plugin = new PluginDescriptor();
+        this.mojo.plugin.setGroupId("com.github.victools");
+        this.mojo.plugin.setArtifactId("jsonschema-module-javax-validation-maven-plugin");
+        this.mojo.plugin.setVersion("4.7.0");
+        this.mojo.packageNames = Collections.singletonList(Person.class.getPackage().getName());
+        this.mojo.classesDirectory = this.classesDirectory.toFile();
+        this.mojo.schemaDirectory = this.schemaDirectory.toFile();
+        this.mojo.schemaVersion = SchemaVersion.DRAFT_2019_09;
+        this.mojo.options = Collections.singletonList(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED);
+    }
+
+    private Path getSchemaFile(Class<?> type) {
+        return this.schemaDirectory.resolve(type.getName() + GenerateSchemaMojo.SCHEMA_FILE_SUFFIX);
+    }
+
+    /**
+     * Mark the existing schema files, in order to detect whether they are being overwritten.
+     */
+    private void markSchemaFiles() throws IOException {
+        Files.setLastModifiedTime(this.getSchemaFile(Person.class), MARKER_TIME);
+        Files.setLastModifiedTime(this.getSchemaFile(Address.class), MARKER_TIME);
+    }
+
+    private boolean isRegenerated(Class<?> type) throws IOException {
+        return !MARKER_TIME.equals(Files.getLastModifiedTime(this.getSchemaFile(type)));
+    }
+
+    @Test
+    public void testInitialGeneration() throws Exception {
+        this.mojo.execute();
+
+        String personSchema = new String(Files.readAllBytes(this.getSchemaFile(Person.class)), StandardCharsets.UTF_8);
+        Assert.assertTrue(personSchema.contains("\"required\""));
+        Assert.assertTrue(personSchema.contains("\"maxLength\" : 50"));
+        Assert.assertTrue(Files.isRegularFile(this.getSchemaFile(Address.class)));
+        Assert.assertTrue(Files.isRegularFile(this.schemaDirectory.resolve(GenerateSchemaMojo.FINGERPRINTS_FILE)));
+    }
+
+    @Test
+    public void testUnchangedClassesAreSkipped() throws Exception {
+        this.mojo.execute();
+        this.markSchemaFiles();
+
+        this.mojo.execute();
+
+        Assert.assertFalse(this.isRegenerated(Person.class));
+        Assert.assertFalse(this.isRegenerated(Address.class));
+    }
+
+    @Test
+    public void testChangedClassesAreRegenerated() throws Exception {
+        this.mojo.execute();
+        this.markSchemaFiles();
+
+        ClassFingerprintsTest.modifyClassFile(Person.class, this.classesDirectory);
+        this.mojo.execute();
+        Assert.assertTrue(this.isRegenerated(Person.class));
+        Assert.assertFalse(this.isRegenerated(Address.class));
+
+        this.markSchemaFiles();
+        ClassFingerprintsTest.modifyClassFile(Address.class, this.classesDirectory);
+        this.mojo.execute();
+        // the "Person" schema includes the "Address" as well
+        Assert.assertTrue(this.isRegenerated(Person.class));
+        Assert.assertTrue(this.isRegenerated(Address.class));
+    }
+
+    @Test
+    public void testChangedConfigurationRegeneratesAll() throws Exception {
+        this.mojo.execute();
+        this.markSchemaFiles();
+
+        this.mojo.validationGroups = Collections.singletonList(Test.class.getName());
+        this.mojo.execute();
+
+        Assert.assertTrue(this.isRegenerated(Person.class));
+        Assert.assertTrue(this.isRegenerated(Address.class));
+    }
+
+    @Test
+    public void testChangedPluginVersionRegeneratesAll() throws Exception {
+        this.mojo.execute();
+        this.markSchemaFiles();
+
+        this.mojo.plugin.setVersion("4.8.0");
+        this.mojo.execute();
+
+        Assert.assertTrue(this.isRegenerated(Person.class));
+        Assert.assertTrue(this.isRegenerated(Address.class));
+    }
+
+    @Test
+    public void testRemovedClassesAreCleanedUp() throws Exception {
+        this.mojo.execute();
+
+        Files.delete(this.classesDirectory.resolve(Address.class.getName().replace('.', '/') + ".class"));
+        this.mojo.execute();
+
+        Assert.assertTrue(Files.isRegularFile(this.getSchemaFile(Person.class)));
+        Assert.assertFalse(Files.exists(this.getSchemaFile(Address.class)));
+    }
+
+    @Test
+    public void testIsTopLevelClassFile() {
+        Assert.assertTrue(GenerateSchemaMojo.isTopLevelClassFile("com/example/Type.class"));
+        Assert.assertFalse(GenerateSchemaMojo.isTopLevelClassFile("com/example/Type$Nested.class"));
+        Assert.assertFalse(GenerateSchemaMojo.isTopLevelClassFile("com/example/package-info.class"));
+        Assert.assertFalse(GenerateSchemaMojo.isTopLevelClassFile("com/example/Type.constraints"));
+    }
+}
@@ -0,0 +1,667 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.validation.constraints.NotNull;
+import javax.validation.metadata.ConstraintDescriptor;
+
+/**
+ * Index of the {@code javax.validation.constraints} annotations declared on the fields and methods of a single class.
+ * <br>
+ * Each class is only being scanned once (on first access) and the result is kept in a {@link ClassValue}, i.e. subsequent look-ups are lock-free
+ * and shared between all module instances and threads.
+ * <br>
+ * Classes of the bootstrap and platform class loaders (e.g. {@code java.time.*} or {@code java.util.*}) are never being scanned: they carry no
+ * constraint annotations and a {@link ClassValue} entry on them would never be released, thereby preventing this module's class loader from being
+ * unloaded (JDK-8136353).
+ */
+final class ClassConstraintIndex {
+
+    /**
+     * Name of the package containing all standard constraint annotations.
+     */
+    private static final String CONSTRAINTS_PACKAGE = NotNull.class.getPackage().getName();
+    /**
+     * Parent of the system class loader, i.e. the platform class loader (or the extension class loader before Java 9).
+     */
+    private static final ClassLoader PLATFORM_CLASS_LOADER = ClassConstraintIndex.findPlatformClassLoader();
+    /**
+     * Index without any constraints, being returned for all classes of the bootstrap and platform class loaders.
+     */
+    private static final ClassConstraintIndex EMPTY = new ClassConstraintIndex();
+
+    /**
+     * Lazily populated indexes per declaring class.
+     */
+    private static final ClassValue<ClassConstraintIndex> INDEX = new ClassValue<ClassConstraintIndex>() {
+        @Override
+        protected ClassConstraintIndex computeValue(Class<?> declaringClass) {
+            ScanRequest request = SCAN_REQUEST.get();
+            if (request == null) {
+                return new ClassConstraintIndex(declaringClass);
+            }
+            request.scanned = true;
+            Object event = request.eventEmitter == null ? null : request.eventEmitter.beginClassScan();
+            ClassConstraintIndex index = new ClassConstraintIndex(declaringClass);
+            if (event != null) {
+                request.eventEmitter.commitClassScan(event, declaringClass.getName(), index.constraintsByMember.size(), index.getConstraintNames());
+            }
+            return index;
+        }
+    };
+
+    /**
+     * The calling module's emitter of class scan events and metrics listener, only being set for the duration of a single
+     * {@link #of(Class, ResolutionEventEmitter, JavaxValidationMetricsListener)} call on the current thread (as the {@link ClassValue} offers no
+     * other way of passing them to {@link ClassValue#computeValue(Class)}).
+     */
+    private static final ThreadLocal<ScanRequest> SCAN_REQUEST = new ThreadLocal<>();
+
+    /**
+     * Look-up the index for the given declaring class.
+     *
+     * @param declaringClass class declaring the fields/methods to look-up constraints for
+     * @return index for the given class
+     */
+    static ClassConstraintIndex of(Class<?> declaringClass) {
+        return ClassConstraintIndex.isPlatformClass(declaringClass) ? EMPTY : INDEX.get(declaringClass);
+    }
+
+    /**
+     * Look-up the index for the given declaring class, reporting it to the given emitter if the class is being scanned as part of this call.
+     *
+     * @param declaringClass class declaring the fields/methods to look-up constraints for
+     * @param eventEmitter emitter of the calling module's class scan events ({@code null} if no events should be emitted)
+     * @param listener the calling module's metrics listener, being notified about the access to this and the {@link ComposedConstraint} cache
+     *        ({@code null} if no metrics should be collected)
+     * @return index for the given class
+     */
+    static ClassConstraintIndex of(Class<?> declaringClass, ResolutionEventEmitter eventEmitter, JavaxValidationMetricsListener listener) {
+        if (eventEmitter == null && listener == null || ClassConstraintIndex.isPlatformClass(declaringClass)) {
+            ClassConstraintIndex index = ClassConstraintIndex.of(declaringClass);
+            if (listener != null) {
+                listener.onCacheAccess(JavaxValidationMetricsListener.Cache.CLASS_INDEXES, true);
+            }
+            return index;
+        }
+        ScanRequest request = new ScanRequest(eventEmitter, listener);
+        ClassConstraintIndex index;
+        SCAN_REQUEST.set(request);
+        try {
+            index = INDEX.get(declaringClass);
+        } finally {
+            SCAN_REQUEST.remove();
+        }
+        if (listener != null) {
+            listener.onCacheAccess(JavaxValidationMetricsListener.Cache.CLASS_INDEXES, !request.scanned);
+        }
+        return index;
+    }
+
+    /**
+     * Determine whether the given class was loaded by the bootstrap or platform class loader (e.g. {@link String} or
+     * {@link java.time.LocalDate}), i.e. whether it outlives any other class loader.
+     *
+     * @param type class to check
+     * @return whether the given class is part of the JDK
+     */
+    static boolean isPlatformClass(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        return classLoader == null || classLoader == PLATFORM_CLASS_LOADER;
+    }
+
+    /**
+     * Look-up the parent of the system class loader.
+     *
+     * @return platform (or extension) class loader, {@code null} if it cannot be determined
+     */
+    private static ClassLoader findPlatformClassLoader() {
+        try {
+            ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+            return systemClassLoader == null ? null : systemClassLoader.getParent();
+        } catch (SecurityException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Determine whether the given type of annotation is being covered by this index.
+     *
+     * @param annotationClass type of annotation
+     * @return whether the given annotation type is a standard constraint
+     */
+    static boolean isIndexed(Class<? extends Annotation> annotationClass) {
+        String className = annotationClass.getName();
+        return className.lastIndexOf('.') == CONSTRAINTS_PACKAGE.length() && className.startsWith(CONSTRAINTS_PACKAGE);
+    }
+
+    /**
+     * Look-up the constraint annotation of the given type on the given field or method.
+     *
+     * @param <A> type of annotation
+     * @param member field or method to look-up constraint for
+     * @param annotationClass type of annotation (expected to be one of the standard constraints)
+     * @return annotation instance (or {@code null})
+     * @see #isIndexed(Class)
+     */
+    static <A extends Annotation> A getConstraint(Member member, Class<A> annotationClass) {
+        IndexedConstraint constraint = ClassConstraintIndex.getIndexedConstraint(member, annotationClass);
+        return constraint == null ? null : annotationClass.cast(constraint.getAnnotation());
+    }
+
+    /**
+     * Look-up the constraint annotation of the given type on the given field or method, together with its pre-computed validation groups.
+     *
+     * @param member field or method to look-up constraint for
+     * @param annotationClass type of annotation (expected to be one of the standard constraints)
+     * @return indexed constraint (or {@code null})
+     * @see #isIndexed(Class)
+     */
+    static IndexedConstraint getIndexedConstraint(Member member, Class<? extends Annotation> annotationClass) {
+        return ClassConstraintIndex.of(member.getDeclaringClass()).getDeclaredConstraints(member).get(annotationClass);
+    }
+
+    /**
+     * Look-up the constraint annotation of the given type on the container element type of the given field or method, e.g. the {@code @Size} in
+     * {@code List<@Size(max = 64) String>}, together with its pre-computed validation groups.
+     *
+     * @param member field or method to look-up constraint for
+     * @param annotationClass type of annotation (expected to be one of the standard constraints)
+     * @return indexed constraint (or {@code null})
+     * @see #isIndexed(Class)
+     */
+    static IndexedConstraint getIndexedContainerElementConstraint(Member member, Class<? extends Annotation> annotationClass) {
+        return ClassConstraintIndex.of(member.getDeclaringClass()).getContainerElement(member).getConstraints().get(annotationClass);
+    }
+
+    private final Map<Member, DeclaredConstraints> constraintsByMember;
+    /**
+     * Lazily parsed container element types per field or method, only being populated for the members appearing as containers.
+     */
+    private final ConcurrentMap<Member, ContainerElement> containerElementsByMember = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor: for an index without any constraints.
+     */
+    private ClassConstraintIndex() {
+        this.constraintsByMember = Collections.emptyMap();
+    }
+
+    /**
+     * Constructor: scanning the declared fields and methods of the given class. If a {@link PrecomputedConstraintIndex} is available for the
+     * class, only the annotations of the members listed in it are being inspected.
+     *
+     * @param declaringClass class to scan
+     */
+    private ClassConstraintIndex(Class<?> declaringClass) {
+        PrecomputedConstraintIndex precomputedIndex = PrecomputedConstraintIndex.load(declaringClass);
+        Map<Member, DeclaredConstraints> constraints = new HashMap<>();
+        for (Field field : declaringClass.getDeclaredFields()) {
+            if (precomputedIndex == null || precomputedIndex.isConstrainedField(field.getName())) {
+                ClassConstraintIndex.collectDeclaredConstraints(field, constraints);
+            }
+        }
+        for (Method method : declaringClass.getDeclaredMethods()) {
+            if (precomputedIndex == null || precomputedIndex.isConstrainedMethod(method.getName())) {
+                ClassConstraintIndex.collectDeclaredConstraints(method, constraints);
+            }
+        }
+        this.constraintsByMember = constraints.isEmpty() ? Collections.emptyMap() : constraints;
+    }
+
+    /**
+     * Add the given field's or method's constraints to the given map, if there are any.
+     *
+     * @param <M> type of member (i.e. field or method)
+     * @param member field or method to collect constraints for
+     * @param constraints map to add the member's constraints to
+     */
+    private static <M extends AccessibleObject & Member> void collectDeclaredConstraints(M member, Map<Member, DeclaredConstraints> constraints) {
+        DeclaredConstraints memberConstraints = DeclaredConstraints.of(member.getDeclaredAnnotations());
+        if (!memberConstraints.isEmpty()) {
+            constraints.put(member, memberConstraints);
+        }
+    }
+
+    /**
+     * Collect the names of the distinct constraint annotations declared in this index's class.
+     *
+     * @return comma-separated annotation names
+     */
+    private String getConstraintNames() {
+        Set<String> constraintNames = new TreeSet<>();
+        this.constraintsByMember.values().forEach(memberConstraints -> memberConstraints.collectNames(constraintNames));
+        return String.join(", ", constraintNames);
+    }
+
+    /**
+     * Look-up the constraints declared on the given field or method.
+     *
+     * @param member field or method declared by this index's class
+     * @return declared constraints (may be empty, but never {@code null})
+     */
+    DeclaredConstraints getDeclaredConstraints(Member member) {
+        return this.constraintsByMember.getOrDefault(member, DeclaredConstraints.NONE);
+    }
+
+    /**
+     * Look-up the (type-use) annotations on the container element type of the given field or method.
+     *
+     * @param member field or method declared by this index's class
+     * @return container element (never {@code null})
+     */
+    ContainerElement getContainerElement(Member member) {
+        if (this == EMPTY) {
+            // JDK classes carry no constraint annotations on their container element types either
+            return ContainerElement.NONE;
+        }
+        return this.containerElementsByMember.computeIfAbsent(member, ContainerElement::of);
+    }
+
+    /**
+     * Annotated element type of an {@link Iterable} (e.g. a {@link java.util.List} or {@link java.util.Set}) declared as field type or
+     * method return type, together with the standard constraints declared on it.
+     */
+    static final class ContainerElement {
+
+        /**
+         * Representation of a field or method without (annotated) container element type.
+         */
+        static final ContainerElement NONE = new ContainerElement(null, DeclaredConstraints.NONE);
+
+        /**
+         * Parse the annotated type of the given field or method.
+         *
+         * @param member field or method to look-up the container element type for
+         * @return container element
+         */
+        static ContainerElement of(Member member) {
+            AnnotatedType containerType;
+            if (member instanceof Field) {
+                containerType = ((Field) member).getAnnotatedType();
+            } else if (member instanceof Method) {
+                containerType = ((Method) member).getAnnotatedReturnType();
+            } else {
+                return NONE;
+            }
+            AnnotatedType elementType = ContainerElement.getElementType(containerType);
+            if (elementType == null || elementType.getDeclaredAnnotations().length == 0) {
+                return NONE;
+            }
+            return new ContainerElement(elementType, DeclaredConstraints.of(elementType.getDeclaredAnnotations()));
+        }
+
+        /**
+         * Determine the element type of the given {@link Iterable} type.
+         * <br>
+         * Arrays are deliberately not being considered: a constraint in front of an array field (e.g. {@code @Size String[]}) is a declaration
+         * annotation on the field and at the same time a type-use annotation on the component type, i.e. it would be applied to both.
+         *
+         * @param containerType annotated parameterized type
+         * @return annotated element type (or {@code null} if the given type is not a parameterized {@link Iterable})
+         */
+        private static AnnotatedType getElementType(AnnotatedType containerType) {
+            if (containerType instanceof AnnotatedParameterizedType) {
+                AnnotatedType[] typeArguments = ((AnnotatedParameterizedType) containerType).getAnnotatedActualTypeArguments();
+                Type rawType = ((ParameterizedType) containerType.getType()).getRawType();
+                if (typeArguments.length == 1 && rawType instanceof Class && Iterable.class.isAssignableFrom((Class<?>) rawType)) {
+                    return typeArguments[0];
+                }
+            }
+            return null;
+        }
+
+        private final AnnotatedType elementType;
+        private final DeclaredConstraints constraints;
+
+        /**
+         * Constructor.
+         *
+         * @param elementType annotated container element type
+         * @param constraints standard constraints declared on the container element type
+         */
+        private ContainerElement(AnnotatedType elementType, DeclaredConstraints constraints) {
+            this.elementType = elementType;
+            this.constraints = constraints;
+        }
+
+        /**
+         * Look-up an annotation of the given type on the container element type (e.g. a non-standard constraint).
+         *
+         * @param <A> type of annotation
+         * @param annotationClass type of annotation
+         * @return annotation instance (or {@code null})
+         */
+        <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            return this.elementType == null ? null : this.elementType.getAnnotation(annotationClass);
+        }
+
+        /**
+         * Getter for all annotations declared on the container element type (e.g. custom constraints).
+         *
+         * @return declared annotations (may be empty, but never {@code null})
+         */
+        Annotation[] getDeclaredAnnotations() {
+            return this.elementType == null ? new Annotation[0] : this.elementType.getDeclaredAnnotations();
+        }
+
+        /**
+         * Getter for the standard constraints declared on the container element type.
+         *
+         * @return declared constraints (may be empty, but never {@code null})
+         */
+        DeclaredConstraints getConstraints() {
+            return this.constraints;
+        }
+    }
+
+    /**
+     * Collection of the constraint annotations declared on a single field or method.
+     */
+    static final class DeclaredConstraints {
+
+        /**
+         * Representation of a field or method without any constraints.
+         */
+        static final DeclaredConstraints NONE = new DeclaredConstraints(Collections.emptyMap(), new IndexedConstraint[0]);
+
+        /**
+         * Filter the given annotations, only retaining constraint annotations. Custom constraints composed of standard constraints are being
+         * expanded, with a standard constraint being declared directly taking precedence over one of the same type from a composition. The custom
+         * constraints themselves are being retained as well (e.g. to be dispatched to a {@link ConstraintMapper}).
+         *
+         * @param annotations all annotations declared on a field or method
+         * @return collected constraints
+         * @see AccessibleObject#getDeclaredAnnotations()
+         * @see ComposedConstraint
+         */
+        static DeclaredConstraints of(Annotation[] annotations) {
+            Map<Class<? extends Annotation>, IndexedConstraint> constraints = new HashMap<>();
+            List<IndexedConstraint> customConstraints = new ArrayList<>();
+            for (Annotation annotation : annotations) {
+                if (ClassConstraintIndex.isIndexed(annotation.annotationType())) {
+                    constraints.put(annotation.annotationType(), new IndexedConstraint(annotation));
+                    continue;
+                }
+                ComposedConstraint composition = ComposedConstraint.of(annotation.annotationType(), ScanRequest.getCurrentListener());
+                if (!composition.isConstraint()) {
+                    continue;
+                }
+                customConstraints.add(new IndexedConstraint(annotation));
+                for (Annotation composingConstraint : composition.expand(annotation)) {
+                    // the composing constraints inherit the validation groups of the composed constraint
+                    constraints.putIfAbsent(composingConstraint.annotationType(), new IndexedConstraint(composingConstraint, annotation));
+                }
+            }
+            if (constraints.isEmpty() && customConstraints.isEmpty()) {
+                return NONE;
+            }
+            return new DeclaredConstraints(constraints, customConstraints.toArray(new IndexedConstraint[0]));
+        }
+
+        /**
+         * Filter the given constraint metadata (e.g. as provided by a {@link javax.validation.Validator}), only retaining standard constraints.
+         * The standard constraints a custom constraint is composed of are being included as well, with a standard constraint being declared
+         * directly taking precedence over one of the same type from a composition.
+         *
+         * @param descriptors constraint metadata of a single field, method or container element
+         * @return collected constraints
+         */
+        static DeclaredConstraints of(Collection<? extends ConstraintDescriptor<?>> descriptors) {
+            Map<Class<? extends Annotation>, IndexedConstraint> constraints = new HashMap<>();
+            for (ConstraintDescriptor<?> descriptor : descriptors) {
+                Annotation annotation = descriptor.getAnnotation();
+                if (ClassConstraintIndex.isIndexed(annotation.annotationType())) {
+                    constraints.put(annotation.annotationType(), new IndexedConstraint(annotation, descriptor.getGroups()));
+                }
+            }
+            for (ConstraintDescriptor<?> descriptor : descriptors) {
+                if (!ClassConstraintIndex.isIndexed(descriptor.getAnnotation().annotationType())) {
+                    DeclaredConstraints.of(descriptor.getComposingConstraints()).constraints.forEach(constraints::putIfAbsent);
+                }
+            }
+            return constraints.isEmpty() ? NONE : new DeclaredConstraints(constraints, NONE.customConstraints);
+        }
+
+        private final Map<Class<? extends Annotation>, IndexedConstraint> constraints;
+        /**
+         * The values of the {@link #constraints} map, for iterating over them without creating an iterator.
+         */
+        private final IndexedConstraint[] constraintArray;
+        /**
+         * The declared custom constraints (i.e. those annotated with {@link javax.validation.Constraint}), in the order of their declaration.
+         */
+        private final IndexedConstraint[] customConstraints;
+
+        /**
+         * Constructor.
+         *
+         * @param constraints standard constraint annotations by their respective type
+         * @param customConstraints declared custom constraint annotations
+         */
+        private DeclaredConstraints(Map<Class<? extends Annotation>, IndexedConstraint> constraints, IndexedConstraint[] customConstraints) {
+            this.constraints = constraints;
+            this.constraintArray = constraints.values().toArray(new IndexedConstraint[0]);
+            this.customConstraints = customConstraints;
+        }
+
+        /**
+         * Check whether there are no constraints declared.
+         *
+         * @return whether no (standard or custom) constraints are present
+         */
+        boolean isEmpty() {
+            return this.constraints.isEmpty() && this.customConstraints.length == 0;
+        }
+
+        /**
+         * Add the (simple) names of the declared constraint annotations to the given collection.
+         *
+         * @param constraintNames collection to add to
+         */
+        void collectNames(Collection<String> constraintNames) {
+            this.constraints.keySet().forEach(annotationType -> constraintNames.add(annotationType.getSimpleName()));
+        }
+
+        /**
+         * Getter for all declared constraints.
+         *
+         * @return declared constraints (must not be modified; of length zero if there are none)
+         * @see ConstraintSlots#visit(DeclaredConstraints)
+         */
+        IndexedConstraint[] getConstraints() {
+            return this.constraintArray;
+        }
+
+        /**
+         * Getter for the declared custom constraints (i.e. those annotated with {@link javax.validation.Constraint}).
+         *
+         * @return declared custom constraints (must not be modified; of length zero if there are none)
+         */
+        IndexedConstraint[] getCustomConstraints() {
+            return this.customConstraints;
+        }
+
+        /**
+         * Look-up the constraint of the given type.
+         *
+         * @param annotationClass type of annotation
+         * @return indexed constraint (or {@code null})
+         */
+        IndexedConstraint get(Class<? extends Annotation> annotationClass) {
+            return this.constraints.get(annotationClass);
+        }
+    }
+
+    /**
+     * Single constraint annotation, with its declared validation groups being converted into a bitset once.
+     */
+    static final class IndexedConstraint {
+
+        /**
+         * The {@code groups()} attribute per annotation type (or {@code null} if there is no such attribute).
+         */
+        private static final ClassValue<Method> GROUPS_ATTRIBUTE = new ClassValue<Method>() {
+            @Override
+            protected Method computeValue(Class<?> annotationType) {
+                try {
+                    Method groupsAttribute = annotationType.getMethod("groups");
+                    return groupsAttribute.getReturnType() == Class[].class ? groupsAttribute : null;
+                } catch (NoSuchMethodException ex) {
+                    return null;
+                }
+            }
+        };
+
+        private final Annotation annotation;
+        private final long[] groupMask;
+        private final int slot;
+
+        /**
+         * Constructor.
+         *
+         * @param annotation constraint annotation
+         */
+        IndexedConstraint(Annotation annotation) {
+            this(annotation, annotation);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param annotation constraint annotation
+         * @param groupsSource annotation declaring the applicable validation groups (e.g. the composed constraint a constraint is part of)
+         */
+        IndexedConstraint(Annotation annotation, Annotation groupsSource) {
+            this.annotation = annotation;
+            this.groupMask = ValidationGroupMatcher.toGroupMask(IndexedConstraint.lookUpGroups(groupsSource));
+            this.slot = ConstraintSlots.slotOf(annotation.annotationType());
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param annotation constraint annotation
+         * @param groups applicable validation groups (e.g. as determined by a {@link javax.validation.Validator})
+         */
+        IndexedConstraint(Annotation annotation, Set<Class<?>> groups) {
+            this.annotation = annotation;
+            this.groupMask = ValidationGroupMatcher.toGroupMask(groups.toArray(new Class<?>[0]));
+            this.slot = ConstraintSlots.slotOf(annotation.annotationType());
+        }
+
+        /**
+         * Look-up the validation groups declared on the given annotation.
+         *
+         * @param annotation constraint annotation
+         * @return declared validation groups (or {@code null})
+         */
+        private static Class<?>[] lookUpGroups(Annotation annotation) {
+            Method groupsAttribute = GROUPS_ATTRIBUTE.get(annotation.annotationType());
+            if (groupsAttribute == null) {
+                return null;
+            }
+            try {
+                return (Class<?>[]) groupsAttribute.invoke(annotation);
+            } catch (ReflectiveOperationException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * Getter for the constraint annotation.
+         *
+         * @return annotation instance
+         */
+        Annotation getAnnotation() {
+            return this.annotation;
+        }
+
+        /**
+         * Getter for the bitset representing the annotation's declared validation groups.
+         *
+         * @return group bitset (of length zero if no groups were declared)
+         * @see ValidationGroupMatcher#isApplicable(long[])
+         */
+        long[] getGroupMask() {
+            return this.groupMask;
+        }
+
+        /**
+         * Getter for the slot this constraint is being collected in, when creating a field's/method's constraint profile.
+         *
+         * @return slot index (or {@link ConstraintSlots#NONE} if the constraint type is not being considered)
+         */
+        int getSlot() {
+            return this.slot;
+        }
+    }
+
+    /**
+     * The parameters of a single {@link #of(Class, ResolutionEventEmitter, JavaxValidationMetricsListener)} call, being handed over to the
+     * scan of the class (if it has not been scanned before).
+     */
+    private static final class ScanRequest {
+
+        final ResolutionEventEmitter eventEmitter;
+        final JavaxValidationMetricsListener listener;
+        /**
+         * Flag indicating whether the class has been scanned as part of this request, i.e. the index was not cached yet.
+         */
+        boolean scanned;
+
+        /**
+         * Constructor.
+         *
+         * @param eventEmitter emitter of class scan events (may be {@code null})
+         * @param listener metrics listener (may be {@code null})
+         */
+        ScanRequest(ResolutionEventEmitter eventEmitter, JavaxValidationMetricsListener listener) {
+            this.eventEmitter = eventEmitter;
+            this.listener = listener;
+        }
+
+        /**
+         * Look-up the metrics listener of the class scan currently being performed on this thread.
+         *
+         * @return metrics listener ({@code null} if there is none or no class scan is being performed)
+         */
+        static JavaxValidationMetricsListener getCurrentListener() {
+            ScanRequest request = SCAN_REQUEST.get();
+            return request == null ? null : request.listener;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.validation.Constraint;
+import javax.validation.OverridesAttribute;
+import javax.validation.ReportAsSingleViolation;
+
+/**
+ * Expansion of a custom constraint annotation (i.e. one being annotated with {@link Constraint}) into the standard constraints it is composed of.
+ * <br>
+ * The composing standard constraints are being collected recursively, once per annotation type, and kept in a {@link ClassValue}. Expanding an
+ * annotation instance thereby only requires one look-up, unless the custom annotation declares {@link OverridesAttribute} attributes: then the
+ * respective values of the instance are being applied to the constraints declared on it, before expanding those in turn.
+ * <br>
+ * A {@link ReportAsSingleViolation} annotation only affects the reporting of violations, i.e. all composing constraints are still considered.
+ */
+final class ComposedConstraint {
+
+    /**
+     * Representation of an annotation type that is not a constraint annotation.
+     */
+    private static final ComposedConstraint NONE = new ComposedConstraint(Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList());
+    /**
+     * Representation of a custom constraint annotation type that is not composed of any standard constraints.
+     */
+    private static final ComposedConstraint NOT_COMPOSED = new ComposedConstraint(Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList());
+
+    private static final ClassValue<ComposedConstraint> COMPOSITIONS = new ClassValue<ComposedConstraint>() {
+        @Override
+        protected ComposedConstraint computeValue(Class<?> annotationType) {
+            boolean[] expanded = EXPANDED.get();
+            if (expanded != null) {
+                expanded[0] = true;
+            }
+            return ComposedConstraint.expandType(annotationType);
+        }
+    };
+
+    /**
+     * Flag being set when the composition of an annotation type is being collected as part of a single
+     * {@link #of(Class, JavaxValidationMetricsListener)} call on the current thread.
+     */
+    private static final ThreadLocal<boolean[]> EXPANDED = new ThreadLocal<>();
+
+    /**
+     * Look-up the (cached) composition of the given annotation type.
+     *
+     * @param annotationType type of annotation
+     * @return composition (without any constraints if the given annotation is not a composed constraint)
+     */
+    static ComposedConstraint of(Class<? extends Annotation> annotationType) {
+        return COMPOSITIONS.get(annotationType);
+    }
+
+    /**
+     * Look-up the (cached) composition of the given annotation type, notifying the given listener whether it was cached already.
+     *
+     * @param annotationType type of annotation
+     * @param listener metrics listener to notify ({@code null} if no metrics should be collected)
+     * @return composition (without any constraints if the given annotation is not a composed constraint)
+     */
+    static ComposedConstraint of(Class<? extends Annotation> annotationType, JavaxValidationMetricsListener listener) {
+        if (listener == null) {
+            return COMPOSITIONS.get(annotationType);
+        }
+        boolean[] expanded = new boolean[1];
+        ComposedConstraint composition;
+        EXPANDED.set(expanded);
+        try {
+            composition = COMPOSITIONS.get(annotationType);
+        } finally {
+            EXPANDED.remove();
+        }
+        listener.onCacheAccess(JavaxValidationMetricsListener.Cache.COMPOSED_CONSTRAINTS, !expanded[0]);
+        return composition;
+    }
+
+    /**
+     * Collect the constraints being declared on the given annotation type (incl. the standard constraints they are composed of) and its
+     * overridden attributes.
+     *
+     * @param annotationType type of annotation
+     * @return composition
+     */
+    private static ComposedConstraint expandType(Class<?> annotationType) {
+        if (!annotationType.isAnnotationPresent(Constraint.class)) {
+            return NONE;
+        }
+        List<Annotation> declaredConstraints = new ArrayList<>();
+        List<Annotation> composingConstraints = new ArrayList<>();
+        for (Annotation metaAnnotation : annotationType.getDeclaredAnnotations()) {
+            Class<? extends Annotation> metaAnnotationType = metaAnnotation.annotationType();
+            if (ClassConstraintIndex.isIndexed(metaAnnotationType)) {
+                declaredConstraints.add(metaAnnotation);
+                composingConstraints.add(metaAnnotation);
+            } else if (metaAnnotationType != annotationType && metaAnnotationType.isAnnotationPresent(Constraint.class)) {
+                declaredConstraints.add(metaAnnotation);
+                composingConstraints.addAll(ComposedConstraint.of(metaAnnotationType).expand(metaAnnotation));
+            }
+        }
+        if (composingConstraints.isEmpty()) {
+            return NOT_COMPOSED;
+        }
+        List<AttributeOverride> overrides = new ArrayList<>();
+        for (Method attribute : annotationType.getDeclaredMethods()) {
+            for (OverridesAttribute override : attribute.getAnnotationsByType(OverridesAttribute.class)) {
+                overrides.add(new AttributeOverride(attribute, override));
+            }
+        }
+        return new ComposedConstraint(declaredConstraints, composingConstraints, overrides);
+    }
+
+    private final List<Annotation> declaredConstraints;
+    private final List<Annotation> composingConstraints;
+    private final List<AttributeOverride> overrides;
+
+    /**
+     * Constructor.
+     *
+     * @param declaredConstraints standard and custom constraints declared directly on the annotation type
+     * @param composingConstraints standard constraints declared on the annotation type (incl. those of composed constraints declared on it)
+     * @param overrides attributes of the annotation type overriding attributes of the directly declared constraints
+     */
+    private ComposedConstraint(List<Annotation> declaredConstraints, List<Annotation> composingConstraints, List<AttributeOverride> overrides) {
+        this.declaredConstraints = declaredConstraints;
+        this.composingConstraints = composingConstraints;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Check whether this composition's annotation type is a custom constraint annotation, i.e. being annotated with {@link Constraint}.
+     *
+     * @return whether the annotation type is a custom constraint (regardless of whether it is composed of any standard constraints)
+     */
+    boolean isConstraint() {
+        return this != NONE;
+    }
+
+    /**
+     * Determine the standard constraints represented by the given annotation instance.
+     * <br>
+     * The instance's overriding attribute values are being applied to the constraints declared directly on its annotation type (identified by
+     * their type and position among those of the same type), before expanding any of them being a composed constraint itself. An override
+     * targeting a nested custom constraint thereby takes effect on the standard constraints that custom constraint is composed of.
+     *
+     * @param annotation instance of this composition's annotation type
+     * @return composing standard constraints, with the instance's overriding attribute values being applied (empty if not a composed constraint)
+     */
+    List<Annotation> expand(Annotation annotation) {
+        if (this.overrides.isEmpty()) {
+            return this.composingConstraints;
+        }
+        List<Annotation> result = new ArrayList<>(this.composingConstraints.size());
+        Map<Class<?>, Integer> constraintIndexes = new HashMap<>();
+        for (Annotation constraint : this.declaredConstraints) {
+            Class<? extends Annotation> constraintType = constraint.annotationType();
+            int constraintIndex = constraintIndexes.merge(constraintType, 1, Integer::sum) - 1;
+            Map<String, Object> overriddenValues = new HashMap<>();
+            for (AttributeOverride override : this.overrides) {
+                if (override.appliesTo(constraintType, constraintIndex)) {
+                    overriddenValues.put(override.getTargetAttributeName(), override.getValue(annotation));
+                }
+            }
+            Annotation effectiveConstraint = overriddenValues.isEmpty() ? constraint
+                    : ComposedConstraint.withOverriddenValues(constraint, overriddenValues);
+            if (ClassConstraintIndex.isIndexed(constraintType)) {
+                result.add(effectiveConstraint);
+            } else {
+                result.addAll(ComposedConstraint.of(constraintType).expand(effectiveConstraint));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a view on the given annotation, returning the given values for some of its attributes.
+     *
+     * @param <A> type of annotation
+     * @param annotation annotation to delegate to for all other attributes
+     * @param overriddenValues attribute values to return instead, by attribute name
+     * @return annotation instance with overridden attribute values
+     */
+    @SuppressWarnings("unchecked")
+    private static <A extends Annotation> A withOverriddenValues(A annotation, Map<String, Object> overriddenValues) {
+        Class<? extends Annotation> annotationType = annotation.annotationType();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getParameterCount() == 0 && overriddenValues.containsKey(method.getName())) {
+                return overriddenValues.get(method.getName());
+            }
+            if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            try {
+                return method.invoke(annotation, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return (A) Proxy.newProxyInstance(annotationType.getClassLoader(), new Class<?>[]{annotationType}, handler);
+    }
+
+    /**
+     * Attribute of a composed constraint, overriding an attribute of one (or all) of its composing constraints of a given type.
+     */
+    private static final class AttributeOverride {
+
+        private final Method attribute;
+        private final Class<? extends Annotation> targetConstraint;
+        private final String targetAttributeName;
+        private final int targetConstraintIndex;
+
+        /**
+         * Constructor.
+         *
+         * @param attribute overriding attribute of the composed constraint
+         * @param override declaration of the overridden attribute
+         */
+        AttributeOverride(Method attribute, OverridesAttribute override) {
+            this.attribute = attribute;
+            if (!attribute.isAccessible()) {
+                // custom constraints are not necessarily public
+                attribute.setAccessible(true);
+            }
+            this.targetConstraint = override.constraint();
+            this.targetAttributeName = override.name().isEmpty() ? attribute.getName() : override.name();
+            this.targetConstraintIndex = override.constraintIndex();
+        }
+
+        /**
+         * Check whether this override applies to the composing constraint of the given type at the given position.
+         *
+         * @param constraintType type of the composing constraint
+         * @param constraintIndex position of the composing constraint among those of the same type
+         * @return whether the attribute should be overridden
+         */
+        boolean appliesTo(Class<? extends Annotation> constraintType, int constraintIndex) {
+            return this.targetConstraint == constraintType && (this.targetConstraintIndex == -1 || this.targetConstraintIndex == constraintIndex);
+        }
+
+        /**
+         * Getter for the name of the overridden attribute.
+         *
+         * @return attribute name on the composing constraint
+         */
+        String getTargetAttributeName() {
+            return this.targetAttributeName;
+        }
+
+        /**
+         * Look-up the overriding value on the given instance of the composed constraint.
+         *
+         * @param annotation instance of the composed constraint
+         * @return attribute value
+         */
+        Object getValue(Annotation annotation) {
+            try {
+                return this.attribute.invoke(annotation);
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException("Failed to look-up overriding attribute " + this.attribute, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Optional annotation processor, writing a compact index of the fields and methods carrying {@code javax.validation.constraints} annotations for
+ * each compiled class. At runtime, the {@link JavaxValidationModule} consults such an index (if present) and only inspects the annotations of the
+ * listed members, instead of those of all declared fields and methods. Classes without index are being scanned via reflection as before.
+ * <br>
+ * This processor is not being registered automatically. It needs to be enabled explicitly, e.g. via the {@code -processor} option of
+ * {@code javac} or the {@code annotationProcessors} configuration of the {@code maven-compiler-plugin}. As the index only lists the members
+ * declared in the same compilation, it needs to be applied whenever the respective classes are being compiled. An index being outdated by a
+ * later compilation without this processor is being ignored at runtime, if the declared fields or methods differ.
+ *
+ * @see PrecomputedConstraintIndex
+ */
+@SupportedAnnotationTypes("*")
+public class ConstraintIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Meta-annotation marking custom constraints, which may be composed of standard constraints.
+     */
+    private static final String CONSTRAINT_ANNOTATION = "javax.validation.Constraint";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element rootElement : roundEnv.getRootElements()) {
+            if (rootElement instanceof TypeElement) {
+                this.writeIndex((TypeElement) rootElement);
+            }
+        }
+        // never claim any annotations, other processors may still be interested in them
+        return false;
+    }
+
+    /**
+     * Write the index resource for the given type and (recursively) for all its nested types.
+     *
+     * @param type class/interface/enum to write the index for
+     */
+    private void writeIndex(TypeElement type) {
+        Set<String> fieldNames = new TreeSet<>();
+        Set<String> methodNames = new TreeSet<>();
+        List<String> memberSignatures = new ArrayList<>();
+        for (Element member : type.getEnclosedElements()) {
+            String memberName = member.getSimpleName().toString();
+            if (member instanceof TypeElement) {
+                this.writeIndex((TypeElement) member);
+            } else if (member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.ENUM_CONSTANT) {
+                memberSignatures.add(PrecomputedConstraintIndex.getFieldSignature(memberName));
+                if (this.hasConstraint(member)) {
+                    fieldNames.add(memberName);
+                }
+            } else if (member.getKind() == ElementKind.METHOD) {
+                memberSignatures.add(PrecomputedConstraintIndex.getMethodSignature(memberName, ((ExecutableElement) member).getParameters().size()));
+                if (this.hasConstraint(member)) {
+                    methodNames.add(memberName);
+                }
+            }
+        }
+        Elements elementUtils = this.processingEnv.getElementUtils();
+        String binaryName = elementUtils.getBinaryName(type).toString();
+        String packageName = elementUtils.getPackageOf(type).getQualifiedName().toString();
+        try (Writer writer = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, packageName,
+                PrecomputedConstraintIndex.getResourceName(binaryName), type).openWriter()) {
+            writer.write(PrecomputedConstraintIndex.COMMENT_PREFIX + " constrained members of " + binaryName + "\n");
+            // enabling the detection of a class being changed later on without updating its index
+            writer.write(PrecomputedConstraintIndex.MEMBERS_PREFIX + PrecomputedConstraintIndex.getMemberFingerprint(memberSignatures) + "\n");
+            for (String fieldName : fieldNames) {
+                writer.write(PrecomputedConstraintIndex.FIELD_PREFIX + fieldName + "\n");
+            }
+            for (String methodName : methodNames) {
+                writer.write(PrecomputedConstraintIndex.METHOD_PREFIX + methodName + "\n");
+            }
+        } catch (IOException ex) {
+            // without index, the class is simply being scanned at runtime
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Failed to write constraint index: " + ex.getMessage(), type);
+        }
+    }
+
+    /**
+     * Check whether the given field or method carries any standard constraint annotation (incl. their {@code List} containers) or a custom
+     * constraint annotation, that may be composed of standard constraints.
+     *
+     * @param member field or method to check
+     * @return whether at least one (standard or custom) constraint annotation is present
+     */
+    private boolean hasConstraint(Element member) {
+        Elements elementUtils = this.processingEnv.getElementUtils();
+        for (AnnotationMirror annotation : member.getAnnotationMirrors()) {
+            Element annotationType = annotation.getAnnotationType().asElement();
+            if (PrecomputedConstraintIndex.CONSTRAINTS_PACKAGE.contentEquals(elementUtils.getPackageOf(annotationType).getQualifiedName())
+                    || this.isCustomConstraint(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the given annotation type is itself annotated with {@code @javax.validation.Constraint}.
+     *
+     * @param annotationType annotation type to check
+     * @return whether the annotation type is a custom constraint
+     */
+    private boolean isCustomConstraint(Element annotationType) {
+        for (AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors()) {
+            Element metaAnnotationType = metaAnnotation.getAnnotationType().asElement();
+            if (metaAnnotationType instanceof TypeElement
+                    && CONSTRAINT_ANNOTATION.contentEquals(((TypeElement) metaAnnotationType).getQualifiedName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
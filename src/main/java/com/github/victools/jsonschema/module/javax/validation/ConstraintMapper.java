@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Mapping of a custom (e.g. in-house) constraint annotation, i.e. one being annotated with {@link javax.validation.Constraint}, to the schema
+ * attributes it implies, without having to sub-class the {@link JavaxValidationModule}.
+ * <br>
+ * Mappers are being registered via {@link JavaxValidationModule#withConstraintMapper(ConstraintMapper)} or discovered via the
+ * {@link java.util.ServiceLoader} (see {@link JavaxValidationModule#withDiscoveredConstraintMappers()}), i.e. by listing the implementing classes
+ * in a {@code META-INF/services/com.github.victools.jsonschema.module.javax.validation.ConstraintMapper} file. The custom constraints declared on a
+ * field/method (and its associated getter/field) are being kept in the same per-class index as the standard constraints and dispatched to the
+ * mapper registered for their respective type, i.e. the number of registered mappers does not affect the look-up effort.
+ * <br>
+ * The annotation's validation groups are being determined via its {@code groups()} attribute (as mandated for constraint annotations by the Bean
+ * Validation specification). Mappers are being applied after the standard constraints have been collected, with the values they contribute being
+ * merged into those (see {@link ConstraintProfile.Builder}): e.g. of two size ranges, the tighter bounds apply, while a different "pattern" is
+ * being rejected. Besides the dedicated values, mappers may contribute a "format" or any other schema attribute (e.g. "enum").
+ * Implementations are expected to be stateless and thread-safe.
+ *
+ * @param <A> type of annotation being handled
+ */
+public interface ConstraintMapper<A extends Annotation> {
+
+    /**
+     * Getter for the type of annotation being handled by this mapper.
+     *
+     * @return handled annotation type
+     */
+    Class<A> getAnnotationType();
+
+    /**
+     * Contribute the schema attributes implied by the given annotation, e.g. {@code profile.withSize(0, 35)} for an in-house {@code @Bic} or
+     * {@code profile.withFormat("iso-4217").withAttribute("enum", values)} for an in-house {@code @Currency}.
+     *
+     * @param annotation applicable annotation instance (on a field/method or its container element type)
+     * @param profile builder of the field's/method's constraint profile to populate
+     */
+    void applyTo(A annotation, ConstraintProfile.Builder profile);
+}
@@ -0,0 +1,647 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable summary of the applicable {@code javax.validation.constraints} on a single field or method (including its associated getter/field).
+ * <br>
+ * A profile is being resolved once per member and then shared by all the individual attribute resolvers of the {@link JavaxValidationModule}.
+ */
+public final class ConstraintProfile {
+
+    /**
+     * Profile without any applicable constraints.
+     */
+    public static final ConstraintProfile EMPTY = new Builder().build();
+
+    private static final int FLAG_NOT_NULL = 1;
+    private static final int FLAG_NOT_EMPTY = 1 << 1;
+    private static final int FLAG_NOT_BLANK = 1 << 2;
+    private static final int FLAG_MUST_BE_NULL = 1 << 3;
+    private static final int FLAG_EMAIL = 1 << 4;
+
+    /**
+     * Schema attributes being populated from the dedicated values of a profile, i.e. which cannot be set via
+     * {@link Builder#withAttribute(String, JsonNode)}.
+     */
+    private static final Set<String> DEDICATED_ATTRIBUTES = new HashSet<>(Arrays.asList("type", "minItems", "maxItems", "minLength", "maxLength",
+            "format", "pattern", "minimum", "exclusiveMinimum", "maximum", "exclusiveMaximum"));
+    /**
+     * Parser of the additional attributes' values when reading a persisted profile.
+     */
+    private static final ObjectMapper ATTRIBUTE_PARSER = new ObjectMapper();
+
+    private final boolean notNull;
+    private final boolean notEmpty;
+    private final boolean notBlank;
+    private final boolean mustBeNull;
+    private final int sizeMin;
+    private final int sizeMax;
+    private final boolean email;
+    private final String emailRegexp;
+    private final int emailFlags;
+    private final String patternRegexp;
+    private final int patternFlags;
+    private final BigDecimal inclusiveMinimum;
+    private final BigDecimal exclusiveMinimum;
+    private final BigDecimal inclusiveMaximum;
+    private final BigDecimal exclusiveMaximum;
+    private final String format;
+    private final Map<String, JsonNode> attributes;
+
+    /**
+     * Constructor: collecting the values from the given builder.
+     *
+     * @param builder builder instance to take over values from
+     */
+    private ConstraintProfile(Builder builder) {
+        this.notNull = builder.notNull;
+        this.notEmpty = builder.notEmpty;
+        this.notBlank = builder.notBlank;
+        this.mustBeNull = builder.mustBeNull;
+        this.sizeMin = builder.sizeMin;
+        this.sizeMax = builder.sizeMax;
+        this.email = builder.email;
+        this.emailRegexp = builder.emailRegexp;
+        this.emailFlags = builder.emailFlags;
+        this.patternRegexp = builder.patternRegexp;
+        this.patternFlags = builder.patternFlags;
+        this.inclusiveMinimum = builder.inclusiveMinimum;
+        this.exclusiveMinimum = builder.exclusiveMinimum;
+        this.inclusiveMaximum = builder.inclusiveMaximum;
+        this.exclusiveMaximum = builder.exclusiveMaximum;
+        this.format = builder.format;
+        this.attributes = builder.attributes.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(new TreeMap<>(builder.attributes));
+    }
+
+    /**
+     * Determine whether the member is annotated to be not nullable or to be always {@code null}.
+     *
+     * @return {@code Boolean.FALSE} if not nullable, {@code Boolean.TRUE} if it must be {@code null}, otherwise {@code null}
+     */
+    public Boolean getNullable() {
+        if (this.notNull || this.notEmpty || this.notBlank) {
+            return Boolean.FALSE;
+        }
+        if (this.mustBeNull) {
+            return Boolean.TRUE;
+        }
+        return null;
+    }
+
+    /**
+     * Determine the minimum number of items, if the member is a container type.
+     *
+     * @return minimum number of items (or {@code null})
+     */
+    public Integer getMinItems() {
+        if (this.sizeMin > 0) {
+            // minimum length greater than the default 0 was specified
+            return this.sizeMin;
+        }
+        return this.notEmpty ? 1 : null;
+    }
+
+    /**
+     * Determine the maximum number of items, if the member is a container type.
+     *
+     * @return maximum number of items (or {@code null})
+     */
+    public Integer getMaxItems() {
+        return this.getSizeMax();
+    }
+
+    /**
+     * Determine the minimum number of characters, if the member is a text type.
+     *
+     * @return minimum number of characters (or {@code null})
+     */
+    public Integer getMinLength() {
+        if (this.sizeMin > 0) {
+            // minimum length greater than the default 0 was specified
+            return this.sizeMin;
+        }
+        return this.notEmpty || this.notBlank ? 1 : null;
+    }
+
+    /**
+     * Determine the maximum number of characters, if the member is a text type.
+     *
+     * @return maximum number of characters (or {@code null})
+     */
+    public Integer getMaxLength() {
+        return this.getSizeMax();
+    }
+
+    /**
+     * Look-up the maximum size, ignoring the default value of {@link Integer#MAX_VALUE}.
+     *
+     * @return maximum size (or {@code null})
+     */
+    private Integer getSizeMax() {
+        if (this.sizeMax < Integer.MAX_VALUE) {
+            // maximum length below the default 2147483647 was specified
+            return this.sizeMax;
+        }
+        return null;
+    }
+
+    /**
+     * Determine whether the member is annotated as email address.
+     *
+     * @return whether an {@code @Email} annotation is present
+     */
+    public boolean isEmail() {
+        return this.email;
+    }
+
+    /**
+     * Getter for the "format" of a text value, other than the one implied by {@code @Email} (e.g. as contributed by a {@link ConstraintMapper}).
+     *
+     * @return format (or {@code null})
+     * @see #isEmail()
+     */
+    public String getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Getter for the additional schema attributes (e.g. "enum"), as contributed by a {@link ConstraintMapper}.
+     *
+     * @return additional attribute values by attribute name (unmodifiable; the values must not be modified either)
+     */
+    public Map<String, JsonNode> getAttributes() {
+        return this.attributes;
+    }
+
+    /**
+     * Determine the regular expression a text value should match: either from {@code @Pattern} or a non-default one on {@code @Email}.
+     *
+     * @return regular expression (or {@code null})
+     */
+    public String getPattern() {
+        if (this.patternRegexp != null) {
+            return this.patternRegexp;
+        }
+        if (this.emailRegexp != null && !".*".equals(this.emailRegexp)) {
+            // non-default regular expression on @Email annotation should also be considered
+            return this.emailRegexp;
+        }
+        return null;
+    }
+
+    /**
+     * Determine the flags (as in {@link java.util.regex.Pattern#flags()}) to apply to the regular expression returned by {@link #getPattern()}.
+     *
+     * @return regular expression flags (0 if there are none)
+     */
+    public int getPatternFlags() {
+        if (this.patternRegexp != null) {
+            return this.patternFlags;
+        }
+        return this.getPattern() == null ? 0 : this.emailFlags;
+    }
+
+    /**
+     * Getter for the inclusive minimum value.
+     *
+     * @return inclusive minimum (or {@code null})
+     */
+    public BigDecimal getInclusiveMinimum() {
+        return this.inclusiveMinimum;
+    }
+
+    /**
+     * Getter for the exclusive minimum value.
+     *
+     * @return exclusive minimum (or {@code null})
+     */
+    public BigDecimal getExclusiveMinimum() {
+        return this.exclusiveMinimum;
+    }
+
+    /**
+     * Getter for the inclusive maximum value.
+     *
+     * @return inclusive maximum (or {@code null})
+     */
+    public BigDecimal getInclusiveMaximum() {
+        return this.inclusiveMaximum;
+    }
+
+    /**
+     * Getter for the exclusive maximum value.
+     *
+     * @return exclusive maximum (or {@code null})
+     */
+    public BigDecimal getExclusiveMaximum() {
+        return this.exclusiveMaximum;
+    }
+
+    /**
+     * Write the compact binary representation of this profile (e.g. for the {@link PersistentProfileCache}).
+     *
+     * @param output target to write to
+     * @throws IOException when failing to write to the given target
+     * @see #readFrom(ByteBuffer)
+     */
+    void writeTo(DataOutput output) throws IOException {
+        output.writeByte((this.notNull ? FLAG_NOT_NULL : 0)
+                | (this.notEmpty ? FLAG_NOT_EMPTY : 0)
+                | (this.notBlank ? FLAG_NOT_BLANK : 0)
+                | (this.mustBeNull ? FLAG_MUST_BE_NULL : 0)
+                | (this.email ? FLAG_EMAIL : 0));
+        output.writeInt(this.sizeMin);
+        output.writeInt(this.sizeMax);
+        ConstraintProfile.writeText(output, this.emailRegexp);
+        output.writeInt(this.emailFlags);
+        ConstraintProfile.writeText(output, this.patternRegexp);
+        output.writeInt(this.patternFlags);
+        for (BigDecimal bound : new BigDecimal[]{this.inclusiveMinimum, this.exclusiveMinimum, this.inclusiveMaximum, this.exclusiveMaximum}) {
+            ConstraintProfile.writeText(output, bound == null ? null : bound.toString());
+        }
+        ConstraintProfile.writeText(output, this.format);
+        output.writeInt(this.attributes.size());
+        for (Map.Entry<String, JsonNode> attribute : this.attributes.entrySet()) {
+            ConstraintProfile.writeText(output, attribute.getKey());
+            ConstraintProfile.writeText(output, attribute.getValue().toString());
+        }
+    }
+
+    /**
+     * Write the given (optional) text as length-prefixed UTF-8 bytes.
+     *
+     * @param output target to write to
+     * @param text text to write (may be {@code null})
+     * @throws IOException when failing to write to the given target
+     */
+    private static void writeText(DataOutput output, String text) throws IOException {
+        if (text == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Read a profile from its compact binary representation, starting at the given buffer's current position.
+     *
+     * @param input buffer to read from (its position is being moved to the end of the profile)
+     * @return read profile
+     * @see #writeTo(DataOutput)
+     */
+    static ConstraintProfile readFrom(ByteBuffer input) {
+        int flags = input.get();
+        Builder builder = new Builder()
+                .withSize(input.getInt(), input.getInt());
+        // the values need to be read in the order they were written
+        final String emailRegexp = ConstraintProfile.readText(input);
+        final int emailFlags = input.getInt();
+        final String patternRegexp = ConstraintProfile.readText(input);
+        final int patternFlags = input.getInt();
+        builder.withInclusiveMinimum(ConstraintProfile.readNumber(input))
+                .withExclusiveMinimum(ConstraintProfile.readNumber(input))
+                .withInclusiveMaximum(ConstraintProfile.readNumber(input))
+                .withExclusiveMaximum(ConstraintProfile.readNumber(input));
+        final String format = ConstraintProfile.readText(input);
+        for (int attributeCount = input.getInt(); attributeCount > 0; attributeCount--) {
+            builder.withAttribute(ConstraintProfile.readText(input), ConstraintProfile.readJson(input));
+        }
+        if ((flags & FLAG_NOT_NULL) != 0) {
+            builder.withNotNull();
+        }
+        if ((flags & FLAG_NOT_EMPTY) != 0) {
+            builder.withNotEmpty();
+        }
+        if ((flags & FLAG_NOT_BLANK) != 0) {
+            builder.withNotBlank();
+        }
+        if ((flags & FLAG_MUST_BE_NULL) != 0) {
+            builder.withMustBeNull();
+        }
+        if ((flags & FLAG_EMAIL) != 0) {
+            builder.withEmail(emailRegexp, emailFlags);
+        }
+        if (patternRegexp != null) {
+            builder.withPattern(patternRegexp, patternFlags);
+        }
+        if (format != null) {
+            builder.withFormat(format);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read an (optional) text from length-prefixed UTF-8 bytes.
+     *
+     * @param input buffer to read from
+     * @return read text (may be {@code null})
+     */
+    private static String readText(ByteBuffer input) {
+        int length = input.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read an (optional) numeric bound from its textual representation.
+     *
+     * @param input buffer to read from
+     * @return read number (may be {@code null})
+     */
+    private static BigDecimal readNumber(ByteBuffer input) {
+        String value = ConstraintProfile.readText(input);
+        return value == null ? null : NumericBounds.parse(value);
+    }
+
+    /**
+     * Read an additional attribute's value from its textual JSON representation.
+     *
+     * @param input buffer to read from
+     * @return read value
+     * @throws IllegalArgumentException if the value is missing or not valid JSON (i.e. the buffer is corrupt)
+     */
+    private static JsonNode readJson(ByteBuffer input) {
+        String value = ConstraintProfile.readText(input);
+        if (value == null) {
+            throw new IllegalArgumentException("missing attribute value");
+        }
+        try {
+            return ATTRIBUTE_PARSER.readTree(value);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("invalid attribute value: " + value, ex);
+        }
+    }
+
+    /**
+     * Builder for a {@link ConstraintProfile}.
+     * <br>
+     * A value may be set more than once, e.g. by a standard constraint and by a {@link ConstraintMapper} being applied afterwards. The values are
+     * then being merged: the greater minimum and the lower maximum (i.e. the tighter bound) of a size or number applies, while the indicators
+     * (e.g. "not null") are being combined. A different "pattern", "format" or additional attribute value cannot be merged: setting it is being
+     * rejected with an {@link IllegalStateException} instead.
+     */
+    public static class Builder {
+
+        private boolean notNull;
+        private boolean notEmpty;
+        private boolean notBlank;
+        private boolean mustBeNull;
+        private int sizeMin = 0;
+        private int sizeMax = Integer.MAX_VALUE;
+        private boolean email;
+        private String emailRegexp;
+        private int emailFlags;
+        private String patternRegexp;
+        private int patternFlags;
+        private BigDecimal inclusiveMinimum;
+        private BigDecimal exclusiveMinimum;
+        private BigDecimal inclusiveMaximum;
+        private BigDecimal exclusiveMaximum;
+        private String format;
+        private final Map<String, JsonNode> attributes = new TreeMap<>();
+
+        /**
+         * Indicate the member to be not nullable (e.g. due to {@code @NotNull}).
+         *
+         * @return this builder instance (for chaining)
+         */
+        public Builder withNotNull() {
+            this.notNull = true;
+            return this;
+        }
+
+        /**
+         * Indicate the member to be not empty (e.g. due to {@code @NotEmpty}).
+         *
+         * @return this builder instance (for chaining)
+         */
+        public Builder withNotEmpty() {
+            this.notEmpty = true;
+            return this;
+        }
+
+        /**
+         * Indicate the member to be not blank (e.g. due to {@code @NotBlank}).
+         *
+         * @return this builder instance (for chaining)
+         */
+        public Builder withNotBlank() {
+            this.notBlank = true;
+            return this;
+        }
+
+        /**
+         * Indicate the member to always be {@code null} (e.g. due to {@code @Null}).
+         *
+         * @return this builder instance (for chaining)
+         */
+        public Builder withMustBeNull() {
+            this.mustBeNull = true;
+            return this;
+        }
+
+        /**
+         * Set the size range of a text or container value (e.g. due to {@code @Size}). If a size range was set before, the tighter bounds apply.
+         *
+         * @param min minimum size (0 being the default)
+         * @param max maximum size ({@link Integer#MAX_VALUE} being the default)
+         * @return this builder instance (for chaining)
+         */
+        public Builder withSize(int min, int max) {
+            this.sizeMin = Math.max(this.sizeMin, min);
+            this.sizeMax = Math.min(this.sizeMax, max);
+            return this;
+        }
+
+        /**
+         * Indicate the member to be an email address (e.g. due to {@code @Email}).
+         *
+         * @param regexp additional regular expression to match (".*" being the default)
+         * @return this builder instance (for chaining)
+         */
+        public Builder withEmail(String regexp) {
+            return this.withEmail(regexp, 0);
+        }
+
+        /**
+         * Indicate the member to be an email address (e.g. due to {@code @Email}).
+         *
+         * @param regexp additional regular expression to match (".*" being the default)
+         * @param flags regular expression flags (as in {@link java.util.regex.Pattern#flags()})
+         * @return this builder instance (for chaining)
+         * @throws IllegalStateException if another email expression or a {@link #withFormat(String) format} was set before
+         */
+        public Builder withEmail(String regexp, int flags) {
+            if (this.email && (!Objects.equals(this.emailRegexp, regexp) || this.emailFlags != flags)) {
+                throw new IllegalStateException("Conflicting email expressions: " + this.emailRegexp + " and " + regexp);
+            }
+            if (this.format != null) {
+                throw new IllegalStateException("Conflicting formats: " + this.format + " and email");
+            }
+            this.email = true;
+            this.emailRegexp = regexp;
+            this.emailFlags = flags;
+            return this;
+        }
+
+        /**
+         * Set the regular expression to match (e.g. due to {@code @Pattern}).
+         *
+         * @param regexp regular expression
+         * @return this builder instance (for chaining)
+         */
+        public Builder withPattern(String regexp) {
+            return this.withPattern(regexp, 0);
+        }
+
+        /**
+         * Set the regular expression to match (e.g. due to {@code @Pattern}).
+         *
+         * @param regexp regular expression
+         * @param flags regular expression flags (as in {@link java.util.regex.Pattern#flags()})
+         * @return this builder instance (for chaining)
+         * @throws IllegalStateException if another regular expression was set before
+         */
+        public Builder withPattern(String regexp, int flags) {
+            if (this.patternRegexp != null && (!this.patternRegexp.equals(regexp) || this.patternFlags != flags)) {
+                throw new IllegalStateException("Conflicting patterns: " + this.patternRegexp + " and " + regexp);
+            }
+            this.patternRegexp = regexp;
+            this.patternFlags = flags;
+            return this;
+        }
+
+        /**
+         * Set the inclusive minimum value (e.g. due to {@code @Min}). If one was set before, the greater value applies.
+         *
+         * @param value inclusive minimum (ignored if {@code null})
+         * @return this builder instance (for chaining)
+         */
+        public Builder withInclusiveMinimum(BigDecimal value) {
+            if (value != null && (this.inclusiveMinimum == null || value.compareTo(this.inclusiveMinimum) > 0)) {
+                this.inclusiveMinimum = value;
+            }
+            return this;
+        }
+
+        /**
+         * Set the exclusive minimum value (e.g. due to {@code @Positive}). If one was set before, the greater value applies.
+         *
+         * @param value exclusive minimum (ignored if {@code null})
+         * @return this builder instance (for chaining)
+         */
+        public Builder withExclusiveMinimum(BigDecimal value) {
+            if (value != null && (this.exclusiveMinimum == null || value.compareTo(this.exclusiveMinimum) > 0)) {
+                this.exclusiveMinimum = value;
+            }
+            return this;
+        }
+
+        /**
+         * Set the inclusive maximum value (e.g. due to {@code @Max}). If one was set before, the lower value applies.
+         *
+         * @param value inclusive maximum (ignored if {@code null})
+         * @return this builder instance (for chaining)
+         */
+        public Builder withInclusiveMaximum(BigDecimal value) {
+            if (value != null && (this.inclusiveMaximum == null || value.compareTo(this.inclusiveMaximum) < 0)) {
+                this.inclusiveMaximum = value;
+            }
+            return this;
+        }
+
+        /**
+         * Set the exclusive maximum value (e.g. due to {@code @Negative}). If one was set before, the lower value applies.
+         *
+         * @param value exclusive maximum (ignored if {@code null})
+         * @return this builder instance (for chaining)
+         */
+        public Builder withExclusiveMaximum(BigDecimal value) {
+            if (value != null && (this.exclusiveMaximum == null || value.compareTo(this.exclusiveMaximum) < 0)) {
+                this.exclusiveMaximum = value;
+            }
+            return this;
+        }
+
+        /**
+         * Set the "format" of a text value, other than the one implied by {@code @Email} (e.g. {@code "uri"}).
+         *
+         * @param format format to indicate
+         * @return this builder instance (for chaining)
+         * @throws IllegalStateException if another format (or email) was set before
+         */
+        public Builder withFormat(String format) {
+            if (this.email || this.format != null && !this.format.equals(format)) {
+                throw new IllegalStateException("Conflicting formats: " + (this.email ? "email" : this.format) + " and " + format);
+            }
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Set an additional schema attribute, that is not covered by any of the other methods (e.g. "enum" or "multipleOf").
+         *
+         * @param name attribute name
+         * @param value attribute value (being copied)
+         * @return this builder instance (for chaining)
+         * @throws IllegalArgumentException if the attribute is covered by one of the other methods (e.g. "maxLength" or "format")
+         * @throws IllegalStateException if another value was set for the same attribute before
+         */
+        public Builder withAttribute(String name, JsonNode value) {
+            if (DEDICATED_ATTRIBUTES.contains(name)) {
+                throw new IllegalArgumentException("Attribute \"" + name + "\" is to be set via its dedicated method");
+            }
+            JsonNode existingValue = this.attributes.get(name);
+            if (existingValue != null && !existingValue.equals(value)) {
+                throw new IllegalStateException("Conflicting values of attribute \"" + name + "\": " + existingValue + " and " + value);
+            }
+            this.attributes.put(name, value.deepCopy());
+            return this;
+        }
+
+        /**
+         * Create the immutable profile from the collected values.
+         *
+         * @return created profile
+         */
+        public ConstraintProfile build() {
+            return new ConstraintProfile(this);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.DeclaredConstraints;
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.IndexedConstraint;
+import java.lang.annotation.Annotation;
+
+/**
+ * Collector of the standard constraints being considered for a single field/method, with one slot per constraint type.
+ * <br>
+ * The declared constraints are being visited in the order of their precedence (i.e. those on the member itself before those on its associated
+ * getter/field), each one being routed to its slot via the slot index it was assigned when being indexed. The first constraint per slot wins, so
+ * that each member's constraints only need to be iterated once instead of probing for each constraint type separately.
+ */
+final class ConstraintSlots {
+
+    static final int NOT_NULL = 0;
+    static final int NOT_BLANK = 1;
+    static final int NOT_EMPTY = 2;
+    static final int NULL = 3;
+    static final int SIZE = 4;
+    static final int EMAIL = 5;
+    static final int PATTERN = 6;
+    static final int MIN = 7;
+    static final int DECIMAL_MIN = 8;
+    static final int POSITIVE_OR_ZERO = 9;
+    static final int POSITIVE = 10;
+    static final int MAX = 11;
+    static final int DECIMAL_MAX = 12;
+    static final int NEGATIVE_OR_ZERO = 13;
+    static final int NEGATIVE = 14;
+    /**
+     * Total number of slots.
+     */
+    static final int COUNT = 15;
+    /**
+     * Indication of a constraint type not being considered (e.g. {@code @Past}).
+     */
+    static final int NONE = -1;
+
+    /**
+     * Determine the slot of the given standard constraint type.
+     *
+     * @param annotationType type of constraint annotation
+     * @return slot index (or {@link #NONE} if the given type is not being considered)
+     */
+    static int slotOf(Class<? extends Annotation> annotationType) {
+        if (!ClassConstraintIndex.isIndexed(annotationType)) {
+            return NONE;
+        }
+        switch (annotationType.getSimpleName()) {
+        case "NotNull":
+            return NOT_NULL;
+        case "NotBlank":
+            return NOT_BLANK;
+        case "NotEmpty":
+            return NOT_EMPTY;
+        case "Null":
+            return NULL;
+        case "Size":
+            return SIZE;
+        case "Email":
+            return EMAIL;
+        case "Pattern":
+            return PATTERN;
+        case "Min":
+            return MIN;
+        case "DecimalMin":
+            return DECIMAL_MIN;
+        case "PositiveOrZero":
+            return POSITIVE_OR_ZERO;
+        case "Positive":
+            return POSITIVE;
+        case "Max":
+            return MAX;
+        case "DecimalMax":
+            return DECIMAL_MAX;
+        case "NegativeOrZero":
+            return NEGATIVE_OR_ZERO;
+        case "Negative":
+            return NEGATIVE;
+        default:
+            return NONE;
+        }
+    }
+
+    private final IndexedConstraint[] constraints = new IndexedConstraint[COUNT];
+
+    /**
+     * Route the given constraints to their respective slots, unless a slot has already been populated.
+     *
+     * @param declaredConstraints constraints declared on a single field/method (or its container element type)
+     */
+    void visit(DeclaredConstraints declaredConstraints) {
+        for (IndexedConstraint constraint : declaredConstraints.getConstraints()) {
+            int slot = constraint.getSlot();
+            if (slot != NONE && this.constraints[slot] == null) {
+                this.constraints[slot] = constraint;
+            }
+        }
+    }
+
+    /**
+     * Look-up the constraint in the given slot.
+     *
+     * @param slot slot index
+     * @return collected constraint (or {@code null})
+     */
+    IndexedConstraint get(int slot) {
+        return this.constraints[slot];
+    }
+
+    /**
+     * Look-up the constraint annotation in the given slot.
+     *
+     * @param <A> type of annotation
+     * @param slot slot index
+     * @param annotationClass type of annotation being expected in the given slot
+     * @return collected annotation (or {@code null})
+     */
+    <A extends Annotation> A getAnnotation(int slot, Class<A> annotationClass) {
+        IndexedConstraint constraint = this.constraints[slot];
+        return constraint == null ? null : annotationClass.cast(constraint.getAnnotation());
+    }
+
+    /**
+     * Check whether a constraint was collected in the given slot.
+     *
+     * @param slot slot index
+     * @return whether a constraint is present
+     */
+    boolean isPresent(int slot) {
+        return this.constraints[slot] != null;
+    }
+
+    /**
+     * Clear the given slot, e.g. if the collected constraint is not associated with one of the validation groups being considered.
+     *
+     * @param slot slot index
+     */
+    void remove(int slot) {
+        this.constraints[slot] = null;
+    }
+}
@@ -0,0 +1,1003 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Translation of a Java regular expression (and its flags) into the ECMA 262 dialect expected for a JSON Schema's "pattern" keyword.
+ * <ul>
+ * <li>Flags (both given separately and embedded like {@code (?i)}) are being emulated, since a "pattern" cannot carry any flags.</li>
+ * <li>Java-specific constructs (e.g. {@code \p{Alpha}}, {@code \h}, {@code \A}, {@code \Q...\E}) are being replaced by their ECMA 262
+ * equivalent.</li>
+ * <li>Unicode properties/categories/scripts/blocks (e.g. {@code \p{javaLowerCase}}, {@code \p{Lu}} or {@code \p{IsLatin}}) are being replaced by
+ * the characters they match in the running JVM (which may be lengthy), with supplementary characters being listed as surrogate pairs.</li>
+ * <li>Possessive quantifiers and atomic groups are being replaced by their greedy/non-capturing counterparts, which may accept more values but
+ * never reject a valid one.</li>
+ * <li>Constructs without an ECMA 262 equivalent (e.g. character class unions and intersections or {@code \G}) render the whole expression
+ * untranslatable.</li>
+ * <li>Constructs whose equivalent would require the ECMA 262 "u" flag or an ES2018 lookbehind render the whole expression untranslatable as well:
+ * unicode properties matching supplementary characters inside a negated character class and {@code ^} in MULTILINE mode. Lookbehinds and named
+ * groups being contained in the given expression itself are being retained as-is.</li>
+ * </ul>
+ * The translation result is being cached per distinct expression and flags.
+ */
+final class EcmaPatternTranslator {
+
+    private static final int UNSUPPORTED_FLAGS = Pattern.CANON_EQ | Pattern.UNICODE_CHARACTER_CLASS;
+    private static final String LINE_TERMINATORS = "\\n\\r\\u2028\\u2029";
+    private static final String HORIZONTAL_WHITESPACE = " \\t\\xA0\\u1680\\u180e\\u2000-\\u200a\\u202f\\u205f\\u3000";
+    private static final String VERTICAL_WHITESPACE = "\\n\\x0B\\f\\r\\x85\\u2028\\u2029";
+    /**
+     * Characters that need to be escaped when being matched literally (outside of a character class).
+     */
+    private static final String SYNTAX_CHARACTERS = "^$\\.*+?()[]{}|/";
+    /**
+     * Characters that need to be escaped when being matched literally inside of a character class.
+     */
+    private static final String CLASS_SYNTAX_CHARACTERS = "^\\[]-/";
+
+    /**
+     * Escape sequences that are supported in both dialects without any changes.
+     */
+    private static final String SHARED_ESCAPES = "dDwWsStnrf";
+    /**
+     * Escape sequences (outside of character classes) that are being replaced by an equivalent expression.
+     */
+    private static final Map<Character, String> REPLACED_ESCAPES = new HashMap<>();
+    /**
+     * Escape sequences that are being replaced by a set of characters (to be included in a character class).
+     */
+    private static final Map<Character, String> CHARACTER_SET_ESCAPES = new HashMap<>();
+    /**
+     * Character properties (as in {@code \p{...}}) that are being replaced by a set of characters (to be included in a character class).
+     */
+    private static final Map<String, String> CHARACTER_SET_PROPERTIES = new HashMap<>();
+
+    static {
+        REPLACED_ESCAPES.put('A', "^");
+        REPLACED_ESCAPES.put('z', "$");
+        REPLACED_ESCAPES.put('Z', "(?=(?:\\r\\n|[" + LINE_TERMINATORS + "\\x85])?$)");
+        REPLACED_ESCAPES.put('R', "(?:\\r\\n|[" + VERTICAL_WHITESPACE + "])");
+        REPLACED_ESCAPES.put('b', "\\b");
+        REPLACED_ESCAPES.put('B', "\\B");
+
+        CHARACTER_SET_ESCAPES.put('h', HORIZONTAL_WHITESPACE);
+        CHARACTER_SET_ESCAPES.put('v', VERTICAL_WHITESPACE);
+        CHARACTER_SET_ESCAPES.put('e', "\\x1B");
+        CHARACTER_SET_ESCAPES.put('a', "\\x07");
+
+        CHARACTER_SET_PROPERTIES.put("Lower", "a-z");
+        CHARACTER_SET_PROPERTIES.put("Upper", "A-Z");
+        CHARACTER_SET_PROPERTIES.put("ASCII", "\\x00-\\x7F");
+        CHARACTER_SET_PROPERTIES.put("Alpha", "a-zA-Z");
+        CHARACTER_SET_PROPERTIES.put("Digit", "0-9");
+        CHARACTER_SET_PROPERTIES.put("Alnum", "a-zA-Z0-9");
+        CHARACTER_SET_PROPERTIES.put("Punct", "!-\\/:-@\\[-`{-~");
+        CHARACTER_SET_PROPERTIES.put("Graph", "!-~");
+        CHARACTER_SET_PROPERTIES.put("Print", " -~");
+        CHARACTER_SET_PROPERTIES.put("Blank", " \\t");
+        CHARACTER_SET_PROPERTIES.put("Cntrl", "\\x00-\\x1F\\x7F");
+        CHARACTER_SET_PROPERTIES.put("XDigit", "0-9a-fA-F");
+        CHARACTER_SET_PROPERTIES.put("Space", " \\t\\n\\x0B\\f\\r");
+
+    }
+
+    /**
+     * Translation results per distinct expression and flags. The number of entries is limited by the distinct expressions present in the
+     * annotations of all loaded classes.
+     */
+    private static final ConcurrentMap<TranslationKey, Optional<String>> TRANSLATIONS = new ConcurrentHashMap<>();
+    /**
+     * Characters matched by a unicode property escape sequence (e.g. {@code \p{Lu}}) per distinct escape sequence and case-related flags, as
+     * determining them requires checking every single code point.
+     */
+    private static final ConcurrentMap<TranslationKey, CharacterSetExpansion> PROPERTY_EXPANSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor: only static methods.
+     */
+    private EcmaPatternTranslator() {
+        // nothing to initialise
+    }
+
+    /**
+     * Translate the given Java regular expression into the ECMA 262 dialect.
+     *
+     * @param regexp Java regular expression
+     * @param flags Java regular expression flags (as in {@link Pattern#flags()})
+     * @return translated regular expression (or {@code null} if the given expression cannot be translated)
+     */
+    static String translate(String regexp, int flags) {
+        return TRANSLATIONS.computeIfAbsent(new TranslationKey(regexp, flags), EcmaPatternTranslator::translateUncached).orElse(null);
+    }
+
+    /**
+     * Check whether the translation of the given Java regular expression has already been cached.
+     *
+     * @param regexp Java regular expression
+     * @param flags Java regular expression flags (as in {@link Pattern#flags()})
+     * @return whether a subsequent {@link #translate(String, int)} call is served from the cache
+     */
+    static boolean isCached(String regexp, int flags) {
+        return TRANSLATIONS.containsKey(new TranslationKey(regexp, flags));
+    }
+
+    /**
+     * Translate the given Java regular expression into the ECMA 262 dialect, without any caching.
+     *
+     * @param key Java regular expression and flags
+     * @return translated regular expression (or empty if the given expression cannot be translated)
+     */
+    private static Optional<String> translateUncached(TranslationKey key) {
+        if ((key.flags & UNSUPPORTED_FLAGS) != 0) {
+            return Optional.empty();
+        }
+        try {
+            // only translate valid expressions
+            Pattern.compile(key.regexp, key.flags);
+            if ((key.flags & Pattern.LITERAL) != 0) {
+                Translation translation = new Translation("", key.flags & ~Pattern.LITERAL);
+                key.regexp.chars().forEach(character -> translation.appendLiteral((char) character));
+                return Optional.of(translation.toString());
+            }
+            return Optional.of(new Translation(key.regexp, key.flags).translate());
+        } catch (PatternSyntaxException | UntranslatableException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Indication that the regular expression cannot be translated.
+     */
+    private static class UntranslatableException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * State of translating a single expression.
+     */
+    private static class Translation {
+
+        private final String source;
+        private final StringBuilder target;
+        private final Deque<Integer> enclosingFlags = new ArrayDeque<>();
+        /**
+         * Alternatives for supplementary characters (as surrogate pairs), that cannot be included in the current character class.
+         */
+        private final List<String> supplementaryAlternatives = new ArrayList<>();
+        private int flags;
+        private int position = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param source Java regular expression to translate
+         * @param flags Java regular expression flags
+         */
+        Translation(String source, int flags) {
+            this.source = source;
+            this.target = new StringBuilder(source.length() + 16);
+            this.flags = flags;
+        }
+
+        /**
+         * Check whether the given flag is currently active.
+         *
+         * @param flag flag to check
+         * @return whether the flag is active
+         */
+        private boolean isActive(int flag) {
+            return (this.flags & flag) != 0;
+        }
+
+        /**
+         * Check whether there are more characters to translate.
+         *
+         * @return whether the end was not reached yet
+         */
+        private boolean hasNext() {
+            return this.position < this.source.length();
+        }
+
+        /**
+         * Look at the next character without consuming it.
+         *
+         * @return next character (or {@code 0} if the end was reached)
+         */
+        private char peek() {
+            return this.hasNext() ? this.source.charAt(this.position) : 0;
+        }
+
+        /**
+         * Consume the next character.
+         *
+         * @return next character
+         * @throws UntranslatableException if the end was reached
+         */
+        private char next() throws UntranslatableException {
+            if (!this.hasNext()) {
+                throw new UntranslatableException();
+            }
+            return this.source.charAt(this.position++);
+        }
+
+        /**
+         * Consume the next character if it matches the given one.
+         *
+         * @param expected character to check for
+         * @return whether the next character matched and was consumed
+         */
+        private boolean consumeIf(char expected) {
+            if (this.hasNext() && this.source.charAt(this.position) == expected) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Consume all characters up to (and including) the given one.
+         *
+         * @param end character marking the end of the consumed part
+         * @return consumed characters (excluding the given end character)
+         * @throws UntranslatableException if the given end character was not found
+         */
+        private String consumeUntil(char end) throws UntranslatableException {
+            int endIndex = this.source.indexOf(end, this.position);
+            if (endIndex == -1) {
+                throw new UntranslatableException();
+            }
+            String result = this.source.substring(this.position, endIndex);
+            this.position = endIndex + 1;
+            return result;
+        }
+
+        /**
+         * Translate the whole expression.
+         *
+         * @return translated expression
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        String translate() throws UntranslatableException {
+            while (this.hasNext()) {
+                char character = this.next();
+                if (this.isActive(Pattern.COMMENTS) && this.skipWhitespaceOrComment(character)) {
+                    continue;
+                }
+                this.translateNext(character);
+            }
+            if (!this.enclosingFlags.isEmpty()) {
+                throw new UntranslatableException();
+            }
+            return this.target.toString();
+        }
+
+        /**
+         * Skip the given character if it is whitespace or the start of a comment (only to be called if the COMMENTS flag is active).
+         *
+         * @param character current character
+         * @return whether the character was skipped
+         */
+        private boolean skipWhitespaceOrComment(char character) {
+            if (character == '#') {
+                while (this.hasNext() && this.source.charAt(this.position) != '\n') {
+                    this.position++;
+                }
+                return true;
+            }
+            return Character.isWhitespace(character);
+        }
+
+        /**
+         * Translate the given character (outside of a character class).
+         *
+         * @param character current character
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateNext(char character) throws UntranslatableException {
+            switch (character) {
+            case '\\':
+                this.translateEscape();
+                break;
+            case '[':
+                this.translateCharacterClass();
+                break;
+            case '(':
+                this.translateGroupStart();
+                break;
+            case ')':
+                if (this.enclosingFlags.isEmpty()) {
+                    throw new UntranslatableException();
+                }
+                this.flags = this.enclosingFlags.pop();
+                this.target.append(')');
+                break;
+            case '*':
+            case '+':
+            case '?':
+                this.target.append(character);
+                this.translateQuantifierMode();
+                break;
+            case '{':
+                this.target.append('{').append(this.consumeUntil('}')).append('}');
+                this.translateQuantifierMode();
+                break;
+            default:
+                this.translateSpecialCharacter(character);
+            }
+        }
+
+        /**
+         * Translate the given character (outside of a character class) that has a special meaning depending on the active flags.
+         *
+         * @param character current character
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateSpecialCharacter(char character) throws UntranslatableException {
+            if (character == '.') {
+                if (this.isActive(Pattern.DOTALL)) {
+                    this.target.append("[\\s\\S]");
+                } else {
+                    // in UNIX_LINES mode, only '\n' is being recognized as line terminator
+                    this.target.append(this.isActive(Pattern.UNIX_LINES) ? "[^\\n]" : ".");
+                }
+            } else if (character == '^') {
+                if (this.isActive(Pattern.MULTILINE)) {
+                    // the start of a line could only be expressed via a lookbehind, which is not supported before ES2018
+                    throw new UntranslatableException();
+                }
+                this.target.append('^');
+            } else if (character == '$') {
+                if (!this.isActive(Pattern.MULTILINE)) {
+                    this.target.append('$');
+                } else {
+                    this.target.append(this.isActive(Pattern.UNIX_LINES) ? "(?=$|\\n)" : "(?=$|[" + LINE_TERMINATORS + "])");
+                }
+            } else if (character == '|') {
+                this.target.append('|');
+            } else {
+                this.appendLiteral(character);
+            }
+        }
+
+        /**
+         * Handle the optional lazy or possessive mode indicator following a quantifier. A possessive quantifier is being replaced by a greedy one.
+         */
+        private void translateQuantifierMode() {
+            if (this.consumeIf('?')) {
+                this.target.append('?');
+            } else {
+                this.consumeIf('+');
+            }
+        }
+
+        /**
+         * Translate the start of a group, including embedded flags.
+         *
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateGroupStart() throws UntranslatableException {
+            this.enclosingFlags.push(this.flags);
+            if (!this.consumeIf('?')) {
+                this.target.append('(');
+            } else if (this.consumeIf(':') || this.consumeIf('>')) {
+                // atomic groups are being treated as non-capturing groups
+                this.target.append("(?:");
+            } else if (this.consumeIf('=')) {
+                this.target.append("(?=");
+            } else if (this.consumeIf('!')) {
+                this.target.append("(?!");
+            } else if (this.consumeIf('<')) {
+                if (this.consumeIf('=')) {
+                    this.target.append("(?<=");
+                } else if (this.consumeIf('!')) {
+                    this.target.append("(?<!");
+                } else {
+                    this.target.append("(?<").append(this.consumeUntil('>')).append('>');
+                }
+            } else {
+                this.translateEmbeddedFlags();
+            }
+        }
+
+        /**
+         * Translate the embedded flags, e.g. {@code (?i)} or {@code (?s-i:...)}.
+         *
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateEmbeddedFlags() throws UntranslatableException {
+            boolean enable = true;
+            int newFlags = this.flags;
+            char character = this.next();
+            while (character != ')' && character != ':') {
+                if (character == '-') {
+                    enable = false;
+                } else {
+                    int flag = EcmaPatternTranslator.getFlag(character);
+                    newFlags = enable ? newFlags | flag : newFlags & ~flag;
+                }
+                character = this.next();
+            }
+            if ((newFlags & UNSUPPORTED_FLAGS) != 0) {
+                throw new UntranslatableException();
+            }
+            if (character == ')') {
+                // flags apply until the end of the enclosing group
+                this.enclosingFlags.pop();
+            } else {
+                this.target.append("(?:");
+            }
+            this.flags = newFlags;
+        }
+
+        /**
+         * Translate an escape sequence outside of a character class.
+         *
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateEscape() throws UntranslatableException {
+            char character = this.next();
+            String replacement = REPLACED_ESCAPES.get(character);
+            if (character == 'Z' && this.isActive(Pattern.UNIX_LINES)) {
+                this.target.append("(?=\\n?$)");
+            } else if (replacement != null) {
+                this.target.append(replacement);
+            } else if (character == 'Q') {
+                this.translateQuotation();
+            } else if (character == 'k' || character >= '1' && character <= '9') {
+                this.translateBackReference(character);
+            } else if (EcmaPatternTranslator.isCharacterSetEscape(character)) {
+                String characterSet = this.translateCharacterSetEscape(character, false);
+                if (!characterSet.startsWith("[")) {
+                    characterSet = "[" + characterSet + "]";
+                }
+                this.target.append(this.withSupplementaryAlternatives(characterSet));
+            } else {
+                this.translateSingleCharacterEscape(character, false);
+            }
+        }
+
+        /**
+         * Translate a back reference, either by name (e.g. {@code \k<name>}) or by number (e.g. {@code \1}).
+         *
+         * @param character escaped character (i.e. 'k' or a digit)
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateBackReference(char character) throws UntranslatableException {
+            this.target.append('\\').append(character);
+            if (character == 'k') {
+                this.target.append(this.next()).append(this.consumeUntil('>')).append('>');
+            } else {
+                while (Character.isDigit(this.peek())) {
+                    this.target.append(this.next());
+                }
+            }
+        }
+
+        /**
+         * Translate a quoted part (i.e. between {@code \Q} and {@code \E}) into escaped literals.
+         */
+        private void translateQuotation() {
+            for (char character : this.consumeQuotation().toCharArray()) {
+                this.appendLiteral(character);
+            }
+        }
+
+        /**
+         * Consume a quoted part, i.e. up to (and including) the next {@code \E} or the end of the expression.
+         *
+         * @return quoted characters (excluding the {@code \E})
+         */
+        private String consumeQuotation() {
+            int endIndex = this.source.indexOf("\\E", this.position);
+            String quotation = this.source.substring(this.position, endIndex == -1 ? this.source.length() : endIndex);
+            this.position = endIndex == -1 ? this.source.length() : endIndex + 2;
+            return quotation;
+        }
+
+        /**
+         * Translate an escape sequence representing a set of characters.
+         *
+         * @param character escaped character (e.g. 'p' for {@code \p{...}} or 'h' for {@code \h})
+         * @param insideCharacterClass whether the escape sequence is located inside a character class
+         * @return characters to include in a character class (or a complete character class if {@code insideCharacterClass} is {@code false})
+         * @throws UntranslatableException if the expression cannot be translated, e.g. for unicode properties requiring the ECMA 262 "u" flag
+         */
+        private String translateCharacterSetEscape(char character, boolean insideCharacterClass) throws UntranslatableException {
+            if (character == 'H' || character == 'V') {
+                if (insideCharacterClass) {
+                    throw new UntranslatableException();
+                }
+                return "[^" + CHARACTER_SET_ESCAPES.get(Character.toLowerCase(character)) + "]";
+            }
+            if (character != 'p' && character != 'P') {
+                return CHARACTER_SET_ESCAPES.get(character);
+            }
+            String propertyName = this.consumeIf('{') ? this.consumeUntil('}') : String.valueOf(this.next());
+            boolean negated = character == 'P';
+            if (propertyName.startsWith("Is") && CHARACTER_SET_PROPERTIES.containsKey(propertyName.substring(2))) {
+                propertyName = propertyName.substring(2);
+            }
+            String characterSet = CHARACTER_SET_PROPERTIES.get(propertyName);
+            if (characterSet == null) {
+                // unicode properties (e.g. \p{javaLowerCase} or \p{Lu}) are being replaced by the characters they match
+                String escapeSequence = "\\" + character + "{" + propertyName + "}";
+                int caseFlags = this.flags & (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                CharacterSetExpansion expansion = PROPERTY_EXPANSIONS.computeIfAbsent(new TranslationKey(escapeSequence, caseFlags),
+                        CharacterSetExpansion::of);
+                this.supplementaryAlternatives.addAll(expansion.supplementaryAlternatives);
+                return expansion.characters;
+            }
+            if (this.isActive(Pattern.CASE_INSENSITIVE) && ("Lower".equals(propertyName) || "Upper".equals(propertyName))) {
+                // as in Java, both cases are being matched
+                characterSet = CHARACTER_SET_PROPERTIES.get("Alpha");
+            }
+            if (!negated) {
+                return characterSet;
+            }
+            if (insideCharacterClass) {
+                throw new UntranslatableException();
+            }
+            return "[^" + characterSet + "]";
+        }
+
+        /**
+         * Translate an escape sequence representing a single character.
+         *
+         * @param character escaped character
+         * @param insideCharacterClass whether the escape sequence is located inside a character class
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateSingleCharacterEscape(char character, boolean insideCharacterClass) throws UntranslatableException {
+            if (SHARED_ESCAPES.indexOf(character) != -1) {
+                this.target.append('\\').append(character);
+            } else if (character == 'x' || character == 'u' || character == '0' || character == 'c') {
+                this.target.append(this.translateCharacterCode(character, insideCharacterClass));
+            } else if (Character.isLetterOrDigit(character)) {
+                // e.g. \G or \X
+                throw new UntranslatableException();
+            } else if (insideCharacterClass) {
+                this.appendClassCharacter(character);
+            } else {
+                this.appendLiteral(character);
+            }
+        }
+
+        /**
+         * Translate an escape sequence representing a single character by its code.
+         *
+         * @param character escaped character (i.e. 'x', 'u', '0' or 'c')
+         * @param insideCharacterClass whether the escape sequence is located inside a character class
+         * @return translated escape sequence
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private String translateCharacterCode(char character, boolean insideCharacterClass) throws UntranslatableException {
+            if (character == 'c') {
+                char controlCharacter = this.next();
+                if (controlCharacter >= 'A' && controlCharacter <= 'Z' || controlCharacter >= 'a' && controlCharacter <= 'z') {
+                    return "\\c" + controlCharacter;
+                }
+                throw new UntranslatableException();
+            }
+            int codePoint;
+            if (character == '0') {
+                codePoint = this.readOctalCode();
+            } else if (character == 'x' && this.consumeIf('{')) {
+                codePoint = Integer.parseInt(this.consumeUntil('}'), 16);
+            } else {
+                int length = character == 'x' ? 2 : 4;
+                codePoint = Integer.parseInt(this.source.substring(this.position, this.position + length), 16);
+                this.position += length;
+            }
+            return EcmaPatternTranslator.toUnicodeEscape(codePoint, insideCharacterClass);
+        }
+
+        /**
+         * Read the (up to three) digits of an octal escape sequence, e.g. {@code \0101}.
+         *
+         * @return character code
+         */
+        private int readOctalCode() {
+            int endIndex = this.position;
+            while (endIndex < this.source.length() && endIndex - this.position < 3 && this.source.charAt(endIndex) >= '0'
+                    && this.source.charAt(endIndex) <= '7' && Integer.parseInt(this.source.substring(this.position, endIndex + 1), 8) <= 0377) {
+                endIndex++;
+            }
+            int codePoint = Integer.parseInt(this.source.substring(this.position, endIndex), 8);
+            this.position = endIndex;
+            return codePoint;
+        }
+
+        /**
+         * Translate a character class (without support for unions or intersections).
+         *
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateCharacterClass() throws UntranslatableException {
+            int classStartIndex = this.target.length();
+            this.target.append('[');
+            if (this.consumeIf('^')) {
+                this.target.append('^');
+            }
+            boolean first = true;
+            char character = this.next();
+            while (character != ']' || first) {
+                first = false;
+                if (character == '[' || character == '&' && this.peek() == '&') {
+                    // union or intersection of character classes
+                    throw new UntranslatableException();
+                }
+                if (!this.isActive(Pattern.COMMENTS) || !this.skipWhitespaceOrComment(character)) {
+                    this.translateCharacterClassPart(character);
+                }
+                character = this.next();
+            }
+            this.target.append(']');
+            if (!this.supplementaryAlternatives.isEmpty()) {
+                if (this.target.charAt(classStartIndex + 1) == '^') {
+                    // the surrogate pairs would need to be excluded as a whole, which requires the ECMA 262 "u" flag
+                    throw new UntranslatableException();
+                }
+                String characterClass = this.target.substring(classStartIndex);
+                this.target.setLength(classStartIndex);
+                this.target.append(this.withSupplementaryAlternatives(characterClass));
+            }
+        }
+
+        /**
+         * Combine the given character class with the collected alternatives for supplementary characters (if there are any) and reset the latter.
+         *
+         * @param characterClass translated character class
+         * @return given character class or a non-capturing group with all alternatives
+         */
+        private String withSupplementaryAlternatives(String characterClass) {
+            if (this.supplementaryAlternatives.isEmpty()) {
+                return characterClass;
+            }
+            String result = "(?:" + characterClass + "|" + String.join("|", this.supplementaryAlternatives) + ")";
+            this.supplementaryAlternatives.clear();
+            return result;
+        }
+
+        /**
+         * Translate a single part of a character class: either a single character, a range of characters or an escape sequence.
+         *
+         * @param character current character
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateCharacterClassPart(char character) throws UntranslatableException {
+            if (character != '\\') {
+                this.translateCharacterClassLiteral(character);
+                return;
+            }
+            char escaped = this.next();
+            if (escaped == 'Q') {
+                for (char quotedCharacter : this.consumeQuotation().toCharArray()) {
+                    this.appendClassCharacter(quotedCharacter);
+                }
+            } else if (EcmaPatternTranslator.isCharacterSetEscape(escaped)) {
+                this.target.append(this.translateCharacterSetEscape(escaped, true));
+            } else if (escaped == 'b' || REPLACED_ESCAPES.containsKey(escaped) || escaped == 'k' || Character.isDigit(escaped) && escaped != '0') {
+                throw new UntranslatableException();
+            } else {
+                this.translateSingleCharacterEscape(escaped, true);
+            }
+        }
+
+        /**
+         * Translate a literal character inside of a character class, that may be the start of a range of characters.
+         *
+         * @param character current character
+         * @throws UntranslatableException if the expression cannot be translated
+         */
+        private void translateCharacterClassLiteral(char character) throws UntranslatableException {
+            int rangeEndIndex = this.position + 1;
+            if (this.peek() == '-' && rangeEndIndex < this.source.length() && "]\\[".indexOf(this.source.charAt(rangeEndIndex)) == -1) {
+                this.position++;
+                this.appendClassRange(character, this.next());
+            } else {
+                this.appendClassCharacter(character);
+            }
+        }
+
+        /**
+         * Append a literal character (outside of a character class), considering the CASE_INSENSITIVE flag.
+         *
+         * @param character literal character
+         */
+        void appendLiteral(char character) {
+            char otherCase = this.getOtherCase(character);
+            if (otherCase != character) {
+                this.target.append('[').append(character).append(otherCase).append(']');
+            } else if (SYNTAX_CHARACTERS.indexOf(character) != -1) {
+                this.target.append('\\').append(character);
+            } else {
+                this.target.append(character);
+            }
+        }
+
+        /**
+         * Append a literal character inside of a character class, considering the CASE_INSENSITIVE flag.
+         *
+         * @param character literal character
+         */
+        private void appendClassCharacter(char character) {
+            if (CLASS_SYNTAX_CHARACTERS.indexOf(character) != -1) {
+                this.target.append('\\');
+            }
+            this.target.append(character);
+            char otherCase = this.getOtherCase(character);
+            if (otherCase != character) {
+                this.target.append(otherCase);
+            }
+        }
+
+        /**
+         * Append a range of characters inside of a character class, considering the CASE_INSENSITIVE flag.
+         *
+         * @param from first character in the range
+         * @param to last character in the range
+         * @throws UntranslatableException if the range cannot be translated
+         */
+        private void appendClassRange(char from, char to) throws UntranslatableException {
+            this.appendClassCharacter(from);
+            this.target.setLength(this.target.length() - (this.getOtherCase(from) == from ? 0 : 1));
+            this.target.append('-');
+            if (CLASS_SYNTAX_CHARACTERS.indexOf(to) != -1) {
+                this.target.append('\\');
+            }
+            this.target.append(to);
+            if (this.isActive(Pattern.CASE_INSENSITIVE)) {
+                boolean unicodeCase = this.isActive(Pattern.UNICODE_CASE);
+                if (unicodeCase && to - from > 0xFF) {
+                    throw new UntranslatableException();
+                }
+                char end = unicodeCase ? to : (char) Math.min(to, 0x7F);
+                for (char character = from; character <= end && character >= from; character++) {
+                    char otherCase = this.getOtherCase(character);
+                    if (otherCase < from || otherCase > to) {
+                        this.target.append(otherCase);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Determine the other case of the given character (if the CASE_INSENSITIVE flag is active).
+         *
+         * @param character character to get the counterpart for
+         * @return upper/lower case counterpart (or the given character itself)
+         */
+        private char getOtherCase(char character) {
+            if (!this.isActive(Pattern.CASE_INSENSITIVE) || character > 0x7F && !this.isActive(Pattern.UNICODE_CASE)) {
+                return character;
+            }
+            char upperCase = Character.toUpperCase(character);
+            return upperCase == character ? Character.toLowerCase(character) : upperCase;
+        }
+
+        @Override
+        public String toString() {
+            return this.target.toString();
+        }
+    }
+
+    /**
+     * Check whether the given escaped character represents a set of characters (e.g. {@code \h} or {@code \p{Alpha}}).
+     *
+     * @param character escaped character
+     * @return whether the escape sequence should be handled via {@code translateCharacterSetEscape()}
+     */
+    private static boolean isCharacterSetEscape(char character) {
+        return "pPHV".indexOf(character) != -1 || CHARACTER_SET_ESCAPES.containsKey(character);
+    }
+
+    /**
+     * Convert the given code point into an ECMA 262 unicode escape sequence (without relying on the "u" flag).
+     *
+     * @param codePoint character code to convert
+     * @param insideCharacterClass whether the escape sequence is located inside a character class
+     * @return unicode escape sequence (or surrogate pair)
+     * @throws UntranslatableException if a surrogate pair would be needed inside a character class
+     */
+    private static String toUnicodeEscape(int codePoint, boolean insideCharacterClass) throws UntranslatableException {
+        if (Character.isBmpCodePoint(codePoint)) {
+            return String.format("\\u%04X", codePoint);
+        }
+        if (insideCharacterClass) {
+            throw new UntranslatableException();
+        }
+        return String.format("(?:\\u%04X\\u%04X)", (int) Character.highSurrogate(codePoint), (int) Character.lowSurrogate(codePoint));
+    }
+
+    /**
+     * Look-up the flag represented by the given character in an embedded flag expression.
+     *
+     * @param character embedded flag character
+     * @return flag value
+     * @throws UntranslatableException if the character does not represent a known flag
+     */
+    private static int getFlag(char character) throws UntranslatableException {
+        int index = "idmsuxU".indexOf(character);
+        if (index == -1) {
+            throw new UntranslatableException();
+        }
+        return new int[]{Pattern.CASE_INSENSITIVE, Pattern.UNIX_LINES, Pattern.MULTILINE, Pattern.DOTALL, Pattern.UNICODE_CASE, Pattern.COMMENTS,
+            Pattern.UNICODE_CHARACTER_CLASS}[index];
+    }
+
+    /**
+     * Characters being matched by a unicode property escape sequence: the ones in the Basic Multilingual Plane (to be included in a character
+     * class) and the supplementary ones (as alternative surrogate pairs). Lone surrogates are being ignored.
+     */
+    private static final class CharacterSetExpansion {
+
+        private final String characters;
+        private final List<String> supplementaryAlternatives;
+
+        /**
+         * Constructor.
+         *
+         * @param characters characters/ranges to include in a character class
+         * @param supplementaryAlternatives surrogate pairs (with character classes for ranges) matching the supplementary characters
+         */
+        private CharacterSetExpansion(String characters, List<String> supplementaryAlternatives) {
+            this.characters = characters;
+            this.supplementaryAlternatives = supplementaryAlternatives;
+        }
+
+        /**
+         * Determine the characters being matched by the given escape sequence, by checking each code point.
+         *
+         * @param key unicode property escape sequence (e.g. {@code \P{Lu}}) and case-related flags
+         * @return matched characters
+         */
+        static CharacterSetExpansion of(TranslationKey key) {
+            Matcher matcher = Pattern.compile(key.regexp, key.flags).matcher("");
+            char[] singleCharacter = new char[1];
+            StringBuilder characters = new StringBuilder();
+            CharacterSetExpansion.appendMatchingRanges(characters, Character.MIN_VALUE, Character.MAX_VALUE, code -> {
+                singleCharacter[0] = (char) code;
+                return !Character.isSurrogate(singleCharacter[0]) && matcher.reset(new String(singleCharacter)).matches();
+            });
+            List<String> supplementaryAlternatives = new ArrayList<>();
+            char[] surrogatePair = new char[2];
+            String previousLowSurrogates = null;
+            int highRangeStart = -1;
+            // group consecutive high surrogates being followed by the same low surrogates
+            for (int highSurrogate = Character.MIN_HIGH_SURROGATE; highSurrogate <= Character.MAX_HIGH_SURROGATE + 1; highSurrogate++) {
+                StringBuilder lowSurrogates = new StringBuilder();
+                if (highSurrogate <= Character.MAX_HIGH_SURROGATE) {
+                    surrogatePair[0] = (char) highSurrogate;
+                    CharacterSetExpansion.appendMatchingRanges(lowSurrogates, Character.MIN_LOW_SURROGATE, Character.MAX_LOW_SURROGATE, code -> {
+                        surrogatePair[1] = (char) code;
+                        return matcher.reset(new String(surrogatePair)).matches();
+                    });
+                }
+                if (lowSurrogates.toString().equals(previousLowSurrogates)) {
+                    continue;
+                }
+                if (previousLowSurrogates != null && !previousLowSurrogates.isEmpty()) {
+                    StringBuilder highSurrogates = new StringBuilder();
+                    CharacterSetExpansion.appendRange(highSurrogates, highRangeStart, highSurrogate - 1);
+                    supplementaryAlternatives.add(CharacterSetExpansion.asCharacterClass(highSurrogates.toString())
+                            + CharacterSetExpansion.asCharacterClass(previousLowSurrogates));
+                }
+                previousLowSurrogates = lowSurrogates.toString();
+                highRangeStart = highSurrogate;
+            }
+            return new CharacterSetExpansion(characters.toString(), supplementaryAlternatives);
+        }
+
+        /**
+         * Append all ranges of matching characters within the given bounds.
+         *
+         * @param target where to append the ranges to
+         * @param from first character to check
+         * @param to last character to check
+         * @param isMatching check whether a single character is included
+         */
+        private static void appendMatchingRanges(StringBuilder target, int from, int to, IntPredicate isMatching) {
+            int rangeStart = -1;
+            for (int code = from; code <= to + 1; code++) {
+                boolean matching = code <= to && isMatching.test(code);
+                if (matching && rangeStart == -1) {
+                    rangeStart = code;
+                } else if (!matching && rangeStart != -1) {
+                    CharacterSetExpansion.appendRange(target, rangeStart, code - 1);
+                    rangeStart = -1;
+                }
+            }
+        }
+
+        /**
+         * Append the given range of characters (to be included in a character class).
+         *
+         * @param target where to append the range to
+         * @param from first character in the range
+         * @param to last character in the range
+         */
+        private static void appendRange(StringBuilder target, int from, int to) {
+            target.append(String.format("\\u%04X", from));
+            if (to > from) {
+                target.append(to > from + 1 ? "-" : "").append(String.format("\\u%04X", to));
+            }
+        }
+
+        /**
+         * Wrap the given characters/ranges in a character class, unless it is a single character.
+         *
+         * @param characters characters/ranges as written by {@link #appendRange(StringBuilder, int, int)}
+         * @return single character or character class
+         */
+        private static String asCharacterClass(String characters) {
+            return characters.length() == 6 ? characters : "[" + characters + "]";
+        }
+    }
+
+    /**
+     * Cache key for a translation: expression and flags.
+     */
+    private static final class TranslationKey {
+
+        private final String regexp;
+        private final int flags;
+
+        /**
+         * Constructor.
+         *
+         * @param regexp Java regular expression
+         * @param flags Java regular expression flags
+         */
+        TranslationKey(String regexp, int flags) {
+            this.regexp = regexp;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof TranslationKey)) {
+                return false;
+            }
+            TranslationKey otherKey = (TranslationKey) other;
+            return this.flags == otherKey.flags && this.regexp.equals(otherKey.regexp);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.regexp, this.flags);
+        }
+    }
+}
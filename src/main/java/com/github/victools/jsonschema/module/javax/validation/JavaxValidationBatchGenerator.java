@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.victools.jsonschema.generator.SchemaGenerator;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfig;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * Entry point for generating the schemas of many root types in parallel.
+ * <br>
+ * All workers are using the same {@link SchemaGenerator} and thereby the same {@link JavaxValidationModule} instance(s) included in the given
+ * configuration. The constraints resolved for a field/method are therefore only being collected once, regardless of how many root types are
+ * referencing the type declaring it. The same applies to the constraint annotations found on each class, that are being indexed once per JVM.
+ * <br>
+ * By default, the schemas are being generated in the {@link ForkJoinPool#commonPool() common fork-join pool}.
+ */
+public class JavaxValidationBatchGenerator {
+
+    private final SchemaGenerator generator;
+    private final Executor executor;
+
+    /**
+     * Constructor: using the {@link ForkJoinPool#commonPool() common fork-join pool}.
+     *
+     * @param config generator configuration (typically including a {@link JavaxValidationModule})
+     */
+    public JavaxValidationBatchGenerator(SchemaGeneratorConfig config) {
+        this(config, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config generator configuration (typically including a {@link JavaxValidationModule})
+     * @param executor executor to perform the individual schema generations in
+     */
+    public JavaxValidationBatchGenerator(SchemaGeneratorConfig config, Executor executor) {
+        this.generator = new SchemaGenerator(config);
+        this.executor = executor;
+    }
+
+    /**
+     * Generate the schemas for the given root types in parallel and wait for all of them to be completed.
+     *
+     * @param rootTypes types to generate a schema for each (duplicates are only being considered once)
+     * @return generated schemas per root type (in the order of the given root types)
+     * @throws CompletionException if the schema generation failed for any of the given types
+     */
+    public Map<Type, JsonNode> generateSchemas(Collection<? extends Type> rootTypes) {
+        Map<Type, JsonNode> schemas = new ConcurrentHashMap<>();
+        this.generateSchemas(rootTypes, schemas::put);
+        Map<Type, JsonNode> result = new LinkedHashMap<>();
+        for (Type rootType : rootTypes) {
+            result.put(rootType, schemas.get(rootType));
+        }
+        return result;
+    }
+
+    /**
+     * Generate the schemas for the given root types in parallel and wait for all of them to be completed. Each generated schema is being handed
+     * to the given callback as soon as it is available.
+     *
+     * @param rootTypes types to generate a schema for each (duplicates are only being considered once)
+     * @param callback consumer of each root type and its generated schema (being called from the worker threads, i.e. needs to be thread-safe)
+     * @throws CompletionException if the schema generation failed for any of the given types
+     */
+    public void generateSchemas(Collection<? extends Type> rootTypes, BiConsumer<Type, JsonNode> callback) {
+        CompletableFuture<?>[] tasks = new LinkedHashSet<>(rootTypes).stream()
+                .map(rootType -> CompletableFuture.runAsync(() -> callback.accept(rootType, this.generator.generateSchema(rootType)),
+                        this.executor))
+                .toArray(CompletableFuture<?>[]::new);
+        CompletableFuture.allOf(tasks).join();
+    }
+}
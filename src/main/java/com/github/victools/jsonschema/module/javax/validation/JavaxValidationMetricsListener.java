@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.generator.MemberScope;
+import java.lang.annotation.Annotation;
+
+/**
+ * Optional listener for collecting metrics about the {@link JavaxValidationModule}'s processing, e.g. to bridge them into an external metrics
+ * library. All methods are no-ops by default, i.e. implementations only need to override those they are interested in.
+ * <br>
+ * If no listener is being registered via {@link JavaxValidationModule#withMetricsListener(JavaxValidationMetricsListener)}, no metrics are being
+ * collected at all (i.e. without any timing or allocation overhead). Implementations are expected to be thread-safe and cheap, since they are
+ * being called synchronously during the schema generation.
+ */
+public interface JavaxValidationMetricsListener {
+
+    /**
+     * The individual attribute resolvers being registered by the {@link JavaxValidationModule}.
+     */
+    enum Resolver {
+        NULLABLE_CHECK,
+        REQUIRED_CHECK,
+        ARRAY_MIN_ITEMS,
+        ARRAY_MAX_ITEMS,
+        STRING_MIN_LENGTH,
+        STRING_MAX_LENGTH,
+        STRING_FORMAT,
+        STRING_PATTERN,
+        NUMBER_INCLUSIVE_MINIMUM,
+        NUMBER_EXCLUSIVE_MINIMUM,
+        NUMBER_INCLUSIVE_MAXIMUM,
+        NUMBER_EXCLUSIVE_MAXIMUM;
+    }
+
+    /**
+     * The internal caches being used by the {@link JavaxValidationModule}.
+     */
+    enum Cache {
+        /**
+         * Resolved constraints per field/method.
+         */
+        CONSTRAINT_PROFILES,
+        /**
+         * Pattern expressions translated into the ECMA 262 dialect (see {@link JavaxValidationOption#TRANSLATE_PATTERN_EXPRESSIONS}).
+         */
+        PATTERN_TRANSLATIONS,
+        /**
+         * Pattern expressions analysed for catastrophic backtracking (see {@link JavaxValidationModule#withPatternRiskHandling}).
+         */
+        PATTERN_RISK_ANALYSES,
+        /**
+         * Resolved constraints per field/method, being loaded from disk (see {@link JavaxValidationModuleConfig#getPersistentProfileCache()}).
+         */
+        PERSISTENT_PROFILES,
+        /**
+         * Resolved constraints per field/method, being shared by multiple modules (see {@link JavaxValidationModuleConfig#getSharedProfileCache()}).
+         */
+        SHARED_PROFILES,
+        /**
+         * Standard constraints declared on the fields/methods of a class, being collected once per class.
+         */
+        CLASS_INDEXES,
+        /**
+         * Standard constraints a custom constraint annotation is composed of, being collected once per annotation type (only accessed while
+         * collecting a class's constraints).
+         */
+        COMPOSED_CONSTRAINTS,
+        /**
+         * Parsed values of {@code @DecimalMin}/{@code @DecimalMax} annotations.
+         */
+        NUMERIC_BOUNDS;
+    }
+
+    /**
+     * Called after looking-up an annotation on a field/method (and its associated getter/field). When creating a field's/method's constraint
+     * profile, its declared constraints are being collected in a single pass, i.e. this is then only being called for the constraints found.
+     *
+     * @param annotationType type of annotation being looked-up
+     * @param found whether an applicable annotation was found
+     */
+    default void onAnnotationLookup(Class<? extends Annotation> annotationType, boolean found) {
+        // no-op by default
+    }
+
+    /**
+     * Called when an annotation was found but is being ignored, because none of its validation groups are being considered.
+     *
+     * @param member field or method the annotation was looked-up for
+     * @param annotationType type of annotation being ignored
+     * @see JavaxValidationModule#forValidationGroups(Class...)
+     */
+    default void onValidationGroupMismatch(MemberScope<?, ?> member, Class<? extends Annotation> annotationType) {
+        // no-op by default
+    }
+
+    /**
+     * Called after one of the attribute resolvers has been invoked by the schema generator.
+     *
+     * @param resolver invoked resolver
+     * @param durationNanos time spent in the resolver (in nanoseconds)
+     */
+    default void onResolverInvocation(Resolver resolver, long durationNanos) {
+        // no-op by default
+    }
+
+    /**
+     * Called on each access to one of the internal caches.
+     *
+     * @param cache accessed cache
+     * @param hit whether the cache contained the requested value
+     */
+    default void onCacheAccess(Cache cache, boolean hit) {
+        // no-op by default
+    }
+}
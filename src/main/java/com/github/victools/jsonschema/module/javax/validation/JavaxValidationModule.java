@@ -16,19 +16,34 @@
 
 package com.github.victools.jsonschema.module.javax.validation;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.victools.jsonschema.generator.ConfigFunction;
 import com.github.victools.jsonschema.generator.FieldScope;
 import com.github.victools.jsonschema.generator.MemberScope;
 import com.github.victools.jsonschema.generator.MethodScope;
 import com.github.victools.jsonschema.generator.Module;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfigPart;
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.DeclaredConstraints;
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.IndexedConstraint;
+import com.github.victools.jsonschema.module.javax.validation.JavaxValidationMetricsListener.Cache;
+import com.github.victools.jsonschema.module.javax.validation.JavaxValidationMetricsListener.Resolver;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import javax.validation.Validator;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Email;
@@ -58,8 +73,39 @@ import javax.validation.constraints.Size;
  */
 public class JavaxValidationModule implements Module {
 
-    private final Set<JavaxValidationOption> options;
-    private Set<Class<?>> validationGroups;
+    private static final Logger LOGGER = Logger.getLogger(JavaxValidationModule.class.getName());
+
+    /**
+     * Current configuration, only being replaced as a whole (i.e. each reader sees a consistent set of settings).
+     */
+    private volatile JavaxValidationModuleConfig config;
+    /**
+     * Programmatically registered constraints not yet being applied to the current configuration, {@code null} if there are none. Consecutive
+     * registrations are being collected here, so that the configuration is only being rebuilt once (when it is being accessed the next time).
+     */
+    private volatile JavaxValidationModuleConfig.Builder pendingConstraints;
+    /**
+     * Resolved constraints per field/method, being shared by all resolvers and across all schema generations (also when being executed in
+     * parallel, e.g. via the {@link JavaxValidationBatchGenerator}). Replaced whenever the validation groups to consider are being changed.
+     * <br>
+     * The profiles are being kept per declaring type in a {@link ClassValue} owned by this module instance, i.e. they do not prevent the
+     * respective classes (and their class loaders) from being unloaded. Profiles of JDK classes' members are being kept in a plain map instead,
+     * as a {@link ClassValue} entry on a JDK class would never be released (JDK-8136353).
+     */
+    private volatile ProfileStorage constraintProfiles = new ProfileStorage();
+    /**
+     * Classifications of the fields'/methods' types, being independent of the configuration and therefore never being replaced.
+     */
+    private final TypeKind.Cache typeKinds = new TypeKind.Cache();
+    /**
+     * Emitter of diagnostic events, {@code null} if no events should be emitted.
+     */
+    private final ResolutionEventEmitter eventEmitter;
+    /**
+     * Flag indicating whether a subclass overrides {@link #getAnnotationFromFieldOrGetter(MemberScope, Class, Function)}, in which case the
+     * standard constraints are being looked-up through it (one by one) instead of in a single pass over the declared constraints.
+     */
+    private final boolean annotationLookupOverridden;
 
     /**
      * Constructor.
@@ -67,9 +113,53 @@ public class JavaxValidationModule implements Module {
      * @param options features to enable
      */
     public JavaxValidationModule(JavaxValidationOption... options) {
-        this.options = options == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(options));
         // by default: ignore validation groups
-        this.validationGroups = null;
+        this(new JavaxValidationModuleConfig.Builder().with(options).build());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config immutable configuration to apply (may be shared with other module instances)
+     */
+    public JavaxValidationModule(JavaxValidationModuleConfig config) {
+        this.config = config;
+        if (config.isEnabled(JavaxValidationOption.EMIT_FLIGHT_RECORDER_EVENTS)) {
+            this.eventEmitter = ResolutionEventEmitter.loadFlightRecorderEmitter();
+        } else {
+            this.eventEmitter = null;
+        }
+        this.annotationLookupOverridden = JavaxValidationModule.isOverridingAnnotationLookup(this.getClass());
+    }
+
+    /**
+     * Check whether the given (sub)class overrides {@link #getAnnotationFromFieldOrGetter(MemberScope, Class, Function)}.
+     *
+     * @param moduleType type of module instance
+     * @return whether the annotation look-up is being overridden
+     */
+    private static boolean isOverridingAnnotationLookup(Class<?> moduleType) {
+        for (Class<?> type = moduleType; type != JavaxValidationModule.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("getAnnotationFromFieldOrGetter", MemberScope.class, Class.class, Function.class);
+                return true;
+            } catch (NoSuchMethodException | SecurityException ex) {
+                // not declared on this type
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getter for the current configuration.
+     *
+     * @return immutable configuration
+     */
+    public JavaxValidationModuleConfig getConfig() {
+        if (this.pendingConstraints != null) {
+            this.applyPendingConstraints();
+        }
+        return this.config;
     }
 
     /**
@@ -79,16 +169,183 @@ public class JavaxValidationModule implements Module {
      * <li>Calling this without parameters will only consider those annotations where no groups are defined.</li>
      * <li>Calling this with not-null parameters will only consider those annotations without defined groups or where at least one matches.</li>
      * </ul>
+     * As per the Bean Validation specification, a given validation group also includes the groups it extends, the groups listed in a
+     * {@link javax.validation.GroupSequence GroupSequence} annotation on it, as well as the {@link javax.validation.groups.Default Default} group.
      *
      * @param validationGroups validation groups to consider
      * @return this module instance (for chaining)
+     * @see JavaxValidationModuleConfig.Builder#forValidationGroups(Class...)
      */
-    public JavaxValidationModule forValidationGroups(Class<?>... validationGroups) {
-        if (validationGroups == null) {
-            this.validationGroups = null;
-        } else {
-            this.validationGroups = new HashSet<>(Arrays.asList(validationGroups));
+    public synchronized JavaxValidationModule forValidationGroups(Class<?>... validationGroups) {
+        this.config = this.getConfig().toBuilder().forValidationGroups(validationGroups).build();
+        // previously resolved constraints may no longer be applicable (replaced after the configuration, so that no outdated profile is kept)
+        this.constraintProfiles = new ProfileStorage();
+        return this;
+    }
+
+    /**
+     * Analyse each "pattern" (see {@link JavaxValidationOption#INCLUDE_PATTERN_EXPRESSIONS}) for constructs that are prone to catastrophic
+     * backtracking (e.g. nested quantifiers), and handle those expressions as specified. The analysis result is being cached per expression.
+     *
+     * @param handling how to handle a risky expression ({@code null} to skip the analysis)
+     * @return this module instance (for chaining)
+     * @see #withPatternRiskHandling(PatternRiskHandling, int)
+     */
+    public JavaxValidationModule withPatternRiskHandling(PatternRiskHandling handling) {
+        return this.withPatternRiskHandling(handling, JavaxValidationModuleConfig.DEFAULT_PATTERN_RISK_MAX_LENGTH);
+    }
+
+    /**
+     * Analyse each "pattern" (see {@link JavaxValidationOption#INCLUDE_PATTERN_EXPRESSIONS}) for constructs that are prone to catastrophic
+     * backtracking (e.g. nested quantifiers), and handle those expressions as specified. The analysis result is being cached per expression.
+     *
+     * @param handling how to handle a risky expression ({@code null} to skip the analysis)
+     * @param maxLength limit of the {@code @Size} "maxLength" up to which a risky expression is being length-bounded in case of
+     *        {@link PatternRiskHandling#BOUND_LENGTH} (a risky expression without such a "maxLength" or with a higher one is being omitted)
+     * @return this module instance (for chaining)
+     */
+    public synchronized JavaxValidationModule withPatternRiskHandling(PatternRiskHandling handling, int maxLength) {
+        this.config = this.getConfig().toBuilder().withPatternRiskHandling(handling, maxLength).build();
+        return this;
+    }
+
+    /**
+     * Register a listener for collecting metrics about the annotation look-ups, resolver invocations and internal caches.
+     * <br>
+     * The listener needs to be registered before this module is being applied to a {@link SchemaGeneratorConfigBuilder}, in order to also
+     * measure the time spent in the individual resolvers.
+     *
+     * @param listener listener to report metrics to ({@code null} to disable the metrics collection)
+     * @return this module instance (for chaining)
+     */
+    public synchronized JavaxValidationModule withMetricsListener(JavaxValidationMetricsListener listener) {
+        this.config = this.getConfig().toBuilder().withMetricsListener(listener).build();
+        return this;
+    }
+
+    /**
+     * Register an on-disk cache of resolved constraint profiles, allowing subsequent JVMs to skip the reflective look-up of constraint
+     * annotations on unchanged classes. The cache needs to be saved explicitly via {@link PersistentProfileCache#save()}.
+     *
+     * @param cache cache to look-up profiles from and to add new profiles to ({@code null} to not persist any profiles)
+     * @return this module instance (for chaining)
+     */
+    public synchronized JavaxValidationModule withPersistentProfileCache(PersistentProfileCache cache) {
+        this.config = this.getConfig().toBuilder().withPersistentProfileCache(cache).build();
+        return this;
+    }
+
+    /**
+     * Register a bounded in-memory cache of resolved constraint profiles, that may be shared with other modules (e.g. one per schema generator
+     * configuration). While such a cache is registered, this module does not keep any profiles on its own.
+     *
+     * @param cache cache to look-up profiles from and to add new profiles to ({@code null} to let this module keep its own profiles)
+     * @return this module instance (for chaining)
+     * @see JavaxValidationModuleConfig.Builder#withSharedProfileCache(SharedProfileCache)
+     */
+    public synchronized JavaxValidationModule withSharedProfileCache(SharedProfileCache cache) {
+        this.config = this.getConfig().toBuilder().withSharedProfileCache(cache).build();
+        // the profiles kept so far are no longer being consulted
+        this.constraintProfiles = new ProfileStorage();
+        return this;
+    }
+
+    /**
+     * Use the constraint metadata of the given {@link Validator} instead of looking-up the constraint annotations via reflection.
+     *
+     * @param validator validator providing the constraint metadata ({@code null} to look-up constraint annotations via reflection)
+     * @return this module instance (for chaining)
+     * @see JavaxValidationModuleConfig.Builder#withValidator(Validator)
+     */
+    public synchronized JavaxValidationModule withValidator(Validator validator) {
+        this.config = this.getConfig().toBuilder().withValidator(validator).build();
+        // previously resolved constraints may stem from another source (replaced after the configuration, so that no outdated profile is kept)
+        this.constraintProfiles = new ProfileStorage();
+        return this;
+    }
+
+    /**
+     * Register constraints declared in Bean Validation XML mapping files, being consulted next to the constraint annotations.
+     *
+     * @param mappings parsed mapping files ({@code null} to only consider constraint annotations)
+     * @return this module instance (for chaining)
+     * @see JavaxValidationModuleConfig.Builder#withXmlConstraintMappings(XmlConstraintMappings)
+     */
+    public synchronized JavaxValidationModule withXmlConstraintMappings(XmlConstraintMappings mappings) {
+        this.config = this.getConfig().toBuilder().withXmlConstraintMappings(mappings).build();
+        // previously resolved constraints may no longer be complete (replaced after the configuration, so that no outdated profile is kept)
+        this.constraintProfiles = new ProfileStorage();
+        return this;
+    }
+
+    /**
+     * Register constraints on the fields/methods of the given class, e.g. one from a third-party library that cannot be annotated. The
+     * registered constraints are being consulted before the constraint annotations. Inherited fields/methods are being covered as well, i.e. the
+     * constraints apply when the member is being accessed through the given class (or one of its subclasses).
+     * <br>
+     * Example: {@code module.withConstraints(Account.class).member("iban").size(15, 34).pattern("^[A-Z]{2}[0-9]{2}[A-Z0-9]+$")}
+     *
+     * @param type declaring (or inheriting) class of the fields/methods to register constraints for
+     * @return entry point for registering constraints on the members of the given class
+     * @see JavaxValidationModuleConfig.Builder#withConstraints(Class)
+     */
+    public ProgrammaticConstraints.TypeConstraints withConstraints(Class<?> type) {
+        return new ProgrammaticConstraints.TypeConstraints(type, this::registerConstraint);
+    }
+
+    /**
+     * Register the given constraint on a field/method of the given class.
+     *
+     * @param type declaring class
+     * @param memberName name of the field, method or property
+     * @param constraint constraint annotation
+     */
+    private synchronized void registerConstraint(Class<?> type, String memberName, Annotation constraint) {
+        if (this.pendingConstraints == null) {
+            this.pendingConstraints = this.config.toBuilder();
         }
+        // the configuration is only being rebuilt once for any number of consecutive registrations
+        this.pendingConstraints.withConstraint(type, memberName, constraint);
+    }
+
+    /**
+     * Apply the programmatically registered constraints, that have been collected since the configuration was last accessed.
+     */
+    private synchronized void applyPendingConstraints() {
+        if (this.pendingConstraints != null) {
+            this.config = this.pendingConstraints.build();
+            // previously resolved constraints may no longer be complete (replaced after the configuration, so that no outdated profile is kept)
+            this.constraintProfiles = new ProfileStorage();
+            // only cleared afterwards, so that any reader not applying them itself already sees the new configuration
+            this.pendingConstraints = null;
+        }
+    }
+
+    /**
+     * Register a mapper of a custom constraint annotation to the schema attributes it implies.
+     *
+     * @param mapper mapper to register
+     * @return this module instance (for chaining)
+     * @see JavaxValidationModuleConfig.Builder#withConstraintMapper(ConstraintMapper)
+     */
+    public synchronized JavaxValidationModule withConstraintMapper(ConstraintMapper<?> mapper) {
+        this.config = this.getConfig().toBuilder().withConstraintMapper(mapper).build();
+        // previously resolved constraints may no longer be complete (replaced after the configuration, so that no outdated profile is kept)
+        this.constraintProfiles = new ProfileStorage();
+        return this;
+    }
+
+    /**
+     * Register all mappers of custom constraint annotations, that are being provided via the {@link java.util.ServiceLoader ServiceLoader} of the
+     * current thread's context class loader.
+     *
+     * @return this module instance (for chaining)
+     * @see JavaxValidationModuleConfig.Builder#withDiscoveredConstraintMappers(ClassLoader)
+     */
+    public synchronized JavaxValidationModule withDiscoveredConstraintMappers() {
+        this.config = this.getConfig().toBuilder().withDiscoveredConstraintMappers().build();
+        // previously resolved constraints may no longer be complete (replaced after the configuration, so that no outdated profile is kept)
+        this.constraintProfiles = new ProfileStorage();
         return this;
     }
 
@@ -96,41 +353,92 @@ public class JavaxValidationModule implements Module {
     public void applyToConfigBuilder(SchemaGeneratorConfigBuilder builder) {
         SchemaGeneratorConfigPart<FieldScope> fieldConfigPart = builder.forFields();
         this.applyToConfigPart(fieldConfigPart);
-        if (this.options.contains(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED)) {
-            fieldConfigPart.withRequiredCheck(this::isRequired);
+        if (this.getConfig().isEnabled(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED)) {
+            fieldConfigPart.withRequiredCheck(this.measured(this::isRequired));
         }
 
         SchemaGeneratorConfigPart<MethodScope> methodConfigPart = builder.forMethods();
         this.applyToConfigPart(methodConfigPart);
-        if (this.options.contains(JavaxValidationOption.NOT_NULLABLE_METHOD_IS_REQUIRED)) {
-            methodConfigPart.withRequiredCheck(this::isRequired);
+        if (this.getConfig().isEnabled(JavaxValidationOption.NOT_NULLABLE_METHOD_IS_REQUIRED)) {
+            methodConfigPart.withRequiredCheck(this.measured(this::isRequired));
         }
     }
 
     /**
      * Apply the various annotation-based resolvers for the given configuration part (this is expected to be executed for both fields and methods).
      *
+     * @param <M> type of member (either field or method)
      * @param configPart config builder part to add configurations to
      */
-    private void applyToConfigPart(SchemaGeneratorConfigPart<?> configPart) {
-        configPart.withNullableCheck(this::isNullable);
-        configPart.withArrayMinItemsResolver(this::resolveArrayMinItems);
-        configPart.withArrayMaxItemsResolver(this::resolveArrayMaxItems);
-        configPart.withStringMinLengthResolver(this::resolveStringMinLength);
-        configPart.withStringMaxLengthResolver(this::resolveStringMaxLength);
-        configPart.withStringFormatResolver(this::resolveStringFormat);
-        configPart.withNumberInclusiveMinimumResolver(this::resolveNumberInclusiveMinimum);
-        configPart.withNumberExclusiveMinimumResolver(this::resolveNumberExclusiveMinimum);
-        configPart.withNumberInclusiveMaximumResolver(this::resolveNumberInclusiveMaximum);
-        configPart.withNumberExclusiveMaximumResolver(this::resolveNumberExclusiveMaximum);
+    private <M extends MemberScope<?, ?>> void applyToConfigPart(SchemaGeneratorConfigPart<M> configPart) {
+        configPart.withNullableCheck(this.measured(Resolver.NULLABLE_CHECK, this::isNullable));
+        configPart.withArrayMinItemsResolver(this.measured(Resolver.ARRAY_MIN_ITEMS, this::resolveArrayMinItems));
+        configPart.withArrayMaxItemsResolver(this.measured(Resolver.ARRAY_MAX_ITEMS, this::resolveArrayMaxItems));
+        configPart.withStringMinLengthResolver(this.measured(Resolver.STRING_MIN_LENGTH, this::resolveStringMinLength));
+        configPart.withStringMaxLengthResolver(this.measured(Resolver.STRING_MAX_LENGTH, this::resolveStringMaxLength));
+        configPart.withStringFormatResolver(this.measured(Resolver.STRING_FORMAT, this::resolveStringFormat));
+        configPart.withNumberInclusiveMinimumResolver(this.measured(Resolver.NUMBER_INCLUSIVE_MINIMUM, this::resolveNumberInclusiveMinimum));
+        configPart.withNumberExclusiveMinimumResolver(this.measured(Resolver.NUMBER_EXCLUSIVE_MINIMUM, this::resolveNumberExclusiveMinimum));
+        configPart.withNumberInclusiveMaximumResolver(this.measured(Resolver.NUMBER_INCLUSIVE_MAXIMUM, this::resolveNumberInclusiveMaximum));
+        configPart.withNumberExclusiveMaximumResolver(this.measured(Resolver.NUMBER_EXCLUSIVE_MAXIMUM, this::resolveNumberExclusiveMaximum));
 
-        if (this.options.contains(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)) {
-            configPart.withStringPatternResolver(this::resolveStringPattern);
+        if (this.getConfig().isEnabled(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)) {
+            configPart.withStringPatternResolver(this.measured(Resolver.STRING_PATTERN, this::resolveStringPattern));
+        }
+        configPart.withInstanceAttributeOverride(this::applyAdditionalAttributes);
+    }
+
+    /**
+     * Wrap the given resolver in order to report its execution time to the registered metrics listener (if there is one).
+     *
+     * @param <M> type of member (either field or method)
+     * @param <R> type of resolved value
+     * @param resolverType indication of the resolver for the metrics listener
+     * @param resolver actual resolver to wrap
+     * @return resolver to register
+     */
+    private <M extends MemberScope<?, ?>, R> ConfigFunction<M, R> measured(Resolver resolverType, Function<MemberScope<?, ?>, R> resolver) {
+        JavaxValidationMetricsListener listener = this.getConfig().getMetricsListener();
+        if (listener == null) {
+            return resolver::apply;
+        }
+        return member -> {
+            long startTime = System.nanoTime();
+            try {
+                return resolver.apply(member);
+            } finally {
+                listener.onResolverInvocation(resolverType, System.nanoTime() - startTime);
+            }
+        };
+    }
+
+    /**
+     * Wrap the given required check in order to report its execution time to the registered metrics listener (if there is one).
+     *
+     * @param <M> type of member (either field or method)
+     * @param requiredCheck actual check to wrap
+     * @return required check to register
+     */
+    private <M extends MemberScope<?, ?>> Predicate<M> measured(Predicate<MemberScope<?, ?>> requiredCheck) {
+        JavaxValidationMetricsListener listener = this.getConfig().getMetricsListener();
+        if (listener == null) {
+            return requiredCheck::test;
         }
+        return member -> {
+            long startTime = System.nanoTime();
+            try {
+                return requiredCheck.test(member);
+            } finally {
+                listener.onResolverInvocation(Resolver.REQUIRED_CHECK, System.nanoTime() - startTime);
+            }
+        };
     }
 
     /**
      * Retrieves the annotation instance of the given type, either from the field it self or (if not present) from its getter.
+     * <br>
+     * The standard constraints are by default being collected in a single pass over the declared constraints, i.e. without calling this method.
+     * Only if a subclass overrides it, are the standard constraints being looked-up one by one through this method instead.
      *
      * @param <A> type of annotation
      * @param member field or method to retrieve annotation instance from (or from a field's getter or getter method's field)
@@ -143,24 +451,597 @@ public class JavaxValidationModule implements Module {
      */
     protected <A extends Annotation> A getAnnotationFromFieldOrGetter(MemberScope<?, ?> member, Class<A> annotationClass,
             Function<A, Class<?>[]> validationGroupsLookup) {
-        A annotation = member.getAnnotationConsideringFieldAndGetter(annotationClass);
-        if (annotation != null) {
-            Class<?>[] associatedGroups = validationGroupsLookup.apply(annotation);
-            /*
-             * the annotation is deemed applicable in one of the following three cases:
-             * 1. Validation groups are specifically ignored (i.e. forValidationGroups() was never called or with null as only parameter)
-             * 2. No validation groups are specified on the annotation.
-             * 3. Some validation group(s) are specified on the annotation and at least one of them was provided via forValidationGroups().
-             */
-            if (this.validationGroups != null && associatedGroups.length > 0
-                    && Collections.disjoint(this.validationGroups, Arrays.asList(associatedGroups))) {
-                // ignore the looked-up annotation as it is not associated with one of the desired validation groups
-                annotation = null;
+        /*
+         * the annotation is deemed applicable in one of the following three cases:
+         * 1. Validation groups are specifically ignored (i.e. forValidationGroups() was never called or with null as only parameter)
+         * 2. No validation groups are specified on the annotation.
+         * 3. Some validation group(s) are specified on the annotation and at least one of them was provided via forValidationGroups().
+         */
+        ValidationGroupMatcher groupMatcher = this.getConfig().getValidationGroupMatcher();
+        A annotation;
+        boolean applicable;
+        if (ClassConstraintIndex.isIndexed(annotationClass)) {
+            // standard constraint: the declared validation groups have already been compiled when indexing the declaring class
+            IndexedConstraint constraint = this.getIndexedConstraintFromFieldOrGetter(member, annotationClass);
+            annotation = constraint == null ? null : annotationClass.cast(constraint.getAnnotation());
+            applicable = constraint == null || groupMatcher == null || groupMatcher.isApplicable(constraint.getGroupMask());
+        } else {
+            if (member.isFakeContainerItemScope()) {
+                annotation = JavaxValidationModule.getContainerElementAnnotationFromFieldOrGetter(member, annotationClass);
+            } else {
+                annotation = member.getAnnotationConsideringFieldAndGetter(annotationClass);
+            }
+            applicable = annotation == null || groupMatcher == null || groupMatcher.isApplicable(validationGroupsLookup.apply(annotation));
+        }
+        JavaxValidationMetricsListener listener = this.getConfig().getMetricsListener();
+        if (listener != null) {
+            if (!applicable) {
+                listener.onValidationGroupMismatch(member, annotationClass);
+            }
+            listener.onAnnotationLookup(annotationClass, annotation != null && applicable);
+        }
+        // ignore the looked-up annotation if it is not associated with one of the desired validation groups
+        return applicable ? annotation : null;
+    }
+
+    /**
+     * Retrieves the standard constraint of the given type, either from the field it self or (if not present) from its getter.
+     * <br>
+     * The look-up is being performed via the {@link ClassConstraintIndex} of the respective declaring class, i.e. without reflection, or via the
+     * metadata of the registered {@link Validator}. Constraints from registered {@link ProgrammaticConstraints} or {@link XmlConstraintMappings}
+     * take precedence.
+     * For the item scope of a container (see {@link MemberScope#isFakeContainerItemScope()}), the constraints declared on the container element
+     * type are being considered instead, e.g. the {@code @Size} in {@code List<@Size(max = 64) String>}.
+     *
+     * @param member field or method to retrieve annotation instance from (or from a field's getter or getter method's field)
+     * @param annotationClass type of annotation
+     * @return indexed constraint (or {@code null})
+     * @see MemberScope#getAnnotationConsideringFieldAndGetter(Class)
+     */
+    private IndexedConstraint getIndexedConstraintFromFieldOrGetter(MemberScope<?, ?> member, Class<? extends Annotation> annotationClass) {
+        boolean containerItem = member.isFakeContainerItemScope();
+        Class<?> declaringType = member.getDeclaringType().getErasedType();
+        IndexedConstraint constraint = this.getIndexedConstraint(declaringType, member.getRawMember(), containerItem, annotationClass);
+        if (constraint == null) {
+            MemberScope<?, ?> associatedMember = JavaxValidationModule.getAssociatedMember(member);
+            if (associatedMember != null) {
+                constraint = this.getIndexedConstraint(declaringType, associatedMember.getRawMember(), containerItem, annotationClass);
+            }
+        }
+        return constraint;
+    }
+
+    /**
+     * Retrieves the standard constraint of the given type from the registered {@link ProgrammaticConstraints}, {@link XmlConstraintMappings} or
+     * (if not present there and the annotations are not being ignored) from the constraint annotations.
+     *
+     * @param declaringType type through which the field or method is being accessed (i.e. its declaring class or a subclass inheriting it)
+     * @param member field or method to retrieve the constraint for
+     * @param containerItem whether the constraints on the container element type should be considered instead of those on the member itself
+     * @param annotationClass type of annotation
+     * @return indexed constraint (or {@code null})
+     */
+    private IndexedConstraint getIndexedConstraint(Class<?> declaringType, Member member, boolean containerItem,
+            Class<? extends Annotation> annotationClass) {
+        ProgrammaticConstraints registeredConstraints = this.getConfig().getProgrammaticConstraints();
+        if (registeredConstraints != null && !containerItem) {
+            IndexedConstraint registeredConstraint = registeredConstraints.getDeclaredConstraints(declaringType, member).get(annotationClass);
+            if (registeredConstraint != null) {
+                return registeredConstraint;
+            }
+        }
+        XmlConstraintMappings xmlMappings = this.getConfig().getXmlConstraintMappings();
+        if (xmlMappings != null) {
+            IndexedConstraint mappedConstraint = xmlMappings.getDeclaredConstraints(member, containerItem).get(annotationClass);
+            if (mappedConstraint != null || xmlMappings.isIgnoringAnnotations(member)) {
+                return mappedConstraint;
+            }
+        }
+        return this.getAnnotatedConstraints(member, containerItem).get(annotationClass);
+    }
+
+    /**
+     * Retrieves the (non-standard) annotation of the given type on the container element type, either of the field it self or (if not present)
+     * of its getter.
+     *
+     * @param <A> type of annotation
+     * @param member item scope of a container field or method
+     * @param annotationClass type of annotation
+     * @return annotation instance (or {@code null})
+     */
+    private static <A extends Annotation> A getContainerElementAnnotationFromFieldOrGetter(MemberScope<?, ?> member, Class<A> annotationClass) {
+        Member rawMember = member.getRawMember();
+        A annotation = ClassConstraintIndex.of(rawMember.getDeclaringClass()).getContainerElement(rawMember).getAnnotation(annotationClass);
+        if (annotation == null) {
+            MemberScope<?, ?> associatedMember = JavaxValidationModule.getAssociatedMember(member);
+            if (associatedMember != null) {
+                Member associatedRawMember = associatedMember.getRawMember();
+                annotation = ClassConstraintIndex.of(associatedRawMember.getDeclaringClass()).getContainerElement(associatedRawMember)
+                        .getAnnotation(annotationClass);
             }
         }
         return annotation;
     }
 
+    /**
+     * Look-up the getter of the given field or the field of the given getter method.
+     *
+     * @param member field or method to look-up the associated member for
+     * @return associated getter/field (or {@code null})
+     * @see FieldScope#findGetter()
+     * @see MethodScope#findGetterField()
+     */
+    static MemberScope<?, ?> getAssociatedMember(MemberScope<?, ?> member) {
+        if (member instanceof FieldScope) {
+            return ((FieldScope) member).findGetter();
+        }
+        if (member instanceof MethodScope) {
+            return ((MethodScope) member).findGetterField();
+        }
+        return null;
+    }
+
+    /**
+     * Look-up the (cached) profile of applicable constraints for the given field or method.
+     *
+     * @param member field or method to look-up the constraint profile for
+     * @return constraint profile (never {@code null})
+     * @see #createConstraintProfile(MemberScope)
+     */
+    protected ConstraintProfile getConstraintProfile(MemberScope<?, ?> member) {
+        JavaxValidationModuleConfig currentConfig = this.getConfig();
+        SharedProfileCache sharedCache = currentConfig.getSharedProfileCache();
+        if (sharedCache != null) {
+            return this.getSharedConstraintProfile(member, sharedCache, currentConfig);
+        }
+        ConstraintProfileKey key = new ConstraintProfileKey(member);
+        ConcurrentMap<ConstraintProfileKey, ConstraintProfile> profiles = this.constraintProfiles.getProfiles(key.declaringType);
+        ConstraintProfile cachedProfile = profiles.get(key);
+        JavaxValidationMetricsListener listener = currentConfig.getMetricsListener();
+        if (listener != null) {
+            listener.onCacheAccess(Cache.CONSTRAINT_PROFILES, cachedProfile != null);
+        }
+        if (cachedProfile != null) {
+            return cachedProfile;
+        }
+        return profiles.computeIfAbsent(key, ignored -> this.resolveConstraintProfile(member));
+    }
+
+    /**
+     * Look-up the profile of applicable constraints for the given field or method from the given shared cache, otherwise resolve it (and add
+     * the result to the shared cache). Concurrent look-ups of the same missing profile may resolve it more than once, but always with the same
+     * result.
+     *
+     * @param member field or method to look-up the constraint profile for
+     * @param sharedCache registered cache being shared with other modules
+     * @param currentConfig configuration to apply
+     * @return constraint profile (never {@code null})
+     * @see JavaxValidationModuleConfig#getSharedProfileCache()
+     */
+    private ConstraintProfile getSharedConstraintProfile(MemberScope<?, ?> member, SharedProfileCache sharedCache,
+            JavaxValidationModuleConfig currentConfig) {
+        ConstraintProfileKey key = new ConstraintProfileKey(member, currentConfig.getSharedProfileCacheKey());
+        ConstraintProfile profile = sharedCache.get(key);
+        JavaxValidationMetricsListener listener = currentConfig.getMetricsListener();
+        if (listener != null) {
+            listener.onCacheAccess(Cache.SHARED_PROFILES, profile != null);
+        }
+        if (profile == null) {
+            profile = this.resolveConstraintProfile(member);
+            sharedCache.put(key, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Look-up the profile of applicable constraints for the given field or method from the persistent cache (if there is one), otherwise
+     * collect the constraints (and add the result to the persistent cache).
+     *
+     * @param member field or method to resolve the constraint profile for
+     * @return resolved constraint profile
+     * @see JavaxValidationModuleConfig#getPersistentProfileCache()
+     */
+    private ConstraintProfile resolveConstraintProfile(MemberScope<?, ?> member) {
+        JavaxValidationModuleConfig currentConfig = this.getConfig();
+        PersistentProfileCache persistentCache = currentConfig.getPersistentProfileCache();
+        String fingerprint = currentConfig.getPersistentProfileCacheFingerprint();
+        String persistentKey = fingerprint == null ? null : persistentCache.createKey(fingerprint, member);
+        if (persistentKey != null) {
+            ConstraintProfile persistedProfile = persistentCache.get(persistentKey);
+            JavaxValidationMetricsListener listener = currentConfig.getMetricsListener();
+            if (listener != null) {
+                listener.onCacheAccess(Cache.PERSISTENT_PROFILES, persistedProfile != null);
+            }
+            if (persistedProfile != null) {
+                return persistedProfile;
+            }
+        }
+        ConstraintProfile profile;
+        if (this.eventEmitter == null) {
+            profile = this.createConstraintProfile(member);
+        } else {
+            profile = this.createConstraintProfileWithEvent(member);
+        }
+        if (persistentKey != null) {
+            persistentCache.put(persistentKey, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Collect all applicable constraints on the given field or method into a single profile, while emitting a respective diagnostic event.
+     *
+     * @param member field or method to create the constraint profile for
+     * @return created constraint profile
+     * @see #createConstraintProfile(MemberScope)
+     */
+    private ConstraintProfile createConstraintProfileWithEvent(MemberScope<?, ?> member) {
+        Object event = this.eventEmitter.beginProfileResolution();
+        ConstraintProfile profile = this.createConstraintProfile(member);
+        if (event != null) {
+            Set<String> constraintNames = new TreeSet<>();
+            boolean containerItem = member.isFakeContainerItemScope();
+            Class<?> declaringType = member.getDeclaringType().getErasedType();
+            this.collectConstraintNames(declaringType, member.getRawMember(), containerItem, constraintNames);
+            MemberScope<?, ?> associatedMember = JavaxValidationModule.getAssociatedMember(member);
+            if (associatedMember != null) {
+                this.collectConstraintNames(declaringType, associatedMember.getRawMember(), containerItem, constraintNames);
+            }
+            this.eventEmitter.commitProfileResolution(event, member.getRawMember().getDeclaringClass().getName(), member.getName(),
+                    String.join(", ", constraintNames));
+        }
+        return profile;
+    }
+
+    /**
+     * Add the names of the standard constraints on the given field or method (from the {@link ProgrammaticConstraints},
+     * {@link XmlConstraintMappings} and annotations).
+     *
+     * @param declaringType type through which the field or method is being accessed (i.e. its declaring class or a subclass inheriting it)
+     * @param member field or method to look-up the declared constraints for
+     * @param containerItem whether the constraints on the container element type should be considered instead of those on the member itself
+     * @param constraintNames collection to add to
+     */
+    private void collectConstraintNames(Class<?> declaringType, Member member, boolean containerItem, Set<String> constraintNames) {
+        ProgrammaticConstraints registeredConstraints = this.getConfig().getProgrammaticConstraints();
+        if (registeredConstraints != null && !containerItem) {
+            registeredConstraints.getDeclaredConstraints(declaringType, member).collectNames(constraintNames);
+        }
+        XmlConstraintMappings xmlMappings = this.getConfig().getXmlConstraintMappings();
+        if (xmlMappings != null) {
+            xmlMappings.getDeclaredConstraints(member, containerItem).collectNames(constraintNames);
+            if (xmlMappings.isIgnoringAnnotations(member)) {
+                return;
+            }
+        }
+        this.getAnnotatedConstraints(member, containerItem).collectNames(constraintNames);
+    }
+
+    /**
+     * Look-up the standard constraints declared on the given field or method (or its container element type in case of an item scope), either
+     * via the {@link ClassConstraintIndex} or the metadata of the registered {@link Validator}.
+     *
+     * @param member field or method to look-up the declared constraints for
+     * @param containerItem whether the constraints on the container element type should be considered instead of those on the member itself
+     * @return declared constraints
+     */
+    private DeclaredConstraints getAnnotatedConstraints(Member member, boolean containerItem) {
+        ValidatorConstraintIndex validatorIndex = this.getConfig().getValidatorConstraintIndex();
+        if (validatorIndex != null) {
+            return containerItem ? validatorIndex.getContainerElementConstraints(member) : validatorIndex.getDeclaredConstraints(member);
+        }
+        ClassConstraintIndex index = ClassConstraintIndex.of(member.getDeclaringClass(), this.eventEmitter, this.getConfig().getMetricsListener());
+        if (containerItem) {
+            return index.getContainerElement(member).getConstraints();
+        }
+        return index.getDeclaredConstraints(member);
+    }
+
+    /**
+     * Collect all applicable constraints on the given field or method (and its associated getter/field) into a single profile.
+     *
+     * @param member field or method to create the constraint profile for
+     * @return created constraint profile
+     */
+    protected ConstraintProfile createConstraintProfile(MemberScope<?, ?> member) {
+        ConstraintSlots constraints = this.collectApplicableConstraints(member);
+        ConstraintProfile.Builder profile = new ConstraintProfile.Builder();
+        if (constraints.isPresent(ConstraintSlots.NOT_NULL)) {
+            profile.withNotNull();
+        }
+        if (constraints.isPresent(ConstraintSlots.NOT_BLANK)) {
+            profile.withNotBlank();
+        }
+        if (constraints.isPresent(ConstraintSlots.NOT_EMPTY)) {
+            profile.withNotEmpty();
+        }
+        if (constraints.isPresent(ConstraintSlots.NULL)) {
+            profile.withMustBeNull();
+        }
+        Size sizeAnnotation = constraints.getAnnotation(ConstraintSlots.SIZE, Size.class);
+        if (sizeAnnotation != null) {
+            profile.withSize(sizeAnnotation.min(), sizeAnnotation.max());
+        }
+        Email emailAnnotation = constraints.getAnnotation(ConstraintSlots.EMAIL, Email.class);
+        if (emailAnnotation != null) {
+            profile.withEmail(emailAnnotation.regexp(), JavaxValidationModule.toPatternFlags(emailAnnotation.flags()));
+        }
+        Pattern patternAnnotation = constraints.getAnnotation(ConstraintSlots.PATTERN, Pattern.class);
+        if (patternAnnotation != null) {
+            profile.withPattern(patternAnnotation.regexp(), JavaxValidationModule.toPatternFlags(patternAnnotation.flags()));
+        }
+        JavaxValidationModule.collectNumberMinimum(constraints, profile, this.getConfig().getMetricsListener());
+        JavaxValidationModule.collectNumberMaximum(constraints, profile, this.getConfig().getMetricsListener());
+        this.applyConstraintMappers(member, profile);
+        return profile.build();
+    }
+
+    /**
+     * Collect the applicable standard constraints on the given field or method (and its associated getter/field) in a single pass over the
+     * declared constraints of each, instead of looking-up each constraint type separately.
+     * <br>
+     * The precedence is the same as in {@link #getIndexedConstraintFromFieldOrGetter(MemberScope, Class)}: a constraint on the member itself wins
+     * over one of the same type on the associated member. A constraint that is not associated with one of the validation groups being considered
+     * is being ignored, without falling back on the associated member.
+     *
+     * @param member field or method to collect the constraints for
+     * @return collected constraints
+     */
+    private ConstraintSlots collectApplicableConstraints(MemberScope<?, ?> member) {
+        if (this.annotationLookupOverridden) {
+            return this.lookUpApplicableConstraints(member);
+        }
+        boolean containerItem = member.isFakeContainerItemScope();
+        Class<?> declaringType = member.getDeclaringType().getErasedType();
+        ConstraintSlots constraints = new ConstraintSlots();
+        this.visitConstraints(declaringType, member.getRawMember(), containerItem, constraints);
+        MemberScope<?, ?> associatedMember = JavaxValidationModule.getAssociatedMember(member);
+        if (associatedMember != null) {
+            this.visitConstraints(declaringType, associatedMember.getRawMember(), containerItem, constraints);
+        }
+        ValidationGroupMatcher groupMatcher = this.getConfig().getValidationGroupMatcher();
+        JavaxValidationMetricsListener listener = this.getConfig().getMetricsListener();
+        if (groupMatcher == null && listener == null) {
+            return constraints;
+        }
+        for (int slot = 0; slot < ConstraintSlots.COUNT; slot++) {
+            IndexedConstraint constraint = constraints.get(slot);
+            if (constraint == null) {
+                continue;
+            }
+            boolean applicable = groupMatcher == null || groupMatcher.isApplicable(constraint.getGroupMask());
+            if (!applicable) {
+                constraints.remove(slot);
+            }
+            if (listener != null) {
+                Class<? extends Annotation> annotationType = constraint.getAnnotation().annotationType();
+                if (!applicable) {
+                    listener.onValidationGroupMismatch(member, annotationType);
+                }
+                listener.onAnnotationLookup(annotationType, applicable);
+            }
+        }
+        return constraints;
+    }
+
+    /**
+     * Look-up the applicable standard constraints on the given field or method (and its associated getter/field) one by one via
+     * {@link #getAnnotationFromFieldOrGetter(MemberScope, Class, Function)}, as it is being overridden by a subclass.
+     *
+     * @param member field or method to look-up the constraints for
+     * @return collected constraints (already being filtered by the overridden look-up)
+     */
+    private ConstraintSlots lookUpApplicableConstraints(MemberScope<?, ?> member) {
+        List<Annotation> annotations = new ArrayList<>(ConstraintSlots.COUNT);
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, NotNull.class, NotNull::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, NotBlank.class, NotBlank::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, NotEmpty.class, NotEmpty::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Null.class, Null::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Size.class, Size::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Email.class, Email::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Pattern.class, Pattern::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Min.class, Min::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, DecimalMin.class, DecimalMin::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, PositiveOrZero.class, PositiveOrZero::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Positive.class, Positive::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Max.class, Max::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, DecimalMax.class, DecimalMax::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, NegativeOrZero.class, NegativeOrZero::groups));
+        annotations.add(this.getAnnotationFromFieldOrGetter(member, Negative.class, Negative::groups));
+        annotations.removeIf(Objects::isNull);
+        ConstraintSlots constraints = new ConstraintSlots();
+        constraints.visit(DeclaredConstraints.of(annotations.toArray(new Annotation[0])));
+        return constraints;
+    }
+
+    /**
+     * Route the standard constraints on the given field or method to their respective slots, considering the registered
+     * {@link ProgrammaticConstraints} and {@link XmlConstraintMappings} before the constraint annotations (as in
+     * {@link #getIndexedConstraint(Class, Member, boolean, Class)}).
+     *
+     * @param declaringType type through which the field or method is being accessed (i.e. its declaring class or a subclass inheriting it)
+     * @param member field or method to look-up the declared constraints for
+     * @param containerItem whether the constraints on the container element type should be considered instead of those on the member itself
+     * @param constraints collector to populate
+     */
+    private void visitConstraints(Class<?> declaringType, Member member, boolean containerItem, ConstraintSlots constraints) {
+        ProgrammaticConstraints registeredConstraints = this.getConfig().getProgrammaticConstraints();
+        if (registeredConstraints != null && !containerItem) {
+            constraints.visit(registeredConstraints.getDeclaredConstraints(declaringType, member));
+        }
+        XmlConstraintMappings xmlMappings = this.getConfig().getXmlConstraintMappings();
+        if (xmlMappings != null) {
+            constraints.visit(xmlMappings.getDeclaredConstraints(member, containerItem));
+            if (xmlMappings.isIgnoringAnnotations(member)) {
+                return;
+            }
+        }
+        constraints.visit(this.getAnnotatedConstraints(member, containerItem));
+    }
+
+    /**
+     * Dispatch the custom constraints on the given field or method (and its associated getter/field) to the registered {@link ConstraintMapper}s. As
+     * for the standard constraints, an annotation on the member itself takes precedence over one of the same type on the associated member.
+     *
+     * @param member field or method to apply the constraint mappers for
+     * @param profile builder to populate
+     * @see JavaxValidationModuleConfig#getConstraintMappers()
+     */
+    private void applyConstraintMappers(MemberScope<?, ?> member, ConstraintProfile.Builder profile) {
+        Map<Class<? extends Annotation>, ConstraintMapper<?>> mappers = this.getConfig().getConstraintMappers();
+        if (mappers.isEmpty()) {
+            return;
+        }
+        Set<Class<? extends Annotation>> mappedTypes = new HashSet<>();
+        this.applyConstraintMappers(member, member.getRawMember(), mappers, mappedTypes, profile);
+        MemberScope<?, ?> associatedMember = JavaxValidationModule.getAssociatedMember(member);
+        if (associatedMember != null) {
+            this.applyConstraintMappers(member, associatedMember.getRawMember(), mappers, mappedTypes, profile);
+        }
+    }
+
+    /**
+     * Dispatch the custom constraints declared on the given field or method (or its container element type in case of an item scope) to the
+     * registered {@link ConstraintMapper}s. The custom constraints are being looked-up via the {@link ClassConstraintIndex} of the declaring class.
+     *
+     * @param member field or method the constraint profile is being created for
+     * @param annotatedMember field or method to look-up the declared annotations on (i.e. the member itself or its associated getter/field)
+     * @param mappers registered mappers per handled annotation type
+     * @param mappedTypes annotation types that have already been considered (to be extended)
+     * @param profile builder to populate
+     */
+    private void applyConstraintMappers(MemberScope<?, ?> member, Member annotatedMember,
+            Map<Class<? extends Annotation>, ConstraintMapper<?>> mappers, Set<Class<? extends Annotation>> mappedTypes,
+            ConstraintProfile.Builder profile) {
+        JavaxValidationMetricsListener listener = this.getConfig().getMetricsListener();
+        ClassConstraintIndex index = ClassConstraintIndex.of(annotatedMember.getDeclaringClass(), this.eventEmitter, listener);
+        DeclaredConstraints declaredConstraints;
+        if (member.isFakeContainerItemScope()) {
+            declaredConstraints = index.getContainerElement(annotatedMember).getConstraints();
+        } else {
+            declaredConstraints = index.getDeclaredConstraints(annotatedMember);
+        }
+        ValidationGroupMatcher groupMatcher = this.getConfig().getValidationGroupMatcher();
+        for (IndexedConstraint customConstraint : declaredConstraints.getCustomConstraints()) {
+            Annotation annotation = customConstraint.getAnnotation();
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            ConstraintMapper<?> mapper = mappers.get(annotationType);
+            if (mapper == null || !mappedTypes.add(annotationType)) {
+                continue;
+            }
+            boolean applicable = groupMatcher == null || groupMatcher.isApplicable(customConstraint.getGroupMask());
+            if (listener != null) {
+                if (!applicable) {
+                    listener.onValidationGroupMismatch(member, annotationType);
+                }
+                listener.onAnnotationLookup(annotationType, applicable);
+            }
+            if (applicable) {
+                JavaxValidationModule.applyConstraintMapper(mapper, annotation, profile);
+            }
+        }
+    }
+
+    /**
+     * Let the given mapper contribute the schema attributes implied by the given annotation.
+     *
+     * @param <A> type of annotation being handled by the mapper
+     * @param mapper mapper registered for the given annotation's type
+     * @param annotation annotation to apply
+     * @param profile builder to populate
+     */
+    private static <A extends Annotation> void applyConstraintMapper(ConstraintMapper<A> mapper, Annotation annotation,
+            ConstraintProfile.Builder profile) {
+        mapper.applyTo(mapper.getAnnotationType().cast(annotation), profile);
+    }
+
+    /**
+     * Combine the given flags of a {@code @Pattern} or {@code @Email} annotation into a single value.
+     *
+     * @param flags annotation's regular expression flags
+     * @return combined flags (as in {@link java.util.regex.Pattern#flags()})
+     */
+    private static int toPatternFlags(Pattern.Flag[] flags) {
+        int result = 0;
+        for (Pattern.Flag flag : flags) {
+            result |= flag.getValue();
+        }
+        return result;
+    }
+
+    /**
+     * Collect the inclusive and exclusive minimum values of a number type.
+     *
+     * @param constraints applicable constraints
+     * @param profile builder to populate
+     * @param listener metrics listener to notify about the parsing of textual values ({@code null} if no metrics should be collected)
+     * @see Min
+     * @see DecimalMin
+     * @see PositiveOrZero
+     * @see Positive
+     */
+    private static void collectNumberMinimum(ConstraintSlots constraints, ConstraintProfile.Builder profile,
+            JavaxValidationMetricsListener listener) {
+        DecimalMin decimalMinAnnotation = constraints.getAnnotation(ConstraintSlots.DECIMAL_MIN, DecimalMin.class);
+        Min minAnnotation = constraints.getAnnotation(ConstraintSlots.MIN, Min.class);
+        if (minAnnotation != null) {
+            profile.withInclusiveMinimum(NumericBounds.valueOf(minAnnotation.value()));
+        } else if (decimalMinAnnotation != null && decimalMinAnnotation.inclusive()) {
+            profile.withInclusiveMinimum(JavaxValidationModule.parseNumericBound(decimalMinAnnotation.value(), listener));
+        } else if (constraints.isPresent(ConstraintSlots.POSITIVE_OR_ZERO)) {
+            profile.withInclusiveMinimum(BigDecimal.ZERO);
+        }
+        if (decimalMinAnnotation != null && !decimalMinAnnotation.inclusive()) {
+            profile.withExclusiveMinimum(JavaxValidationModule.parseNumericBound(decimalMinAnnotation.value(), listener));
+        } else if (constraints.isPresent(ConstraintSlots.POSITIVE)) {
+            profile.withExclusiveMinimum(BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Collect the inclusive and exclusive maximum values of a number type.
+     *
+     * @param constraints applicable constraints
+     * @param profile builder to populate
+     * @param listener metrics listener to notify about the parsing of textual values ({@code null} if no metrics should be collected)
+     * @see Max
+     * @see DecimalMax
+     * @see NegativeOrZero
+     * @see Negative
+     */
+    private static void collectNumberMaximum(ConstraintSlots constraints, ConstraintProfile.Builder profile,
+            JavaxValidationMetricsListener listener) {
+        DecimalMax decimalMaxAnnotation = constraints.getAnnotation(ConstraintSlots.DECIMAL_MAX, DecimalMax.class);
+        Max maxAnnotation = constraints.getAnnotation(ConstraintSlots.MAX, Max.class);
+        if (maxAnnotation != null) {
+            profile.withInclusiveMaximum(NumericBounds.valueOf(maxAnnotation.value()));
+        } else if (decimalMaxAnnotation != null && decimalMaxAnnotation.inclusive()) {
+            profile.withInclusiveMaximum(JavaxValidationModule.parseNumericBound(decimalMaxAnnotation.value(), listener));
+        } else if (constraints.isPresent(ConstraintSlots.NEGATIVE_OR_ZERO)) {
+            profile.withInclusiveMaximum(BigDecimal.ZERO);
+        }
+        if (decimalMaxAnnotation != null && !decimalMaxAnnotation.inclusive()) {
+            profile.withExclusiveMaximum(JavaxValidationModule.parseNumericBound(decimalMaxAnnotation.value(), listener));
+        } else if (constraints.isPresent(ConstraintSlots.NEGATIVE)) {
+            profile.withExclusiveMaximum(BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Parse the given textual value of a {@code @DecimalMin}/{@code @DecimalMax} annotation.
+     *
+     * @param value textual value to parse
+     * @param listener metrics listener to notify about the cache access ({@code null} if no metrics should be collected)
+     * @return parsed value
+     * @see NumericBounds#parse(String)
+     */
+    private static BigDecimal parseNumericBound(String value, JavaxValidationMetricsListener listener) {
+        if (listener != null) {
+            listener.onCacheAccess(Cache.NUMERIC_BOUNDS, NumericBounds.isCached(value));
+        }
+        return NumericBounds.parse(value);
+    }
+
     /**
      * Determine whether a given field or method is annotated to be not nullable.
      *
@@ -168,19 +1049,7 @@ public class JavaxValidationModule implements Module {
      * @return whether member is annotated as nullable or not (returns null if not specified: assumption it is nullable then)
      */
     protected Boolean isNullable(MemberScope<?, ?> member) {
-        Boolean result;
-        if (this.getAnnotationFromFieldOrGetter(member, NotNull.class, NotNull::groups) != null
-                || this.getAnnotationFromFieldOrGetter(member, NotBlank.class, NotBlank::groups) != null
-                || this.getAnnotationFromFieldOrGetter(member, NotEmpty.class, NotEmpty::groups) != null) {
-            // field is specifically NOT nullable
-            result = Boolean.FALSE;
-        } else if (this.getAnnotationFromFieldOrGetter(member, Null.class, Null::groups) != null) {
-            // field is specifically null (and thereby nullable)
-            result = Boolean.TRUE;
-        } else {
-            result = null;
-        }
-        return result;
+        return this.getConstraintProfile(member).getNullable();
     }
 
     /**
@@ -194,23 +1063,56 @@ public class JavaxValidationModule implements Module {
         return Boolean.FALSE.equals(nullableCheckResult);
     }
 
+    /**
+     * Determine whether the given field's/method's type is a container (i.e. an array or collection), based on the cached classification of its
+     * type, without looking-up any constraints.
+     *
+     * @param member the field or method to check
+     * @return whether the array attribute resolvers apply
+     * @see TypeKind
+     */
+    private boolean isContainerType(MemberScope<?, ?> member) {
+        TypeKind kind = this.typeKinds.of(member.getType());
+        return kind == TypeKind.CONTAINER || kind == TypeKind.MIXED && member.isContainerType();
+    }
+
+    /**
+     * Determine whether the given field's/method's type is a {@link CharSequence}, based on the cached classification of its type, without
+     * looking-up any constraints.
+     *
+     * @param member the field or method to check
+     * @return whether the string attribute resolvers apply
+     * @see TypeKind
+     */
+    private boolean isStringType(MemberScope<?, ?> member) {
+        TypeKind kind = this.typeKinds.of(member.getType());
+        return kind == TypeKind.STRING || kind == TypeKind.MIXED && member.getType().isInstanceOf(CharSequence.class);
+    }
+
+    /**
+     * Determine whether the given field's/method's type may be a number, based on the cached classification of its type, without looking-up any
+     * constraints. Types that may hold values of different kinds (e.g. {@link Object}) are being included.
+     *
+     * @param member the field or method to check
+     * @return whether the number attribute resolvers apply
+     * @see TypeKind
+     */
+    private boolean isNumberType(MemberScope<?, ?> member) {
+        TypeKind kind = this.typeKinds.of(member.getType());
+        return kind == TypeKind.NUMERIC || kind == TypeKind.MIXED;
+    }
+
     /**
      * Determine a given array type's minimum number of items.
      *
      * @param member the field or method to check
      * @return specified minimum number of array items (or null)
      * @see Size
+     * @see NotEmpty
      */
     protected Integer resolveArrayMinItems(MemberScope<?, ?> member) {
-        if (member.isContainerType()) {
-            Size sizeAnnotation = this.getAnnotationFromFieldOrGetter(member, Size.class, Size::groups);
-            if (sizeAnnotation != null && sizeAnnotation.min() > 0) {
-                // minimum length greater than the default 0 was specified
-                return sizeAnnotation.min();
-            }
-            if (this.getAnnotationFromFieldOrGetter(member, NotEmpty.class, NotEmpty::groups) != null) {
-                return 1;
-            }
+        if (this.isContainerType(member)) {
+            return this.getConstraintProfile(member).getMinItems();
         }
         return null;
     }
@@ -223,12 +1125,8 @@ public class JavaxValidationModule implements Module {
      * @see Size
      */
     protected Integer resolveArrayMaxItems(MemberScope<?, ?> member) {
-        if (member.isContainerType()) {
-            Size sizeAnnotation = this.getAnnotationFromFieldOrGetter(member, Size.class, Size::groups);
-            if (sizeAnnotation != null && sizeAnnotation.max() < 2147483647) {
-                // maximum length below the default 2147483647 was specified
-                return sizeAnnotation.max();
-            }
+        if (this.isContainerType(member)) {
+            return this.getConstraintProfile(member).getMaxItems();
         }
         return null;
     }
@@ -243,16 +1141,8 @@ public class JavaxValidationModule implements Module {
      * @see NotBlank
      */
     protected Integer resolveStringMinLength(MemberScope<?, ?> member) {
-        if (member.getType().isInstanceOf(CharSequence.class)) {
-            Size sizeAnnotation = this.getAnnotationFromFieldOrGetter(member, Size.class, Size::groups);
-            if (sizeAnnotation != null && sizeAnnotation.min() > 0) {
-                // minimum length greater than the default 0 was specified
-                return sizeAnnotation.min();
-            }
-            if (this.getAnnotationFromFieldOrGetter(member, NotEmpty.class, NotEmpty::groups) != null
-                    || this.getAnnotationFromFieldOrGetter(member, NotBlank.class, NotBlank::groups) != null) {
-                return 1;
-            }
+        if (this.isStringType(member)) {
+            return this.getConstraintProfile(member).getMinLength();
         }
         return null;
     }
@@ -265,12 +1155,8 @@ public class JavaxValidationModule implements Module {
      * @see Size
      */
     protected Integer resolveStringMaxLength(MemberScope<?, ?> member) {
-        if (member.getType().isInstanceOf(CharSequence.class)) {
-            Size sizeAnnotation = this.getAnnotationFromFieldOrGetter(member, Size.class, Size::groups);
-            if (sizeAnnotation != null && sizeAnnotation.max() < 2147483647) {
-                // maximum length below the default 2147483647 was specified
-                return sizeAnnotation.max();
-            }
+        if (this.isStringType(member)) {
+            return this.getConstraintProfile(member).getMaxLength();
         }
         return null;
     }
@@ -281,44 +1167,117 @@ public class JavaxValidationModule implements Module {
      * @param member the field or method to check
      * @return specified format (or null)
      * @see Email
+     * @see ConstraintProfile#getFormat()
      */
     protected String resolveStringFormat(MemberScope<?, ?> member) {
-        if (member.getType().isInstanceOf(CharSequence.class)) {
-            Email emailAnnotation = this.getAnnotationFromFieldOrGetter(member, Email.class, Email::groups);
-            if (emailAnnotation != null) {
-                // @Email annotation was found, indicate the respective format
-                if (this.options.contains(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT)) {
-                    // the option was set to rather return the value for the internationalised email format
-                    return "idn-email";
-                }
-                // indicate standard internet email address format
-                return "email";
+        if (!this.isStringType(member)) {
+            return null;
+        }
+        ConstraintProfile profile = this.getConstraintProfile(member);
+        if (profile.getFormat() != null) {
+            // format contributed by a constraint mapper
+            return profile.getFormat();
+        }
+        if (profile.isEmail()) {
+            // @Email annotation was found, indicate the respective format
+            if (this.getConfig().isEnabled(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT)) {
+                // the option was set to rather return the value for the internationalised email format
+                return "idn-email";
             }
+            // indicate standard internet email address format
+            return "email";
         }
         return null;
     }
 
+    /**
+     * Add the additional schema attributes (e.g. "enum") being contributed by the registered {@link ConstraintMapper}s.
+     *
+     * @param memberAttributes already collected schema attributes of the given field or method (to be extended)
+     * @param member the field or method to add attributes for
+     * @see ConstraintProfile#getAttributes()
+     */
+    protected void applyAdditionalAttributes(ObjectNode memberAttributes, MemberScope<?, ?> member) {
+        if (this.getConfig().getConstraintMappers().isEmpty()) {
+            // only constraint mappers may contribute additional attributes
+            return;
+        }
+        this.getConstraintProfile(member).getAttributes()
+                .forEach((name, value) -> memberAttributes.set(name, value.deepCopy()));
+    }
+
     /**
      * Determine a given text type's pattern.
+     * <br>
+     * If the {@link JavaxValidationOption#TRANSLATE_PATTERN_EXPRESSIONS} is enabled, the Java regular expression (and its flags) are being translated
+     * into the ECMA 262 dialect. An expression that cannot be translated is being included as-is, unless the
+     * {@link JavaxValidationOption#OMIT_UNTRANSLATABLE_PATTERN_EXPRESSIONS} is enabled as well.
+     * <br>
+     * If a {@link PatternRiskHandling} was configured, expressions prone to catastrophic backtracking are being handled accordingly.
      *
      * @param member the field or method to check
      * @return specified pattern (or null)
      * @see Pattern
+     * @see Email
      */
     protected String resolveStringPattern(MemberScope<?, ?> member) {
-        if (member.getType().isInstanceOf(CharSequence.class)) {
-            Pattern patternAnnotation = this.getAnnotationFromFieldOrGetter(member, Pattern.class, Pattern::groups);
-            if (patternAnnotation != null) {
-                // @Pattern annotation was found, return its (mandatory) regular expression
-                return patternAnnotation.regexp();
+        if (!this.isStringType(member)) {
+            return null;
+        }
+        ConstraintProfile profile = this.getConstraintProfile(member);
+        String pattern = profile.getPattern();
+        JavaxValidationModuleConfig currentConfig = this.getConfig();
+        JavaxValidationMetricsListener listener = currentConfig.getMetricsListener();
+        if (pattern != null && currentConfig.isEnabled(JavaxValidationOption.TRANSLATE_PATTERN_EXPRESSIONS)) {
+            if (listener != null) {
+                listener.onCacheAccess(Cache.PATTERN_TRANSLATIONS, EcmaPatternTranslator.isCached(pattern, profile.getPatternFlags()));
             }
-            Email emailAnnotation = this.getAnnotationFromFieldOrGetter(member, Email.class, Email::groups);
-            if (emailAnnotation != null && !".*".equals(emailAnnotation.regexp())) {
-                // non-default regular expression on @Email annotation should also be considered
-                return emailAnnotation.regexp();
+            String translatedPattern = EcmaPatternTranslator.translate(pattern, profile.getPatternFlags());
+            if (translatedPattern != null || currentConfig.isEnabled(JavaxValidationOption.OMIT_UNTRANSLATABLE_PATTERN_EXPRESSIONS)) {
+                // otherwise: fall-back on the original expression
+                pattern = translatedPattern;
             }
         }
-        return null;
+        if (pattern == null || currentConfig.getPatternRiskHandling() == null) {
+            return pattern;
+        }
+        if (listener != null) {
+            listener.onCacheAccess(Cache.PATTERN_RISK_ANALYSES, PatternRiskAnalyzer.isCached(pattern));
+        }
+        if (!PatternRiskAnalyzer.isRisky(pattern)) {
+            return pattern;
+        }
+        return this.handleRiskyPattern(member, pattern, profile, currentConfig);
+    }
+
+    /**
+     * Handle a "pattern" prone to catastrophic backtracking according to the configured {@link PatternRiskHandling}.
+     *
+     * @param member the field or method the expression is being declared on
+     * @param pattern risky regular expression
+     * @param profile applicable constraints on the field or method
+     * @param config configuration specifying how to handle the risky expression
+     * @return regular expression to include (or null)
+     */
+    private String handleRiskyPattern(MemberScope<?, ?> member, String pattern, ConstraintProfile profile, JavaxValidationModuleConfig config) {
+        switch (config.getPatternRiskHandling()) {
+        case OMIT:
+            return null;
+        case BOUND_LENGTH:
+            Integer maxLength = profile.getMaxLength();
+            if (maxLength == null || maxLength > config.getPatternRiskMaxLength()) {
+                // bounding the length would not prevent an excessive matching effort
+                return null;
+            }
+            return PatternRiskAnalyzer.toLengthBoundedForm(pattern, maxLength);
+        case WARN:
+        default:
+            if (PatternRiskAnalyzer.isFirstReport(pattern)) {
+                LOGGER.warning(() -> "Pattern on " + member.getDeclaringType().getErasedType().getName() + "." + member.getName()
+                        + " is prone to catastrophic backtracking: " + pattern);
+            }
+            return pattern;
+        }
     }
 
     /**
@@ -331,17 +1290,8 @@ public class JavaxValidationModule implements Module {
      * @see PositiveOrZero
      */
     protected BigDecimal resolveNumberInclusiveMinimum(MemberScope<?, ?> member) {
-        Min minAnnotation = this.getAnnotationFromFieldOrGetter(member, Min.class, Min::groups);
-        if (minAnnotation != null) {
-            return new BigDecimal(minAnnotation.value());
-        }
-        DecimalMin decimalMinAnnotation = this.getAnnotationFromFieldOrGetter(member, DecimalMin.class, DecimalMin::groups);
-        if (decimalMinAnnotation != null && decimalMinAnnotation.inclusive()) {
-            return new BigDecimal(decimalMinAnnotation.value());
-        }
-        PositiveOrZero positiveAnnotation = this.getAnnotationFromFieldOrGetter(member, PositiveOrZero.class, PositiveOrZero::groups);
-        if (positiveAnnotation != null) {
-            return BigDecimal.ZERO;
+        if (this.isNumberType(member)) {
+            return this.getConstraintProfile(member).getInclusiveMinimum();
         }
         return null;
     }
@@ -355,13 +1305,8 @@ public class JavaxValidationModule implements Module {
      * @see Positive
      */
     protected BigDecimal resolveNumberExclusiveMinimum(MemberScope<?, ?> member) {
-        DecimalMin decimalMinAnnotation = this.getAnnotationFromFieldOrGetter(member, DecimalMin.class, DecimalMin::groups);
-        if (decimalMinAnnotation != null && !decimalMinAnnotation.inclusive()) {
-            return new BigDecimal(decimalMinAnnotation.value());
-        }
-        Positive positiveAnnotation = this.getAnnotationFromFieldOrGetter(member, Positive.class, Positive::groups);
-        if (positiveAnnotation != null) {
-            return BigDecimal.ZERO;
+        if (this.isNumberType(member)) {
+            return this.getConstraintProfile(member).getExclusiveMinimum();
         }
         return null;
     }
@@ -376,17 +1321,8 @@ public class JavaxValidationModule implements Module {
      * @see NegativeOrZero
      */
     protected BigDecimal resolveNumberInclusiveMaximum(MemberScope<?, ?> member) {
-        Max maxAnnotation = this.getAnnotationFromFieldOrGetter(member, Max.class, Max::groups);
-        if (maxAnnotation != null) {
-            return new BigDecimal(maxAnnotation.value());
-        }
-        DecimalMax decimalMaxAnnotation = this.getAnnotationFromFieldOrGetter(member, DecimalMax.class, DecimalMax::groups);
-        if (decimalMaxAnnotation != null && decimalMaxAnnotation.inclusive()) {
-            return new BigDecimal(decimalMaxAnnotation.value());
-        }
-        NegativeOrZero negativeAnnotation = this.getAnnotationFromFieldOrGetter(member, NegativeOrZero.class, NegativeOrZero::groups);
-        if (negativeAnnotation != null) {
-            return BigDecimal.ZERO;
+        if (this.isNumberType(member)) {
+            return this.getConstraintProfile(member).getInclusiveMaximum();
         }
         return null;
     }
@@ -400,14 +1336,94 @@ public class JavaxValidationModule implements Module {
      * @see Negative
      */
     protected BigDecimal resolveNumberExclusiveMaximum(MemberScope<?, ?> member) {
-        DecimalMax decimalMaxAnnotation = this.getAnnotationFromFieldOrGetter(member, DecimalMax.class, DecimalMax::groups);
-        if (decimalMaxAnnotation != null && !decimalMaxAnnotation.inclusive()) {
-            return new BigDecimal(decimalMaxAnnotation.value());
-        }
-        Negative negativeAnnotation = this.getAnnotationFromFieldOrGetter(member, Negative.class, Negative::groups);
-        if (negativeAnnotation != null) {
-            return BigDecimal.ZERO;
+        if (this.isNumberType(member)) {
+            return this.getConstraintProfile(member).getExclusiveMaximum();
         }
         return null;
     }
+
+    /**
+     * Key for the cached constraint profiles: the constraints are only depending on the declared member, the type it is being looked-up from
+     * (which determines the associated getter/field) and whether the member itself or its container items are concerned, but not on the
+     * individual member scope instance created during a schema generation.
+     */
+    private static final class ConstraintProfileKey {
+
+        private final Class<?> declaringType;
+        private final Member rawMember;
+        private final boolean containerItem;
+        private final SharedProfileCache.ConfigurationKey configurationKey;
+
+        /**
+         * Constructor.
+         *
+         * @param member field or method to create the key for
+         */
+        ConstraintProfileKey(MemberScope<?, ?> member) {
+            this(member, null);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param member field or method to create the key for
+         * @param configurationKey key of the module configuration (only required for the keys of a {@link SharedProfileCache})
+         */
+        ConstraintProfileKey(MemberScope<?, ?> member, SharedProfileCache.ConfigurationKey configurationKey) {
+            this.declaringType = member.getDeclaringType().getErasedType();
+            this.rawMember = member.getRawMember();
+            this.containerItem = member.isFakeContainerItemScope();
+            this.configurationKey = configurationKey;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ConstraintProfileKey)) {
+                return false;
+            }
+            ConstraintProfileKey otherKey = (ConstraintProfileKey) other;
+            return this.declaringType == otherKey.declaringType && this.rawMember.equals(otherKey.rawMember)
+                    && this.containerItem == otherKey.containerItem && Objects.equals(this.configurationKey, otherKey.configurationKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 2 * (31 * this.declaringType.hashCode() + this.rawMember.hashCode()) + (this.containerItem ? 1 : 0);
+            return this.configurationKey == null ? hashCode : 31 * hashCode + this.configurationKey.hashCode();
+        }
+    }
+
+    /**
+     * Storage for resolved constraint profiles, holding a separate map per declaring type.
+     */
+    private static final class ProfileStorage {
+
+        /**
+         * Profiles per declaring type being loaded by an application class loader, that are being released together with the type.
+         */
+        private final ClassValue<ConcurrentMap<ConstraintProfileKey, ConstraintProfile>> profilesByType =
+                new ClassValue<ConcurrentMap<ConstraintProfileKey, ConstraintProfile>>() {
+                    @Override
+                    protected ConcurrentMap<ConstraintProfileKey, ConstraintProfile> computeValue(Class<?> declaringType) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+        /**
+         * Profiles of the members of JDK classes, that are never being unloaded anyway.
+         */
+        private final ConcurrentMap<ConstraintProfileKey, ConstraintProfile> platformProfiles = new ConcurrentHashMap<>();
+
+        /**
+         * Look-up the profiles of the given declaring type's members.
+         *
+         * @param declaringType type declaring (or inheriting) the fields/methods
+         * @return profiles by member
+         */
+        ConcurrentMap<ConstraintProfileKey, ConstraintProfile> getProfiles(Class<?> declaringType) {
+            return ClassConstraintIndex.isPlatformClass(declaringType) ? this.platformProfiles : this.profilesByType.get(declaringType);
+        }
+    }
 }
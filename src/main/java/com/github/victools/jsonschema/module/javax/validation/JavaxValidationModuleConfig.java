@@ -0,0 +1,490 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import javax.validation.Validator;
+
+/**
+ * Immutable configuration of a {@link JavaxValidationModule}.
+ * <br>
+ * As it cannot change after being created, a single configuration (and a module created from it) can safely be shared by any number of threads,
+ * e.g. for the whole process instead of per request thread.
+ */
+public final class JavaxValidationModuleConfig {
+
+    /**
+     * Default limit for the {@code @Size} "maxLength" up to which a risky "pattern" is being length-bounded in case of
+     * {@link PatternRiskHandling#BOUND_LENGTH}: even an expression with exponential matching effort like {@code (a+)+} then needs no more than
+     * about a million backtracking steps.
+     */
+    static final int DEFAULT_PATTERN_RISK_MAX_LENGTH = 20;
+
+    private final Set<JavaxValidationOption> options;
+    private final Class<?>[] validationGroups;
+    private final ValidationGroupMatcher validationGroupMatcher;
+    private final PatternRiskHandling patternRiskHandling;
+    private final int patternRiskMaxLength;
+    private final JavaxValidationMetricsListener metricsListener;
+    private final PersistentProfileCache persistentProfileCache;
+    private final String persistentProfileCacheFingerprint;
+    private final ValidatorConstraintIndex validatorConstraintIndex;
+    private final XmlConstraintMappings xmlConstraintMappings;
+    private final ProgrammaticConstraints programmaticConstraints;
+    private final Map<Class<? extends Annotation>, ConstraintMapper<?>> constraintMappers;
+    private final SharedProfileCache sharedProfileCache;
+    private final SharedProfileCache.ConfigurationKey sharedProfileCacheKey;
+
+    /**
+     * Constructor: collecting the values from the given builder.
+     *
+     * @param builder builder instance to take over values from
+     */
+    private JavaxValidationModuleConfig(Builder builder) {
+        this.options = Collections.unmodifiableSet(EnumSet.copyOf(builder.options));
+        this.validationGroups = builder.validationGroups == null ? null : builder.validationGroups.clone();
+        this.validationGroupMatcher = this.validationGroups == null ? null : ValidationGroupMatcher.of(this.validationGroups);
+        this.patternRiskHandling = builder.patternRiskHandling;
+        this.patternRiskMaxLength = builder.patternRiskMaxLength;
+        this.metricsListener = builder.metricsListener;
+        this.persistentProfileCache = builder.persistentProfileCache;
+        if (builder.validator == null) {
+            this.validatorConstraintIndex = null;
+        } else if (builder.validatorConstraintIndex != null && builder.validatorConstraintIndex.getValidator() == builder.validator) {
+            // retain the already converted metadata of the same validator
+            this.validatorConstraintIndex = builder.validatorConstraintIndex;
+        } else {
+            this.validatorConstraintIndex = new ValidatorConstraintIndex(builder.validator);
+        }
+        this.xmlConstraintMappings = builder.xmlConstraintMappings;
+        this.programmaticConstraints = builder.programmaticConstraints == null ? null : builder.programmaticConstraints.build();
+        this.constraintMappers = builder.constraintMappers.isEmpty() ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(builder.constraintMappers));
+        this.sharedProfileCache = builder.sharedProfileCache;
+        this.sharedProfileCacheKey = this.sharedProfileCache == null ? null : new SharedProfileCache.ConfigurationKey(this);
+        // a validator's metadata (e.g. from XML mapping files) is not covered by the class bytecode hashes the persisted profiles are keyed by
+        this.persistentProfileCacheFingerprint = this.persistentProfileCache == null || this.validatorConstraintIndex != null ? null
+                : PersistentProfileCache.getConfigurationFingerprint(this);
+    }
+
+    /**
+     * Getter for the enabled features.
+     *
+     * @return enabled features (unmodifiable)
+     */
+    public Set<JavaxValidationOption> getOptions() {
+        return this.options;
+    }
+
+    /**
+     * Check whether the given feature is enabled.
+     *
+     * @param option feature to check
+     * @return whether the feature is enabled
+     */
+    public boolean isEnabled(JavaxValidationOption option) {
+        return this.options.contains(option);
+    }
+
+    /**
+     * Getter for the validation groups to consider.
+     *
+     * @return validation groups to consider, {@code null} if validation groups should be ignored
+     * @see Builder#forValidationGroups(Class...)
+     */
+    public Class<?>[] getValidationGroups() {
+        return this.validationGroups == null ? null : this.validationGroups.clone();
+    }
+
+    /**
+     * Getter for the compiled representation of the validation groups to consider.
+     *
+     * @return group matcher, {@code null} if validation groups should be ignored
+     */
+    ValidationGroupMatcher getValidationGroupMatcher() {
+        return this.validationGroupMatcher;
+    }
+
+    /**
+     * Getter for how to handle a "pattern" prone to catastrophic backtracking.
+     *
+     * @return configured handling, {@code null} if expressions should not be analysed
+     * @see Builder#withPatternRiskHandling(PatternRiskHandling, int)
+     */
+    public PatternRiskHandling getPatternRiskHandling() {
+        return this.patternRiskHandling;
+    }
+
+    /**
+     * Getter for the limit of the {@code @Size} "maxLength" up to which a risky "pattern" is being length-bounded in case of
+     * {@link PatternRiskHandling#BOUND_LENGTH}.
+     *
+     * @return maximum length up to which a risky "pattern" is being length-bounded (instead of being omitted)
+     */
+    public int getPatternRiskMaxLength() {
+        return this.patternRiskMaxLength;
+    }
+
+    /**
+     * Getter for the listener to report metrics to.
+     *
+     * @return registered listener, {@code null} if no metrics should be collected
+     */
+    public JavaxValidationMetricsListener getMetricsListener() {
+        return this.metricsListener;
+    }
+
+    /**
+     * Getter for the on-disk cache of resolved constraint profiles.
+     *
+     * @return registered cache, {@code null} if profiles should not be persisted
+     */
+    public PersistentProfileCache getPersistentProfileCache() {
+        return this.persistentProfileCache;
+    }
+
+    /**
+     * Getter for the fingerprint of this configuration, being included in the keys of the {@link #getPersistentProfileCache()}.
+     *
+     * @return configuration fingerprint, {@code null} if profiles should not be persisted (also if a {@link #getValidator()} is registered)
+     */
+    String getPersistentProfileCacheFingerprint() {
+        return this.persistentProfileCacheFingerprint;
+    }
+
+    /**
+     * Getter for the in-memory cache of resolved constraint profiles, being shared with other modules.
+     *
+     * @return registered cache, {@code null} if each module should keep its own (unbounded) profiles
+     */
+    public SharedProfileCache getSharedProfileCache() {
+        return this.sharedProfileCache;
+    }
+
+    /**
+     * Getter for the key of this configuration, being combined with each field/method into the keys of the {@link #getSharedProfileCache()}.
+     *
+     * @return configuration key, {@code null} if no shared cache is registered
+     */
+    SharedProfileCache.ConfigurationKey getSharedProfileCacheKey() {
+        return this.sharedProfileCacheKey;
+    }
+
+    /**
+     * Getter for the validator whose constraint metadata is being used instead of looking-up the constraint annotations via reflection.
+     *
+     * @return registered validator, {@code null} if constraints should be looked-up via reflection
+     */
+    public Validator getValidator() {
+        return this.validatorConstraintIndex == null ? null : this.validatorConstraintIndex.getValidator();
+    }
+
+    /**
+     * Getter for the index over the constraint metadata of the registered {@link #getValidator()}.
+     *
+     * @return constraint index, {@code null} if constraints should be looked-up via reflection
+     */
+    ValidatorConstraintIndex getValidatorConstraintIndex() {
+        return this.validatorConstraintIndex;
+    }
+
+    /**
+     * Getter for the constraints declared in XML mapping files, being consulted next to the constraint annotations.
+     *
+     * @return registered mappings, {@code null} if only constraint annotations should be considered
+     */
+    public XmlConstraintMappings getXmlConstraintMappings() {
+        return this.xmlConstraintMappings;
+    }
+
+    /**
+     * Getter for the programmatically registered constraints, being consulted before the constraint annotations.
+     *
+     * @return registered constraints, {@code null} if no constraints have been registered
+     * @see Builder#withConstraints(Class)
+     */
+    public ProgrammaticConstraints getProgrammaticConstraints() {
+        return this.programmaticConstraints;
+    }
+
+    /**
+     * Getter for the mappers of custom constraint annotations.
+     *
+     * @return registered mappers per handled annotation type (unmodifiable, may be empty)
+     * @see Builder#withConstraintMapper(ConstraintMapper)
+     */
+    public Map<Class<? extends Annotation>, ConstraintMapper<?>> getConstraintMappers() {
+        return this.constraintMappers;
+    }
+
+    /**
+     * Create a builder, that is being initialised with the values of this configuration (e.g. for deriving a slightly different configuration).
+     *
+     * @return new builder instance
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder()
+                .forValidationGroups(this.validationGroups)
+                .withPatternRiskHandling(this.patternRiskHandling, this.patternRiskMaxLength)
+                .withMetricsListener(this.metricsListener)
+                .withPersistentProfileCache(this.persistentProfileCache)
+                .withSharedProfileCache(this.sharedProfileCache)
+                .withValidator(this.getValidator())
+                .withXmlConstraintMappings(this.xmlConstraintMappings);
+        builder.options.addAll(this.options);
+        builder.validatorConstraintIndex = this.validatorConstraintIndex;
+        builder.programmaticConstraints = this.programmaticConstraints == null ? null : this.programmaticConstraints.toBuilder();
+        builder.constraintMappers.putAll(this.constraintMappers);
+        return builder;
+    }
+
+    /**
+     * Builder for a {@link JavaxValidationModuleConfig}.
+     */
+    public static class Builder {
+
+        private final Set<JavaxValidationOption> options = EnumSet.noneOf(JavaxValidationOption.class);
+        private Class<?>[] validationGroups;
+        private PatternRiskHandling patternRiskHandling;
+        private int patternRiskMaxLength = DEFAULT_PATTERN_RISK_MAX_LENGTH;
+        private JavaxValidationMetricsListener metricsListener;
+        private PersistentProfileCache persistentProfileCache;
+        private SharedProfileCache sharedProfileCache;
+        private Validator validator;
+        /**
+         * Index of the previous configuration, being retained if the same {@link #validator} is still registered.
+         */
+        private ValidatorConstraintIndex validatorConstraintIndex;
+        private XmlConstraintMappings xmlConstraintMappings;
+        private ProgrammaticConstraints.Builder programmaticConstraints;
+        private final Map<Class<? extends Annotation>, ConstraintMapper<?>> constraintMappers = new LinkedHashMap<>();
+
+        /**
+         * Enable the given features.
+         *
+         * @param options features to enable
+         * @return this builder instance (for chaining)
+         */
+        public Builder with(JavaxValidationOption... options) {
+            if (options != null) {
+                for (JavaxValidationOption option : options) {
+                    if (option != null) {
+                        this.options.add(option);
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Add validation groups to be considered.
+         * <ul>
+         * <li>Never calling this method will result in all annotations to be picked-up.</li>
+         * <li>Calling this without parameters will only consider those annotations where no groups are defined.</li>
+         * <li>Calling this with not-null parameters will only consider those annotations without defined groups or where at least one matches.</li>
+         * </ul>
+         * As per the Bean Validation specification, a given validation group also includes the groups it extends, the groups listed in a
+         * {@link javax.validation.GroupSequence GroupSequence} annotation on it, as well as the {@link javax.validation.groups.Default Default}
+         * group.
+         *
+         * @param validationGroups validation groups to consider ({@code null} to ignore validation groups)
+         * @return this builder instance (for chaining)
+         */
+        public Builder forValidationGroups(Class<?>... validationGroups) {
+            this.validationGroups = validationGroups;
+            return this;
+        }
+
+        /**
+         * Analyse each "pattern" (see {@link JavaxValidationOption#INCLUDE_PATTERN_EXPRESSIONS}) for constructs that are prone to catastrophic
+         * backtracking (e.g. nested quantifiers), and handle those expressions as specified.
+         *
+         * @param handling how to handle a risky expression ({@code null} to skip the analysis)
+         * @return this builder instance (for chaining)
+         * @see #withPatternRiskHandling(PatternRiskHandling, int)
+         */
+        public Builder withPatternRiskHandling(PatternRiskHandling handling) {
+            return this.withPatternRiskHandling(handling, DEFAULT_PATTERN_RISK_MAX_LENGTH);
+        }
+
+        /**
+         * Analyse each "pattern" (see {@link JavaxValidationOption#INCLUDE_PATTERN_EXPRESSIONS}) for constructs that are prone to catastrophic
+         * backtracking (e.g. nested quantifiers), and handle those expressions as specified.
+         *
+         * @param handling how to handle a risky expression ({@code null} to skip the analysis)
+         * @param maxLength limit of the {@code @Size} "maxLength" up to which a risky expression is being length-bounded in case of
+         *        {@link PatternRiskHandling#BOUND_LENGTH} (a risky expression without such a "maxLength" or with a higher one is being omitted)
+         * @return this builder instance (for chaining)
+         */
+        public Builder withPatternRiskHandling(PatternRiskHandling handling, int maxLength) {
+            this.patternRiskHandling = handling;
+            this.patternRiskMaxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Register a listener for collecting metrics about the annotation look-ups, resolver invocations and internal caches.
+         *
+         * @param listener listener to report metrics to ({@code null} to disable the metrics collection)
+         * @return this builder instance (for chaining)
+         */
+        public Builder withMetricsListener(JavaxValidationMetricsListener listener) {
+            this.metricsListener = listener;
+            return this;
+        }
+
+        /**
+         * Register an on-disk cache of resolved constraint profiles, allowing subsequent JVMs to skip the reflective look-up of constraint
+         * annotations on unchanged classes. The cache needs to be saved explicitly via {@link PersistentProfileCache#save()}.
+         *
+         * @param cache cache to look-up profiles from and to add new profiles to ({@code null} to not persist any profiles)
+         * @return this builder instance (for chaining)
+         */
+        public Builder withPersistentProfileCache(PersistentProfileCache cache) {
+            this.persistentProfileCache = cache;
+            return this;
+        }
+
+        /**
+         * Register a bounded in-memory cache of resolved constraint profiles, that may be shared by multiple modules (e.g. one per schema
+         * generator configuration). While such a cache is registered, the module does not keep any profiles on its own.
+         *
+         * @param cache cache to look-up profiles from and to add new profiles to ({@code null} to let each module keep its own profiles)
+         * @return this builder instance (for chaining)
+         * @see SharedProfileCache#create(int, SharedProfileCache.EvictionPolicy)
+         */
+        public Builder withSharedProfileCache(SharedProfileCache cache) {
+            this.sharedProfileCache = cache;
+            return this;
+        }
+
+        /**
+         * Register a {@link Validator} (e.g. the one of Hibernate Validator being bootstrapped by the application anyway), whose constraint
+         * metadata should be used instead of looking-up the constraint annotations via reflection. This also covers constraints declared in XML
+         * mapping files. Non-standard annotations (e.g. looked-up by a sub-class of the {@link JavaxValidationModule}) are still being looked-up
+         * via reflection.
+         * <br>
+         * As the validator's metadata is not covered by the class bytecode hashes, no {@link #withPersistentProfileCache(PersistentProfileCache)
+         * PersistentProfileCache} is being consulted while a validator is registered.
+         *
+         * @param validator validator providing the constraint metadata ({@code null} to look-up constraint annotations via reflection)
+         * @return this builder instance (for chaining)
+         * @see Validator#getConstraintsForClass(Class)
+         */
+        public Builder withValidator(Validator validator) {
+            this.validator = validator;
+            return this;
+        }
+
+        /**
+         * Register constraints declared in Bean Validation XML mapping files, e.g. for classes that cannot be annotated. The mapped constraints
+         * are being consulted before the constraint annotations, which are being ignored entirely on mapped classes/members where the
+         * {@code ignore-annotations} attribute is not explicitly set to {@code false}.
+         *
+         * @param mappings parsed mapping files ({@code null} to only consider constraint annotations)
+         * @return this builder instance (for chaining)
+         */
+        public Builder withXmlConstraintMappings(XmlConstraintMappings mappings) {
+            this.xmlConstraintMappings = mappings;
+            return this;
+        }
+
+        /**
+         * Register constraints on the fields/methods of the given class, e.g. one from a third-party library that cannot be annotated. The
+         * registered constraints are being consulted before the constraint annotations. Inherited fields/methods are being covered as well, i.e.
+         * the constraints apply when the member is being accessed through the given class (or one of its subclasses).
+         * <br>
+         * Example: {@code builder.withConstraints(Account.class).member("iban").notNull().size(15, 34)}
+         *
+         * @param type declaring (or inheriting) class of the fields/methods to register constraints for
+         * @return entry point for registering constraints on the members of the given class
+         */
+        public ProgrammaticConstraints.TypeConstraints withConstraints(Class<?> type) {
+            return new ProgrammaticConstraints.TypeConstraints(type, this::withConstraint);
+        }
+
+        /**
+         * Register the given constraint on a field/method of the given class.
+         *
+         * @param type declaring class
+         * @param memberName name of the field, method or property
+         * @param constraint constraint annotation
+         * @return this builder instance (for chaining)
+         */
+        Builder withConstraint(Class<?> type, String memberName, Annotation constraint) {
+            if (this.programmaticConstraints == null) {
+                this.programmaticConstraints = ProgrammaticConstraints.NONE.toBuilder();
+            }
+            this.programmaticConstraints.with(type, memberName, constraint);
+            return this;
+        }
+
+        /**
+         * Register a mapper of a custom constraint annotation to the schema attributes it implies. A mapper being registered for the same
+         * annotation type as a previously registered one replaces it.
+         *
+         * @param mapper mapper to register
+         * @return this builder instance (for chaining)
+         */
+        public Builder withConstraintMapper(ConstraintMapper<?> mapper) {
+            this.constraintMappers.put(mapper.getAnnotationType(), mapper);
+            return this;
+        }
+
+        /**
+         * Register all mappers of custom constraint annotations, that are being provided via the {@link ServiceLoader} of the current thread's
+         * context class loader.
+         *
+         * @return this builder instance (for chaining)
+         * @see #withDiscoveredConstraintMappers(ClassLoader)
+         */
+        public Builder withDiscoveredConstraintMappers() {
+            return this.withDiscoveredConstraintMappers(Thread.currentThread().getContextClassLoader());
+        }
+
+        /**
+         * Register all mappers of custom constraint annotations, that are being provided via the {@link ServiceLoader} of the given class loader,
+         * i.e. listed in {@code META-INF/services/com.github.victools.jsonschema.module.javax.validation.ConstraintMapper} files.
+         *
+         * @param classLoader class loader to discover the mappers with
+         * @return this builder instance (for chaining)
+         * @see #withConstraintMapper(ConstraintMapper)
+         */
+        public Builder withDiscoveredConstraintMappers(ClassLoader classLoader) {
+            for (ConstraintMapper<?> mapper : ServiceLoader.load(ConstraintMapper.class, classLoader)) {
+                this.withConstraintMapper(mapper);
+            }
+            return this;
+        }
+
+        /**
+         * Create the immutable configuration from the collected values.
+         *
+         * @return created configuration
+         */
+        public JavaxValidationModuleConfig build() {
+            return new JavaxValidationModuleConfig(this);
+        }
+    }
+}
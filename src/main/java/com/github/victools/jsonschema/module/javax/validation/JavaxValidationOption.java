@@ -35,6 +35,25 @@ public enum JavaxValidationOption {
     /**
      * Use this option to include a string's "pattern" according to {@code @Pattern(regexp = "...")} or {@code @Email(regexp = "...")}.
      */
-    INCLUDE_PATTERN_EXPRESSIONS;
+    INCLUDE_PATTERN_EXPRESSIONS,
+    /**
+     * Use this option to translate the included "pattern" (see {@link #INCLUDE_PATTERN_EXPRESSIONS}) from a Java regular expression (including its
+     * flags) into the ECMA 262 dialect expected by JSON Schema. Expressions that cannot be translated are being included as-is. That includes
+     * expressions relying on unicode properties (e.g. {@code \p{javaLowerCase}} or {@code \p{Lu}}) or on {@code ^} in MULTILINE mode, since their
+     * equivalent would require the ECMA 262 "u" flag or an ES2018 lookbehind.
+     */
+    TRANSLATE_PATTERN_EXPRESSIONS,
+    /**
+     * Use this option in addition to {@link #TRANSLATE_PATTERN_EXPRESSIONS} to omit a "pattern" that cannot be translated, instead of including the
+     * original Java regular expression.
+     */
+    OMIT_UNTRANSLATABLE_PATTERN_EXPRESSIONS,
+    /**
+     * Use this option to emit Java Flight Recorder events for each resolution of a field's/method's constraints and each scan of a class' declared
+     * constraints. Those events are only being recorded if enabled in the respective recording's settings. This option has no effect if the
+     * {@code jdk.jfr} package is not available in the current runtime, or if this library was built on Java 8 (where the respective emitter is
+     * not being compiled).
+     */
+    EMIT_FLIGHT_RECORDER_EVENTS;
 
 }
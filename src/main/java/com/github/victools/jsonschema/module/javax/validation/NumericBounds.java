@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Conversion of the values on {@code @Min}/{@code @Max}/{@code @DecimalMin}/{@code @DecimalMax} annotations into (shared) {@link BigDecimal}
+ * instances.
+ * <ul>
+ * <li>Small integral values are being served from a pre-populated cache.</li>
+ * <li>Textual values are being parsed only once per distinct literal; those fitting into a {@code long} without parsing them as
+ * {@link BigDecimal}.</li>
+ * </ul>
+ */
+final class NumericBounds {
+
+    private static final int SMALL_VALUE_OFFSET = 128;
+    private static final BigDecimal[] SMALL_VALUES = new BigDecimal[SMALL_VALUE_OFFSET + 1025];
+    /**
+     * Maximum number of digits that are guaranteed to fit into a {@code long}.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+    /**
+     * Parsed textual values; the number of entries is limited by the distinct literals present in the annotations of all loaded classes.
+     */
+    private static final ConcurrentMap<String, BigDecimal> PARSED_VALUES = new ConcurrentHashMap<>();
+
+    static {
+        for (int index = 0; index < SMALL_VALUES.length; index++) {
+            SMALL_VALUES[index] = BigDecimal.valueOf(index - SMALL_VALUE_OFFSET);
+        }
+    }
+
+    /**
+     * Hidden constructor: only static methods.
+     */
+    private NumericBounds() {
+        // nothing to initialise
+    }
+
+    /**
+     * Convert the given integral value (e.g. from {@code @Min} or {@code @Max}) into a {@link BigDecimal}.
+     *
+     * @param value integral value to convert
+     * @return shared instance (for small values) or new instance
+     */
+    static BigDecimal valueOf(long value) {
+        if (value >= -SMALL_VALUE_OFFSET && value < SMALL_VALUES.length - SMALL_VALUE_OFFSET) {
+            return SMALL_VALUES[(int) value + SMALL_VALUE_OFFSET];
+        }
+        return BigDecimal.valueOf(value);
+    }
+
+    /**
+     * Convert the given textual value (e.g. from {@code @DecimalMin} or {@code @DecimalMax}) into a {@link BigDecimal}.
+     *
+     * @param value textual value to parse
+     * @return shared instance per distinct literal
+     * @throws NumberFormatException if the given value is not a valid representation of a {@link BigDecimal}
+     */
+    static BigDecimal parse(String value) {
+        BigDecimal result = PARSED_VALUES.get(value);
+        if (result == null) {
+            result = NumericBounds.isLongValue(value) ? NumericBounds.valueOf(Long.parseLong(value)) : new BigDecimal(value);
+            PARSED_VALUES.putIfAbsent(value, result);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the given textual value has already been parsed.
+     *
+     * @param value textual value
+     * @return whether a subsequent {@link #parse(String)} call is served from the cache
+     */
+    static boolean isCached(String value) {
+        return PARSED_VALUES.containsKey(value);
+    }
+
+    /**
+     * Check whether the given text is a plain integral value (optional sign followed by digits), that is guaranteed to fit into a {@code long}.
+     *
+     * @param value text to check
+     * @return whether {@link Long#parseLong(String)} can be applied safely
+     */
+    private static boolean isLongValue(String value) {
+        int length = value.length();
+        int start = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (length == start || length - start > MAX_LONG_DIGITS) {
+            return false;
+        }
+        for (int index = start; index < length; index++) {
+            char character = value.charAt(index);
+            if (character < '0' || character > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Static analysis of a regular expression, looking for constructs that may lead to catastrophic backtracking:
+ * <ul>
+ * <li>nested quantifiers, e.g. {@code (a+)+} or {@code (\w*x?)*}</li>
+ * <li>repeated alternatives that overlap, e.g. {@code (a|ab)*} or {@code (\d|1)+}</li>
+ * <li>adjacent repetitions matching the same characters, e.g. {@code \d+\d*} or {@code .*.*}</li>
+ * </ul>
+ * The analysis is a heuristic: it may flag harmless expressions and does not detect every risky one. Its result is being cached per distinct
+ * expression.
+ */
+final class PatternRiskAnalyzer {
+
+    /**
+     * Atoms matching (almost) any character, i.e. overlapping with every other atom.
+     */
+    private static final List<String> WILDCARD_ATOMS = Arrays.asList(".", "\\S", "[\\s\\S]", "\\W", "\\D");
+    /**
+     * Analysis results per distinct expression; the number of entries is limited by the distinct expressions present in the annotations of all
+     * loaded classes.
+     */
+    private static final ConcurrentMap<String, Boolean> ANALYSIS_RESULTS = new ConcurrentHashMap<>();
+    /**
+     * Risky expressions for which a warning has already been logged.
+     */
+    private static final Set<String> REPORTED_EXPRESSIONS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Hidden constructor: only static methods.
+     */
+    private PatternRiskAnalyzer() {
+        // nothing to initialise
+    }
+
+    /**
+     * Check whether the given regular expression is prone to catastrophic backtracking.
+     *
+     * @param regexp regular expression to check
+     * @return whether a risky construct was found
+     */
+    static boolean isRisky(String regexp) {
+        return ANALYSIS_RESULTS.computeIfAbsent(regexp, expression -> new Analysis(expression).isRisky());
+    }
+
+    /**
+     * Check whether the analysis result for the given regular expression has already been cached.
+     *
+     * @param regexp regular expression to check
+     * @return whether a subsequent {@link #isRisky(String)} call is served from the cache
+     */
+    static boolean isCached(String regexp) {
+        return ANALYSIS_RESULTS.containsKey(regexp);
+    }
+
+    /**
+     * Check whether a warning about the given risky expression still needs to be logged, i.e. only returning {@code true} on the first invocation
+     * per expression.
+     *
+     * @param regexp risky regular expression
+     * @return whether no warning has been logged for this expression yet
+     */
+    static boolean isFirstReport(String regexp) {
+        return REPORTED_EXPRESSIONS.add(regexp);
+    }
+
+    /**
+     * Create a length-bounded form of the given regular expression: matching the same values but rejecting any value exceeding the given length
+     * before the original expression is being evaluated.
+     * <br>
+     * The original expression is being anchored at both ends, i.e. it has to match the whole value (as for the {@code @Pattern} constraint itself)
+     * instead of any part of it (as for the "pattern" keyword).
+     *
+     * @param regexp regular expression to wrap
+     * @param maxLength maximum number of characters to accept
+     * @return length-bounded regular expression
+     */
+    static String toLengthBoundedForm(String regexp, int maxLength) {
+        return "^(?=[\\s\\S]{0," + maxLength + "}$)(?:" + regexp + ")$";
+    }
+
+    /**
+     * Information collected about a group (or the whole expression) while analysing it.
+     */
+    private static class GroupFrame {
+
+        /**
+         * Textual representations of the completed alternatives in this group.
+         */
+        final List<String> alternatives = new ArrayList<>();
+        /**
+         * Textual representation of the alternative currently being analysed.
+         */
+        StringBuilder currentAlternative = new StringBuilder();
+        /**
+         * Flag indicating whether any unbounded repetition occurred in this group (including nested groups).
+         */
+        boolean containsRepetition;
+        /**
+         * The last atom with an unbounded repetition, that has only been followed by optional atoms since.
+         */
+        String previousRepeatedAtom;
+
+        /**
+         * Start a new alternative (after encountering a '|').
+         */
+        void startAlternative() {
+            this.alternatives.add(this.currentAlternative.toString());
+            this.currentAlternative = new StringBuilder();
+            this.previousRepeatedAtom = null;
+        }
+
+        /**
+         * Mark the end of the group.
+         */
+        void end() {
+            this.alternatives.add(this.currentAlternative.toString());
+        }
+    }
+
+    /**
+     * State of analysing a single expression.
+     */
+    private static class Analysis {
+
+        private final String source;
+        private final Deque<GroupFrame> frames = new ArrayDeque<>();
+        private int position = 0;
+        private boolean risky = false;
+
+        /**
+         * Constructor.
+         *
+         * @param source regular expression to analyse
+         */
+        Analysis(String source) {
+            this.source = source;
+            this.frames.push(new GroupFrame());
+        }
+
+        /**
+         * Perform the analysis.
+         *
+         * @return whether a risky construct was found
+         */
+        boolean isRisky() {
+            while (!this.risky && this.position < this.source.length()) {
+                char character = this.source.charAt(this.position++);
+                if (character == '|') {
+                    this.frames.peek().startAlternative();
+                } else if (character == '(') {
+                    this.skipGroupPrefix();
+                    this.frames.push(new GroupFrame());
+                } else if (character == ')' && this.frames.size() > 1) {
+                    GroupFrame group = this.frames.pop();
+                    group.end();
+                    this.handleGroup(group);
+                } else {
+                    this.handleAtom(this.readAtom(character));
+                }
+            }
+            return this.risky;
+        }
+
+        /**
+         * Skip the indicator of a non-capturing/named group or a look-around, e.g. {@code ?:} or {@code ?<name>}.
+         */
+        private void skipGroupPrefix() {
+            if (this.position >= this.source.length() || this.source.charAt(this.position) != '?') {
+                return;
+            }
+            this.position++;
+            if (this.position < this.source.length() && this.source.charAt(this.position) == '<') {
+                int nameEnd = this.source.indexOf('>', this.position);
+                boolean isNamedGroup = nameEnd != -1 && this.source.charAt(this.position + 1) != '=' && this.source.charAt(this.position + 1) != '!';
+                this.position = isNamedGroup ? nameEnd + 1 : this.position + 2;
+            } else {
+                while (this.position < this.source.length() && "=!>:-imsuxdU".indexOf(this.source.charAt(this.position)) != -1) {
+                    boolean end = ":=!>".indexOf(this.source.charAt(this.position++)) != -1;
+                    if (end) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Read a single atom (i.e. an escape sequence, a character class or a single character), starting with the given character.
+         *
+         * @param character first character of the atom
+         * @return atom's textual representation
+         */
+        private String readAtom(char character) {
+            int start = this.position - 1;
+            if (character == '\\' && this.position < this.source.length()) {
+                char escaped = this.source.charAt(this.position++);
+                if ("pPkx".indexOf(escaped) != -1 && this.position < this.source.length() && "{<".indexOf(this.source.charAt(this.position)) != -1) {
+                    int end = this.source.indexOf(escaped == 'k' ? '>' : '}', this.position);
+                    this.position = end == -1 ? this.source.length() : end + 1;
+                } else if (escaped == 'u') {
+                    this.position = Math.min(this.source.length(), this.position + 4);
+                }
+            } else if (character == '[') {
+                this.skipCharacterClass();
+            }
+            return this.source.substring(start, this.position);
+        }
+
+        /**
+         * Skip the remainder of a character class (considering escaped characters and nested classes).
+         */
+        private void skipCharacterClass() {
+            int depth = 1;
+            if (this.position < this.source.length() && this.source.charAt(this.position) == '^') {
+                this.position++;
+            }
+            if (this.position < this.source.length() && this.source.charAt(this.position) == ']') {
+                // leading ']' is treated as literal
+                this.position++;
+            }
+            while (depth > 0 && this.position < this.source.length()) {
+                char character = this.source.charAt(this.position++);
+                if (character == '\\') {
+                    this.position++;
+                } else if (character == '[') {
+                    depth++;
+                } else if (character == ']') {
+                    depth--;
+                }
+            }
+        }
+
+        /**
+         * Read an optional quantifier following an atom or group (including its lazy/possessive mode indicator).
+         *
+         * @return kind of quantifier
+         */
+        private Quantifier readQuantifier() {
+            if (this.position >= this.source.length()) {
+                return Quantifier.NONE;
+            }
+            Quantifier quantifier;
+            char character = this.source.charAt(this.position);
+            if (character == '*' || character == '+') {
+                quantifier = Quantifier.UNBOUNDED;
+                this.position++;
+            } else if (character == '?') {
+                quantifier = Quantifier.OPTIONAL;
+                this.position++;
+            } else if (character == '{' && this.source.indexOf('}', this.position) != -1) {
+                String range = this.source.substring(this.position + 1, this.source.indexOf('}', this.position));
+                this.position += range.length() + 2;
+                quantifier = Quantifier.ofRange(range);
+            } else {
+                return Quantifier.NONE;
+            }
+            if (this.position < this.source.length() && "?+".indexOf(this.source.charAt(this.position)) != -1) {
+                this.position++;
+            }
+            return quantifier;
+        }
+
+        /**
+         * Handle a single atom: checking its quantifier against the preceding one.
+         *
+         * @param atom textual representation of the atom
+         */
+        private void handleAtom(String atom) {
+            GroupFrame frame = this.frames.peek();
+            Quantifier quantifier = this.readQuantifier();
+            frame.currentAlternative.append(atom);
+            if (quantifier == Quantifier.UNBOUNDED) {
+                frame.containsRepetition = true;
+                if (frame.previousRepeatedAtom != null && PatternRiskAnalyzer.isOverlapping(frame.previousRepeatedAtom, atom)) {
+                    this.risky = true;
+                }
+                frame.previousRepeatedAtom = atom;
+            } else if (quantifier != Quantifier.OPTIONAL) {
+                frame.previousRepeatedAtom = null;
+            }
+        }
+
+        /**
+         * Handle a group after reaching its end: checking its quantifier against its contents.
+         *
+         * @param group information collected about the group
+         */
+        private void handleGroup(GroupFrame group) {
+            GroupFrame parent = this.frames.peek();
+            Quantifier quantifier = this.readQuantifier();
+            parent.currentAlternative.append('(').append(String.join("|", group.alternatives)).append(')');
+            parent.containsRepetition |= group.containsRepetition;
+            if (quantifier == Quantifier.UNBOUNDED || quantifier == Quantifier.REPEATED) {
+                parent.containsRepetition |= quantifier == Quantifier.UNBOUNDED;
+                if (group.containsRepetition || PatternRiskAnalyzer.hasOverlappingAlternatives(group.alternatives)) {
+                    this.risky = true;
+                }
+                parent.previousRepeatedAtom = null;
+            } else if (quantifier != Quantifier.OPTIONAL) {
+                parent.previousRepeatedAtom = null;
+            }
+        }
+    }
+
+    /**
+     * Check whether two atoms may match the same character.
+     *
+     * @param atom first atom
+     * @param otherAtom second atom
+     * @return whether both atoms are identical or one of them matches (almost) any character
+     */
+    private static boolean isOverlapping(String atom, String otherAtom) {
+        return atom.equals(otherAtom) || WILDCARD_ATOMS.contains(atom) || WILDCARD_ATOMS.contains(otherAtom);
+    }
+
+    /**
+     * Check whether any of the given alternatives may match the same text: i.e. an alternative is empty, or one is a prefix of another one.
+     *
+     * @param alternatives alternatives in a group
+     * @return whether overlapping alternatives were found
+     */
+    private static boolean hasOverlappingAlternatives(List<String> alternatives) {
+        if (alternatives.size() < 2) {
+            return false;
+        }
+        for (int index = 0; index < alternatives.size(); index++) {
+            String alternative = alternatives.get(index);
+            for (int otherIndex = index + 1; otherIndex < alternatives.size(); otherIndex++) {
+                String otherAlternative = alternatives.get(otherIndex);
+                if (alternative.startsWith(otherAlternative) || otherAlternative.startsWith(alternative)
+                        || PatternRiskAnalyzer.startWithOverlappingAtoms(alternative, otherAlternative)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the two alternatives start with a wildcard.
+     *
+     * @param alternative first alternative
+     * @param otherAlternative second alternative
+     * @return whether either alternative starts with an atom matching (almost) any character
+     */
+    private static boolean startWithOverlappingAtoms(String alternative, String otherAlternative) {
+        return WILDCARD_ATOMS.stream().anyMatch(wildcard -> alternative.startsWith(wildcard) || otherAlternative.startsWith(wildcard));
+    }
+
+    /**
+     * Kinds of quantifiers being differentiated.
+     */
+    private enum Quantifier {
+        /**
+         * No quantifier or a fixed number of exactly one, e.g. {@code {1}}.
+         */
+        NONE,
+        /**
+         * Zero or one occurrence, e.g. {@code ?} or {@code {0,1}}.
+         */
+        OPTIONAL,
+        /**
+         * Bounded number of repetitions, e.g. {@code {2,5}}.
+         */
+        REPEATED,
+        /**
+         * Unbounded number of repetitions, e.g. {@code *} or {@code {2,}}.
+         */
+        UNBOUNDED;
+
+        /**
+         * Determine the kind of quantifier for the given range.
+         *
+         * @param range contents of a range quantifier, e.g. {@code "2,5"}
+         * @return kind of quantifier
+         */
+        static Quantifier ofRange(String range) {
+            int separator = range.indexOf(',');
+            if (separator == range.length() - 1) {
+                return UNBOUNDED;
+            }
+            String max = separator == -1 ? range : range.substring(separator + 1);
+            if ("0".equals(max) || "1".equals(max)) {
+                return separator == -1 ? NONE : OPTIONAL;
+            }
+            return REPEATED;
+        }
+    }
+}
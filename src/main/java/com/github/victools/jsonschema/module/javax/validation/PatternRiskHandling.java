@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+/**
+ * Ways of handling a "pattern" that is prone to catastrophic backtracking (e.g. due to nested quantifiers like {@code (a+)+}), when being validated
+ * against long input values.
+ *
+ * @see JavaxValidationModule#withPatternRiskHandling(PatternRiskHandling)
+ */
+public enum PatternRiskHandling {
+    /**
+     * Include the "pattern" as-is, but log a warning.
+     */
+    WARN,
+    /**
+     * Omit the "pattern".
+     */
+    OMIT,
+    /**
+     * Include the "pattern" with a preceding check of the value's length, i.e. restricting the length of values being matched against the original
+     * expression to the "maxLength" from an {@code @Size} annotation. As the effort of matching a risky expression may still grow exponentially with
+     * the value's length, this only applies if the "maxLength" does not exceed the configured limit (by default:
+     * {@value JavaxValidationModuleConfig#DEFAULT_PATTERN_RISK_MAX_LENGTH}). Without such a "maxLength", the "pattern" is being omitted.
+     */
+    BOUND_LENGTH;
+}
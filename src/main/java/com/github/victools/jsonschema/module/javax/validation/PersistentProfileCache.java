@@ -0,0 +1,538 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.generator.MemberScope;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.validation.Constraint;
+
+/**
+ * Optional on-disk cache of resolved {@link ConstraintProfile}s, allowing a new JVM to skip the reflective look-up of constraint annotations for
+ * classes that did not change since the cache was written.
+ * <br>
+ * Each entry is keyed by a hash of the module configuration (i.e. the enabled options and validation groups), a hash of the bytecode of the
+ * type declaring the field/method (including its super types), a hash of the bytecode of the custom constraint annotations on the field/method
+ * (including the custom constraints they are composed of) and the field/method itself. Entries of changed classes are therefore simply not
+ * being found anymore.
+ * <br>
+ * The cache file is being read through a memory-mapped buffer, i.e. only the keys are being read on opening and each profile is only being
+ * decoded when it is actually being looked-up. New profiles are kept in memory until {@link #save()} is being called.
+ *
+ * @see JavaxValidationModuleConfig.Builder#withPersistentProfileCache(PersistentProfileCache)
+ */
+public final class PersistentProfileCache {
+
+    private static final int MAGIC_NUMBER = 0x4A565043;
+    /**
+     * Version of the file format, to be incremented whenever the stored profiles may differ (e.g. when considering additional constraints).
+     * Version 2: profiles include the constraints composed into custom constraint annotations.
+     * Version 3: profiles of container items only include the constraints on the container element type.
+     * Version 4: profiles include the format and additional attributes contributed by constraint mappers.
+     */
+    private static final int FORMAT_VERSION = 4;
+    /**
+     * Number of bytes (from the SHA-256 hash) to include in keys.
+     */
+    private static final int HASH_LENGTH = 8;
+
+    /**
+     * Hash over the bytecode of each type and its super types, empty if the bytecode is not available (e.g. for generated classes).
+     */
+    private static final ClassValue<Optional<String>> TYPE_HASHES = new ClassValue<Optional<String>>() {
+        @Override
+        protected Optional<String> computeValue(Class<?> type) {
+            return Optional.ofNullable(PersistentProfileCache.calculateTypeHash(type));
+        }
+    };
+
+    /**
+     * Hash over the bytecode of each custom constraint annotation type and the custom constraints it is composed of, empty if the bytecode of
+     * any of them is not available.
+     */
+    private static final ClassValue<Optional<String>> CONSTRAINT_HASHES = new ClassValue<Optional<String>>() {
+        @Override
+        protected Optional<String> computeValue(Class<?> annotationType) {
+            return Optional.ofNullable(PersistentProfileCache.calculateConstraintHash(annotationType));
+        }
+    };
+
+    /**
+     * Open the cache stored in the given file.
+     *
+     * @param file cache file to read (if it exists) and to write to when calling {@link #save()}
+     * @return opened cache (empty if the file does not exist or is not a valid cache file, e.g. because it is truncated)
+     * @throws IOException when failing to read an existing file
+     */
+    public static PersistentProfileCache open(Path file) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) == 0) {
+            return new PersistentProfileCache(file, null, Collections.emptyMap());
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+            // unknown format: start over
+            return new PersistentProfileCache(file, null, Collections.emptyMap());
+        }
+        Map<String, Integer> offsets;
+        try {
+            offsets = PersistentProfileCache.readOffsets(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            // truncated or otherwise corrupt file: start over
+            return new PersistentProfileCache(file, null, Collections.emptyMap());
+        }
+        return new PersistentProfileCache(file, buffer, offsets);
+    }
+
+    /**
+     * Read the keys of all stored profiles and the position of each profile in the given buffer.
+     *
+     * @param buffer content of the cache file, positioned after the header
+     * @return position of each stored profile by its key
+     * @throws BufferUnderflowException when the content is truncated
+     * @throws IllegalArgumentException when the content is corrupt, e.g. an entry exceeding the end of the file
+     */
+    private static Map<String, Integer> readOffsets(ByteBuffer buffer) {
+        int entryCount = buffer.getInt();
+        // each entry requires at least the length of its key and of its profile
+        if (entryCount < 0 || entryCount > buffer.remaining() / 6) {
+            throw new IllegalArgumentException("Invalid number of entries: " + entryCount);
+        }
+        Map<String, Integer> offsets = new HashMap<>(entryCount * 4 / 3 + 1);
+        for (int index = 0; index < entryCount; index++) {
+            byte[] keyBytes = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(keyBytes);
+            int profileLength = buffer.getInt();
+            if (profileLength < 0 || profileLength > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid profile length: " + profileLength);
+            }
+            offsets.put(new String(keyBytes, StandardCharsets.UTF_8), buffer.position());
+            buffer.position(buffer.position() + profileLength);
+        }
+        return offsets;
+    }
+
+    private final Path file;
+    private final ByteBuffer storedProfiles;
+    private final Map<String, Integer> storedOffsets;
+    /**
+     * Entries being looked-up or added since opening the cache, i.e. those being written when saving.
+     */
+    private final ConcurrentMap<String, ConstraintProfile> usedProfiles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param file cache file
+     * @param storedProfiles memory-mapped content of the cache file ({@code null} if there was none)
+     * @param storedOffsets position of each stored profile in the memory-mapped content by its key
+     */
+    private PersistentProfileCache(Path file, ByteBuffer storedProfiles, Map<String, Integer> storedOffsets) {
+        this.file = file;
+        this.storedProfiles = storedProfiles;
+        this.storedOffsets = storedOffsets;
+    }
+
+    /**
+     * Getter for the number of profiles having been loaded from the cache file.
+     *
+     * @return number of stored profiles
+     */
+    public int getStoredProfileCount() {
+        return this.storedOffsets.size();
+    }
+
+    /**
+     * Write all profiles being looked-up or added since opening this cache into the cache file. Stored profiles that have not been used (e.g.
+     * because the class changed in the meantime) are being dropped.
+     *
+     * @throws IOException when failing to write the cache file
+     */
+    public void save() throws IOException {
+        Path tempFile = Files.createTempFile(this.file.toAbsolutePath().getParent(), this.file.getFileName().toString(), ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            Map<String, ConstraintProfile> profiles = new HashMap<>(this.usedProfiles);
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(profiles.size());
+            ByteArrayOutputStream profileBytes = new ByteArrayOutputStream();
+            DataOutputStream profileOutput = new DataOutputStream(profileBytes);
+            for (Map.Entry<String, ConstraintProfile> entry : profiles.entrySet()) {
+                byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                output.writeShort(keyBytes.length);
+                output.write(keyBytes);
+                profileBytes.reset();
+                entry.getValue().writeTo(profileOutput);
+                output.writeInt(profileBytes.size());
+                profileBytes.writeTo(output);
+            }
+        }
+        Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Create the key for the given field/method.
+     *
+     * @param configFingerprint fingerprint of the module configuration
+     * @param member field or method to create the key for
+     * @return created key, {@code null} if the member's profile cannot be cached (e.g. because the bytecode of its type cannot be read)
+     * @see #getConfigurationFingerprint(JavaxValidationModuleConfig)
+     */
+    String createKey(String configFingerprint, MemberScope<?, ?> member) {
+        String typeHash = PersistentProfileCache.getTypeHash(member.getDeclaringType().getErasedType());
+        if (typeHash == null) {
+            return null;
+        }
+        // changes to a custom constraint (e.g. the @Size it is composed of) are not covered by the bytecode hash of the declaring type
+        String constraintHash = PersistentProfileCache.getCustomConstraintHash(member);
+        if (constraintHash == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(configFingerprint)
+                .append(typeHash)
+                .append(constraintHash)
+                .append(PersistentProfileCache.describe(member.getRawMember()));
+        if (member.isFakeContainerItemScope()) {
+            // the constraints on the container element type are being kept separately from those on the member itself
+            key.append("[]");
+        }
+        return key.toString();
+    }
+
+    /**
+     * Look-up the hash over the bytecode of the given type and its super types.
+     *
+     * @param type type to look-up the hash for
+     * @return hex-encoded hash, {@code null} if the bytecode of the type or any of its super types is not available
+     */
+    static String getTypeHash(Class<?> type) {
+        return TYPE_HASHES.get(type).orElse(null);
+    }
+
+    /**
+     * Look-up the hash over the bytecode of the given custom constraint annotation type and the custom constraints it is composed of.
+     *
+     * @param annotationType custom constraint annotation type to look-up the hash for
+     * @return hex-encoded hash, {@code null} if the bytecode of the annotation type or any of its composing custom constraints is not available
+     */
+    static String getConstraintHash(Class<? extends Annotation> annotationType) {
+        return CONSTRAINT_HASHES.get(annotationType).orElse(null);
+    }
+
+    /**
+     * Calculate the combined hash of all custom constraint annotation types on the given field/method, its associated getter/field and their
+     * container element types.
+     *
+     * @param member field or method to calculate the hash for
+     * @return hex-encoded hash prefixed with "|constraints", empty if there are no custom constraints, {@code null} if the bytecode of any
+     *         custom constraint is not available
+     */
+    private static String getCustomConstraintHash(MemberScope<?, ?> member) {
+        // sorted by name, as the order of declared annotations is not guaranteed
+        Map<String, Class<? extends Annotation>> customConstraintTypes = new TreeMap<>();
+        PersistentProfileCache.collectCustomConstraintTypes(member.getRawMember(), customConstraintTypes);
+        MemberScope<?, ?> associatedMember = JavaxValidationModule.getAssociatedMember(member);
+        if (associatedMember != null) {
+            PersistentProfileCache.collectCustomConstraintTypes(associatedMember.getRawMember(), customConstraintTypes);
+        }
+        if (customConstraintTypes.isEmpty()) {
+            return "";
+        }
+        MessageDigest digest = PersistentProfileCache.createDigest();
+        for (Class<? extends Annotation> annotationType : customConstraintTypes.values()) {
+            String constraintHash = PersistentProfileCache.getConstraintHash(annotationType);
+            if (constraintHash == null) {
+                return null;
+            }
+            digest.update(constraintHash.getBytes(StandardCharsets.UTF_8));
+        }
+        return "|constraints" + PersistentProfileCache.toHex(digest.digest());
+    }
+
+    /**
+     * Collect the custom constraint annotation types on the given field/method and its container element type.
+     *
+     * @param member field or method to collect the custom constraints of
+     * @param customConstraintTypes collected annotation types by their name (to add to)
+     */
+    private static void collectCustomConstraintTypes(Member member, Map<String, Class<? extends Annotation>> customConstraintTypes) {
+        if (member instanceof AnnotatedElement) {
+            PersistentProfileCache.collectCustomConstraintTypes(((AnnotatedElement) member).getDeclaredAnnotations(), customConstraintTypes);
+            PersistentProfileCache.collectCustomConstraintTypes(ClassConstraintIndex.ContainerElement.of(member).getDeclaredAnnotations(),
+                    customConstraintTypes);
+        }
+    }
+
+    /**
+     * Collect the types of those given annotations that are custom constraints.
+     *
+     * @param annotations annotations to check
+     * @param customConstraintTypes collected annotation types by their name (to add to)
+     */
+    private static void collectCustomConstraintTypes(Annotation[] annotations, Map<String, Class<? extends Annotation>> customConstraintTypes) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (PersistentProfileCache.isCustomConstraint(annotationType)) {
+                customConstraintTypes.put(annotationType.getName(), annotationType);
+            }
+        }
+    }
+
+    /**
+     * Check whether the given annotation type is a custom constraint, i.e. one being annotated with {@link Constraint} but not being one of the
+     * standard constraints.
+     *
+     * @param annotationType type of annotation to check
+     * @return whether the annotation type is a custom constraint
+     */
+    private static boolean isCustomConstraint(Class<? extends Annotation> annotationType) {
+        return !ClassConstraintIndex.isIndexed(annotationType) && annotationType.isAnnotationPresent(Constraint.class);
+    }
+
+    /**
+     * Look-up the profile stored under the given key.
+     *
+     * @param key key created via {@link #createKey(String, MemberScope)}
+     * @return cached profile (or {@code null})
+     */
+    ConstraintProfile get(String key) {
+        ConstraintProfile profile = this.usedProfiles.get(key);
+        if (profile == null) {
+            Integer offset = this.storedOffsets.get(key);
+            if (offset != null) {
+                ByteBuffer input = this.storedProfiles.duplicate();
+                input.position(offset);
+                try {
+                    profile = ConstraintProfile.readFrom(input);
+                } catch (BufferUnderflowException | IllegalArgumentException ex) {
+                    // corrupt entry: the profile is being resolved again
+                    return null;
+                }
+                this.usedProfiles.putIfAbsent(key, profile);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Add the given profile to this cache (it is only being written to the cache file when calling {@link #save()}).
+     *
+     * @param key key created via {@link #createKey(String, MemberScope)}
+     * @param profile profile to add
+     */
+    void put(String key, ConstraintProfile profile) {
+        this.usedProfiles.put(key, profile);
+    }
+
+    /**
+     * Describe the given field/method unambiguously within its type hierarchy.
+     *
+     * @param member field or method to describe
+     * @return textual representation
+     */
+    private static String describe(Member member) {
+        StringBuilder description = new StringBuilder("|")
+                .append(member.getDeclaringClass().getName())
+                .append('#')
+                .append(member.getName());
+        if (member instanceof Method) {
+            description.append('(');
+            for (Class<?> parameterType : ((Method) member).getParameterTypes()) {
+                description.append(parameterType.getName()).append(',');
+            }
+            description.append(')');
+        }
+        return description.toString();
+    }
+
+    /**
+     * Calculate the fingerprint of the given module configuration, covering everything that may affect the resolved constraint profiles.
+     *
+     * @param config module configuration
+     * @return hex-encoded hash
+     */
+    static String getConfigurationFingerprint(JavaxValidationModuleConfig config) {
+        MessageDigest digest = PersistentProfileCache.createDigest();
+        digest.update(config.getOptions().toString().getBytes(StandardCharsets.UTF_8));
+        Class<?>[] validationGroups = config.getValidationGroups();
+        if (validationGroups != null) {
+            for (Class<?> group : validationGroups) {
+                // the group's bytecode determines the implicitly included groups (i.e. extended interfaces and group sequences)
+                digest.update(("|" + group.getName() + TYPE_HASHES.get(group).orElse("")).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        ProgrammaticConstraints programmaticConstraints = config.getProgrammaticConstraints();
+        if (programmaticConstraints != null) {
+            digest.update(("|registered" + programmaticConstraints.describe()).getBytes(StandardCharsets.UTF_8));
+        }
+        XmlConstraintMappings xmlMappings = config.getXmlConstraintMappings();
+        if (xmlMappings != null) {
+            // constraints declared in XML mapping files are not covered by the bytecode hashes of the respective classes
+            digest.update(("|xml" + xmlMappings.getContentHash()).getBytes(StandardCharsets.UTF_8));
+        }
+        // the mappers' bytecode determines the attributes being contributed (sorted, as the identity hash based map order differs per JVM)
+        Set<String> mapperDescriptions = new TreeSet<>();
+        for (ConstraintMapper<?> mapper : config.getConstraintMappers().values()) {
+            mapperDescriptions.add(mapper.getAnnotationType().getName() + '=' + mapper.getClass().getName()
+                    + TYPE_HASHES.get(mapper.getClass()).orElse(""));
+        }
+        for (String mapperDescription : mapperDescriptions) {
+            digest.update(("|mapper" + mapperDescription).getBytes(StandardCharsets.UTF_8));
+        }
+        return PersistentProfileCache.toHex(digest.digest());
+    }
+
+    /**
+     * Calculate the hash over the bytecode of the given type and its super types.
+     *
+     * @param type type to calculate the hash for
+     * @return hex-encoded hash, {@code null} if the bytecode of the type or any of its super types is not available
+     */
+    private static String calculateTypeHash(Class<?> type) {
+        MessageDigest digest = PersistentProfileCache.createDigest();
+        digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+        if (type.getClassLoader() != null) {
+            // JDK types are only represented by their name
+            byte[] bytecode = PersistentProfileCache.readBytecode(type);
+            if (bytecode == null) {
+                return null;
+            }
+            digest.update(bytecode);
+        }
+        Class<?> superType = type.getSuperclass();
+        if (superType != null) {
+            Optional<String> superTypeHash = TYPE_HASHES.get(superType);
+            if (!superTypeHash.isPresent()) {
+                return null;
+            }
+            digest.update(superTypeHash.get().getBytes(StandardCharsets.UTF_8));
+        }
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            Optional<String> interfaceHash = TYPE_HASHES.get(interfaceType);
+            if (!interfaceHash.isPresent()) {
+                return null;
+            }
+            digest.update(interfaceHash.get().getBytes(StandardCharsets.UTF_8));
+        }
+        return PersistentProfileCache.toHex(digest.digest());
+    }
+
+    /**
+     * Calculate the hash over the bytecode of the given custom constraint annotation type and the custom constraints it is composed of.
+     *
+     * @param annotationType custom constraint annotation type to calculate the hash for
+     * @return hex-encoded hash, {@code null} if the bytecode of the annotation type or any of its composing custom constraints is not available
+     */
+    private static String calculateConstraintHash(Class<?> annotationType) {
+        String typeHash = PersistentProfileCache.getTypeHash(annotationType);
+        if (typeHash == null) {
+            return null;
+        }
+        MessageDigest digest = PersistentProfileCache.createDigest();
+        digest.update(typeHash.getBytes(StandardCharsets.UTF_8));
+        for (Annotation metaAnnotation : annotationType.getDeclaredAnnotations()) {
+            Class<? extends Annotation> metaAnnotationType = metaAnnotation.annotationType();
+            if (metaAnnotationType != annotationType && PersistentProfileCache.isCustomConstraint(metaAnnotationType)) {
+                Optional<String> composingHash = CONSTRAINT_HASHES.get(metaAnnotationType);
+                if (!composingHash.isPresent()) {
+                    return null;
+                }
+                digest.update(composingHash.get().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return PersistentProfileCache.toHex(digest.digest());
+    }
+
+    /**
+     * Read the bytecode of the given type from its class loader.
+     *
+     * @param type type to read the class file for
+     * @return bytecode, {@code null} if it is not available
+     */
+    private static byte[] readBytecode(Class<?> type) {
+        try (InputStream classFile = type.getClassLoader().getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+            if (classFile == null) {
+                return null;
+            }
+            ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int length;
+            while ((length = classFile.read(chunk)) != -1) {
+                bytecode.write(chunk, 0, length);
+            }
+            return bytecode.toByteArray();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Create the message digest for calculating hashes.
+     *
+     * @return new digest instance
+     */
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // SHA-256 is required to be supported by every Java platform
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Convert the leading bytes of the given hash into a hexadecimal representation.
+     *
+     * @param hash hash to convert
+     * @return hex-encoded text (of length {@code 2 * HASH_LENGTH})
+     */
+    static String toHex(byte[] hash) {
+        StringBuilder result = new StringBuilder(HASH_LENGTH * 2);
+        for (int index = 0; index < HASH_LENGTH; index++) {
+            result.append(Character.forDigit((hash[index] >> 4) & 0xF, 16)).append(Character.forDigit(hash[index] & 0xF, 16));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Names of the constrained fields and methods of a single class, as determined at compile time by the {@link ConstraintIndexProcessor}.
+ * <br>
+ * The index is being stored as resource next to the respective class file, e.g. {@code Outer$Inner.constraints} for the class
+ * {@code Outer.Inner}. Each line refers to one field or method (by name) carrying at least one {@code javax.validation.constraints} annotation.
+ * If the resource is present, only those fields and methods need to be checked for constraint annotations at runtime.
+ * <br>
+ * The resource also records a fingerprint of all declared fields and methods (their names and number of parameters), being compared with those of
+ * the loaded class. If they differ, the class has been changed and recompiled without the {@link ConstraintIndexProcessor} (e.g. by an IDE's
+ * incremental build) and the resource is being ignored, as it may not list all constrained members anymore. A recompilation only adding a
+ * constraint annotation to an existing member cannot be detected this way.
+ */
+final class PrecomputedConstraintIndex {
+
+    /**
+     * Name of the package containing all standard constraint annotations (without referencing it, as the processor may run without it).
+     */
+    static final String CONSTRAINTS_PACKAGE = "javax.validation.constraints";
+    /**
+     * Suffix of the index resource, being appended to the class name.
+     */
+    static final String RESOURCE_SUFFIX = ".constraints";
+    /**
+     * Line prefix for a constrained field.
+     */
+    static final String FIELD_PREFIX = "field ";
+    /**
+     * Line prefix for a constrained method (regardless of its parameters).
+     */
+    static final String METHOD_PREFIX = "method ";
+    /**
+     * Line prefix for a comment.
+     */
+    static final String COMMENT_PREFIX = "#";
+    /**
+     * Line prefix for the fingerprint of the class' declared fields and methods at the time the resource was written.
+     */
+    static final String MEMBERS_PREFIX = COMMENT_PREFIX + " members ";
+
+    /**
+     * Determine the name of the index resource relative to the package of the given class.
+     *
+     * @param binaryClassName fully qualified binary name of the class (e.g. {@code com.example.Outer$Inner})
+     * @return resource name (e.g. {@code Outer$Inner.constraints})
+     */
+    static String getResourceName(String binaryClassName) {
+        return binaryClassName.substring(binaryClassName.lastIndexOf('.') + 1) + RESOURCE_SUFFIX;
+    }
+
+    /**
+     * Describe a declared field for the calculation of the {@link #getMemberFingerprint(Collection) member fingerprint}.
+     *
+     * @param fieldName name of the field (or enum constant)
+     * @return field signature
+     */
+    static String getFieldSignature(String fieldName) {
+        return FIELD_PREFIX + fieldName;
+    }
+
+    /**
+     * Describe a declared method for the calculation of the {@link #getMemberFingerprint(Collection) member fingerprint}.
+     *
+     * @param methodName name of the method
+     * @param parameterCount number of method parameters
+     * @return method signature
+     */
+    static String getMethodSignature(String methodName, int parameterCount) {
+        return METHOD_PREFIX + methodName + "/" + parameterCount;
+    }
+
+    /**
+     * Calculate the fingerprint of the given field and method signatures: their number and a hash of their sorted signatures.
+     *
+     * @param memberSignatures signatures of all declared (non-synthetic) fields and methods
+     * @return member fingerprint
+     * @see #getFieldSignature(String)
+     * @see #getMethodSignature(String, int)
+     */
+    static String getMemberFingerprint(Collection<String> memberSignatures) {
+        List<String> sortedSignatures = new ArrayList<>(memberSignatures);
+        Collections.sort(sortedSignatures);
+        return sortedSignatures.size() + " " + Integer.toHexString(String.join("\n", sortedSignatures).hashCode());
+    }
+
+    /**
+     * Calculate the fingerprint of the given loaded class' declared fields and methods. Synthetic members (e.g. of lambda expressions or bridge
+     * methods) are being ignored, as they are not visible to the {@link ConstraintIndexProcessor}.
+     *
+     * @param type class to determine the member fingerprint for
+     * @return member fingerprint
+     */
+    static String getMemberFingerprint(Class<?> type) {
+        List<String> memberSignatures = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!field.isSynthetic()) {
+                memberSignatures.add(PrecomputedConstraintIndex.getFieldSignature(field.getName()));
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (!method.isSynthetic()) {
+                memberSignatures.add(PrecomputedConstraintIndex.getMethodSignature(method.getName(), method.getParameterCount()));
+            }
+        }
+        return PrecomputedConstraintIndex.getMemberFingerprint(memberSignatures);
+    }
+
+    /**
+     * Load the precomputed index for the given class.
+     *
+     * @param declaringClass class to load the index for
+     * @return loaded index, {@code null} if there is none (or it could not be read or is outdated)
+     */
+    static PrecomputedConstraintIndex load(Class<?> declaringClass) {
+        if (declaringClass.getClassLoader() == null || declaringClass.isArray() || declaringClass.isPrimitive()) {
+            // JDK classes are never being processed
+            return null;
+        }
+        InputStream resource = declaringClass.getResourceAsStream(PrecomputedConstraintIndex.getResourceName(declaringClass.getName()));
+        if (resource == null) {
+            return null;
+        }
+        PrecomputedConstraintIndex index = new PrecomputedConstraintIndex();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(FIELD_PREFIX)) {
+                    index.fieldNames.add(line.substring(FIELD_PREFIX.length()));
+                } else if (line.startsWith(METHOD_PREFIX)) {
+                    index.methodNames.add(line.substring(METHOD_PREFIX.length()));
+                } else if (line.startsWith(MEMBERS_PREFIX)) {
+                    index.memberFingerprint = line.substring(MEMBERS_PREFIX.length());
+                }
+            }
+        } catch (IOException ex) {
+            // fall-back on scanning all fields and methods
+            return null;
+        }
+        if (index.memberFingerprint == null) {
+            // without the member fingerprint, the index cannot be verified to be up-to-date
+            return null;
+        }
+        if (!index.memberFingerprint.equals(PrecomputedConstraintIndex.getMemberFingerprint(declaringClass))) {
+            // the class has been changed and recompiled without updating the index, i.e. it may not list all constrained members anymore
+            return null;
+        }
+        return index;
+    }
+
+    private final Set<String> fieldNames = new HashSet<>();
+    private final Set<String> methodNames = new HashSet<>();
+    private String memberFingerprint;
+
+    /**
+     * Hidden constructor: instances are being created via {@link #load(Class)}.
+     */
+    private PrecomputedConstraintIndex() {
+        // collections are being populated while loading
+    }
+
+    /**
+     * Check whether the field with the given name was found to be constrained at compile time.
+     *
+     * @param fieldName name of the field to check
+     * @return whether the field should be checked for constraints
+     */
+    boolean isConstrainedField(String fieldName) {
+        return this.fieldNames.contains(fieldName);
+    }
+
+    /**
+     * Check whether a method with the given name was found to be constrained at compile time.
+     *
+     * @param methodName name of the method to check
+     * @return whether the method (or any of its overloads) should be checked for constraints
+     */
+    boolean isConstrainedMethod(String methodName) {
+        return this.methodNames.contains(methodName);
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.DeclaredConstraints;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Negative;
+import javax.validation.constraints.NegativeOrZero;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Null;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+/**
+ * Constraints being registered programmatically for the fields/methods of classes that cannot be annotated (e.g. from third-party libraries).
+ * <br>
+ * The registered constraints are being kept in a hash index by declaring class and member name, that is being consulted before the constraint
+ * annotations (and any {@link XmlConstraintMappings}). A constraint registered under a property name (e.g. {@code "iban"}) applies to both the
+ * field of that name and the respective getter (e.g. {@code getIban()}). Constraints may also be registered on a subclass for members it
+ * inherits, in which case they only apply when the member is being accessed through that subclass (or one of its own subclasses).
+ * <br>
+ * Instances are immutable: registrations are being collected in a {@link Builder}, that indexes the affected classes once when building.
+ */
+public final class ProgrammaticConstraints {
+
+    /**
+     * Representation of no registered constraints.
+     */
+    static final ProgrammaticConstraints NONE = new ProgrammaticConstraints(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<Class<?>, Map<String, List<Annotation>>> annotationsByType;
+    private final Map<Class<?>, Map<String, DeclaredConstraints>> constraintsByType;
+    private final int hashCode;
+
+    /**
+     * Constructor.
+     *
+     * @param annotationsByType registered constraints per declaring class and member name, in the order of their registration
+     * @param constraintsByType index of the registered standard constraints per declaring class and member name
+     */
+    private ProgrammaticConstraints(Map<Class<?>, Map<String, List<Annotation>>> annotationsByType,
+            Map<Class<?>, Map<String, DeclaredConstraints>> constraintsByType) {
+        this.annotationsByType = annotationsByType;
+        this.constraintsByType = constraintsByType;
+        this.hashCode = annotationsByType.hashCode();
+    }
+
+    /**
+     * Create a builder for a new instance, that includes all constraints registered on this instance.
+     *
+     * @return new builder instance
+     */
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Getter for the number of classes with registered constraints.
+     *
+     * @return number of classes
+     */
+    public int getRegisteredTypeCount() {
+        return this.constraintsByType.size();
+    }
+
+    /**
+     * Look-up the standard constraints registered for the given field or method on its declaring class. For a method, the constraints registered
+     * under the method name take precedence over those registered under its property name (in case of a getter).
+     *
+     * @param member field or method to look-up constraints for
+     * @return registered constraints (may be empty, but never {@code null})
+     * @see #getDeclaredConstraints(Class, Member)
+     */
+    DeclaredConstraints getDeclaredConstraints(Member member) {
+        return this.getDeclaredConstraints(member.getDeclaringClass(), member);
+    }
+
+    /**
+     * Look-up the standard constraints registered for the given field or method, as seen from the given (sub)type. The type hierarchy is being
+     * traversed from the given type up to the member's declaring class: constraints registered on a subclass (e.g. for an inherited field)
+     * replace those registered for the same member on a superclass. For a method, the constraints registered under the method name take
+     * precedence over those registered under its property name (in case of a getter).
+     *
+     * @param type type through which the field or method is being accessed (typically its declaring class or a subclass thereof)
+     * @param member field or method to look-up constraints for
+     * @return registered constraints (may be empty, but never {@code null})
+     */
+    DeclaredConstraints getDeclaredConstraints(Class<?> type, Member member) {
+        if (this.constraintsByType.isEmpty()) {
+            return DeclaredConstraints.NONE;
+        }
+        Class<?> declaringClass = member.getDeclaringClass();
+        if (type != null && type != declaringClass && declaringClass.isAssignableFrom(type)) {
+            for (Class<?> currentType = type; currentType != null && currentType != declaringClass; currentType = currentType.getSuperclass()) {
+                DeclaredConstraints constraints = ProgrammaticConstraints.lookUp(this.constraintsByType.get(currentType), member);
+                if (constraints != null) {
+                    return constraints;
+                }
+            }
+        }
+        DeclaredConstraints constraints = ProgrammaticConstraints.lookUp(this.constraintsByType.get(declaringClass), member);
+        return constraints == null ? DeclaredConstraints.NONE : constraints;
+    }
+
+    /**
+     * Look-up the standard constraints registered for the given field or method in the index of a single class.
+     *
+     * @param typeConstraints index of the registered constraints of a single class (may be {@code null})
+     * @param member field or method to look-up constraints for
+     * @return registered constraints (or {@code null} if there are none)
+     */
+    private static DeclaredConstraints lookUp(Map<String, DeclaredConstraints> typeConstraints, Member member) {
+        if (typeConstraints == null) {
+            return null;
+        }
+        DeclaredConstraints constraints = typeConstraints.get(member.getName());
+        if (constraints == null && member instanceof Method) {
+            String propertyName = ValidatorConstraintIndex.getPropertyName(member);
+            constraints = propertyName == null ? null : typeConstraints.get(propertyName);
+        }
+        return constraints;
+    }
+
+    /**
+     * Create a stable textual representation of all registered constraints, e.g. to be included in the keys of a {@link PersistentProfileCache}.
+     *
+     * @return description of the registered constraints
+     */
+    String describe() {
+        TreeSet<String> lines = new TreeSet<>();
+        this.annotationsByType.forEach((type, typeAnnotations) -> typeAnnotations.forEach((memberName, memberAnnotations) -> {
+            for (Annotation annotation : memberAnnotations) {
+                lines.add(type.getName() + "#" + memberName + annotation);
+            }
+        }));
+        return String.join("\n", lines);
+    }
+
+    /**
+     * Collector of programmatically registered constraints, that are only being indexed once when building the (immutable) instance.
+     */
+    static final class Builder {
+
+        private ProgrammaticConstraints baseline;
+        private final Map<Class<?>, Map<String, List<Annotation>>> addedAnnotationsByType = new HashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param baseline previously registered constraints to extend
+         */
+        Builder(ProgrammaticConstraints baseline) {
+            this.baseline = baseline;
+        }
+
+        /**
+         * Register the given constraint.
+         *
+         * @param type declaring class (or a subclass thereof, for an inherited field, method or property)
+         * @param memberName name of the field, method or property
+         * @param constraint constraint annotation (custom constraints are being expanded into the standard constraints they are composed of)
+         * @return this builder instance (for chaining)
+         */
+        Builder with(Class<?> type, String memberName, Annotation constraint) {
+            this.addedAnnotationsByType.computeIfAbsent(type, key -> new HashMap<>())
+                    .computeIfAbsent(memberName, key -> new ArrayList<>())
+                    .add(constraint);
+            return this;
+        }
+
+        /**
+         * Create an instance including all registered constraints. Only the classes with constraints registered via this builder are being
+         * (re-)indexed. Without such registrations since the last call, the same instance is being returned.
+         *
+         * @return instance including all registered constraints
+         */
+        ProgrammaticConstraints build() {
+            if (this.addedAnnotationsByType.isEmpty()) {
+                return this.baseline;
+            }
+            Map<Class<?>, Map<String, List<Annotation>>> annotations = new HashMap<>(this.baseline.annotationsByType);
+            Map<Class<?>, Map<String, DeclaredConstraints>> constraints = new HashMap<>(this.baseline.constraintsByType);
+            this.addedAnnotationsByType.forEach((type, addedTypeAnnotations) -> {
+                // the (immutable) entries of unaffected members are being shared with the baseline
+                Map<String, List<Annotation>> typeAnnotations = new HashMap<>(annotations.getOrDefault(type, Collections.emptyMap()));
+                Map<String, DeclaredConstraints> typeConstraints = new HashMap<>(constraints.getOrDefault(type, Collections.emptyMap()));
+                addedTypeAnnotations.forEach((memberName, addedMemberAnnotations) -> {
+                    List<Annotation> memberAnnotations = new ArrayList<>(typeAnnotations.getOrDefault(memberName, Collections.emptyList()));
+                    memberAnnotations.addAll(addedMemberAnnotations);
+                    typeAnnotations.put(memberName, Collections.unmodifiableList(memberAnnotations));
+                    // a constraint of the same type being registered later replaces the earlier one
+                    typeConstraints.put(memberName, DeclaredConstraints.of(memberAnnotations.toArray(new Annotation[0])));
+                });
+                annotations.put(type, typeAnnotations);
+                constraints.put(type, typeConstraints);
+            });
+            this.addedAnnotationsByType.clear();
+            this.baseline = new ProgrammaticConstraints(annotations, constraints);
+            return this.baseline;
+        }
+    }
+
+    /**
+     * Check whether the given object represents the same registered constraints (in the same order per member).
+     *
+     * @param other object to compare with
+     * @return whether both represent the same constraints
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ProgrammaticConstraints)) {
+            return false;
+        }
+        ProgrammaticConstraints otherConstraints = (ProgrammaticConstraints) other;
+        return this.hashCode == otherConstraints.hashCode && this.annotationsByType.equals(otherConstraints.annotationsByType);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    /**
+     * Receiver of programmatically registered constraints.
+     */
+    @FunctionalInterface
+    interface Registration {
+
+        /**
+         * Register the given constraint.
+         *
+         * @param type declaring class
+         * @param memberName name of the field, method or property
+         * @param constraint constraint annotation
+         */
+        void register(Class<?> type, String memberName, Annotation constraint);
+    }
+
+    /**
+     * Entry point for registering constraints on the members of a single class.
+     */
+    public static final class TypeConstraints {
+
+        private final Class<?> type;
+        private final Registration registration;
+
+        /**
+         * Constructor.
+         *
+         * @param type declaring class to register constraints for
+         * @param registration receiver of the registered constraints
+         */
+        TypeConstraints(Class<?> type, Registration registration) {
+            this.type = type;
+            this.registration = registration;
+        }
+
+        /**
+         * Register constraints on the field, method or property of the given name.
+         *
+         * @param memberName name of the field, method or property (the latter applying to both the field and its getter)
+         * @return entry point for registering constraints on the given member
+         */
+        public MemberConstraints member(String memberName) {
+            return new MemberConstraints(this, memberName);
+        }
+    }
+
+    /**
+     * Entry point for registering constraints on a single field, method or property.
+     */
+    public static final class MemberConstraints {
+
+        private final TypeConstraints typeConstraints;
+        private final String memberName;
+
+        /**
+         * Constructor.
+         *
+         * @param typeConstraints entry point for the declaring class
+         * @param memberName name of the field, method or property
+         */
+        MemberConstraints(TypeConstraints typeConstraints, String memberName) {
+            this.typeConstraints = typeConstraints;
+            this.memberName = memberName;
+        }
+
+        /**
+         * Continue with registering constraints on another field, method or property of the same class.
+         *
+         * @param memberName name of the field, method or property (the latter applying to both the field and its getter)
+         * @return entry point for registering constraints on the given member
+         */
+        public MemberConstraints member(String memberName) {
+            return this.typeConstraints.member(memberName);
+        }
+
+        /**
+         * Register the given constraint annotation instance, e.g. a custom constraint composed of standard constraints.
+         *
+         * @param constraint constraint annotation
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints constraint(Annotation constraint) {
+            this.typeConstraints.registration.register(this.typeConstraints.type, this.memberName, constraint);
+            return this;
+        }
+
+        /**
+         * Register a {@link NotNull} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints notNull() {
+            return this.constraint(NotNull.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link Null} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints mustBeNull() {
+            return this.constraint(Null.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link NotEmpty} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints notEmpty() {
+            return this.constraint(NotEmpty.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link NotBlank} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints notBlank() {
+            return this.constraint(NotBlank.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link Size} constraint.
+         *
+         * @param min minimum number of characters/items
+         * @param max maximum number of characters/items
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints size(int min, int max) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("min", min);
+            values.put("max", max);
+            return this.constraint(Size.class, values);
+        }
+
+        /**
+         * Register an {@link Email} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints email() {
+            return this.constraint(Email.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link Pattern} constraint.
+         *
+         * @param regexp regular expression to match
+         * @param flags flags to consider when matching the regular expression
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints pattern(String regexp, Pattern.Flag... flags) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("regexp", regexp);
+            values.put("flags", flags.clone());
+            return this.constraint(Pattern.class, values);
+        }
+
+        /**
+         * Register a {@link Min} constraint.
+         *
+         * @param value inclusive minimum
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints min(long value) {
+            return this.constraint(Min.class, Collections.singletonMap("value", value));
+        }
+
+        /**
+         * Register a {@link Max} constraint.
+         *
+         * @param value inclusive maximum
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints max(long value) {
+            return this.constraint(Max.class, Collections.singletonMap("value", value));
+        }
+
+        /**
+         * Register a {@link DecimalMin} constraint.
+         *
+         * @param value minimum (in the {@link java.math.BigDecimal} string representation)
+         * @param inclusive whether the given minimum is inclusive
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints decimalMin(String value, boolean inclusive) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("value", value);
+            values.put("inclusive", inclusive);
+            return this.constraint(DecimalMin.class, values);
+        }
+
+        /**
+         * Register a {@link DecimalMax} constraint.
+         *
+         * @param value maximum (in the {@link java.math.BigDecimal} string representation)
+         * @param inclusive whether the given maximum is inclusive
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints decimalMax(String value, boolean inclusive) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("value", value);
+            values.put("inclusive", inclusive);
+            return this.constraint(DecimalMax.class, values);
+        }
+
+        /**
+         * Register a {@link Positive} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints positive() {
+            return this.constraint(Positive.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link PositiveOrZero} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints positiveOrZero() {
+            return this.constraint(PositiveOrZero.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link Negative} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints negative() {
+            return this.constraint(Negative.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a {@link NegativeOrZero} constraint.
+         *
+         * @return this instance (for chaining)
+         */
+        public MemberConstraints negativeOrZero() {
+            return this.constraint(NegativeOrZero.class, Collections.emptyMap());
+        }
+
+        /**
+         * Register a standard constraint with the given attribute values (falling back on the default values for all others).
+         *
+         * @param annotationType type of constraint
+         * @param values attribute values by attribute name
+         * @return this instance (for chaining)
+         */
+        private MemberConstraints constraint(Class<? extends Annotation> annotationType, Map<String, Object> values) {
+            return this.constraint(SyntheticAnnotation.create(annotationType, values));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+/**
+ * Emitter of diagnostic events about the module's processing (e.g. for the Java Flight Recorder).
+ * <br>
+ * The actual implementation is being loaded reflectively, in order to avoid any dependency on the event framework (e.g. the {@code jdk.jfr}
+ * package) unless the respective {@link JavaxValidationOption} is enabled.
+ *
+ * @see JavaxValidationOption#EMIT_FLIGHT_RECORDER_EVENTS
+ */
+interface ResolutionEventEmitter {
+
+    /**
+     * Emitter not producing any events.
+     */
+    ResolutionEventEmitter NONE = new ResolutionEventEmitter() {
+        @Override
+        public Object beginProfileResolution() {
+            return null;
+        }
+
+        @Override
+        public void commitProfileResolution(Object event, String declaringType, String memberName, String constraints) {
+            // no events to commit
+        }
+
+        @Override
+        public Object beginClassScan() {
+            return null;
+        }
+
+        @Override
+        public void commitClassScan(Object event, String declaringType, int constrainedMemberCount, String constraints) {
+            // no events to commit
+        }
+    };
+
+    /**
+     * Load the emitter for Java Flight Recorder events, if the {@code jdk.jfr} package is available in the current runtime.
+     *
+     * @return Java Flight Recorder event emitter (or {@link #NONE})
+     */
+    static ResolutionEventEmitter loadFlightRecorderEmitter() {
+        try {
+            return (ResolutionEventEmitter) Class.forName(ResolutionEventEmitter.class.getPackage().getName() + ".FlightRecorderEventEmitter")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            // jdk.jfr is not available (e.g. on an older Java 8 runtime)
+            return NONE;
+        }
+    }
+
+    /**
+     * Start the event representing the resolution of a single field's/method's constraint profile.
+     *
+     * @return started event (or {@code null} if such events are currently not being recorded)
+     */
+    Object beginProfileResolution();
+
+    /**
+     * Complete the given event representing the resolution of a single field's/method's constraint profile.
+     *
+     * @param event started event (as returned by {@link #beginProfileResolution()}), never {@code null}
+     * @param declaringType name of the type declaring the field/method
+     * @param memberName name of the field/method
+     * @param constraints names of the constraint annotations found on the field/method (and its associated getter/field)
+     */
+    void commitProfileResolution(Object event, String declaringType, String memberName, String constraints);
+
+    /**
+     * Start the event representing the scan of a single class' declared constraints.
+     *
+     * @return started event (or {@code null} if such events are currently not being recorded)
+     */
+    Object beginClassScan();
+
+    /**
+     * Complete the given event representing the scan of a single class' declared constraints.
+     *
+     * @param event started event (as returned by {@link #beginClassScan()}), never {@code null}
+     * @param declaringType name of the scanned type
+     * @param constrainedMemberCount number of fields/methods with constraint annotations
+     * @param constraints names of the distinct constraint annotations found
+     */
+    void commitClassScan(Object event, String declaringType, int constrainedMemberCount, String constraints);
+}
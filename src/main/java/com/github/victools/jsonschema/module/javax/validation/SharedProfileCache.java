@@ -0,0 +1,499 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory cache of resolved {@link ConstraintProfile}s with a bounded number of entries, that can be shared by any number of
+ * {@link JavaxValidationModule} instances (e.g. one per schema generator configuration) across the whole process.
+ * <br>
+ * Each entry is keyed by the field/method and the parts of the module configuration affecting the resolved constraints: the enabled options,
+ * the validation groups being considered and the registered sources of constraints (i.e. {@link javax.validation.Validator},
+ * {@link XmlConstraintMappings}, {@link ProgrammaticConstraints} and {@link ConstraintMapper}s). Modules with equal configurations therefore
+ * share their profiles, while those with different configurations never see each other's profiles.
+ * <br>
+ * While such a cache is registered, a module does not keep any profiles on its own, i.e. the overall memory consumption remains capped.
+ * <br>
+ * Look-ups do not acquire any lock: the profiles are being read from a {@link ConcurrentHashMap} and each access is only being recorded in a
+ * small buffer. The recorded accesses are being applied to the eviction policy in batches, i.e. when adding a profile or when the buffer is
+ * full. Under heavy contention, some accesses may not be recorded, which only affects the precision of the eviction order.
+ *
+ * @see JavaxValidationModuleConfig.Builder#withSharedProfileCache(SharedProfileCache)
+ */
+public final class SharedProfileCache {
+
+    /**
+     * Strategies for selecting the entry to discard when the maximum number of entries is being exceeded.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Discard the least recently used entry.
+         */
+        LRU,
+        /**
+         * Admit new entries via a small LRU window, but only retain them in the main area (replacing its least recently used entry) if they have
+         * been accessed more frequently than that entry, as estimated by a count-min sketch that is being aged periodically (as in W-TinyLFU).
+         * This protects frequently used entries from being evicted by a scan over many rarely used ones.
+         */
+        WINDOW_TINY_LFU;
+    }
+
+    /**
+     * Share of the maximum number of entries being reserved for the admission window (in percent), with {@link EvictionPolicy#WINDOW_TINY_LFU}.
+     */
+    private static final int WINDOW_PERCENTAGE = 1;
+    /**
+     * Number of accesses that can be recorded before being applied to the eviction policy (a power of two).
+     */
+    private static final int READ_BUFFER_SIZE = 128;
+
+    /**
+     * Create a cache with the given bound.
+     *
+     * @param maximumSize maximum number of profiles to keep (must be positive)
+     * @param policy strategy for selecting the profiles to discard
+     * @return created cache
+     */
+    public static SharedProfileCache create(int maximumSize, EvictionPolicy policy) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximum size must be positive: " + maximumSize);
+        }
+        return new SharedProfileCache(maximumSize, Objects.requireNonNull(policy, "policy"));
+    }
+
+    private final int maximumSize;
+    private final EvictionPolicy policy;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    /**
+     * All entries, being read without acquiring the {@link #evictionLock}, but only modified while holding it.
+     */
+    private final ConcurrentMap<Object, ConstraintProfile> data = new ConcurrentHashMap<>();
+    /**
+     * Lock guarding the eviction policy, i.e. the {@link #window}, {@link #main}, {@link #sketch} and the draining of the read buffer.
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /**
+     * Keys of recently added entries, in the order of their last access (only populated with {@link EvictionPolicy#WINDOW_TINY_LFU}).
+     */
+    private final LinkedHashMap<Object, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Keys of retained entries, in the order of their last access.
+     */
+    private final LinkedHashMap<Object, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Estimated access frequencies, {@code null} with {@link EvictionPolicy#LRU}.
+     */
+    private final FrequencySketch sketch;
+    /**
+     * Ring buffer of the keys having been looked-up, but not yet been applied to the eviction policy.
+     */
+    private final AtomicReferenceArray<Object> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readBufferWriteCount = new AtomicLong();
+    /**
+     * Number of recorded accesses having been applied to the eviction policy (only being modified while holding the {@link #evictionLock}).
+     */
+    private volatile long readBufferReadCount;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize maximum number of profiles to keep
+     * @param policy strategy for selecting the profiles to discard
+     */
+    private SharedProfileCache(int maximumSize, EvictionPolicy policy) {
+        this.maximumSize = maximumSize;
+        this.policy = policy;
+        if (policy == EvictionPolicy.WINDOW_TINY_LFU && maximumSize > 1) {
+            this.windowCapacity = Math.max(1, maximumSize / 100 * WINDOW_PERCENTAGE);
+            this.sketch = new FrequencySketch(maximumSize);
+        } else {
+            this.windowCapacity = 0;
+            this.sketch = null;
+        }
+        this.mainCapacity = maximumSize - this.windowCapacity;
+    }
+
+    /**
+     * Getter for the maximum number of profiles being kept.
+     *
+     * @return maximum size
+     */
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Getter for the strategy for selecting the profiles to discard.
+     *
+     * @return eviction policy
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Getter for the number of profiles currently being kept.
+     *
+     * @return current size
+     */
+    public int size() {
+        return this.data.size();
+    }
+
+    /**
+     * Getter for the number of look-ups that found a profile.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * Getter for the number of look-ups that did not find a profile.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * Getter for the number of profiles having been discarded in order to stay within the maximum size.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * Discard all profiles (e.g. when unloading the classes they refer to). The statistics are not being reset.
+     */
+    public void clear() {
+        this.evictionLock.lock();
+        try {
+            this.drainReadBuffer();
+            this.data.clear();
+            this.window.clear();
+            this.main.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Look-up the profile stored under the given key, without acquiring a lock.
+     *
+     * @param key field/method in combination with the {@link ConfigurationKey} of the module configuration
+     * @return cached profile (or {@code null})
+     */
+    ConstraintProfile get(Object key) {
+        ConstraintProfile profile = this.data.get(key);
+        (profile == null ? this.missCount : this.hitCount).increment();
+        this.recordAccess(key);
+        return profile;
+    }
+
+    /**
+     * Record the access of the given key in the read buffer, draining it if it is full. If another thread is draining the full buffer at the
+     * same time, the access is being dropped.
+     *
+     * @param key key being looked-up
+     */
+    private void recordAccess(Object key) {
+        long writeCount = this.readBufferWriteCount.get();
+        long pending = writeCount - this.readBufferReadCount;
+        if (pending < READ_BUFFER_SIZE && this.readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+            this.readBuffer.lazySet((int) writeCount & (READ_BUFFER_SIZE - 1), key);
+            pending++;
+        }
+        if (pending >= READ_BUFFER_SIZE && this.evictionLock.tryLock()) {
+            try {
+                this.drainReadBuffer();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply the accesses recorded in the read buffer to the eviction policy (requires the {@link #evictionLock} to be held).
+     */
+    private void drainReadBuffer() {
+        long readCount = this.readBufferReadCount;
+        long writeCount = this.readBufferWriteCount.get();
+        for (; readCount < writeCount; readCount++) {
+            int index = (int) readCount & (READ_BUFFER_SIZE - 1);
+            Object key = this.readBuffer.get(index);
+            if (key == null) {
+                // the slot has been claimed, but the key has not been written yet
+                break;
+            }
+            this.readBuffer.lazySet(index, null);
+            if (this.sketch != null) {
+                this.sketch.increment(key);
+            }
+            // move the entry (if it is present) to the end of the access order
+            if (this.window.get(key) == null) {
+                this.main.get(key);
+            }
+        }
+        this.readBufferReadCount = readCount;
+    }
+
+    /**
+     * Add the given profile, discarding another one if the maximum size is being exceeded.
+     *
+     * @param key field/method in combination with the {@link ConfigurationKey} of the module configuration
+     * @param profile profile to add
+     */
+    void put(Object key, ConstraintProfile profile) {
+        this.evictionLock.lock();
+        try {
+            this.drainReadBuffer();
+            this.data.put(key, profile);
+            if (this.window.containsKey(key)) {
+                this.window.get(key);
+            } else if (this.main.containsKey(key) || this.windowCapacity == 0) {
+                this.main.put(key, Boolean.TRUE);
+                if (this.main.size() > this.mainCapacity) {
+                    this.data.remove(SharedProfileCache.removeEldest(this.main));
+                    this.evictionCount.increment();
+                }
+            } else {
+                this.window.put(key, Boolean.TRUE);
+                if (this.window.size() > this.windowCapacity) {
+                    this.admit(SharedProfileCache.removeEldest(this.window));
+                }
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Move the given entry from the admission window into the main area, if there is still room or if it is being accessed more frequently than
+     * the main area's least recently used entry (which is being discarded instead).
+     *
+     * @param candidateKey key of the entry having been removed from the admission window
+     */
+    private void admit(Object candidateKey) {
+        if (this.main.size() < this.mainCapacity) {
+            this.main.put(candidateKey, Boolean.TRUE);
+            return;
+        }
+        Object victimKey = this.main.keySet().iterator().next();
+        if (this.sketch.frequency(candidateKey) > this.sketch.frequency(victimKey)) {
+            this.main.remove(victimKey);
+            this.main.put(candidateKey, Boolean.TRUE);
+            this.data.remove(victimKey);
+        } else {
+            this.data.remove(candidateKey);
+        }
+        this.evictionCount.increment();
+    }
+
+    /**
+     * Remove the least recently used key from the given map.
+     *
+     * @param keys non-empty map (in access order)
+     * @return removed key
+     */
+    private static Object removeEldest(LinkedHashMap<Object, Boolean> keys) {
+        Iterator<Object> iterator = keys.keySet().iterator();
+        Object eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+
+    /**
+     * Count-min sketch with four 4-bit counters per key, whose values are being halved periodically in order to favour recent accesses. It is
+     * not thread-safe, i.e. only being accessed while holding the {@link #evictionLock}.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long COUNTER_MASK = 0xfL;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        /**
+         * Constructor.
+         *
+         * @param maximumSize maximum number of cache entries
+         */
+        FrequencySketch(int maximumSize) {
+            int tableSize = Integer.highestOneBit(Math.min(Math.max(maximumSize, 16), 1 << 30) - 1) << 1;
+            this.table = new long[tableSize];
+            this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Increment the estimated frequency of the given key.
+         *
+         * @param key key being accessed
+         */
+        void increment(Object key) {
+            int hash = FrequencySketch.spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = this.indexOf(hash, row);
+                int shift = (start + row) << 2;
+                if (((this.table[index] >>> shift) & COUNTER_MASK) != COUNTER_MASK) {
+                    this.table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++this.additions == this.sampleSize) {
+                this.reset();
+            }
+        }
+
+        /**
+         * Look-up the estimated frequency of the given key.
+         *
+         * @param key key to look-up
+         * @return estimated number of recent accesses (at most 15)
+         */
+        int frequency(Object key) {
+            int hash = FrequencySketch.spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++) {
+                long counter = (this.table[this.indexOf(hash, row)] >>> ((start + row) << 2)) & COUNTER_MASK;
+                frequency = Math.min(frequency, (int) counter);
+            }
+            return frequency;
+        }
+
+        /**
+         * Halve all counters.
+         */
+        private void reset() {
+            for (int index = 0; index < this.table.length; index++) {
+                this.table[index] = (this.table[index] >>> 1) & RESET_MASK;
+            }
+            this.additions /= 2;
+        }
+
+        /**
+         * Determine the table index of the given hash in the given row.
+         *
+         * @param hash spread hash of a key
+         * @param row row index (i.e. which of the hash functions to apply)
+         * @return table index
+         */
+        private int indexOf(int hash, int row) {
+            long value = (hash + SEEDS[row]) * SEEDS[row];
+            value += value >>> 32;
+            return (int) value & (this.table.length - 1);
+        }
+
+        /**
+         * Improve the distribution of the given hash code.
+         *
+         * @param hashCode key's hash code
+         * @return spread hash
+         */
+        private static int spread(int hashCode) {
+            int hash = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            return (hash >>> 16) ^ hash;
+        }
+    }
+
+    /**
+     * The parts of a module configuration that affect the resolved constraint profiles, being combined with each field/method into the keys of
+     * a {@link SharedProfileCache}. The registered sources of constraints are being compared by identity, except for the (immutable)
+     * {@link ProgrammaticConstraints} that are being compared by value, i.e. separately registered equal constraints share the same entries.
+     */
+    static final class ConfigurationKey {
+
+        private final Set<JavaxValidationOption> options;
+        private final List<Class<?>> validationGroups;
+        private final Object validator;
+        private final XmlConstraintMappings xmlConstraintMappings;
+        private final ProgrammaticConstraints programmaticConstraints;
+        private final Map<Class<? extends Annotation>, ConstraintMapper<?>> constraintMappers;
+        private final int hashCode;
+
+        /**
+         * Constructor.
+         *
+         * @param config module configuration
+         */
+        ConfigurationKey(JavaxValidationModuleConfig config) {
+            this.options = config.getOptions();
+            Class<?>[] groups = config.getValidationGroups();
+            this.validationGroups = groups == null ? null : Collections.unmodifiableList(Arrays.asList(groups));
+            this.validator = config.getValidator();
+            this.xmlConstraintMappings = config.getXmlConstraintMappings();
+            this.programmaticConstraints = config.getProgrammaticConstraints();
+            this.constraintMappers = config.getConstraintMappers();
+            this.hashCode = Objects.hash(this.options, this.validationGroups, System.identityHashCode(this.validator),
+                    System.identityHashCode(this.xmlConstraintMappings), Objects.hashCode(this.programmaticConstraints),
+                    this.constraintMappers.keySet());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ConfigurationKey)) {
+                return false;
+            }
+            ConfigurationKey otherKey = (ConfigurationKey) other;
+            return this.hashCode == otherKey.hashCode
+                    && this.validator == otherKey.validator
+                    && this.xmlConstraintMappings == otherKey.xmlConstraintMappings
+                    && Objects.equals(this.programmaticConstraints, otherKey.programmaticConstraints)
+                    && this.options.equals(otherKey.options)
+                    && Objects.equals(this.validationGroups, otherKey.validationGroups)
+                    && this.constraintMappers.equals(otherKey.constraintMappers);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
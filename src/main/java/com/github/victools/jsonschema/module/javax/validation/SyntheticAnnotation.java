@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Creation of annotation instances from explicit attribute values, e.g. for constraints that are not declared as annotations in the code but in
+ * an XML mapping file or via the {@link ProgrammaticConstraints}.
+ */
+final class SyntheticAnnotation {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private SyntheticAnnotation() {
+        // no instances
+    }
+
+    /**
+     * Create an instance of the given annotation type, falling back on the attributes' default values.
+     *
+     * @param <A> type of annotation
+     * @param annotationType type of annotation
+     * @param values explicitly specified attribute values, by attribute name
+     * @return annotation instance
+     * @throws IllegalArgumentException if an attribute without default value has not been specified
+     */
+    static <A extends Annotation> A create(Class<A> annotationType, Map<String, Object> values) {
+        // sorted by attribute name, for a stable toString() representation
+        Map<String, Object> allValues = new TreeMap<>();
+        for (Method attribute : annotationType.getDeclaredMethods()) {
+            Object value = values.containsKey(attribute.getName()) ? values.get(attribute.getName()) : attribute.getDefaultValue();
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for attribute '" + attribute.getName() + "' on " + annotationType.getName());
+            }
+            allValues.put(attribute.getName(), value);
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            String methodName = method.getName();
+            if (method.getParameterCount() == 0 && allValues.containsKey(methodName)) {
+                Object value = allValues.get(methodName);
+                return value.getClass().isArray() ? SyntheticAnnotation.cloneArray(value) : value;
+            }
+            switch (methodName) {
+            case "annotationType":
+                return annotationType;
+            case "equals":
+                return proxy == args[0] || SyntheticAnnotation.isEqual(annotationType, allValues, args[0]);
+            case "hashCode":
+                return SyntheticAnnotation.hashCode(allValues);
+            case "toString":
+                return "@" + annotationType.getName() + allValues.entrySet().stream()
+                        .map(entry -> entry.getKey() + "=" + SyntheticAnnotation.toString(entry.getValue()))
+                        .collect(Collectors.joining(", ", "(", ")"));
+            default:
+                throw new UnsupportedOperationException(method.toString());
+            }
+        };
+        return annotationType.cast(Proxy.newProxyInstance(annotationType.getClassLoader(), new Class<?>[]{annotationType}, handler));
+    }
+
+    /**
+     * Compare the given attribute values with those of the given object, as specified by {@link Annotation#equals(Object)}.
+     *
+     * @param annotationType type of annotation
+     * @param values all attribute values, by attribute name
+     * @param other object to compare with (e.g. an annotation being declared in the code)
+     * @return whether the given object is an annotation of the same type with equal attribute values
+     */
+    private static boolean isEqual(Class<? extends Annotation> annotationType, Map<String, Object> values, Object other) {
+        if (!annotationType.isInstance(other)) {
+            return false;
+        }
+        try {
+            for (Method attribute : annotationType.getDeclaredMethods()) {
+                // the annotation type may not be public
+                attribute.setAccessible(true);
+                Object otherValue = attribute.invoke(other);
+                // comparing single-item arrays, in order to cover attribute values being primitive or object arrays as well
+                if (!Arrays.deepEquals(new Object[]{values.get(attribute.getName())}, new Object[]{otherValue})) {
+                    return false;
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calculate the hash code of the given attribute values, as specified by {@link Annotation#hashCode()}.
+     *
+     * @param values all attribute values, by attribute name
+     * @return hash code
+     */
+    private static int hashCode(Map<String, Object> values) {
+        int hashCode = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            // the hash code of a single-item array is 31 plus the hash code of the item (being Arrays.hashCode() for an array item)
+            int valueHashCode = Arrays.deepHashCode(new Object[]{entry.getValue()}) - 31;
+            hashCode += (127 * entry.getKey().hashCode()) ^ valueHashCode;
+        }
+        return hashCode;
+    }
+
+    /**
+     * Create a shallow copy of the given array, as annotation attributes are expected to return a new array on each invocation.
+     *
+     * @param array array to copy
+     * @return copied array
+     */
+    private static Object cloneArray(Object array) {
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Represent the given attribute value as text.
+     *
+     * @param value attribute value (may be an array)
+     * @return textual representation
+     */
+    private static String toString(Object value) {
+        if (!value.getClass().isArray()) {
+            return value instanceof Class ? ((Class<?>) value).getName() : String.valueOf(value);
+        }
+        List<String> items = new ArrayList<>();
+        for (int index = 0; index < Array.getLength(value); index++) {
+            items.add(SyntheticAnnotation.toString(Array.get(value, index)));
+        }
+        return "{" + String.join(", ", items) + "}";
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.classmate.ResolvedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Classification of a field's/method's type, determining which of the attribute resolvers can apply to it at all.
+ * <br>
+ * The classification only depends on the erased type and is being cached per class via a {@link Cache}. The classifications of JDK classes (e.g.
+ * {@link String}) are being kept in a shared map, as a {@link ClassValue} entry on a JDK class would never be released (JDK-8136353) and thereby
+ * prevent this module's class loader from ever being unloaded.
+ */
+enum TypeKind {
+    /**
+     * A {@link CharSequence}, e.g. a {@link String}.
+     */
+    STRING,
+    /**
+     * An array or {@link Collection}.
+     */
+    CONTAINER,
+    /**
+     * A {@link Number} or numeric primitive.
+     */
+    NUMERIC,
+    /**
+     * Neither of the above, e.g. a {@code boolean}, an enum or a nested object.
+     */
+    OTHER,
+    /**
+     * A type that may represent values of different kinds, e.g. {@link Object}, {@link java.io.Serializable} or a type variable, or a type being
+     * both a {@link Number} and a {@link CharSequence}. No attribute resolver can be ruled out for it.
+     */
+    MIXED;
+
+    /**
+     * Classifications of JDK classes, that are never being unloaded anyway.
+     */
+    private static final ConcurrentMap<Class<?>, TypeKind> PLATFORM_KINDS = new ConcurrentHashMap<>();
+
+    /**
+     * Determine the classification of the given type (without caching it, unless it is a JDK class).
+     *
+     * @param type field's/method's type
+     * @return classification of the type
+     */
+    static TypeKind of(ResolvedType type) {
+        Class<?> erasedType = type.getErasedType();
+        if (ClassConstraintIndex.isPlatformClass(erasedType)) {
+            return PLATFORM_KINDS.computeIfAbsent(erasedType, TypeKind::classify);
+        }
+        return TypeKind.classify(erasedType);
+    }
+
+    /**
+     * Classify the given erased type.
+     *
+     * @param erasedType type to classify
+     * @return classification of the type
+     */
+    private static TypeKind classify(Class<?> erasedType) {
+        boolean isString = CharSequence.class.isAssignableFrom(erasedType);
+        // same as MemberScope.isContainerType()
+        boolean isContainer = erasedType.isArray() || Collection.class.isAssignableFrom(erasedType);
+        boolean isNumeric = Number.class.isAssignableFrom(erasedType)
+                || erasedType.isPrimitive() && erasedType != boolean.class && erasedType != char.class && erasedType != void.class;
+        int matchingKindCount = (isString ? 1 : 0) + (isContainer ? 1 : 0) + (isNumeric ? 1 : 0);
+        if (matchingKindCount > 1) {
+            return MIXED;
+        }
+        if (isString) {
+            return STRING;
+        }
+        if (isContainer) {
+            return CONTAINER;
+        }
+        if (isNumeric) {
+            return NUMERIC;
+        }
+        // a super type of multiple kinds (e.g. Comparable) may hold values of each of them
+        boolean mayBeString = erasedType.isAssignableFrom(String.class);
+        boolean mayBeContainer = erasedType.isAssignableFrom(ArrayList.class) || erasedType.isAssignableFrom(Object[].class);
+        boolean mayBeNumeric = erasedType.isAssignableFrom(Integer.class);
+        int possibleKindCount = (mayBeString ? 1 : 0) + (mayBeContainer ? 1 : 0) + (mayBeNumeric ? 1 : 0);
+        return possibleKindCount > 1 ? MIXED : OTHER;
+    }
+
+    /**
+     * Cache of type classifications, to be held by a single module instance. The classifications of application classes are being kept in a
+     * {@link ClassValue} owned by the cache instance, i.e. they do not prevent the respective classes (and their class loaders) from being
+     * unloaded and are being released together with the cache.
+     */
+    static final class Cache {
+
+        private final ClassValue<TypeKind> kindsByType = new ClassValue<TypeKind>() {
+            @Override
+            protected TypeKind computeValue(Class<?> erasedType) {
+                return TypeKind.classify(erasedType);
+            }
+        };
+
+        /**
+         * Look-up the (cached) classification of the given type.
+         *
+         * @param type field's/method's type
+         * @return classification of the type
+         */
+        TypeKind of(ResolvedType type) {
+            Class<?> erasedType = type.getErasedType();
+            if (ClassConstraintIndex.isPlatformClass(erasedType)) {
+                return TypeKind.of(type);
+            }
+            return this.kindsByType.get(erasedType);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.validation.GroupSequence;
+import javax.validation.groups.Default;
+
+/**
+ * Compiled representation of the validation groups configured via {@link JavaxValidationModule#forValidationGroups(Class...)}.
+ * <br>
+ * Each validation group class is assigned a dense numeric ID (once per JVM), allowing a set of groups to be represented as bitset. Checking whether
+ * an annotation's groups intersect with the configured ones is thereby reduced to a few bitwise operations without any allocations.
+ * <br>
+ * The implicitly included groups (i.e. extended group interfaces, the groups listed in a {@link GroupSequence} and the {@link Default} group) are
+ * being resolved once when creating the matcher, in order to avoid walking through any type hierarchies when checking annotations.
+ */
+final class ValidationGroupMatcher {
+
+    /**
+     * Empty group mask, representing an annotation without any declared validation groups.
+     */
+    static final long[] NO_GROUPS = new long[0];
+
+    private static final AtomicInteger NEXT_GROUP_ID = new AtomicInteger();
+    private static final ClassValue<Integer> GROUP_IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> group) {
+            return NEXT_GROUP_ID.getAndIncrement();
+        }
+    };
+
+    /**
+     * Create a matcher for the given validation groups.
+     *
+     * @param validationGroups validation groups to consider (may be empty, but not {@code null})
+     * @return created matcher
+     */
+    static ValidationGroupMatcher of(Class<?>... validationGroups) {
+        Set<Class<?>> groupClosure = new LinkedHashSet<>();
+        // constraints without explicit groups are always considered, i.e. the same applies to those explicitly declaring the Default group
+        groupClosure.add(Default.class);
+        for (Class<?> group : validationGroups) {
+            ValidationGroupMatcher.collectGroupClosure(group, groupClosure);
+        }
+        return new ValidationGroupMatcher(ValidationGroupMatcher.toGroupMask(groupClosure.toArray(new Class<?>[0])));
+    }
+
+    /**
+     * Add the given validation group and all those implicitly included by it to the given set:
+     * <ul>
+     * <li>all interfaces being extended by the given group (i.e. validating a group also validates the constraints of its super-groups)</li>
+     * <li>all groups listed in a {@link GroupSequence} annotation on the given group</li>
+     * </ul>
+     *
+     * @param group validation group to add
+     * @param groupClosure set of validation groups to add to
+     */
+    private static void collectGroupClosure(Class<?> group, Set<Class<?>> groupClosure) {
+        if (group == null || !groupClosure.add(group)) {
+            // already handled (or recursive group sequence)
+            return;
+        }
+        for (Class<?> superGroup : group.getInterfaces()) {
+            ValidationGroupMatcher.collectGroupClosure(superGroup, groupClosure);
+        }
+        GroupSequence groupSequence = group.getAnnotation(GroupSequence.class);
+        if (groupSequence != null) {
+            for (Class<?> sequenceGroup : groupSequence.value()) {
+                ValidationGroupMatcher.collectGroupClosure(sequenceGroup, groupClosure);
+            }
+        }
+    }
+
+    /**
+     * Convert the given validation groups into a bitset, containing one bit per group ID.
+     *
+     * @param groups validation groups to convert
+     * @return bitset (of length zero if no groups were given)
+     */
+    static long[] toGroupMask(Class<?>[] groups) {
+        if (groups == null || groups.length == 0) {
+            return NO_GROUPS;
+        }
+        int maxId = -1;
+        int[] ids = new int[groups.length];
+        for (int index = 0; index < groups.length; index++) {
+            ids[index] = GROUP_IDS.get(groups[index]);
+            maxId = Math.max(maxId, ids[index]);
+        }
+        long[] mask = new long[(maxId >> 6) + 1];
+        for (int id : ids) {
+            mask[id >> 6] |= 1L << id;
+        }
+        return mask;
+    }
+
+    private final long[] groupMask;
+
+    /**
+     * Constructor.
+     *
+     * @param groupMask bitset of the validation groups to consider
+     */
+    private ValidationGroupMatcher(long[] groupMask) {
+        this.groupMask = groupMask;
+    }
+
+    /**
+     * Check whether an annotation with the given validation groups is applicable. That is the case if no validation groups are specified on the
+     * annotation or at least one of them is being considered.
+     *
+     * @param annotationGroupMask bitset of the validation groups declared on the annotation
+     * @return whether the annotation is applicable
+     * @see #toGroupMask(Class[])
+     */
+    boolean isApplicable(long[] annotationGroupMask) {
+        if (annotationGroupMask.length == 0) {
+            return true;
+        }
+        int commonLength = Math.min(annotationGroupMask.length, this.groupMask.length);
+        for (int index = 0; index < commonLength; index++) {
+            if ((annotationGroupMask[index] & this.groupMask[index]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether an annotation with the given validation groups is applicable. That is the case if no validation groups are specified on the
+     * annotation or at least one of them is being considered.
+     *
+     * @param annotationGroups validation groups declared on the annotation
+     * @return whether the annotation is applicable
+     */
+    boolean isApplicable(Class<?>[] annotationGroups) {
+        if (annotationGroups.length == 0) {
+            return true;
+        }
+        for (Class<?> group : annotationGroups) {
+            int id = GROUP_IDS.get(group);
+            if ((id >> 6) < this.groupMask.length && (this.groupMask[id >> 6] & (1L << id)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.DeclaredConstraints;
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.IndexedConstraint;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.validation.Validator;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ContainerDescriptor;
+import javax.validation.metadata.ContainerElementTypeDescriptor;
+import javax.validation.metadata.ElementDescriptor;
+import javax.validation.metadata.MethodDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import javax.validation.metadata.Scope;
+
+/**
+ * Look-up of the standard constraints on fields and methods via the metadata API of a {@link Validator} (e.g. Hibernate Validator), instead of
+ * scanning the annotations of each class via reflection. Beside reusing the metadata the validator has already collected (and cached), this
+ * also covers constraints being declared in XML mapping files and the standard constraints that custom constraints are composed of.
+ * <br>
+ * The validator's metadata is being converted once per field/method and then kept for the lifetime of this index.
+ */
+final class ValidatorConstraintIndex {
+
+    private final Validator validator;
+    private final ConcurrentMap<Member, DeclaredConstraints> constraintsByMember = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Member, DeclaredConstraints> containerElementConstraintsByMember = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param validator validator providing the constraint metadata
+     */
+    ValidatorConstraintIndex(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Getter for the validator providing the constraint metadata.
+     *
+     * @return validator instance
+     */
+    Validator getValidator() {
+        return this.validator;
+    }
+
+    /**
+     * Look-up the constraint of the given type on the given field or method, together with its applicable validation groups.
+     *
+     * @param member field or method to look-up constraint for
+     * @param annotationClass type of annotation (expected to be one of the standard constraints)
+     * @return indexed constraint (or {@code null})
+     */
+    IndexedConstraint getIndexedConstraint(Member member, Class<? extends Annotation> annotationClass) {
+        return this.getDeclaredConstraints(member).get(annotationClass);
+    }
+
+    /**
+     * Look-up the constraint of the given type on the container element type of the given field or method (e.g. the {@code @Size} in
+     * {@code List<@Size(max = 64) String>}), together with its applicable validation groups.
+     *
+     * @param member field or method to look-up constraint for
+     * @param annotationClass type of annotation (expected to be one of the standard constraints)
+     * @return indexed constraint (or {@code null})
+     */
+    IndexedConstraint getIndexedContainerElementConstraint(Member member, Class<? extends Annotation> annotationClass) {
+        return this.getContainerElementConstraints(member).get(annotationClass);
+    }
+
+    /**
+     * Look-up the standard constraints on the given field or method.
+     *
+     * @param member field or method to look-up constraints for
+     * @return declared constraints (may be empty, but never {@code null})
+     */
+    DeclaredConstraints getDeclaredConstraints(Member member) {
+        return this.constraintsByMember.computeIfAbsent(member, key -> this.lookUpConstraints(key, false));
+    }
+
+    /**
+     * Look-up the standard constraints on the container element type of the given field or method.
+     *
+     * @param member field or method to look-up constraints for
+     * @return declared constraints (may be empty, but never {@code null})
+     */
+    DeclaredConstraints getContainerElementConstraints(Member member) {
+        return this.containerElementConstraintsByMember.computeIfAbsent(member, key -> this.lookUpConstraints(key, true));
+    }
+
+    /**
+     * Convert the validator's metadata for the given field or method.
+     * <ul>
+     * <li>A field or getter method is being represented by a {@link PropertyDescriptor}.</li>
+     * <li>The return value of any other method is being represented by the {@link MethodDescriptor#getReturnValueDescriptor()}.</li>
+     * </ul>
+     *
+     * @param member field or method to look-up constraints for
+     * @param containerElement whether to look-up the constraints on the container element type instead of those on the member itself
+     * @return declared constraints (may be empty, but never {@code null})
+     */
+    private DeclaredConstraints lookUpConstraints(Member member, boolean containerElement) {
+        BeanDescriptor bean = this.validator.getConstraintsForClass(member.getDeclaringClass());
+        ElementType elementType = member instanceof Field ? ElementType.FIELD : ElementType.METHOD;
+        String propertyName = ValidatorConstraintIndex.getPropertyName(member);
+        PropertyDescriptor property = propertyName == null ? null : bean.getConstraintsForProperty(propertyName);
+        if (property != null) {
+            return ValidatorConstraintIndex.toDeclaredConstraints(property, property, elementType, containerElement);
+        }
+        if (member instanceof Method) {
+            MethodDescriptor method = bean.getConstraintsForMethod(member.getName(), ((Method) member).getParameterTypes());
+            if (method != null) {
+                return ValidatorConstraintIndex.toDeclaredConstraints(method.getReturnValueDescriptor(), method.getReturnValueDescriptor(),
+                        elementType, containerElement);
+            }
+        }
+        return DeclaredConstraints.NONE;
+    }
+
+    /**
+     * Convert the constraint metadata of the given element.
+     *
+     * @param element metadata of a property or return value
+     * @param container metadata of the same property or return value, regarding its container element types
+     * @param elementType whether constraints on a field or on a method should be considered
+     * @param containerElement whether to look-up the constraints on the container element type instead of those on the element itself
+     * @return declared constraints (may be empty, but never {@code null})
+     */
+    private static DeclaredConstraints toDeclaredConstraints(ElementDescriptor element, ContainerDescriptor container, ElementType elementType,
+            boolean containerElement) {
+        if (!containerElement) {
+            return DeclaredConstraints.of(element.findConstraints()
+                    .lookingAt(Scope.LOCAL_ELEMENT)
+                    .declaredOn(elementType)
+                    .getConstraintDescriptors());
+        }
+        for (ContainerElementTypeDescriptor elementTypeDescriptor : container.getConstrainedContainerElementTypes()) {
+            Class<?> containerClass = elementTypeDescriptor.getContainerClass();
+            Integer typeArgumentIndex = elementTypeDescriptor.getTypeArgumentIndex();
+            if (containerClass != null && Iterable.class.isAssignableFrom(containerClass) && typeArgumentIndex != null && typeArgumentIndex == 0) {
+                return DeclaredConstraints.of(elementTypeDescriptor.getConstraintDescriptors());
+            }
+        }
+        return DeclaredConstraints.NONE;
+    }
+
+    /**
+     * Determine the name of the bean property represented by the given field or getter method.
+     *
+     * @param member field or method
+     * @return property name, {@code null} if the given member is a method but not a getter
+     */
+    static String getPropertyName(Member member) {
+        if (member instanceof Field) {
+            return member.getName();
+        }
+        Method method = (Method) member;
+        if (method.getParameterCount() > 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+        String methodName = method.getName();
+        int prefixLength;
+        if (methodName.startsWith("get")) {
+            prefixLength = 3;
+        } else if (methodName.startsWith("is") && method.getReturnType() == boolean.class) {
+            prefixLength = 2;
+        } else {
+            return null;
+        }
+        if (methodName.length() == prefixLength) {
+            return null;
+        }
+        String name = methodName.substring(prefixLength);
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            // as per java.beans.Introspector.decapitalize(): e.g. "getURL" refers to the property "URL"
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+}
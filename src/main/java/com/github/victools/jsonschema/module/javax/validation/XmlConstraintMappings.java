@@ -0,0 +1,673 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.DeclaredConstraints;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Constraints declared in Bean Validation XML mapping files (i.e. {@code <constraint-mappings>} documents, e.g. as referenced from a
+ * {@code META-INF/validation.xml}), being consulted next to the constraint annotations.
+ * <br>
+ * Each mapping file is being read with a streaming (StAX) parser in a single pass, directly into a look-up table by class name and field/getter
+ * name. Only the {@code <field>} and {@code <getter>} mappings (incl. their {@code <container-element-type>}) are being considered, as the
+ * constraints on classes, constructors and parameters have no equivalent in a generated schema.
+ * <br>
+ * As per the Bean Validation specification, the constraint annotations on a mapped bean are being ignored unless its {@code ignore-annotations}
+ * attribute (or the one on the respective {@code <field>} or {@code <getter>}) is set to {@code false}.
+ */
+public final class XmlConstraintMappings {
+
+    private final Map<String, BeanMapping> beansByClassName;
+    private final String contentHash;
+
+    /**
+     * Constructor.
+     *
+     * @param beansByClassName parsed mappings by the (fully qualified) name of the respective class
+     * @param contentHash hash over the contents of all mapping files
+     */
+    private XmlConstraintMappings(Map<String, BeanMapping> beansByClassName, String contentHash) {
+        this.beansByClassName = beansByClassName;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Getter for the number of classes with constraint mappings.
+     *
+     * @return number of mapped classes
+     */
+    public int getMappedClassCount() {
+        return this.beansByClassName.size();
+    }
+
+    /**
+     * Getter for the hash over the contents of all mapping files, e.g. to be included in the keys of a {@link PersistentProfileCache}.
+     *
+     * @return hex-encoded hash
+     */
+    String getContentHash() {
+        return this.contentHash;
+    }
+
+    /**
+     * Look-up the standard constraints mapped to the given field or getter method.
+     *
+     * @param member field or method to look-up constraints for
+     * @param containerElement whether to look-up the constraints on the container element type instead of those on the member itself
+     * @return mapped constraints (may be empty, but never {@code null})
+     */
+    DeclaredConstraints getDeclaredConstraints(Member member, boolean containerElement) {
+        BeanMapping bean = this.beansByClassName.get(member.getDeclaringClass().getName());
+        MemberMapping mapping = bean == null ? null : bean.getMemberMapping(member);
+        if (mapping == null) {
+            return DeclaredConstraints.NONE;
+        }
+        return containerElement ? mapping.containerElementConstraints : mapping.constraints;
+    }
+
+    /**
+     * Check whether the constraint annotations on the given field or method should be ignored.
+     *
+     * @param member field or method to check
+     * @return whether only the mapped constraints should be considered
+     */
+    boolean isIgnoringAnnotations(Member member) {
+        BeanMapping bean = this.beansByClassName.get(member.getDeclaringClass().getName());
+        if (bean == null) {
+            return false;
+        }
+        MemberMapping mapping = bean.getMemberMapping(member);
+        return mapping == null || mapping.ignoreAnnotations == null ? bean.ignoreAnnotations : mapping.ignoreAnnotations;
+    }
+
+    /**
+     * Constraint mappings of a single class.
+     */
+    private static final class BeanMapping {
+
+        private final boolean ignoreAnnotations;
+        private final Map<String, MemberMapping> fields = new HashMap<>();
+        private final Map<String, MemberMapping> getters = new HashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param ignoreAnnotations whether the constraint annotations on all members should be ignored by default
+         */
+        BeanMapping(boolean ignoreAnnotations) {
+            this.ignoreAnnotations = ignoreAnnotations;
+        }
+
+        /**
+         * Look-up the mapping for the given field or getter.
+         *
+         * @param member field or method declared by this mapping's class
+         * @return member mapping (or {@code null})
+         */
+        MemberMapping getMemberMapping(Member member) {
+            if (member instanceof Field) {
+                return this.fields.get(member.getName());
+            }
+            String propertyName = ValidatorConstraintIndex.getPropertyName(member);
+            return propertyName == null ? null : this.getters.get(propertyName);
+        }
+    }
+
+    /**
+     * Constraint mappings of a single field or getter.
+     */
+    private static final class MemberMapping {
+
+        private final Boolean ignoreAnnotations;
+        private final DeclaredConstraints constraints;
+        private final DeclaredConstraints containerElementConstraints;
+
+        /**
+         * Constructor.
+         *
+         * @param ignoreAnnotations whether the constraint annotations on the member should be ignored ({@code null} to apply the bean's setting)
+         * @param constraints standard constraints on the member itself
+         * @param containerElementConstraints standard constraints on the member's container element type
+         */
+        MemberMapping(Boolean ignoreAnnotations, DeclaredConstraints constraints, DeclaredConstraints containerElementConstraints) {
+            this.ignoreAnnotations = ignoreAnnotations;
+            this.constraints = constraints;
+            this.containerElementConstraints = containerElementConstraints;
+        }
+    }
+
+    /**
+     * Builder for {@link XmlConstraintMappings}, parsing each added mapping file immediately.
+     */
+    public static class Builder {
+
+        private static final String VALIDATION_CONFIG_RESOURCE = "META-INF/validation.xml";
+
+        private final ClassLoader classLoader;
+        private final XMLInputFactory inputFactory;
+        private final MessageDigest digest = PersistentProfileCache.createDigest();
+        private final Map<String, BeanMapping> beansByClassName = new HashMap<>();
+
+        /**
+         * Constructor: loading the referenced classes via the current thread's context class loader.
+         */
+        public Builder() {
+            this(Thread.currentThread().getContextClassLoader() == null ? XmlConstraintMappings.class.getClassLoader()
+                    : Thread.currentThread().getContextClassLoader());
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param classLoader class loader to load the mapped classes, constraint annotations and validation groups with
+         */
+        public Builder(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            this.inputFactory = XMLInputFactory.newInstance();
+            // mapping files are not expected to contain a DTD, which could otherwise be used to trigger the resolution of external entities
+            this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+            this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            this.inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        }
+
+        /**
+         * Parse the given constraint mapping file.
+         *
+         * @param file {@code <constraint-mappings>} document
+         * @return this builder instance (for chaining)
+         * @throws IOException when failing to read the file or if it is not a valid mapping file
+         */
+        public Builder addMappingFile(Path file) throws IOException {
+            try (InputStream input = Files.newInputStream(file)) {
+                return this.addMappingFile(input);
+            }
+        }
+
+        /**
+         * Parse the given constraint mapping file. The stream is not being closed.
+         *
+         * @param input {@code <constraint-mappings>} document
+         * @return this builder instance (for chaining)
+         * @throws IOException when failing to read the stream or if it is not a valid mapping file
+         */
+        public Builder addMappingFile(InputStream input) throws IOException {
+            XMLStreamReader reader = null;
+            try {
+                reader = this.inputFactory.createXMLStreamReader(new DigestInputStream(input, this.digest));
+                this.parseMappingFile(reader);
+            } catch (XMLStreamException ex) {
+                throw new IOException("Failed to parse constraint mapping file: " + ex.getMessage(), ex);
+            } finally {
+                Builder.close(reader);
+            }
+            return this;
+        }
+
+        /**
+         * Parse all constraint mapping files referenced in the {@code META-INF/validation.xml} of the class loader (if there is one).
+         *
+         * @return this builder instance (for chaining)
+         * @throws IOException when failing to read the validation config or any of the referenced mapping files
+         * @see #addValidationConfig(InputStream)
+         */
+        public Builder addDefaultValidationConfig() throws IOException {
+            try (InputStream input = this.classLoader.getResourceAsStream(VALIDATION_CONFIG_RESOURCE)) {
+                return input == null ? this : this.addValidationConfig(input);
+            }
+        }
+
+        /**
+         * Parse all constraint mapping files referenced in the given {@code <validation-config>} document (i.e. a {@code validation.xml}). The
+         * referenced mapping files are being loaded as resources of the class loader. The stream is not being closed.
+         *
+         * @param input {@code <validation-config>} document
+         * @return this builder instance (for chaining)
+         * @throws IOException when failing to read the stream or any of the referenced mapping files
+         */
+        public Builder addValidationConfig(InputStream input) throws IOException {
+            List<String> mappingResources = new ArrayList<>();
+            XMLStreamReader reader = null;
+            try {
+                reader = this.inputFactory.createXMLStreamReader(input);
+                Builder.requireRootElement(reader, "validation-config");
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    if ("constraint-mapping".equals(reader.getLocalName())) {
+                        mappingResources.add(reader.getElementText().trim());
+                    } else {
+                        Builder.skipElement(reader);
+                    }
+                }
+            } catch (XMLStreamException ex) {
+                throw new IOException("Failed to parse validation config: " + ex.getMessage(), ex);
+            } finally {
+                Builder.close(reader);
+            }
+            for (String mappingResource : mappingResources) {
+                String resourceName = mappingResource.startsWith("/") ? mappingResource.substring(1) : mappingResource;
+                try (InputStream mappingFile = this.classLoader.getResourceAsStream(resourceName)) {
+                    if (mappingFile == null) {
+                        throw new IOException("Constraint mapping file not found: " + mappingResource);
+                    }
+                    this.addMappingFile(mappingFile);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Create the immutable look-up table from the parsed mapping files.
+         *
+         * @return created mappings
+         */
+        public XmlConstraintMappings build() {
+            String contentHash = PersistentProfileCache.toHex(Builder.cloneDigest(this.digest).digest());
+            return new XmlConstraintMappings(new HashMap<>(this.beansByClassName), contentHash);
+        }
+
+        /**
+         * Create a copy of the given digest, in order to allow further mapping files to be added after {@link #build()} was called.
+         *
+         * @param digest digest to copy
+         * @return copied digest
+         */
+        private static MessageDigest cloneDigest(MessageDigest digest) {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException ex) {
+                // the SHA-256 implementations of the standard providers are cloneable
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        /**
+         * Parse a {@code <constraint-mappings>} document.
+         *
+         * @param reader reader positioned before the root element
+         * @throws XMLStreamException when the document is malformed or contains unresolvable references
+         */
+        private void parseMappingFile(XMLStreamReader reader) throws XMLStreamException {
+            Builder.requireRootElement(reader, "constraint-mappings");
+            String defaultPackage = "";
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                case "default-package":
+                    defaultPackage = reader.getElementText().trim();
+                    break;
+                case "bean":
+                    this.parseBean(reader, defaultPackage);
+                    break;
+                default:
+                    // e.g. <constraint-definition>
+                    Builder.skipElement(reader);
+                }
+            }
+        }
+
+        /**
+         * Parse a {@code <bean>} element, collecting the mappings of its fields and getters.
+         *
+         * @param reader reader positioned on the bean's start element
+         * @param defaultPackage package to apply to unqualified class names
+         * @throws XMLStreamException when the element is malformed or contains unresolvable references
+         */
+        private void parseBean(XMLStreamReader reader, String defaultPackage) throws XMLStreamException {
+            String className = Builder.qualify(Builder.requireAttribute(reader, "class"), defaultPackage);
+            Boolean ignoreAnnotations = Builder.getBooleanAttribute(reader, "ignore-annotations");
+            BeanMapping bean = new BeanMapping(ignoreAnnotations == null || ignoreAnnotations);
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                case "field":
+                    bean.fields.put(Builder.requireAttribute(reader, "name"), this.parseMember(reader, defaultPackage));
+                    break;
+                case "getter":
+                    bean.getters.put(Builder.requireAttribute(reader, "name"), this.parseMember(reader, defaultPackage));
+                    break;
+                default:
+                    // e.g. <class>, <constructor> or <method>
+                    Builder.skipElement(reader);
+                }
+            }
+            this.beansByClassName.put(className, bean);
+        }
+
+        /**
+         * Parse a {@code <field>} or {@code <getter>} element.
+         *
+         * @param reader reader positioned on the member's start element
+         * @param defaultPackage package to apply to unqualified class names
+         * @return parsed mapping
+         * @throws XMLStreamException when the element is malformed or contains unresolvable references
+         */
+        private MemberMapping parseMember(XMLStreamReader reader, String defaultPackage) throws XMLStreamException {
+            Boolean ignoreAnnotations = Builder.getBooleanAttribute(reader, "ignore-annotations");
+            List<Annotation> constraints = new ArrayList<>();
+            List<Annotation> containerElementConstraints = new ArrayList<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String elementName = reader.getLocalName();
+                if ("constraint".equals(elementName)) {
+                    constraints.add(this.parseConstraint(reader, defaultPackage));
+                } else if ("container-element-type".equals(elementName) && Builder.isFirstTypeArgument(reader)) {
+                    this.parseContainerElementType(reader, defaultPackage, containerElementConstraints);
+                } else {
+                    // e.g. <valid> or <convert-group>
+                    Builder.skipElement(reader);
+                }
+            }
+            return new MemberMapping(ignoreAnnotations, DeclaredConstraints.of(constraints.toArray(new Annotation[0])),
+                    DeclaredConstraints.of(containerElementConstraints.toArray(new Annotation[0])));
+        }
+
+        /**
+         * Check whether a {@code <container-element-type>} refers to the (first and only) type argument of an {@link Iterable}.
+         *
+         * @param reader reader positioned on the container element type's start element
+         * @return whether the type argument index is omitted or zero
+         */
+        private static boolean isFirstTypeArgument(XMLStreamReader reader) {
+            String typeArgumentIndex = reader.getAttributeValue(null, "type-argument-index");
+            return typeArgumentIndex == null || "0".equals(typeArgumentIndex.trim());
+        }
+
+        /**
+         * Parse a {@code <container-element-type>} element, only collecting the constraints on the element type itself (i.e. not those of
+         * further nested container element types).
+         *
+         * @param reader reader positioned on the container element type's start element
+         * @param defaultPackage package to apply to unqualified class names
+         * @param constraints list to add the parsed constraints to
+         * @throws XMLStreamException when the element is malformed or contains unresolvable references
+         */
+        private void parseContainerElementType(XMLStreamReader reader, String defaultPackage, List<Annotation> constraints)
+                throws XMLStreamException {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("constraint".equals(reader.getLocalName())) {
+                    constraints.add(this.parseConstraint(reader, defaultPackage));
+                } else {
+                    Builder.skipElement(reader);
+                }
+            }
+        }
+
+        /**
+         * Parse a {@code <constraint>} element into an instance of the respective annotation.
+         *
+         * @param reader reader positioned on the constraint's start element
+         * @param defaultPackage package to apply to unqualified class names
+         * @return annotation instance
+         * @throws XMLStreamException when the element is malformed or contains unresolvable references
+         */
+        private Annotation parseConstraint(XMLStreamReader reader, String defaultPackage) throws XMLStreamException {
+            String annotationName = Builder.qualify(Builder.requireAttribute(reader, "annotation"), defaultPackage);
+            Class<?> annotationType = this.loadClass(annotationName, reader);
+            if (!annotationType.isAnnotation()) {
+                throw new XMLStreamException("Not an annotation: " + annotationName, reader.getLocation());
+            }
+            Map<String, Object> values = new HashMap<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                case "groups":
+                    values.put("groups", this.parseValue(Class[].class, reader, defaultPackage));
+                    break;
+                case "element":
+                    String attributeName = Builder.requireAttribute(reader, "name");
+                    Method attribute = Builder.getAttribute(annotationType, attributeName, reader);
+                    Object value = this.parseValue(attribute.getReturnType(), reader, defaultPackage);
+                    if (value != null) {
+                        values.put(attributeName, value);
+                    }
+                    break;
+                default:
+                    // e.g. <message> or <payload>
+                    Builder.skipElement(reader);
+                }
+            }
+            try {
+                return SyntheticAnnotation.create(annotationType.asSubclass(Annotation.class), values);
+            } catch (IllegalArgumentException ex) {
+                throw new XMLStreamException(ex.getMessage(), reader.getLocation(), ex);
+            }
+        }
+
+        /**
+         * Look-up the attribute of the given name on the given annotation type.
+         *
+         * @param annotationType type of annotation
+         * @param attributeName name of the attribute
+         * @param reader reader (for reporting the location of an error)
+         * @return attribute method
+         * @throws XMLStreamException if there is no such attribute
+         */
+        private static Method getAttribute(Class<?> annotationType, String attributeName, XMLStreamReader reader) throws XMLStreamException {
+            try {
+                return annotationType.getMethod(attributeName);
+            } catch (NoSuchMethodException ex) {
+                throw new XMLStreamException("Unknown attribute '" + attributeName + "' on " + annotationType.getName(), reader.getLocation());
+            }
+        }
+
+        /**
+         * Parse the value of an {@code <element>} or {@code <groups>}, being either a single text or a list of {@code <value>} elements.
+         *
+         * @param type expected value type
+         * @param reader reader positioned on the element's start element
+         * @param defaultPackage package to apply to unqualified class names
+         * @return parsed value, {@code null} if it is a nested annotation (which is not supported)
+         * @throws XMLStreamException when the element is malformed or contains unresolvable references
+         */
+        private Object parseValue(Class<?> type, XMLStreamReader reader, String defaultPackage) throws XMLStreamException {
+            StringBuilder text = new StringBuilder();
+            List<String> listedValues = new ArrayList<>();
+            boolean containsAnnotation = false;
+            int event;
+            while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.START_ELEMENT && "value".equals(reader.getLocalName())) {
+                    listedValues.add(reader.getElementText().trim());
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    // nested annotations (e.g. for a constraint's List attribute) are only relevant for repeated constraints
+                    containsAnnotation = true;
+                    Builder.skipElement(reader);
+                }
+            }
+            if (containsAnnotation) {
+                return null;
+            }
+            if (listedValues.isEmpty() && !text.toString().trim().isEmpty()) {
+                listedValues.add(text.toString().trim());
+            }
+            if (!type.isArray()) {
+                if (listedValues.size() != 1) {
+                    throw new XMLStreamException("Expected single value of type " + type.getName(), reader.getLocation());
+                }
+                return this.convertValue(type, listedValues.get(0), reader, defaultPackage);
+            }
+            Object array = Array.newInstance(type.getComponentType(), listedValues.size());
+            for (int index = 0; index < listedValues.size(); index++) {
+                Array.set(array, index, this.convertValue(type.getComponentType(), listedValues.get(index), reader, defaultPackage));
+            }
+            return array;
+        }
+
+        /**
+         * Convert the given text into a single annotation attribute value.
+         *
+         * @param type expected value type
+         * @param text value to convert
+         * @param reader reader (for reporting the location of an error)
+         * @param defaultPackage package to apply to unqualified class names
+         * @return converted value
+         * @throws XMLStreamException if the value cannot be converted
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object convertValue(Class<?> type, String text, XMLStreamReader reader, String defaultPackage) throws XMLStreamException {
+            try {
+                if (type == String.class) {
+                    return text;
+                } else if (type == int.class) {
+                    return Integer.valueOf(text);
+                } else if (type == long.class) {
+                    return Long.valueOf(text);
+                } else if (type == boolean.class) {
+                    return Boolean.valueOf(text);
+                } else if (type == double.class) {
+                    return Double.valueOf(text);
+                } else if (type == float.class) {
+                    return Float.valueOf(text);
+                } else if (type == short.class) {
+                    return Short.valueOf(text);
+                } else if (type == byte.class) {
+                    return Byte.valueOf(text);
+                } else if (type == char.class && text.length() == 1) {
+                    return text.charAt(0);
+                } else if (type == Class.class) {
+                    return this.loadClass(Builder.qualify(text, defaultPackage), reader);
+                } else if (type.isEnum()) {
+                    return Enum.valueOf((Class<Enum>) type, text);
+                }
+            } catch (IllegalArgumentException ex) {
+                // also covering NumberFormatException
+                throw new XMLStreamException("Invalid value '" + text + "' of type " + type.getName(), reader.getLocation(), ex);
+            }
+            throw new XMLStreamException("Unsupported value '" + text + "' of type " + type.getName(), reader.getLocation());
+        }
+
+        /**
+         * Load the class of the given name.
+         *
+         * @param className fully qualified class name
+         * @param reader reader (for reporting the location of an error)
+         * @return loaded class
+         * @throws XMLStreamException if the class cannot be found
+         */
+        private Class<?> loadClass(String className, XMLStreamReader reader) throws XMLStreamException {
+            try {
+                return Class.forName(className, false, this.classLoader);
+            } catch (ClassNotFoundException ex) {
+                throw new XMLStreamException("Class not found: " + className, reader.getLocation(), ex);
+            }
+        }
+
+        /**
+         * Apply the given default package to an unqualified class name.
+         *
+         * @param className (possibly unqualified) class name
+         * @param defaultPackage default package (may be empty)
+         * @return fully qualified class name
+         */
+        private static String qualify(String className, String defaultPackage) {
+            String trimmedName = className.trim();
+            if (defaultPackage.isEmpty() || trimmedName.indexOf('.') != -1) {
+                return trimmedName;
+            }
+            return defaultPackage + '.' + trimmedName;
+        }
+
+        /**
+         * Move the given reader to the root element, and ensure it has the expected name.
+         *
+         * @param reader reader positioned at the start of a document
+         * @param expectedName local name of the expected root element
+         * @throws XMLStreamException when encountering another root element
+         */
+        private static void requireRootElement(XMLStreamReader reader, String expectedName) throws XMLStreamException {
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !expectedName.equals(reader.getLocalName())) {
+                throw new XMLStreamException("Expected root element <" + expectedName + ">", reader.getLocation());
+            }
+        }
+
+        /**
+         * Look-up the value of a mandatory attribute on the current element.
+         *
+         * @param reader reader positioned on a start element
+         * @param attributeName local name of the attribute
+         * @return attribute value
+         * @throws XMLStreamException if the attribute is missing
+         */
+        private static String requireAttribute(XMLStreamReader reader, String attributeName) throws XMLStreamException {
+            String value = reader.getAttributeValue(null, attributeName);
+            if (value == null) {
+                throw new XMLStreamException("Missing attribute '" + attributeName + "' on <" + reader.getLocalName() + ">", reader.getLocation());
+            }
+            return value.trim();
+        }
+
+        /**
+         * Look-up the value of an optional boolean attribute on the current element.
+         *
+         * @param reader reader positioned on a start element
+         * @param attributeName local name of the attribute
+         * @return attribute value (or {@code null})
+         */
+        private static Boolean getBooleanAttribute(XMLStreamReader reader, String attributeName) {
+            String value = reader.getAttributeValue(null, attributeName);
+            return value == null ? null : Boolean.valueOf(value.trim());
+        }
+
+        /**
+         * Skip the current element (incl. all its children).
+         *
+         * @param reader reader positioned on a start element, being positioned on the respective end element afterwards
+         * @throws XMLStreamException when the document is malformed
+         */
+        private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+
+        /**
+         * Close the given reader (if there is one), ignoring any error.
+         *
+         * @param reader reader to close (may be {@code null})
+         */
+        private static void close(XMLStreamReader reader) {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ex) {
+                    // nothing else to do here
+                }
+            }
+        }
+    }
+}
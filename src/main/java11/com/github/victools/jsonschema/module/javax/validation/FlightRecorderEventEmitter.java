@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitter of Java Flight Recorder events. This class is only being loaded (reflectively) if the respective option is enabled.
+ *
+ * @see JavaxValidationOption#EMIT_FLIGHT_RECORDER_EVENTS
+ * @see ResolutionEventEmitter#loadFlightRecorderEmitter()
+ */
+final class FlightRecorderEventEmitter implements ResolutionEventEmitter {
+
+    private static final EventType PROFILE_RESOLUTION_TYPE = EventType.getEventType(ProfileResolutionEvent.class);
+    private static final EventType CLASS_SCAN_TYPE = EventType.getEventType(ClassScanEvent.class);
+
+    @Override
+    public Object beginProfileResolution() {
+        if (!PROFILE_RESOLUTION_TYPE.isEnabled()) {
+            return null;
+        }
+        ProfileResolutionEvent event = new ProfileResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitProfileResolution(Object event, String declaringType, String memberName, String constraints) {
+        ProfileResolutionEvent profileEvent = (ProfileResolutionEvent) event;
+        profileEvent.end();
+        if (profileEvent.shouldCommit()) {
+            profileEvent.declaringType = declaringType;
+            profileEvent.memberName = memberName;
+            profileEvent.constraints = constraints;
+            profileEvent.commit();
+        }
+    }
+
+    @Override
+    public Object beginClassScan() {
+        if (!CLASS_SCAN_TYPE.isEnabled()) {
+            return null;
+        }
+        ClassScanEvent event = new ClassScanEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitClassScan(Object event, String declaringType, int constrainedMemberCount, String constraints) {
+        ClassScanEvent scanEvent = (ClassScanEvent) event;
+        scanEvent.end();
+        if (scanEvent.shouldCommit()) {
+            scanEvent.declaringType = declaringType;
+            scanEvent.constrainedMemberCount = constrainedMemberCount;
+            scanEvent.constraints = constraints;
+            scanEvent.commit();
+        }
+    }
+
+    /**
+     * Event representing the resolution of a single field's/method's constraint profile.
+     */
+    @Name("com.github.victools.jsonschema.module.javax.validation.ProfileResolution")
+    @Label("Constraint Profile Resolution")
+    @Category({"JSON Schema Generator", "javax.validation"})
+    @Description("Collecting the applicable constraints on a single field/method (and its associated getter/field)")
+    static final class ProfileResolutionEvent extends Event {
+
+        /**
+         * Name of the type declaring the field/method.
+         */
+        @Label("Declaring Type")
+        String declaringType;
+
+        /**
+         * Name of the field/method.
+         */
+        @Label("Member Name")
+        String memberName;
+
+        /**
+         * Names of the constraint annotations found.
+         */
+        @Label("Constraints")
+        String constraints;
+    }
+
+    /**
+     * Event representing the scan of a single class' declared constraints.
+     */
+    @Name("com.github.victools.jsonschema.module.javax.validation.ClassScan")
+    @Label("Constraint Class Scan")
+    @Category({"JSON Schema Generator", "javax.validation"})
+    @Description("Indexing the constraint annotations declared on the fields/methods of a single class")
+    static final class ClassScanEvent extends Event {
+
+        /**
+         * Name of the scanned type.
+         */
+        @Label("Declaring Type")
+        String declaringType;
+
+        /**
+         * Number of fields/methods with constraint annotations.
+         */
+        @Label("Constrained Members")
+        int constrainedMemberCount;
+
+        /**
+         * Names of the distinct constraint annotations found.
+         */
+        @Label("Constraints")
+        String constraints;
+    }
+}
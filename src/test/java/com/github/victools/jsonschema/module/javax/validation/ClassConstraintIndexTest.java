@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link ClassConstraintIndex}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class ClassConstraintIndexTest {
+
+    Object parametersForTestIsIndexed() {
+        return new Object[][]{
+            {NotNull.class, true},
+            {Size.class, true},
+            {Size.List.class, true},
+            {Test.class, false},
+            {Deprecated.class, false}
+        };
+    }
+
+    @Test
+    @Parameters
+    public void testIsIndexed(Class<? extends Annotation> annotationClass, boolean expectedResult) {
+        Assert.assertEquals(expectedResult, ClassConstraintIndex.isIndexed(annotationClass));
+    }
+
+    @Test
+    public void testOfReturnsSameInstance() {
+        Assert.assertSame(ClassConstraintIndex.of(TestClass.class), ClassConstraintIndex.of(TestClass.class));
+    }
+
+    @Test
+    public void testPlatformClassesAreNotBeingScanned() throws Exception {
+        Assert.assertTrue(ClassConstraintIndex.isPlatformClass(String.class));
+        Assert.assertTrue(ClassConstraintIndex.isPlatformClass(int.class));
+        Assert.assertFalse(ClassConstraintIndex.isPlatformClass(TestClass.class));
+        // all JDK classes share the same (empty) index, i.e. no ClassValue entry is being attached to them
+        Assert.assertSame(ClassConstraintIndex.of(java.time.LocalDate.class), ClassConstraintIndex.of(java.util.ArrayList.class));
+        Field field = java.util.ArrayList.class.getDeclaredField("size");
+        Assert.assertTrue(ClassConstraintIndex.of(java.util.ArrayList.class).getDeclaredConstraints(field).isEmpty());
+        Assert.assertSame(ClassConstraintIndex.ContainerElement.NONE, ClassConstraintIndex.of(java.util.ArrayList.class).getContainerElement(field));
+    }
+
+    @Test
+    public void testScanEventsOnlyReportedToPassedEmitter() {
+        List<String> scannedTypes = new ArrayList<>();
+        ResolutionEventEmitter recordingEmitter = new ResolutionEventEmitter() {
+            @Override
+            public Object beginProfileResolution() {
+                return null;
+            }
+
+            @Override
+            public void commitProfileResolution(Object event, String declaringType, String memberName, String constraints) {
+                // not relevant for the index
+            }
+
+            @Override
+            public Object beginClassScan() {
+                return new Object();
+            }
+
+            @Override
+            public void commitClassScan(Object event, String declaringType, int constrainedMemberCount, String constraints) {
+                scannedTypes.add(declaringType + ": " + constrainedMemberCount + " (" + constraints + ")");
+            }
+        };
+        // a class being scanned without an emitter (e.g. by another module) is not reported
+        ClassConstraintIndex.of(OtherTestClass.class, null, null);
+        ClassConstraintIndex.of(OtherTestClass.class, recordingEmitter, null);
+        Assert.assertTrue(scannedTypes.isEmpty());
+
+        ClassConstraintIndex.of(ScannedTestClass.class, recordingEmitter, null);
+        ClassConstraintIndex.of(ScannedTestClass.class, recordingEmitter, null);
+        Assert.assertEquals(Collections.singletonList(ScannedTestClass.class.getName() + ": 1 (NotNull)"), scannedTypes);
+    }
+
+    @Test
+    public void testCacheAccessReportedToPassedListener() {
+        List<String> cacheAccesses = new ArrayList<>();
+        JavaxValidationMetricsListener recordingListener = new JavaxValidationMetricsListener() {
+            @Override
+            public void onCacheAccess(Cache cache, boolean hit) {
+                cacheAccesses.add(cache + (hit ? " hit" : " miss"));
+            }
+        };
+        ClassConstraintIndex.of(MeasuredTestClass.class, null, recordingListener);
+        // the class is being scanned once, incl. the look-up of the @Deprecated annotation's composition (which may have been cached before)
+        Assert.assertEquals(2, cacheAccesses.size());
+        Assert.assertTrue(cacheAccesses.get(0).startsWith("COMPOSED_CONSTRAINTS"));
+        Assert.assertEquals("CLASS_INDEXES miss", cacheAccesses.get(1));
+
+        cacheAccesses.clear();
+        ClassConstraintIndex.of(MeasuredTestClass.class, null, recordingListener);
+        Assert.assertEquals(Collections.singletonList("CLASS_INDEXES hit"), cacheAccesses);
+    }
+
+    @Test
+    public void testGetConstraintOnField() throws Exception {
+        Field field = TestClass.class.getDeclaredField("text");
+        Size size = ClassConstraintIndex.getConstraint(field, Size.class);
+        Assert.assertNotNull(size);
+        Assert.assertEquals(5, size.max());
+        Assert.assertNull(ClassConstraintIndex.getConstraint(field, NotNull.class));
+        Assert.assertNull(ClassConstraintIndex.getConstraint(field, Max.class));
+    }
+
+    @Test
+    public void testGetConstraintOnMethod() throws Exception {
+        Method method = TestClass.class.getDeclaredMethod("getText");
+        Assert.assertNotNull(ClassConstraintIndex.getConstraint(method, NotNull.class));
+        Assert.assertNull(ClassConstraintIndex.getConstraint(method, Size.class));
+    }
+
+    @Test
+    public void testGetConstraintOnUnannotatedMember() throws Exception {
+        Field field = TestClass.class.getDeclaredField("number");
+        Assert.assertTrue(ClassConstraintIndex.of(TestClass.class).getDeclaredConstraints(field).isEmpty());
+        Assert.assertNull(ClassConstraintIndex.getConstraint(field, Max.class));
+    }
+
+    @Test
+    public void testPrecomputedIndexIsConsultedFirst() throws Exception {
+        // the test resource "ClassConstraintIndexTest$PrecomputedTestClass.constraints" only lists the "text" field and "getText" method
+        Assert.assertNotNull(ClassConstraintIndex.getConstraint(PrecomputedTestClass.class.getDeclaredField("text"), Size.class));
+        Assert.assertNotNull(ClassConstraintIndex.getConstraint(PrecomputedTestClass.class.getDeclaredMethod("getText"), NotNull.class));
+        Assert.assertNull(ClassConstraintIndex.getConstraint(PrecomputedTestClass.class.getDeclaredField("number"), Max.class));
+    }
+
+    @Test
+    public void testGetContainerElementConstraint() throws Exception {
+        Field field = TestClass.class.getDeclaredField("texts");
+        Size size = (Size) ClassConstraintIndex.getIndexedContainerElementConstraint(field, Size.class).getAnnotation();
+        Assert.assertEquals(64, size.max());
+        Assert.assertNull(ClassConstraintIndex.getIndexedContainerElementConstraint(field, NotNull.class));
+        Assert.assertNotNull(ClassConstraintIndex.getConstraint(field, NotNull.class));
+        Assert.assertNull(ClassConstraintIndex.getConstraint(field, Size.class));
+        Assert.assertNotNull(ClassConstraintIndex.of(TestClass.class).getContainerElement(field).getAnnotation(Size.class));
+        // the parsed element type is being kept per member
+        Assert.assertSame(ClassConstraintIndex.of(TestClass.class).getContainerElement(field),
+                ClassConstraintIndex.of(TestClass.class).getContainerElement(field));
+    }
+
+    @Test
+    public void testGetContainerElementWithoutElementConstraints() throws Exception {
+        Assert.assertSame(ClassConstraintIndex.ContainerElement.NONE,
+                ClassConstraintIndex.of(TestClass.class).getContainerElement(TestClass.class.getDeclaredField("text")));
+        Assert.assertSame(ClassConstraintIndex.ContainerElement.NONE,
+                ClassConstraintIndex.of(TestClass.class).getContainerElement(TestClass.class.getDeclaredField("unconstrainedTexts")));
+        Assert.assertNull(ClassConstraintIndex.getIndexedContainerElementConstraint(TestClass.class.getDeclaredMethod("getText"), Size.class));
+    }
+
+    private static class TestClass {
+
+        @Size(max = 5)
+        @Deprecated
+        private String text;
+        private int number;
+        @NotNull
+        private List<@Size(max = 64) String> texts;
+        private List<String> unconstrainedTexts;
+
+        @NotNull
+        public String getText() {
+            return this.text;
+        }
+    }
+
+    private static class PrecomputedTestClass {
+
+        @Size(max = 5)
+        private String text;
+        @Max(10)
+        private int number;
+
+        @NotNull
+        public String getText() {
+            return this.text;
+        }
+    }
+
+    private static class OtherTestClass {
+
+        @NotNull
+        private String text;
+    }
+
+    private static class ScannedTestClass {
+
+        @NotNull
+        private String text;
+    }
+
+    private static class MeasuredTestClass {
+
+        @NotNull
+        @Deprecated
+        private String text;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.validation.Constraint;
+import javax.validation.OverridesAttribute;
+import javax.validation.Payload;
+import javax.validation.ReportAsSingleViolation;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the {@link ComposedConstraint}.
+ */
+public class ComposedConstraintTest {
+
+    @Test
+    public void testNonConstraintAnnotation() {
+        ComposedConstraint composition = ComposedConstraint.of(Deprecated.class);
+        Assert.assertTrue(composition.expand(TestClass.class.getAnnotation(Deprecated.class)).isEmpty());
+        Assert.assertSame(composition, ComposedConstraint.of(Deprecated.class));
+    }
+
+    @Test
+    public void testExpandWithoutOverrides() throws Exception {
+        CustomerId annotation = TestClass.class.getDeclaredField("customerId").getAnnotation(CustomerId.class);
+        ComposedConstraint composition = ComposedConstraint.of(CustomerId.class);
+        List<Annotation> constraints = composition.expand(annotation);
+
+        Assert.assertEquals(3, constraints.size());
+        Assert.assertEquals(NotNull.class, constraints.get(0).annotationType());
+        Assert.assertEquals(10, ((Size) constraints.get(1)).max());
+        Assert.assertEquals("^C[0-9]+$", ((Pattern) constraints.get(2)).regexp());
+        // without any overridden attributes, the cached expansion is being returned as is
+        Assert.assertSame(constraints, composition.expand(annotation));
+        Assert.assertSame(composition, ComposedConstraint.of(CustomerId.class));
+    }
+
+    @Test
+    public void testExpandWithOverrides() throws Exception {
+        List<Annotation> constraints = ComposedConstraint.of(IsoCurrency.class)
+                .expand(TestClass.class.getDeclaredField("currency").getAnnotation(IsoCurrency.class));
+
+        Assert.assertEquals(2, constraints.size());
+        Size size = (Size) constraints.get(0);
+        Assert.assertEquals(Size.class, size.annotationType());
+        Assert.assertEquals(2, size.min());
+        Assert.assertEquals(4, size.max());
+        Pattern pattern = (Pattern) constraints.get(1);
+        Assert.assertEquals("^[A-Z]*$", pattern.regexp());
+    }
+
+    @Test
+    public void testExpandNestedComposition() throws Exception {
+        List<Annotation> constraints = ComposedConstraint.of(NestedComposition.class)
+                .expand(TestClass.class.getDeclaredField("nested").getAnnotation(NestedComposition.class));
+
+        Assert.assertEquals(3, constraints.size());
+        Assert.assertEquals(Size.class, constraints.get(0).annotationType());
+        Assert.assertEquals(1, ((Size) constraints.get(0)).min());
+        Assert.assertEquals(3, ((Size) constraints.get(0)).max());
+        Assert.assertEquals(Pattern.class, constraints.get(1).annotationType());
+        Assert.assertEquals(NotNull.class, constraints.get(2).annotationType());
+    }
+
+    @Test
+    public void testExpandNestedCompositionWithOverrides() throws Exception {
+        ComposedConstraint composition = ComposedConstraint.of(CurrencyCode.class);
+        List<Annotation> constraints = composition
+                .expand(TestClass.class.getDeclaredField("currencyCode").getAnnotation(CurrencyCode.class));
+
+        Assert.assertEquals(3, constraints.size());
+        // the overrides of the nested @IsoCurrency's attributes are being applied to the @Size it is composed of
+        Assert.assertEquals(Size.class, constraints.get(0).annotationType());
+        Assert.assertEquals(2, ((Size) constraints.get(0)).min());
+        Assert.assertEquals(6, ((Size) constraints.get(0)).max());
+        Assert.assertEquals("^[A-Z]*$", ((Pattern) constraints.get(1)).regexp());
+        Assert.assertEquals(NotNull.class, constraints.get(2).annotationType());
+
+        Size defaultSize = (Size) composition
+                .expand(TestClass.class.getDeclaredField("defaultCurrencyCode").getAnnotation(CurrencyCode.class)).get(0);
+        Assert.assertEquals(2, defaultSize.min());
+        Assert.assertEquals(4, defaultSize.max());
+    }
+
+    @Test
+    public void testCacheAccessReportedToPassedListener() {
+        List<Boolean> hits = new ArrayList<>();
+        JavaxValidationMetricsListener recordingListener = new JavaxValidationMetricsListener() {
+            @Override
+            public void onCacheAccess(Cache cache, boolean hit) {
+                Assert.assertEquals(Cache.COMPOSED_CONSTRAINTS, cache);
+                hits.add(hit);
+            }
+        };
+        ComposedConstraint composition = ComposedConstraint.of(MeasuredComposition.class, recordingListener);
+        Assert.assertSame(composition, ComposedConstraint.of(MeasuredComposition.class, recordingListener));
+        Assert.assertSame(composition, ComposedConstraint.of(MeasuredComposition.class, null));
+
+        Assert.assertEquals(Arrays.asList(false, true), hits);
+    }
+
+    @Test
+    public void testIndexedConstraintsInheritGroups() throws Exception {
+        Field field = TestClass.class.getDeclaredField("currency");
+        Assert.assertEquals(4, ClassConstraintIndex.getConstraint(field, Size.class).max());
+        Assert.assertArrayEquals(ValidationGroupMatcher.toGroupMask(new Class<?>[]{TestGroup.class}),
+                ClassConstraintIndex.getIndexedConstraint(field, Size.class).getGroupMask());
+        // a directly declared constraint takes precedence over one from a composition
+        Assert.assertEquals(5, ClassConstraintIndex.getConstraint(TestClass.class.getDeclaredField("overridden"), Size.class).max());
+    }
+
+    interface TestGroup {
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @ReportAsSingleViolation
+    @NotNull
+    @Size(max = 10)
+    @Pattern(regexp = "^C[0-9]+$")
+    @interface CustomerId {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Size
+    @Pattern(regexp = "^[A-Z]*$")
+    @interface IsoCurrency {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+
+        @OverridesAttribute(constraint = Size.class, name = "min")
+        int minLength() default 3;
+
+        @OverridesAttribute(constraint = Size.class)
+        int max() default 3;
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @IsoCurrency(minLength = 1)
+    @NotNull
+    @interface NestedComposition {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @IsoCurrency
+    @NotNull
+    @interface CurrencyCode {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+
+        @OverridesAttribute(constraint = IsoCurrency.class, name = "max")
+        int maxLength() default 4;
+
+        @OverridesAttribute(constraint = IsoCurrency.class, constraintIndex = 0, name = "minLength")
+        int minLength() default 2;
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @NotNull
+    @interface MeasuredComposition {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    @Deprecated
+    private static class TestClass {
+
+        @CustomerId
+        private String customerId;
+        @IsoCurrency(minLength = 2, max = 4, groups = TestGroup.class)
+        private String currency;
+        @NestedComposition
+        private String nested;
+        @CurrencyCode(maxLength = 6)
+        private String currencyCode;
+        @CurrencyCode
+        private String defaultCurrencyCode;
+        @CustomerId
+        @Size(max = 5)
+        private String overridden;
+    }
+}
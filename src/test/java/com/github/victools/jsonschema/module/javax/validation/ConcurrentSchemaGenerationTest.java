@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.victools.jsonschema.generator.OptionPreset;
+import com.github.victools.jsonschema.generator.SchemaGenerator;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfig;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
+import com.github.victools.jsonschema.generator.SchemaVersion;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Stress test of a single module/configuration being shared by many threads generating schemas at the same time.
+ */
+public class ConcurrentSchemaGenerationTest {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int ITERATIONS_PER_THREAD = 50;
+    private static final Class<?>[] ROOT_TYPES = {FirstRoot.class, SecondRoot.class, Shared.class};
+
+    private static SchemaGeneratorConfig createGeneratorConfig(JavaxValidationModule module) {
+        return new SchemaGeneratorConfigBuilder(new ObjectMapper(), SchemaVersion.DRAFT_2019_09, OptionPreset.PLAIN_JSON)
+                .with(module)
+                .build();
+    }
+
+    private static JavaxValidationModuleConfig createModuleConfig() {
+        return new JavaxValidationModuleConfig.Builder()
+                .with(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED, JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS,
+                        JavaxValidationOption.TRANSLATE_PATTERN_EXPRESSIONS)
+                .forValidationGroups(StrictGroup.class)
+                .withPatternRiskHandling(PatternRiskHandling.BOUND_LENGTH)
+                .build();
+    }
+
+    @Test
+    public void testSharedConfigAcrossThreads() throws Exception {
+        // expected schemas being generated single-threaded by a separate module instance
+        Map<Class<?>, JsonNode> expectedSchemas = new HashMap<>();
+        SchemaGenerator referenceGenerator = new SchemaGenerator(createGeneratorConfig(new JavaxValidationModule(createModuleConfig())));
+        for (Class<?> rootType : ROOT_TYPES) {
+            expectedSchemas.put(rootType, referenceGenerator.generateSchema(rootType));
+        }
+
+        // one configuration for all threads, each thread creating its own generator (as the configuration is shared, not the generator)
+        SchemaGeneratorConfig sharedConfig = createGeneratorConfig(new JavaxValidationModule(createModuleConfig()));
+        CyclicBarrier startSignal = new CyclicBarrier(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int threadIndex = 0; threadIndex < THREAD_COUNT; threadIndex++) {
+                int offset = threadIndex;
+                Callable<Integer> task = () -> {
+                    SchemaGenerator generator = new SchemaGenerator(sharedConfig);
+                    startSignal.await();
+                    int mismatchCount = 0;
+                    for (int iteration = 0; iteration < ITERATIONS_PER_THREAD; iteration++) {
+                        Class<?> rootType = ROOT_TYPES[(offset + iteration) % ROOT_TYPES.length];
+                        if (!expectedSchemas.get(rootType).equals(generator.generateSchema(rootType))) {
+                            mismatchCount++;
+                        }
+                    }
+                    return mismatchCount;
+                };
+                results.add(executor.submit(task));
+            }
+            for (Future<Integer> result : results) {
+                Assert.assertEquals(Integer.valueOf(0), result.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface StrictGroup {
+    }
+
+    private static class FirstRoot {
+
+        @NotNull
+        Shared shared;
+        @Size(max = 10, groups = StrictGroup.class)
+        String name;
+        @NotEmpty
+        List<Shared> items;
+    }
+
+    private static class SecondRoot {
+
+        @NotNull(groups = Object.class)
+        Shared shared;
+        @Max(5)
+        int count;
+        @Email
+        String contact;
+    }
+
+    private static class Shared {
+
+        @NotNull
+        @Size(min = 1, max = 20)
+        @Pattern(regexp = "(a+)+b", flags = Pattern.Flag.CASE_INSENSITIVE)
+        String text;
+        @DecimalMin(value = "0", inclusive = false, groups = StrictGroup.class)
+        Double number;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Test for the {@link ConstraintIndexProcessor}.
+ */
+public class ConstraintIndexProcessorTest {
+
+    private static final String SOURCE = "package com.example;\n"
+            + "import javax.validation.constraints.*;\n"
+            + "public class Dto {\n"
+            + "    @NotNull @Size(max = 5) private String name;\n"
+            + "    @Size.List({@Size(min = 1), @Size(max = 3)}) private String code;\n"
+            + "    @Deprecated private int unconstrained;\n"
+            + "    @CustomId private String id;\n"
+            + "    @Min(1) public int getCount() { return 1; }\n"
+            + "    public String getName() { return this.name; }\n"
+            + "    public java.util.function.Supplier<String> getNameSupplier() { return () -> this.name; }\n"
+            + "    public static class Nested {\n"
+            + "        @Email String mail;\n"
+            + "    }\n"
+            + "    public enum Kind {\n"
+            + "        @NotNull A, B;\n"
+            + "        public String label(boolean upperCase) { return upperCase ? this.name() : this.name().toLowerCase(); }\n"
+            + "    }\n"
+            + "    @javax.validation.Constraint(validatedBy = {})\n"
+            + "    @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+            + "    @NotNull\n"
+            + "    public @interface CustomId {\n"
+            + "        String message() default \"\";\n"
+            + "        Class<?>[] groups() default {};\n"
+            + "        Class<? extends javax.validation.Payload>[] payload() default {};\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void testIndexResources() throws IOException {
+        Path outputDirectory = ConstraintIndexProcessorTest.compile(SOURCE, "-proc:only");
+
+        List<String> lines = Files.readAllLines(outputDirectory.resolve("com/example/Dto.constraints"));
+        Assert.assertTrue(lines.get(1), lines.get(1).startsWith(PrecomputedConstraintIndex.MEMBERS_PREFIX));
+        Assert.assertEquals(Arrays.asList(
+                "# constrained members of com.example.Dto",
+                "field code",
+                "field id",
+                "field name",
+                "method getCount"),
+                ConstraintIndexProcessorTest.withoutMemberFingerprint(lines));
+        Assert.assertEquals(Arrays.asList(
+                "# constrained members of com.example.Dto$Nested",
+                "field mail"),
+                ConstraintIndexProcessorTest.withoutMemberFingerprint(
+                        Files.readAllLines(outputDirectory.resolve("com/example/Dto$Nested.constraints"))));
+        Assert.assertEquals(Arrays.asList(
+                "# constrained members of com.example.Dto$Kind",
+                "field A"),
+                ConstraintIndexProcessorTest.withoutMemberFingerprint(
+                        Files.readAllLines(outputDirectory.resolve("com/example/Dto$Kind.constraints"))));
+
+        // the same source should always result in the same index, i.e. not impeding reproducible builds
+        Path otherOutputDirectory = ConstraintIndexProcessorTest.compile(SOURCE, "-proc:only");
+        Assert.assertEquals(lines, Files.readAllLines(otherOutputDirectory.resolve("com/example/Dto.constraints")));
+    }
+
+    @Test
+    public void testUpToDateIndexIsBeingConsidered() throws Exception {
+        Path outputDirectory = ConstraintIndexProcessorTest.compile(SOURCE, "-implicit:none");
+
+        try (URLClassLoader classLoader = ConstraintIndexProcessorTest.createClassLoader(outputDirectory)) {
+            PrecomputedConstraintIndex index = PrecomputedConstraintIndex.load(classLoader.loadClass("com.example.Dto"));
+            Assert.assertNotNull(index);
+            Assert.assertTrue(index.isConstrainedField("name"));
+            Assert.assertFalse(index.isConstrainedField("unconstrained"));
+            // the fingerprint of the loaded classes should match, despite synthetic members (e.g. of lambda expressions or enums)
+            Assert.assertNotNull(PrecomputedConstraintIndex.load(classLoader.loadClass("com.example.Dto$Nested")));
+            Assert.assertNotNull(PrecomputedConstraintIndex.load(classLoader.loadClass("com.example.Dto$Kind")));
+        }
+    }
+
+    @Test
+    public void testOutdatedIndexIsBeingIgnored() throws Exception {
+        Path outputDirectory = ConstraintIndexProcessorTest.compile(SOURCE, "-implicit:none");
+        // the class being changed and recompiled later on without the processor, i.e. the index not listing the new "getCode" method
+        String changedSource = SOURCE.replace("    public String getName()", "    @NotNull public String getCode() { return this.code; }\n"
+                + "    public String getName()");
+        ConstraintIndexProcessorTest.compile(changedSource, outputDirectory, "-proc:none");
+
+        try (URLClassLoader classLoader = ConstraintIndexProcessorTest.createClassLoader(outputDirectory)) {
+            Assert.assertNull(PrecomputedConstraintIndex.load(classLoader.loadClass("com.example.Dto")));
+            // the unchanged nested class is still up-to-date
+            Assert.assertNotNull(PrecomputedConstraintIndex.load(classLoader.loadClass("com.example.Dto$Nested")));
+        }
+    }
+
+    @Test
+    public void testIndexWithoutMemberFingerprintIsBeingIgnored() throws Exception {
+        Path outputDirectory = ConstraintIndexProcessorTest.compile(SOURCE, "-implicit:none");
+        Path indexFile = outputDirectory.resolve("com/example/Dto.constraints");
+        List<String> lines = Files.readAllLines(indexFile);
+        Files.write(indexFile, ConstraintIndexProcessorTest.withoutMemberFingerprint(lines), StandardCharsets.UTF_8);
+
+        try (URLClassLoader classLoader = ConstraintIndexProcessorTest.createClassLoader(outputDirectory)) {
+            Assert.assertNull(PrecomputedConstraintIndex.load(classLoader.loadClass("com.example.Dto")));
+        }
+    }
+
+    @Test
+    public void testGetResourceName() {
+        Assert.assertEquals("Dto$Nested.constraints", PrecomputedConstraintIndex.getResourceName("com.example.Dto$Nested"));
+        Assert.assertEquals("Dto.constraints", PrecomputedConstraintIndex.getResourceName("Dto"));
+    }
+
+    private static Path compile(String source, String compilerOption) throws IOException {
+        return ConstraintIndexProcessorTest.compile(source, Files.createTempDirectory("constraint-index"), compilerOption);
+    }
+
+    private static Path compile(String source, Path outputDirectory, String compilerOption) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<String> compilerOptions = Arrays.asList(compilerOption, "-d", outputDirectory.toString(),
+                    "-classpath", System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, compilerOptions, null,
+                    Collections.singletonList(new SourceFile("com/example/Dto", source)));
+            task.setProcessors(Collections.singletonList(new ConstraintIndexProcessor()));
+            Assert.assertTrue(task.call());
+        }
+        return outputDirectory;
+    }
+
+    private static URLClassLoader createClassLoader(Path outputDirectory) throws IOException {
+        return new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, ConstraintIndexProcessorTest.class.getClassLoader());
+    }
+
+    private static List<String> withoutMemberFingerprint(List<String> lines) {
+        return lines.stream()
+                .filter(line -> !line.startsWith(PrecomputedConstraintIndex.MEMBERS_PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String content;
+
+        SourceFile(String className, String content) {
+            super(URI.create("string:///" + className + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return this.content;
+        }
+    }
+}
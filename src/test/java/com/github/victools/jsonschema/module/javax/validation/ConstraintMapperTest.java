@@ -0,0 +1,273 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.validation.Constraint;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the {@link ConstraintMapper} being applied by the {@link JavaxValidationModule}.
+ */
+public class ConstraintMapperTest {
+
+    @Test
+    public void testRegistration() {
+        BicMapper mapper = new BicMapper();
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                .withConstraintMapper(new BicMapper())
+                .withConstraintMapper(mapper)
+                .build();
+        Assert.assertEquals(1, config.getConstraintMappers().size());
+        Assert.assertSame(mapper, config.getConstraintMappers().get(Bic.class));
+        Assert.assertSame(mapper, config.toBuilder().build().getConstraintMappers().get(Bic.class));
+        Assert.assertTrue(new JavaxValidationModuleConfig.Builder().build().getConstraintMappers().isEmpty());
+    }
+
+    @Test
+    public void testServiceLoaderDiscovery() {
+        // see META-INF/services/com.github.victools.jsonschema.module.javax.validation.ConstraintMapper in the test resources
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                .withDiscoveredConstraintMappers(ConstraintMapperTest.class.getClassLoader())
+                .build();
+        Assert.assertTrue(config.getConstraintMappers().get(Bic.class) instanceof BicMapper);
+    }
+
+    @Test
+    public void testMapperChangesPersistentProfileCacheFingerprint() throws Exception {
+        Path cacheFile = Files.createTempFile("profiles", ".bin");
+        try {
+            JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                    .withPersistentProfileCache(PersistentProfileCache.open(cacheFile))
+                    .build();
+            JavaxValidationModuleConfig mapperConfig = config.toBuilder()
+                    .withConstraintMapper(new BicMapper())
+                    .build();
+            Assert.assertNotNull(mapperConfig.getPersistentProfileCacheFingerprint());
+            Assert.assertNotEquals(config.getPersistentProfileCacheFingerprint(), mapperConfig.getPersistentProfileCacheFingerprint());
+        } finally {
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testProfileOfAnnotatedField() {
+        JavaxValidationModule module = new JavaxValidationModule().withConstraintMapper(new BicMapper());
+        ConstraintProfile profile = module.getConstraintProfile(new TestType(TestClass.class).getMemberField("bic"));
+        Assert.assertEquals(Integer.valueOf(8), profile.getMinLength());
+        Assert.assertEquals(Integer.valueOf(11), profile.getMaxLength());
+        Assert.assertEquals("^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$", profile.getPattern());
+    }
+
+    @Test
+    public void testProfileOfAnnotatedGetter() {
+        JavaxValidationModule module = new JavaxValidationModule().withConstraintMapper(new BicMapper());
+        ConstraintProfile profile = module.getConstraintProfile(new TestType(TestClass.class).getMemberField("bicViaGetter"));
+        Assert.assertEquals(Integer.valueOf(11), profile.getMaxLength());
+    }
+
+    @Test
+    public void testProfileOfContainerElement() {
+        JavaxValidationModule module = new JavaxValidationModule().withConstraintMapper(new BicMapper());
+        TestType testType = new TestType(TestClass.class);
+        Assert.assertNull(module.getConstraintProfile(testType.getMemberField("bics")).getPattern());
+        ConstraintProfile itemProfile = module.getConstraintProfile(testType.getMemberField("bics").asFakeContainerItemScope());
+        Assert.assertEquals(Integer.valueOf(11), itemProfile.getMaxLength());
+    }
+
+    @Test
+    public void testMapperBoundsAreBeingMergedWithStandardConstraint() {
+        JavaxValidationModule module = new JavaxValidationModule().withConstraintMapper(new BicMapper());
+        TestType testType = new TestType(TestClass.class);
+        ConstraintProfile profile = module.getConstraintProfile(testType.getMemberField("bicWithSize"));
+        Assert.assertEquals(Integer.valueOf(8), profile.getMinLength());
+        Assert.assertEquals(Integer.valueOf(11), profile.getMaxLength());
+        // the tighter bound of the standard constraint applies
+        ConstraintProfile tighterProfile = module.getConstraintProfile(testType.getMemberField("bicWithTighterSize"));
+        Assert.assertEquals(Integer.valueOf(11), tighterProfile.getMinLength());
+        Assert.assertEquals(Integer.valueOf(11), tighterProfile.getMaxLength());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testConflictingPatternIsBeingRejected() {
+        JavaxValidationModule module = new JavaxValidationModule().withConstraintMapper(new BicMapper());
+        module.getConstraintProfile(new TestType(TestClass.class).getMemberField("bicWithPattern"));
+    }
+
+    @Test
+    public void testMapperContributingFormatAndAttributes() {
+        JavaxValidationModule module = new JavaxValidationModule().withConstraintMapper(new CurrencyMapper());
+        TestType testType = new TestType(TestClass.class);
+        ConstraintProfile profile = module.getConstraintProfile(testType.getMemberField("currency"));
+        Assert.assertEquals("iso-4217", profile.getFormat());
+        Assert.assertEquals("iso-4217", module.resolveStringFormat(testType.getMemberField("currency")));
+        Assert.assertEquals("[\"EUR\",\"USD\"]", profile.getAttributes().get("enum").toString());
+
+        ObjectNode memberAttributes = JsonNodeFactory.instance.objectNode();
+        module.applyAdditionalAttributes(memberAttributes, testType.getMemberField("currency"));
+        Assert.assertEquals("{\"enum\":[\"EUR\",\"USD\"]}", memberAttributes.toString());
+    }
+
+    @Test
+    public void testBuilderMergingValues() {
+        JsonNode enumValues = JsonNodeFactory.instance.arrayNode().add("A");
+        ConstraintProfile profile = new ConstraintProfile.Builder()
+                .withSize(1, 20)
+                .withSize(5, 30)
+                .withInclusiveMinimum(BigDecimal.ONE)
+                .withInclusiveMinimum(BigDecimal.ZERO)
+                .withExclusiveMaximum(BigDecimal.TEN)
+                .withExclusiveMaximum(new BigDecimal("9.5"))
+                .withPattern("^a+$", 0)
+                .withPattern("^a+$", 0)
+                .withAttribute("enum", enumValues)
+                .withAttribute("enum", enumValues.deepCopy())
+                .build();
+        Assert.assertEquals(Integer.valueOf(5), profile.getMinLength());
+        Assert.assertEquals(Integer.valueOf(20), profile.getMaxLength());
+        Assert.assertEquals(BigDecimal.ONE, profile.getInclusiveMinimum());
+        Assert.assertEquals(new BigDecimal("9.5"), profile.getExclusiveMaximum());
+        Assert.assertEquals("^a+$", profile.getPattern());
+        Assert.assertEquals(1, profile.getAttributes().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderRejectingConflictingFormat() {
+        new ConstraintProfile.Builder().withEmail(".*").withFormat("uri");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderRejectingConflictingAttribute() {
+        new ConstraintProfile.Builder()
+                .withAttribute("multipleOf", JsonNodeFactory.instance.numberNode(2))
+                .withAttribute("multipleOf", JsonNodeFactory.instance.numberNode(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderRejectingDedicatedAttribute() {
+        new ConstraintProfile.Builder().withAttribute("maxLength", JsonNodeFactory.instance.numberNode(3));
+    }
+
+    @Test
+    public void testValidationGroupMismatch() {
+        JavaxValidationModule module = new JavaxValidationModule()
+                .withConstraintMapper(new BicMapper())
+                .forValidationGroups(OtherGroup.class);
+        TestType testType = new TestType(TestClass.class);
+        Assert.assertEquals(Integer.valueOf(11), module.getConstraintProfile(testType.getMemberField("bic")).getMaxLength());
+        Assert.assertNull(module.getConstraintProfile(testType.getMemberField("bicInGroup")).getMaxLength());
+    }
+
+    @Test
+    public void testWithoutMapper() {
+        ConstraintProfile profile = new JavaxValidationModule().getConstraintProfile(new TestType(TestClass.class).getMemberField("bic"));
+        Assert.assertNull(profile.getMaxLength());
+        Assert.assertNull(profile.getPattern());
+    }
+
+    private interface TestGroup {
+    }
+
+    private interface OtherGroup {
+    }
+
+    @Target({ElementType.FIELD, ElementType.METHOD, ElementType.TYPE_USE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Constraint(validatedBy = {})
+    @interface Bic {
+
+        Class<?>[] groups() default {};
+    }
+
+    @Target({ElementType.FIELD, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Constraint(validatedBy = {})
+    @interface Currency {
+
+        Class<?>[] groups() default {};
+    }
+
+    /**
+     * Mapper being registered in the test resources for the {@link java.util.ServiceLoader}.
+     */
+    public static class BicMapper implements ConstraintMapper<Bic> {
+
+        @Override
+        public Class<Bic> getAnnotationType() {
+            return Bic.class;
+        }
+
+        @Override
+        public void applyTo(Bic annotation, ConstraintProfile.Builder profile) {
+            profile.withSize(8, 11)
+                    .withPattern("^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$", 0);
+        }
+    }
+
+    public static class CurrencyMapper implements ConstraintMapper<Currency> {
+
+        @Override
+        public Class<Currency> getAnnotationType() {
+            return Currency.class;
+        }
+
+        @Override
+        public void applyTo(Currency annotation, ConstraintProfile.Builder profile) {
+            profile.withFormat("iso-4217")
+                    .withAttribute("enum", JsonNodeFactory.instance.arrayNode().add("EUR").add("USD"));
+        }
+    }
+
+    private static class TestClass {
+
+        @Bic
+        private String bic;
+        private String bicViaGetter;
+        @Bic(groups = TestGroup.class)
+        private String bicInGroup;
+        @Size(min = 1, max = 50)
+        @Bic
+        private String bicWithSize;
+        @Size(min = 11, max = 11)
+        @Bic
+        private String bicWithTighterSize;
+        @Pattern(regexp = "^[A-Z]+$")
+        @Bic
+        private String bicWithPattern;
+        @Currency
+        private String currency;
+        private List<@Bic String> bics;
+
+        @Bic
+        public String getBicViaGetter() {
+            return this.bicViaGetter;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.DeclaredConstraints;
+import java.lang.annotation.Annotation;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Negative;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Null;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.Size;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link ConstraintSlots}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class ConstraintSlotsTest {
+
+    Object parametersForTestSlotOf() {
+        return new Object[][]{
+            {NotNull.class, ConstraintSlots.NOT_NULL},
+            {Null.class, ConstraintSlots.NULL},
+            {Size.class, ConstraintSlots.SIZE},
+            {Max.class, ConstraintSlots.MAX},
+            {DecimalMax.class, ConstraintSlots.DECIMAL_MAX},
+            {Negative.class, ConstraintSlots.NEGATIVE},
+            {Past.class, ConstraintSlots.NONE},
+            {Size.List.class, ConstraintSlots.NONE},
+            {Test.class, ConstraintSlots.NONE}
+        };
+    }
+
+    @Test
+    @Parameters
+    public void testSlotOf(Class<? extends Annotation> annotationType, int expectedSlot) {
+        Assert.assertEquals(expectedSlot, ConstraintSlots.slotOf(annotationType));
+    }
+
+    @Test
+    public void testVisitFirstConstraintWins() throws Exception {
+        DeclaredConstraints fieldConstraints = DeclaredConstraints.of(TestClass.class.getDeclaredField("text").getDeclaredAnnotations());
+        DeclaredConstraints getterConstraints = DeclaredConstraints.of(TestClass.class.getDeclaredMethod("getText").getDeclaredAnnotations());
+        ConstraintSlots constraints = new ConstraintSlots();
+        constraints.visit(fieldConstraints);
+        constraints.visit(getterConstraints);
+
+        Assert.assertEquals(5, constraints.getAnnotation(ConstraintSlots.SIZE, Size.class).max());
+        Assert.assertTrue(constraints.isPresent(ConstraintSlots.NOT_NULL));
+        Assert.assertFalse(constraints.isPresent(ConstraintSlots.NULL));
+        Assert.assertNull(constraints.getAnnotation(ConstraintSlots.MAX, Max.class));
+
+        constraints.remove(ConstraintSlots.NOT_NULL);
+        Assert.assertNull(constraints.get(ConstraintSlots.NOT_NULL));
+    }
+
+    @Test
+    public void testVisitWithoutConstraints() {
+        ConstraintSlots constraints = new ConstraintSlots();
+        constraints.visit(DeclaredConstraints.NONE);
+        for (int slot = 0; slot < ConstraintSlots.COUNT; slot++) {
+            Assert.assertFalse(constraints.isPresent(slot));
+        }
+    }
+
+    private static class TestClass {
+
+        @Size(max = 5)
+        @Past
+        private String text;
+
+        @NotNull
+        @Size(max = 10)
+        public String getText() {
+            return this.text;
+        }
+    }
+}
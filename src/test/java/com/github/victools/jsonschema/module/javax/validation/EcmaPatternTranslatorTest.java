@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.util.regex.Pattern;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link EcmaPatternTranslator}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class EcmaPatternTranslatorTest {
+
+    Object parametersForTestTranslate() {
+        return new Object[][]{
+            {"^\\d+$", 0, "^\\d+$"},
+            {"a++b*+c?+d{2,3}+", 0, "a+b*c?d{2,3}"},
+            {"a+?b*?", 0, "a+?b*?"},
+            {"(?>abc)|(?:x)", 0, "(?:abc)|(?:x)"},
+            {"(?<name>a)\\k<name>(?=b)(?!c)(?<=d)(?<!e)", 0, "(?<name>a)\\k<name>(?=b)(?!c)(?<=d)(?<!e)"},
+            {"\\p{Alpha}[\\p{Digit}_]", 0, "[a-zA-Z][0-9_]"},
+            {"\\P{Digit}", 0, "[^0-9]"},
+            {"\\p{Lower}\\p{IsUpper}", 0, "[a-z][A-Z]"},
+            {"\\p{Lower}[\\p{Upper}0]\\P{Upper}", Pattern.CASE_INSENSITIVE, "[a-zA-Z][a-zA-Z0][^a-zA-Z]"},
+            {"\\Aab\\z", 0, "^ab$"},
+            {"\\Qa.b\\E+", 0, "a\\.b+"},
+            {"\\x41\\x{1F600}\\0101", 0, "\\u0041(?:\\uD83D\\uDE00)\\u0041"},
+            {"[a-c]", Pattern.CASE_INSENSITIVE, "[a-cABC]"},
+            {"ab1", Pattern.CASE_INSENSITIVE, "[aA][bB]1"},
+            {"a(?i)b", 0, "a[bB]"},
+            {"(?i:a)b", 0, "(?:[aA])b"},
+            {"(?i)a(?-i)b", 0, "[aA]b"},
+            {"a.b", Pattern.DOTALL, "a[\\s\\S]b"},
+            {"(?s)a.b", 0, "a[\\s\\S]b"},
+            {"a.b", Pattern.UNIX_LINES, "a[^\\n]b"},
+            {"(?sd)a.b", 0, "a[\\s\\S]b"},
+            {"a$", Pattern.MULTILINE, "a(?=$|[\\n\\r\\u2028\\u2029])"},
+            {"(?d)a$", Pattern.MULTILINE, "a(?=$|\\n)"},
+            {"a\\Z", Pattern.UNIX_LINES, "a(?=\\n?$)"},
+            {"\\p{InGreek}", 0, "[\\u0370-\\u03FF]"},
+            {"[^\\p{InGreek}\\d]", 0, "[^\\u0370-\\u03FF\\d]"},
+            {"a b # comment\nc", Pattern.COMMENTS, "abc"},
+            {"a.b", Pattern.LITERAL, "a\\.b"},
+            {"[^\\]\\-/]", 0, "[^\\]\\-\\/]"},
+            {"a/b", 0, "a\\/b"}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}, {1}) [{index}]")
+    public void testTranslate(String regexp, int flags, String expectedResult) {
+        String result = EcmaPatternTranslator.translate(regexp, flags);
+        Assert.assertEquals(expectedResult, result);
+    }
+
+    Object parametersForTestUntranslatable() {
+        return new Object[][]{
+            {"[a-z&&[^aeiou]]", 0},
+            {"[a-d[m-p]]", 0},
+            {"\\Ga", 0},
+            {"\\X", 0},
+            {"[^\\p{Lu}]", 0},
+            {"[^\\P{InGreek}]", 0},
+            {"^a$", Pattern.MULTILINE},
+            {"(?m)^a", 0},
+            {"\\w", Pattern.UNICODE_CHARACTER_CLASS},
+            {"(?U)\\w", 0},
+            {"a", Pattern.CANON_EQ},
+            {"(unclosed", 0}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}, {1}) [{index}]")
+    public void testUntranslatable(String regexp, int flags) {
+        Assert.assertNull(EcmaPatternTranslator.translate(regexp, flags));
+    }
+
+    Object parametersForTestTranslateUnicodeProperty() {
+        return new Object[][]{
+            {"\\p{javaLowerCase}+", 0},
+            {"\\p{javaLowerCase}+", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE},
+            {"[\\p{Lu}0-9]+", 0},
+            {"\\P{IsLatin}+", 0},
+            {"[\\p{L}_]+", 0}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}, {1}) [{index}]")
+    public void testTranslateUnicodeProperty(String regexp, int flags) {
+        String result = EcmaPatternTranslator.translate(regexp, flags);
+        Assert.assertNotNull(result);
+        Assert.assertFalse(result, result.contains("\\p") || result.contains("\\P"));
+        // characters in the Basic Multilingual Plane are being matched by both dialects in the same way
+        for (String value : new String[]{"abc", "\u00E9\u00DF", "ABC", "\u00C9", "\u0394\u03B4", "_", "123", "\u4E2D"}) {
+            Assert.assertEquals(value, Pattern.compile(regexp, flags).matcher(value).matches(), Pattern.matches(result, value));
+        }
+    }
+
+    @Test
+    public void testTranslateUnicodePropertyWithSupplementaryCharacters() {
+        // MATHEMATICAL BOLD SMALL A to Z (U+1D41A to U+1D433) as a surrogate pair
+        Assert.assertTrue(EcmaPatternTranslator.translate("\\p{javaLowerCase}", 0).contains("|\\uD835[\\uDC1A-\\uDC33"));
+        Assert.assertTrue(EcmaPatternTranslator.translate("[\\p{javaLowerCase}_]", 0).startsWith("(?:["));
+        // a property without supplementary characters results in a plain character class
+        Assert.assertEquals("[\\u0370-\\u03FF_]", EcmaPatternTranslator.translate("[\\p{InGreek}_]", 0));
+    }
+
+    @Test
+    public void testTranslationIsCached() {
+        String first = EcmaPatternTranslator.translate("x\\p{Alnum}{3}", 0);
+        Assert.assertSame(first, EcmaPatternTranslator.translate("x\\p{Alnum}{3}", 0));
+        Assert.assertEquals("[xX][a-zA-Z0-9]{3}", EcmaPatternTranslator.translate("x\\p{Alnum}{3}", Pattern.CASE_INSENSITIVE));
+    }
+}
@@ -95,6 +95,8 @@ public class IntegrationTest {
         public List<String> notEmptyList;
         @Size(min = 3, max = 25)
         public List<String> sizeRangeList;
+        @Size(max = 10)
+        public List<@NotBlank @Size(max = 64) String> sizeLimitedItemsList;
 
         @NotNull
         @Email(regexp = ".+@.+\\..+")
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.victools.jsonschema.generator.MemberScope;
+import com.github.victools.jsonschema.generator.OptionPreset;
+import com.github.victools.jsonschema.generator.SchemaGenerator;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfig;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
+import com.github.victools.jsonschema.generator.SchemaVersion;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Test for the {@link JavaxValidationBatchGenerator}.
+ */
+public class JavaxValidationBatchGeneratorTest {
+
+    private JavaxValidationModule module;
+    private SchemaGeneratorConfig config;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        this.module = Mockito.spy(new JavaxValidationModule(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED));
+        this.config = new SchemaGeneratorConfigBuilder(new ObjectMapper(), SchemaVersion.DRAFT_2019_09, OptionPreset.PLAIN_JSON)
+                .with(this.module)
+                .build();
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testGenerateSchemas() {
+        List<Type> rootTypes = Arrays.asList(FirstRoot.class, SecondRoot.class, Shared.class, FirstRoot.class);
+        Map<Type, JsonNode> result = new JavaxValidationBatchGenerator(this.config, this.executor).generateSchemas(rootTypes);
+
+        Assert.assertEquals(Arrays.asList(FirstRoot.class, SecondRoot.class, Shared.class), Arrays.asList(result.keySet().toArray()));
+        SchemaGenerator sequentialGenerator = new SchemaGenerator(this.config);
+        for (Type rootType : result.keySet()) {
+            Assert.assertEquals(sequentialGenerator.generateSchema(rootType), result.get(rootType));
+        }
+    }
+
+    @Test
+    public void testGenerateSchemasWithCallback() {
+        Map<Type, JsonNode> result = new ConcurrentHashMap<>();
+        new JavaxValidationBatchGenerator(this.config).generateSchemas(Arrays.asList(FirstRoot.class, SecondRoot.class), result::put);
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(new SchemaGenerator(this.config).generateSchema(SecondRoot.class), result.get(SecondRoot.class));
+    }
+
+    @Test
+    public void testConstraintProfilesAreSharedAcrossRootTypes() {
+        new JavaxValidationBatchGenerator(this.config, this.executor)
+                .generateSchemas(Arrays.asList(FirstRoot.class, SecondRoot.class, Shared.class));
+
+        // once per field (on a type being referenced from all three root types)
+        Mockito.verify(this.module, Mockito.times(2))
+                .createConstraintProfile(ArgumentMatchers.argThat((MemberScope<?, ?> member) -> member.getDeclaringType().getErasedType() == Shared.class));
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testGenerateSchemasFailure() {
+        Mockito.doThrow(new IllegalStateException()).when(this.module).createConstraintProfile(ArgumentMatchers.any());
+
+        new JavaxValidationBatchGenerator(this.config, this.executor).generateSchemas(Arrays.asList(FirstRoot.class, SecondRoot.class));
+    }
+
+    private static class FirstRoot {
+
+        @NotNull
+        Shared shared;
+        @Size(max = 10)
+        String name;
+    }
+
+    private static class SecondRoot {
+
+        @NotNull
+        Shared shared;
+        @Max(5)
+        int count;
+    }
+
+    private static class Shared {
+
+        @NotNull
+        @Size(min = 1)
+        String text;
+        @Max(100)
+        Integer number;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import javax.validation.Validator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test for the {@link JavaxValidationModuleConfig}.
+ */
+public class JavaxValidationModuleConfigTest {
+
+    @Test
+    public void testDefaults() {
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder().build();
+
+        Assert.assertTrue(config.getOptions().isEmpty());
+        Assert.assertNull(config.getValidationGroups());
+        Assert.assertNull(config.getValidationGroupMatcher());
+        Assert.assertNull(config.getPatternRiskHandling());
+        Assert.assertEquals(JavaxValidationModuleConfig.DEFAULT_PATTERN_RISK_MAX_LENGTH, config.getPatternRiskMaxLength());
+        Assert.assertNull(config.getMetricsListener());
+        Assert.assertNull(config.getValidator());
+        Assert.assertNull(config.getValidatorConstraintIndex());
+        Assert.assertNull(config.getXmlConstraintMappings());
+    }
+
+    @Test
+    public void testBuilder() {
+        JavaxValidationMetricsListener listener = new JavaxValidationMetricsListener() {
+        };
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                .with(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS, null)
+                .with(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT)
+                .forValidationGroups(Test.class)
+                .withPatternRiskHandling(PatternRiskHandling.BOUND_LENGTH, 50)
+                .withMetricsListener(listener)
+                .build();
+
+        Assert.assertEquals(EnumSet.of(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS, JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT),
+                config.getOptions());
+        Assert.assertTrue(config.isEnabled(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT));
+        Assert.assertFalse(config.isEnabled(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED));
+        Assert.assertArrayEquals(new Class<?>[]{Test.class}, config.getValidationGroups());
+        Assert.assertTrue(config.getValidationGroupMatcher().isApplicable(new Class<?>[]{Test.class}));
+        Assert.assertFalse(config.getValidationGroupMatcher().isApplicable(new Class<?>[]{Object.class}));
+        Assert.assertSame(PatternRiskHandling.BOUND_LENGTH, config.getPatternRiskHandling());
+        Assert.assertEquals(50, config.getPatternRiskMaxLength());
+        Assert.assertSame(listener, config.getMetricsListener());
+    }
+
+    @Test
+    public void testImmutability() {
+        Class<?>[] validationGroups = {Test.class};
+        JavaxValidationModuleConfig.Builder builder = new JavaxValidationModuleConfig.Builder()
+                .with(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)
+                .forValidationGroups(validationGroups);
+        JavaxValidationModuleConfig config = builder.build();
+
+        validationGroups[0] = Object.class;
+        config.getValidationGroups()[0] = Object.class;
+        builder.with(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT);
+
+        Assert.assertArrayEquals(new Class<?>[]{Test.class}, config.getValidationGroups());
+        Assert.assertEquals(EnumSet.of(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS), config.getOptions());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testOptionsAreUnmodifiable() {
+        new JavaxValidationModuleConfig.Builder().build().getOptions().add(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT);
+    }
+
+    @Test
+    public void testToBuilder() {
+        Validator validator = Mockito.mock(Validator.class);
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                .with(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)
+                .forValidationGroups()
+                .withPatternRiskHandling(PatternRiskHandling.OMIT)
+                .withValidator(validator)
+                .build();
+        JavaxValidationModuleConfig derivedConfig = config.toBuilder()
+                .with(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT)
+                .build();
+
+        Assert.assertEquals(EnumSet.of(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS), config.getOptions());
+        Assert.assertEquals(EnumSet.of(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS, JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT),
+                derivedConfig.getOptions());
+        Assert.assertArrayEquals(new Class<?>[0], derivedConfig.getValidationGroups());
+        Assert.assertSame(PatternRiskHandling.OMIT, derivedConfig.getPatternRiskHandling());
+        Assert.assertSame(validator, derivedConfig.getValidator());
+        // the already converted metadata of the same validator is being retained
+        Assert.assertSame(config.getValidatorConstraintIndex(), derivedConfig.getValidatorConstraintIndex());
+        Validator otherValidator = Mockito.mock(Validator.class);
+        JavaxValidationModuleConfig otherValidatorConfig = config.toBuilder().withValidator(otherValidator).build();
+        Assert.assertSame(otherValidator, otherValidatorConfig.getValidatorConstraintIndex().getValidator());
+        Assert.assertNull(config.toBuilder().withValidator(null).build().getValidatorConstraintIndex());
+    }
+
+    @Test
+    public void testValidatorDisablesPersistentProfileCache() throws Exception {
+        Path cacheFile = Files.createTempFile("profiles", ".bin");
+        try {
+            PersistentProfileCache cache = PersistentProfileCache.open(cacheFile);
+            JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                    .withPersistentProfileCache(cache)
+                    .build();
+            Assert.assertNotNull(config.getPersistentProfileCacheFingerprint());
+
+            JavaxValidationModuleConfig validatorConfig = config.toBuilder()
+                    .withValidator(Mockito.mock(Validator.class))
+                    .build();
+            Assert.assertSame(cache, validatorConfig.getPersistentProfileCache());
+            Assert.assertNull(validatorConfig.getPersistentProfileCacheFingerprint());
+        } finally {
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testXmlConstraintMappingsChangePersistentProfileCacheFingerprint() throws Exception {
+        Path cacheFile = Files.createTempFile("profiles", ".bin");
+        try {
+            JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                    .withPersistentProfileCache(PersistentProfileCache.open(cacheFile))
+                    .build();
+            XmlConstraintMappings mappings = new XmlConstraintMappings.Builder()
+                    .addMappingFile(new ByteArrayInputStream("<constraint-mappings/>".getBytes(StandardCharsets.UTF_8)))
+                    .build();
+            JavaxValidationModuleConfig xmlConfig = config.toBuilder()
+                    .withXmlConstraintMappings(mappings)
+                    .build();
+            Assert.assertSame(mappings, xmlConfig.getXmlConstraintMappings());
+            Assert.assertSame(mappings, xmlConfig.toBuilder().build().getXmlConstraintMappings());
+            Assert.assertNotNull(xmlConfig.getPersistentProfileCacheFingerprint());
+            Assert.assertNotEquals(config.getPersistentProfileCacheFingerprint(), xmlConfig.getPersistentProfileCacheFingerprint());
+        } finally {
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testModuleConfiguration() {
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder().build();
+        JavaxValidationModule module = new JavaxValidationModule(config);
+        Assert.assertSame(config, module.getConfig());
+
+        module.forValidationGroups(Test.class);
+        Assert.assertNotSame(config, module.getConfig());
+        Assert.assertNull(config.getValidationGroups());
+        Assert.assertArrayEquals(new Class<?>[]{Test.class}, module.getConfig().getValidationGroups());
+    }
+}
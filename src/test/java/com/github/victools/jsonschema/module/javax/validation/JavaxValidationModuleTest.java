@@ -18,13 +18,22 @@ package com.github.victools.jsonschema.module.javax.validation;
 
 import com.github.victools.jsonschema.generator.ConfigFunction;
 import com.github.victools.jsonschema.generator.FieldScope;
+import com.github.victools.jsonschema.generator.MemberScope;
 import com.github.victools.jsonschema.generator.MethodScope;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfigPart;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Email;
@@ -145,6 +154,7 @@ public class JavaxValidationModuleTest {
         Mockito.verify(this.fieldConfigPart).withNumberExclusiveMinimumResolver(Mockito.any());
         Mockito.verify(this.fieldConfigPart).withNumberInclusiveMaximumResolver(Mockito.any());
         Mockito.verify(this.fieldConfigPart).withNumberExclusiveMaximumResolver(Mockito.any());
+        Mockito.verify(this.fieldConfigPart).withInstanceAttributeOverride(Mockito.any());
 
         Mockito.verify(this.methodConfigPart).withNullableCheck(Mockito.any());
         Mockito.verify(this.methodConfigPart).withArrayMinItemsResolver(Mockito.any());
@@ -156,6 +166,7 @@ public class JavaxValidationModuleTest {
         Mockito.verify(this.methodConfigPart).withNumberExclusiveMinimumResolver(Mockito.any());
         Mockito.verify(this.methodConfigPart).withNumberInclusiveMaximumResolver(Mockito.any());
         Mockito.verify(this.methodConfigPart).withNumberExclusiveMaximumResolver(Mockito.any());
+        Mockito.verify(this.methodConfigPart).withInstanceAttributeOverride(Mockito.any());
     }
 
     Object parametersForTestNullableCheck() {
@@ -452,6 +463,71 @@ public class JavaxValidationModuleTest {
         Assert.assertEquals(expectedPattern, patternValue);
     }
 
+    Object parametersForTestStringPatternTranslation() {
+        JavaxValidationOption[] translateOptions = new JavaxValidationOption[]{
+            JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS, JavaxValidationOption.TRANSLATE_PATTERN_EXPRESSIONS
+        };
+        JavaxValidationOption[] translateOrOmitOptions = new JavaxValidationOption[]{
+            JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS, JavaxValidationOption.TRANSLATE_PATTERN_EXPRESSIONS,
+            JavaxValidationOption.OMIT_UNTRANSLATABLE_PATTERN_EXPRESSIONS
+        };
+        return new Object[][]{
+            {"unannotatedString", translateOptions, null},
+            {"possessiveCaseInsensitiveString", translateOptions, "^[aA]+[bB]$"},
+            {"possessiveCaseInsensitiveString", translateOrOmitOptions, "^[aA]+[bB]$"},
+            {"javaPropertyEmail", translateOptions, EcmaPatternTranslator.translate("\\p{javaLowerCase}+@[a-z]+\\.com", 0)},
+            {"javaPropertyEmail", translateOrOmitOptions, EcmaPatternTranslator.translate("\\p{javaLowerCase}+@[a-z]+\\.com", 0)},
+            {"untranslatableString", translateOptions, "[a-z&&[^aeiou]]+"},
+            {"untranslatableString", translateOrOmitOptions, null}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}, {1}) [{index}]")
+    public void testStringPatternTranslation(String fieldName, JavaxValidationOption[] options, String expectedPattern) throws Exception {
+        new JavaxValidationModule(options).applyToConfigBuilder(this.configBuilder);
+
+        TestType testType = new TestType(TestClassForPatternTranslation.class);
+        FieldScope field = testType.getMemberField(fieldName);
+
+        ArgumentCaptor<ConfigFunction<FieldScope, String>> patternCaptor = ArgumentCaptor.forClass(ConfigFunction.class);
+        Mockito.verify(this.fieldConfigPart).withStringPatternResolver(patternCaptor.capture());
+        String patternValue = patternCaptor.getValue().apply(field);
+        Assert.assertEquals(expectedPattern, patternValue);
+    }
+
+    Object parametersForTestStringPatternRiskHandling() {
+        return new Object[][]{
+            {"unannotatedString", PatternRiskHandling.OMIT, null},
+            {"safeString", PatternRiskHandling.OMIT, "^\\d+$"},
+            {"safeString", PatternRiskHandling.BOUND_LENGTH, "^\\d+$"},
+            {"riskyString", null, "^(a+)+$"},
+            {"riskyString", PatternRiskHandling.WARN, "^(a+)+$"},
+            {"riskyString", PatternRiskHandling.OMIT, null},
+            {"riskyString", PatternRiskHandling.BOUND_LENGTH, null},
+            {"riskyMaxSizeTenString", PatternRiskHandling.BOUND_LENGTH, "^(?=[\\s\\S]{0,10}$)(?:^(a|ab)*$)$"},
+            {"riskyMaxSizeHundredString", PatternRiskHandling.BOUND_LENGTH, null}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}, {1}) [{index}]")
+    public void testStringPatternRiskHandling(String fieldName, PatternRiskHandling handling, String expectedPattern) throws Exception {
+        new JavaxValidationModule(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)
+                .withPatternRiskHandling(handling)
+                .applyToConfigBuilder(this.configBuilder);
+
+        TestType testType = new TestType(TestClassForPatternRiskHandling.class);
+        FieldScope field = testType.getMemberField(fieldName);
+
+        ArgumentCaptor<ConfigFunction<FieldScope, String>> patternCaptor = ArgumentCaptor.forClass(ConfigFunction.class);
+        Mockito.verify(this.fieldConfigPart).withStringPatternResolver(patternCaptor.capture());
+        String patternValue = patternCaptor.getValue().apply(field);
+        Assert.assertEquals(expectedPattern, patternValue);
+    }
+
     Object parametersForTestNumberMinMaxResolvers() {
         return new Object[][]{
             {"unannotatedInt", null, null, null, null},
@@ -574,6 +650,176 @@ public class JavaxValidationModuleTest {
         Assert.assertEquals(expectedResult, result);
     }
 
+    @Test
+    public void testConstraintProfileIsCreatedOncePerMember() {
+        JavaxValidationModule module = Mockito.spy(new JavaxValidationModule());
+        TestType testType = new TestType(TestClassForStringProperties.class);
+        FieldScope field = testType.getMemberField("nonEmptyMaxSizeHundredString");
+
+        Assert.assertEquals(Boolean.FALSE, module.isNullable(field));
+        Assert.assertTrue(module.isRequired(field));
+        Assert.assertEquals(Integer.valueOf(1), module.resolveStringMinLength(field));
+        Assert.assertEquals(Integer.valueOf(100), module.resolveStringMaxLength(field));
+        Assert.assertEquals("email", module.resolveStringFormat(field));
+        Assert.assertNull(module.resolveStringPattern(field));
+        Assert.assertNull(module.resolveNumberInclusiveMinimum(field));
+
+        Mockito.verify(module).createConstraintProfile(field);
+        Assert.assertSame(module.getConstraintProfile(field), module.getConstraintProfile(field));
+    }
+
+    @Test
+    public void testConstraintProfileIsResetWhenChangingValidationGroups() {
+        JavaxValidationModule module = new JavaxValidationModule();
+        TestType testType = new TestType(TestClassForNullableCheck.class);
+        FieldScope field = testType.getMemberField("notNullNumber");
+
+        Assert.assertEquals(Boolean.FALSE, module.isNullable(field));
+        module.forValidationGroups(Object.class);
+        Assert.assertNull(module.isNullable(field));
+    }
+
+    @Test
+    public void testOverriddenAnnotationLookupIsBeingConsidered() {
+        JavaxValidationModule module = new JavaxValidationModule() {
+            @Override
+            protected <A extends Annotation> A getAnnotationFromFieldOrGetter(MemberScope<?, ?> member, Class<A> annotationClass,
+                    Function<A, Class<?>[]> validationGroupsLookup) {
+                // ignore all @Size annotations
+                return annotationClass == Size.class ? null : super.getAnnotationFromFieldOrGetter(member, annotationClass, validationGroupsLookup);
+            }
+        };
+        TestType testType = new TestType(TestClassForStringProperties.class);
+        FieldScope field = testType.getMemberField("sizeTenToTwentyString");
+
+        Assert.assertNull(module.resolveStringMinLength(field));
+        Assert.assertNull(module.resolveStringMaxLength(field));
+        Assert.assertEquals(Integer.valueOf(1), module.resolveStringMinLength(testType.getMemberField("nonEmptyMaxSizeHundredString")));
+    }
+
+    @Test
+    public void testMetricsListenerCallbacks() {
+        List<String> callbacks = new ArrayList<>();
+        JavaxValidationMetricsListener recordingListener = new JavaxValidationMetricsListener() {
+            @Override
+            public void onAnnotationLookup(Class<? extends Annotation> annotationType, boolean found) {
+                callbacks.add("lookup:" + annotationType.getSimpleName() + ":" + found);
+            }
+
+            @Override
+            public void onValidationGroupMismatch(MemberScope<?, ?> member, Class<? extends Annotation> annotationType) {
+                callbacks.add("mismatch:" + member.getName() + ":" + annotationType.getSimpleName());
+            }
+
+            @Override
+            public void onResolverInvocation(Resolver resolver, long durationNanos) {
+                callbacks.add("resolver:" + resolver);
+            }
+
+            @Override
+            public void onCacheAccess(Cache cache, boolean hit) {
+                callbacks.add("cache:" + cache + ":" + hit);
+            }
+        };
+        JavaxValidationModule module = new JavaxValidationModule()
+                .forValidationGroups(Object.class)
+                .withMetricsListener(recordingListener);
+        module.applyToConfigBuilder(this.configBuilder);
+        ArgumentCaptor<ConfigFunction<FieldScope, Integer>> maxLengthCaptor = ArgumentCaptor.forClass(ConfigFunction.class);
+        Mockito.verify(this.fieldConfigPart).withStringMaxLengthResolver(maxLengthCaptor.capture());
+        TestType testType = new TestType(TestClassForMetrics.class);
+        FieldScope textField = testType.getMemberField("text");
+
+        Assert.assertEquals(Integer.valueOf(10), maxLengthCaptor.getValue().apply(textField));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("cache:CONSTRAINT_PROFILES:false"));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("cache:CLASS_INDEXES:false"));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("lookup:Size:true"));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("lookup:NotNull:false"));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("mismatch:text:NotNull"));
+        Assert.assertEquals("resolver:STRING_MAX_LENGTH", callbacks.get(callbacks.size() - 1));
+
+        callbacks.clear();
+        Assert.assertEquals(Integer.valueOf(10), maxLengthCaptor.getValue().apply(textField));
+        Assert.assertEquals(Arrays.asList("cache:CONSTRAINT_PROFILES:true", "resolver:STRING_MAX_LENGTH"), callbacks);
+
+        callbacks.clear();
+        Assert.assertEquals(new BigDecimal("12.75"), module.getConstraintProfile(testType.getMemberField("amount")).getInclusiveMinimum());
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("cache:CLASS_INDEXES:true"));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("cache:NUMERIC_BOUNDS:false"));
+        Assert.assertTrue(callbacks.toString(), callbacks.contains("lookup:DecimalMin:true"));
+    }
+
+    @Test
+    public void testConstraintProfilesDoNotPreventClassUnloading() throws Exception {
+        JavaxValidationModule module = new JavaxValidationModule();
+        WeakReference<ClassLoader> loaderReference = this.resolveProfileInSeparateClassLoader(module);
+        for (int attempt = 0; attempt < 20 && loaderReference.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertNull(loaderReference.get());
+    }
+
+    private WeakReference<ClassLoader> resolveProfileInSeparateClassLoader(JavaxValidationModule module) throws Exception {
+        ClassLoader loader = new IsolatingClassLoader(TestClassForUnloading.class.getName());
+        Class<?> isolatedClass = loader.loadClass(TestClassForUnloading.class.getName());
+        Assert.assertNotSame(TestClassForUnloading.class, isolatedClass);
+        FieldScope field = new TestType(isolatedClass).getMemberField("text");
+        Assert.assertEquals(Integer.valueOf(5), module.resolveStringMaxLength(field));
+        return new WeakReference<>(loader);
+    }
+
+    /**
+     * Class loader defining its own copy of a single class, while delegating all others to the test's class loader.
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        private final String isolatedClassName;
+
+        IsolatingClassLoader(String isolatedClassName) {
+            super(JavaxValidationModuleTest.class.getClassLoader());
+            this.isolatedClassName = isolatedClassName;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!this.isolatedClassName.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (this.getClassLoadingLock(name)) {
+                Class<?> loadedClass = this.findLoadedClass(name);
+                if (loadedClass != null) {
+                    return loadedClass;
+                }
+                try (InputStream input = this.getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int length = input.read(buffer); length != -1; length = input.read(buffer)) {
+                        bytes.write(buffer, 0, length);
+                    }
+                    return this.defineClass(name, bytes.toByteArray(), 0, bytes.size());
+                } catch (IOException ex) {
+                    throw new ClassNotFoundException(name, ex);
+                }
+            }
+        }
+    }
+
+    private static class TestClassForMetrics {
+
+        @Size(max = 10)
+        @NotNull(groups = Test.class)
+        String text;
+        @DecimalMin("12.75")
+        BigDecimal amount;
+    }
+
+    static class TestClassForUnloading {
+
+        @Size(max = 5)
+        String text;
+    }
+
     private static class TestClassForNullableCheck {
 
         Integer unannotatedField;
@@ -743,6 +989,32 @@ public class JavaxValidationModuleTest {
         }
     }
 
+    private static class TestClassForPatternTranslation {
+
+        String unannotatedString;
+        @Pattern(regexp = "^a++b$", flags = Pattern.Flag.CASE_INSENSITIVE)
+        String possessiveCaseInsensitiveString;
+        @Email(regexp = "\\p{javaLowerCase}+@[a-z]+\\.com")
+        String javaPropertyEmail;
+        @Pattern(regexp = "[a-z&&[^aeiou]]+")
+        String untranslatableString;
+    }
+
+    private static class TestClassForPatternRiskHandling {
+
+        String unannotatedString;
+        @Pattern(regexp = "^\\d+$")
+        String safeString;
+        @Pattern(regexp = "^(a+)+$")
+        String riskyString;
+        @Size(max = 10)
+        @Pattern(regexp = "^(a|ab)*$")
+        String riskyMaxSizeTenString;
+        @Size(max = 100)
+        @Pattern(regexp = "^(a|ab)*$")
+        String riskyMaxSizeHundredString;
+    }
+
     private static class TestClassForNumberMinMax {
 
         int unannotatedInt;
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.math.BigDecimal;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link NumericBounds}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class NumericBoundsTest {
+
+    Object parametersForTestValueOf() {
+        return new Object[][]{
+            {0L},
+            {-128L},
+            {-129L},
+            {1024L},
+            {1025L},
+            {Long.MIN_VALUE},
+            {Long.MAX_VALUE}
+        };
+    }
+
+    @Test
+    @Parameters
+    public void testValueOf(long value) {
+        BigDecimal result = NumericBounds.valueOf(value);
+        Assert.assertEquals(new BigDecimal(value), result);
+    }
+
+    @Test
+    public void testValueOfSharesSmallValues() {
+        Assert.assertSame(BigDecimal.ZERO, NumericBounds.valueOf(0L));
+        Assert.assertSame(NumericBounds.valueOf(-100L), NumericBounds.valueOf(-100L));
+        Assert.assertSame(NumericBounds.valueOf(1000L), NumericBounds.valueOf(1000L));
+    }
+
+    Object parametersForTestParse() {
+        return new Object[][]{
+            {"0"},
+            {"10"},
+            {"+5"},
+            {"-100"},
+            {"010"},
+            {"10.1"},
+            {"-0.5"},
+            {"1E3"},
+            {"123456789012345678"},
+            {"1234567890123456789"},
+            {"-98765432109876543210.0123"}
+        };
+    }
+
+    @Test
+    @Parameters
+    public void testParse(String value) {
+        BigDecimal result = NumericBounds.parse(value);
+        Assert.assertEquals(new BigDecimal(value), result);
+        Assert.assertSame(result, NumericBounds.parse(value));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseInvalidValue() {
+        NumericBounds.parse("ten");
+    }
+
+    @Test
+    public void testIsCached() {
+        Assert.assertFalse(NumericBounds.isCached("12.3456789"));
+        NumericBounds.parse("12.3456789");
+        Assert.assertTrue(NumericBounds.isCached("12.3456789"));
+    }
+}
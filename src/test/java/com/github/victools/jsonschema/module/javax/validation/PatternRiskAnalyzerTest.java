@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.util.regex.Pattern;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link PatternRiskAnalyzer}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class PatternRiskAnalyzerTest {
+
+    Object parametersForTestIsRisky() {
+        return new Object[][]{
+            {"^\\d+$", false},
+            {"^\\d+\\.\\d+$", false},
+            {"^[a-z]+@[a-z]+\\.com$", false},
+            {"^(ab|cd)*$", false},
+            {"^(?:[a-z]+-)?[0-9]{2,4}$", false},
+            {"^(a+)?$", false},
+            {"^([^,]+,)*$", true},
+            {"^(a+)+$", true},
+            {"^(?:a*b?)*$", true},
+            {"^(\\w+\\s?)*$", true},
+            {"^(a|ab)*$", true},
+            {"^(a|a)+$", true},
+            {"^(.|\\d)+$", true},
+            {"^(a|)+$", true},
+            {"^\\d+\\d*$", true},
+            {"^.*x?.*$", true},
+            {"^(a+){2,5}$", true},
+            {"^(?<name>a*)+$", true},
+            {"^[(]+[)]+$", false},
+            {"^\\(+\\)+$", false}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}) [{index}]")
+    public void testIsRisky(String regexp, boolean expectedResult) {
+        Assert.assertEquals(expectedResult, PatternRiskAnalyzer.isRisky(regexp));
+    }
+
+    @Test
+    public void testToLengthBoundedForm() {
+        String boundedForm = PatternRiskAnalyzer.toLengthBoundedForm("(a+)+b", 5);
+        Assert.assertEquals("^(?=[\\s\\S]{0,5}$)(?:(a+)+b)$", boundedForm);
+        Pattern pattern = Pattern.compile(boundedForm);
+        Assert.assertTrue(pattern.matcher("aaab").find());
+        Assert.assertFalse(pattern.matcher("xaab").find());
+        Assert.assertFalse(pattern.matcher("aaba").find());
+        Assert.assertFalse(pattern.matcher("aaaaab").find());
+    }
+
+    @Test
+    public void testIsFirstReport() {
+        String regexp = "^(x+)+y$";
+        Assert.assertTrue(PatternRiskAnalyzer.isFirstReport(regexp));
+        Assert.assertFalse(PatternRiskAnalyzer.isFirstReport(regexp));
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.github.victools.jsonschema.generator.FieldScope;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Test for the {@link PersistentProfileCache}.
+ */
+public class PersistentProfileCacheTest {
+
+    private Path cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        this.cacheFile = Files.createTempDirectory("profile-cache").resolve("profiles.bin");
+    }
+
+    @Test
+    public void testProfileRoundTrip() throws IOException {
+        ConstraintProfile profile = new ConstraintProfile.Builder()
+                .withNotBlank()
+                .withSize(2, 20)
+                .withEmail("^.+@example\\.com$", java.util.regex.Pattern.CASE_INSENSITIVE)
+                .withInclusiveMinimum(BigDecimal.ONE)
+                .withExclusiveMaximum(new BigDecimal("10.5"))
+                .build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        profile.writeTo(new DataOutputStream(bytes));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        ConstraintProfile result = ConstraintProfile.readFrom(buffer);
+
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(Boolean.FALSE, result.getNullable());
+        Assert.assertEquals(Integer.valueOf(2), result.getMinLength());
+        Assert.assertEquals(Integer.valueOf(20), result.getMaxLength());
+        Assert.assertTrue(result.isEmail());
+        Assert.assertEquals("^.+@example\\.com$", result.getPattern());
+        Assert.assertEquals(java.util.regex.Pattern.CASE_INSENSITIVE, result.getPatternFlags());
+        Assert.assertEquals(BigDecimal.ONE, result.getInclusiveMinimum());
+        Assert.assertNull(result.getExclusiveMinimum());
+        Assert.assertNull(result.getInclusiveMaximum());
+        Assert.assertEquals(new BigDecimal("10.5"), result.getExclusiveMaximum());
+    }
+
+    @Test
+    public void testProfileRoundTripWithFormatAndAttributes() throws IOException {
+        ConstraintProfile profile = new ConstraintProfile.Builder()
+                .withFormat("iso-4217")
+                .withAttribute("enum", JsonNodeFactory.instance.arrayNode().add("EUR").add("USD"))
+                .withAttribute("multipleOf", JsonNodeFactory.instance.numberNode(5))
+                .build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        profile.writeTo(new DataOutputStream(bytes));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        ConstraintProfile result = ConstraintProfile.readFrom(buffer);
+
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals("iso-4217", result.getFormat());
+        Assert.assertEquals(profile.getAttributes(), result.getAttributes());
+    }
+
+    @Test
+    public void testOpenMissingFile() throws IOException {
+        Assert.assertEquals(0, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+    }
+
+    @Test
+    public void testOpenInvalidFile() throws IOException {
+        Files.write(this.cacheFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+        Assert.assertEquals(0, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+    }
+
+    @Test
+    public void testOpenTruncatedFile() throws IOException {
+        PersistentProfileCache initialCache = PersistentProfileCache.open(this.cacheFile);
+        JavaxValidationModule initialModule = new JavaxValidationModule().withPersistentProfileCache(initialCache);
+        initialModule.getConstraintProfile(new TestType(TestClass.class).getMemberField("text"));
+        initialModule.getConstraintProfile(new TestType(TestClass.class).getMemberField("number"));
+        initialCache.save();
+        byte[] content = Files.readAllBytes(this.cacheFile);
+        Assert.assertEquals(2, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+
+        // e.g. after the process being killed while writing the file
+        for (int length : new int[]{13, 16, 20, content.length / 2, content.length - 1}) {
+            Files.write(this.cacheFile, Arrays.copyOf(content, length));
+            Assert.assertEquals("length: " + length, 0, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+        }
+    }
+
+    @Test
+    public void testOpenCorruptFile() throws IOException {
+        ByteBuffer content = ByteBuffer.allocate(24)
+                .putInt(0x4A565043)
+                .putInt(3)
+                // negative number of entries
+                .putInt(-1);
+        Files.write(this.cacheFile, content.array());
+        Assert.assertEquals(0, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+
+        content.putInt(8, 1)
+                // key "a" with a profile length exceeding the file
+                .putShort(12, (short) 1)
+                .put(14, (byte) 'a')
+                .putInt(15, Integer.MAX_VALUE);
+        Files.write(this.cacheFile, content.array());
+        Assert.assertEquals(0, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+    }
+
+    @Test
+    public void testProfilesAreRestoredWithoutReflection() throws IOException {
+        PersistentProfileCache initialCache = PersistentProfileCache.open(this.cacheFile);
+        JavaxValidationModule initialModule = new JavaxValidationModule().withPersistentProfileCache(initialCache);
+        TestType testType = new TestType(TestClass.class);
+        for (String fieldName : new String[]{"text", "number", "unannotated"}) {
+            initialModule.getConstraintProfile(testType.getMemberField(fieldName));
+        }
+        initialCache.save();
+
+        // as if in a new JVM: the profiles are being loaded from the file instead of being collected again
+        PersistentProfileCache restoredCache = PersistentProfileCache.open(this.cacheFile);
+        Assert.assertEquals(3, restoredCache.getStoredProfileCount());
+        JavaxValidationModule restoredModule = Mockito.spy(new JavaxValidationModule().withPersistentProfileCache(restoredCache));
+        FieldScope textField = new TestType(TestClass.class).getMemberField("text");
+        ConstraintProfile textProfile = restoredModule.getConstraintProfile(textField);
+        ConstraintProfile numberProfile = restoredModule.getConstraintProfile(new TestType(TestClass.class).getMemberField("number"));
+
+        Mockito.verify(restoredModule, Mockito.never()).createConstraintProfile(ArgumentMatchers.any());
+        Assert.assertEquals(Boolean.FALSE, textProfile.getNullable());
+        Assert.assertEquals(Integer.valueOf(10), textProfile.getMaxLength());
+        Assert.assertEquals("[a-z]+", textProfile.getPattern());
+        Assert.assertEquals(BigDecimal.ZERO, numberProfile.getExclusiveMinimum());
+    }
+
+    @Test
+    public void testSaveDropsUnusedProfiles() throws IOException {
+        PersistentProfileCache initialCache = PersistentProfileCache.open(this.cacheFile);
+        JavaxValidationModule initialModule = new JavaxValidationModule().withPersistentProfileCache(initialCache);
+        initialModule.getConstraintProfile(new TestType(TestClass.class).getMemberField("text"));
+        initialModule.getConstraintProfile(new TestType(TestClass.class).getMemberField("number"));
+        initialCache.save();
+
+        PersistentProfileCache secondCache = PersistentProfileCache.open(this.cacheFile);
+        new JavaxValidationModule().withPersistentProfileCache(secondCache)
+                .getConstraintProfile(new TestType(TestClass.class).getMemberField("text"));
+        secondCache.save();
+
+        Assert.assertEquals(1, PersistentProfileCache.open(this.cacheFile).getStoredProfileCount());
+    }
+
+    @Test
+    public void testKeyDependsOnConfiguration() throws IOException {
+        PersistentProfileCache cache = PersistentProfileCache.open(this.cacheFile);
+        FieldScope field = new TestType(TestClass.class).getMemberField("text");
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder().withPersistentProfileCache(cache).build();
+        JavaxValidationModuleConfig configWithGroups = config.toBuilder().forValidationGroups(Test.class).build();
+        JavaxValidationModuleConfig configWithOptions = config.toBuilder().with(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS).build();
+
+        String key = cache.createKey(config.getPersistentProfileCacheFingerprint(), field);
+        Assert.assertEquals(key, cache.createKey(config.toBuilder().build().getPersistentProfileCacheFingerprint(), field));
+        Assert.assertNotEquals(key, cache.createKey(configWithGroups.getPersistentProfileCacheFingerprint(), field));
+        Assert.assertNotEquals(key, cache.createKey(configWithOptions.getPersistentProfileCacheFingerprint(), field));
+        Assert.assertNotEquals(key, cache.createKey(config.getPersistentProfileCacheFingerprint(),
+                new TestType(TestClass.class).getMemberField("number")));
+    }
+
+    @Test
+    public void testKeyCoversCustomConstraints() throws IOException {
+        PersistentProfileCache cache = PersistentProfileCache.open(this.cacheFile);
+        String fingerprint = new JavaxValidationModuleConfig.Builder().withPersistentProfileCache(cache).build()
+                .getPersistentProfileCacheFingerprint();
+        TestType testType = new TestType(TestClass.class);
+
+        // the composing constraints are declared on the custom constraint, i.e. not covered by the hash of the declaring type
+        Assert.assertTrue(cache.createKey(fingerprint, testType.getMemberField("customerId")).contains("|constraints"));
+        Assert.assertTrue(cache.createKey(fingerprint, testType.getMemberField("internalCustomerId")).contains("|constraints"));
+        Assert.assertFalse(cache.createKey(fingerprint, testType.getMemberField("text")).contains("|constraints"));
+    }
+
+    @Test
+    public void testConstraintHash() {
+        String customerIdHash = PersistentProfileCache.getConstraintHash(CustomerId.class);
+        Assert.assertNotNull(customerIdHash);
+        Assert.assertEquals(customerIdHash, PersistentProfileCache.getConstraintHash(CustomerId.class));
+        Assert.assertNotEquals(PersistentProfileCache.getTypeHash(CustomerId.class), customerIdHash);
+        Assert.assertNotEquals(customerIdHash, PersistentProfileCache.getConstraintHash(InternalCustomerId.class));
+    }
+
+    @Test
+    public void testTypeHash() {
+        Assert.assertNotNull(PersistentProfileCache.getTypeHash(TestClass.class));
+        Assert.assertEquals(PersistentProfileCache.getTypeHash(TestClass.class), PersistentProfileCache.getTypeHash(TestClass.class));
+        Assert.assertNotEquals(PersistentProfileCache.getTypeHash(TestClass.class), PersistentProfileCache.getTypeHash(Object.class));
+        // generated class without bytecode being available as resource
+        Class<?> generatedType = Proxy.getProxyClass(this.getClass().getClassLoader(), Runnable.class);
+        Assert.assertNull(PersistentProfileCache.getTypeHash(generatedType));
+    }
+
+    private static class TestClass {
+
+        @NotNull
+        @Size(max = 10)
+        @Pattern(regexp = "[a-z]+")
+        String text;
+        @Positive
+        @Email
+        Integer number;
+        Object unannotated;
+        @CustomerId
+        String customerId;
+        @InternalCustomerId
+        String internalCustomerId;
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Size(max = 10)
+    @interface CustomerId {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    @Constraint(validatedBy = {})
+    @Retention(RetentionPolicy.RUNTIME)
+    @CustomerId
+    @Pattern(regexp = "^I.*$")
+    @interface InternalCustomerId {
+
+        String message() default "";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Collections;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the {@link ProgrammaticConstraints}.
+ */
+public class ProgrammaticConstraintsTest {
+
+    @Test
+    public void testRegistrationViaConfigBuilder() throws Exception {
+        JavaxValidationModuleConfig.Builder builder = new JavaxValidationModuleConfig.Builder();
+        builder.withConstraints(VendorType.class)
+                .member("iban").notNull().size(15, 34).pattern("^[A-Z]{2}[0-9]{2}[A-Z0-9]+$", Pattern.Flag.CASE_INSENSITIVE)
+                .member("getAmount").positive().decimalMax("1000.00", false);
+        ProgrammaticConstraints constraints = builder.build().getProgrammaticConstraints();
+        Assert.assertEquals(1, constraints.getRegisteredTypeCount());
+
+        Field ibanField = VendorType.class.getDeclaredField("iban");
+        Assert.assertNotNull(constraints.getDeclaredConstraints(ibanField).get(NotNull.class));
+        Size size = (Size) constraints.getDeclaredConstraints(ibanField).get(Size.class).getAnnotation();
+        Assert.assertEquals(15, size.min());
+        Assert.assertEquals(34, size.max());
+        Pattern pattern = (Pattern) constraints.getDeclaredConstraints(ibanField).get(Pattern.class).getAnnotation();
+        Assert.assertEquals("^[A-Z]{2}[0-9]{2}[A-Z0-9]+$", pattern.regexp());
+        Assert.assertArrayEquals(new Pattern.Flag[]{Pattern.Flag.CASE_INSENSITIVE}, pattern.flags());
+        Assert.assertArrayEquals(new long[0], constraints.getDeclaredConstraints(ibanField).get(Size.class).getGroupMask());
+
+        // the property name applies to the getter as well
+        Method ibanGetter = VendorType.class.getDeclaredMethod("getIban");
+        Assert.assertNotNull(constraints.getDeclaredConstraints(ibanGetter).get(Size.class));
+
+        // the method name only applies to the method itself
+        Method amountGetter = VendorType.class.getDeclaredMethod("getAmount");
+        Assert.assertNotNull(constraints.getDeclaredConstraints(amountGetter).get(Positive.class));
+        DecimalMax decimalMax = (DecimalMax) constraints.getDeclaredConstraints(amountGetter).get(DecimalMax.class).getAnnotation();
+        Assert.assertEquals("1000.00", decimalMax.value());
+        Assert.assertFalse(decimalMax.inclusive());
+        Assert.assertTrue(constraints.getDeclaredConstraints(VendorType.class.getDeclaredField("amount")).isEmpty());
+    }
+
+    @Test
+    public void testLaterRegistrationReplacesConstraintOfSameType() throws Exception {
+        Field ibanField = VendorType.class.getDeclaredField("iban");
+        ProgrammaticConstraints constraints = ProgrammaticConstraints.NONE.toBuilder()
+                .with(VendorType.class, "iban", SyntheticAnnotation.create(NotNull.class, Collections.emptyMap()))
+                .build();
+        ProgrammaticConstraints extendedConstraints = constraints.toBuilder()
+                .with(VendorType.class, "iban", SyntheticAnnotation.create(Size.class, Collections.singletonMap("max", 10)))
+                .with(VendorType.class, "iban", SyntheticAnnotation.create(Size.class, Collections.singletonMap("max", 34)))
+                .build();
+
+        Assert.assertNotNull(extendedConstraints.getDeclaredConstraints(ibanField).get(NotNull.class));
+        Assert.assertEquals(34, ((Size) extendedConstraints.getDeclaredConstraints(ibanField).get(Size.class).getAnnotation()).max());
+        // the previous instances are not affected by further registrations
+        Assert.assertNull(constraints.getDeclaredConstraints(ibanField).get(Size.class));
+        Assert.assertTrue(ProgrammaticConstraints.NONE.getDeclaredConstraints(ibanField).isEmpty());
+    }
+
+    @Test
+    public void testRegistrationViaModule() throws Exception {
+        JavaxValidationModule module = new JavaxValidationModule();
+        JavaxValidationModuleConfig initialConfig = module.getConfig();
+        Assert.assertNull(initialConfig.getProgrammaticConstraints());
+
+        module.withConstraints(VendorType.class).member("iban").notBlank();
+        Assert.assertNotSame(initialConfig, module.getConfig());
+        Assert.assertNull(initialConfig.getProgrammaticConstraints());
+        Assert.assertEquals("com.github.victools.jsonschema.module.javax.validation.ProgrammaticConstraintsTest$VendorType#iban"
+                + "@javax.validation.constraints.NotBlank(groups={}, message={javax.validation.constraints.NotBlank.message}, payload={})",
+                module.getConfig().getProgrammaticConstraints().describe());
+        // the registered constraints are retained when changing other settings
+        module.forValidationGroups(Test.class);
+        Assert.assertEquals(1, module.getConfig().getProgrammaticConstraints().getRegisteredTypeCount());
+    }
+
+    @Test
+    public void testConsecutiveRegistrationsViaModule() throws Exception {
+        JavaxValidationModule module = new JavaxValidationModule();
+        module.withConstraints(VendorType.class).member("iban").notNull();
+        ProgrammaticConstraints constraints = module.getConfig().getProgrammaticConstraints();
+        Assert.assertSame(module.getConfig(), module.getConfig());
+
+        JavaxValidationModuleConfig config = module.getConfig();
+        module.withConstraints(VendorType.class).member("amount").positive();
+        module.withConstraints(GermanVendorType.class).member("iban").size(22, 22);
+        module.withConstraints(OtherVendorType.class).member("iban").notBlank();
+        // all registrations are being applied at once, when the configuration is being accessed
+        JavaxValidationModuleConfig extendedConfig = module.getConfig();
+        Assert.assertNotSame(config, extendedConfig);
+        Assert.assertSame(extendedConfig, module.getConfig());
+        ProgrammaticConstraints extendedConstraints = extendedConfig.getProgrammaticConstraints();
+        Assert.assertEquals(3, extendedConstraints.getRegisteredTypeCount());
+        Assert.assertNotNull(extendedConstraints.getDeclaredConstraints(VendorType.class.getDeclaredMethod("getAmount")).get(Positive.class));
+        // the index of an unaffected member is being shared
+        Field ibanField = VendorType.class.getDeclaredField("iban");
+        Assert.assertSame(constraints.getDeclaredConstraints(ibanField), extendedConstraints.getDeclaredConstraints(ibanField));
+    }
+
+    @Test
+    public void testBuilderWithoutFurtherRegistrations() {
+        ProgrammaticConstraints.Builder builder = ProgrammaticConstraints.NONE.toBuilder();
+        Assert.assertSame(ProgrammaticConstraints.NONE, builder.build());
+
+        ProgrammaticConstraints constraints = builder
+                .with(VendorType.class, "iban", SyntheticAnnotation.create(NotNull.class, Collections.emptyMap()))
+                .build();
+        Assert.assertSame(constraints, builder.build());
+        Assert.assertSame(constraints, constraints.toBuilder().build());
+        // a configuration copy without further registrations keeps the same instance
+        JavaxValidationModuleConfig.Builder configBuilder = new JavaxValidationModuleConfig.Builder();
+        configBuilder.withConstraints(VendorType.class).member("iban").notNull();
+        JavaxValidationModuleConfig config = configBuilder.build();
+        Assert.assertSame(config.getProgrammaticConstraints(), config.toBuilder().build().getProgrammaticConstraints());
+    }
+
+    @Test
+    public void testEquality() throws Exception {
+        JavaxValidationModuleConfig.Builder builderA = new JavaxValidationModuleConfig.Builder();
+        builderA.withConstraints(VendorType.class).member("iban").notNull().size(15, 34);
+        JavaxValidationModuleConfig.Builder builderB = new JavaxValidationModuleConfig.Builder();
+        builderB.withConstraints(VendorType.class).member("iban").notNull().size(15, 34);
+        ProgrammaticConstraints constraintsA = builderA.build().getProgrammaticConstraints();
+        ProgrammaticConstraints constraintsB = builderB.build().getProgrammaticConstraints();
+        Assert.assertNotSame(constraintsA, constraintsB);
+        Assert.assertEquals(constraintsA, constraintsB);
+        Assert.assertEquals(constraintsA.hashCode(), constraintsB.hashCode());
+
+        builderB.withConstraints(VendorType.class).member("iban").size(15, 30);
+        Assert.assertNotEquals(constraintsA, builderB.build().getProgrammaticConstraints());
+        // synthetic constraints are equal to the same constraint being declared in the code
+        Size declaredSize = AnnotatedType.class.getDeclaredField("iban").getAnnotation(Size.class);
+        Annotation syntheticSize = constraintsA.getDeclaredConstraints(VendorType.class.getDeclaredField("iban")).get(Size.class).getAnnotation();
+        Assert.assertEquals(syntheticSize, declaredSize);
+        Assert.assertEquals(declaredSize, syntheticSize);
+        Assert.assertEquals(declaredSize.hashCode(), syntheticSize.hashCode());
+    }
+
+    @Test
+    public void testInheritedMember() throws Exception {
+        JavaxValidationModuleConfig.Builder builder = new JavaxValidationModuleConfig.Builder();
+        builder.withConstraints(VendorType.class).member("iban").size(15, 34);
+        builder.withConstraints(GermanVendorType.class).member("iban").notNull().size(22, 22);
+        ProgrammaticConstraints constraints = builder.build().getProgrammaticConstraints();
+
+        Field ibanField = VendorType.class.getDeclaredField("iban");
+        Method ibanGetter = VendorType.class.getDeclaredMethod("getIban");
+        // when being accessed through the subclass, its registrations apply (also to the inherited getter)
+        Size subclassSize = (Size) constraints.getDeclaredConstraints(GermanVendorType.class, ibanField).get(Size.class).getAnnotation();
+        Assert.assertEquals(22, subclassSize.min());
+        Assert.assertNotNull(constraints.getDeclaredConstraints(SpecialGermanVendorType.class, ibanGetter).get(NotNull.class));
+        // when being accessed through the declaring class, the subclass' registrations are not applicable
+        Size size = (Size) constraints.getDeclaredConstraints(VendorType.class, ibanField).get(Size.class).getAnnotation();
+        Assert.assertEquals(15, size.min());
+        Assert.assertNull(constraints.getDeclaredConstraints(ibanField).get(NotNull.class));
+        // without registration on the subclass, those on the declaring class apply
+        Field amountField = VendorType.class.getDeclaredField("amount");
+        Assert.assertTrue(constraints.getDeclaredConstraints(GermanVendorType.class, amountField).isEmpty());
+        Assert.assertNotNull(constraints.getDeclaredConstraints(OtherVendorType.class, ibanField).get(Size.class));
+    }
+
+    @Test
+    public void testUnregisteredType() throws Exception {
+        ProgrammaticConstraints constraints = ProgrammaticConstraints.NONE.toBuilder()
+                .with(VendorType.class, "iban", SyntheticAnnotation.create(NotNull.class, Collections.emptyMap()))
+                .build();
+        Method unregisteredMethod = ProgrammaticConstraintsTest.class.getDeclaredMethod("testUnregisteredType");
+        Assert.assertTrue(constraints.getDeclaredConstraints(unregisteredMethod).isEmpty());
+    }
+
+    private static class AnnotatedType {
+
+        @Size(min = 15, max = 34)
+        private String iban;
+    }
+
+    private static class VendorType {
+
+        private String iban;
+        private BigDecimal amount;
+
+        public String getIban() {
+            return this.iban;
+        }
+
+        public BigDecimal getAmount() {
+            return this.amount;
+        }
+    }
+
+    private static class GermanVendorType extends VendorType {
+    }
+
+    private static class SpecialGermanVendorType extends GermanVendorType {
+    }
+
+    private static class OtherVendorType extends VendorType {
+    }
+}
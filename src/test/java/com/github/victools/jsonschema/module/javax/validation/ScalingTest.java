@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.victools.jsonschema.generator.OptionPreset;
+import com.github.victools.jsonschema.generator.SchemaGenerator;
+import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
+import com.github.victools.jsonschema.generator.SchemaVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Scaling test of this module being used in a real SchemaGenerator instance on large synthetic models.
+ * <br>
+ * The actual scaling test is only being executed if the system property {@value #CLASS_COUNTS_PROPERTY} is set (e.g. via the "scaling-tests"
+ * profile). It records the generated schemas per second and the retained heap per class for each of the listed model sizes, and fails if either
+ * grows by more than the factor in the system property {@value #MAX_GROWTH_FACTOR_PROPERTY} between the smallest and the largest model (listing
+ * all measurements in the failure message).
+ */
+public class ScalingTest {
+
+    private static final String CLASS_COUNTS_PROPERTY = "scalingTest.classCounts";
+    private static final String MAX_GROWTH_FACTOR_PROPERTY = "scalingTest.maxGrowthFactor";
+    /**
+     * Minimum retained heap per class to compare against, in order to ignore measurement noise on tiny values.
+     */
+    private static final long RETAINED_BYTES_PER_CLASS_FLOOR = 1024L;
+
+    @Test
+    public void testSyntheticModelSchema() {
+        SyntheticModelGenerator.SyntheticModel model = new SyntheticModelGenerator()
+                .withClassCount(12)
+                .withNestingDepth(4)
+                .withConstraintDensity(1.0)
+                .withValidationGroupMix(0.0)
+                .generate();
+        Assert.assertEquals(12, model.getAllClasses().size());
+        Assert.assertEquals(3, model.getRootClasses().size());
+
+        JsonNode result = this.createSchemaGenerator().generateSchema(model.getRootClasses().get(0));
+        String rawJsonSchema = result.toString();
+        Assert.assertTrue(rawJsonSchema, rawJsonSchema.contains("\"nested\""));
+        Assert.assertTrue(rawJsonSchema, Stream.of("minLength", "minimum", "minItems", "required")
+                .anyMatch(keyword -> rawJsonSchema.contains('"' + keyword + '"')));
+    }
+
+    @Test
+    public void testScaling() {
+        String classCounts = System.getProperty(CLASS_COUNTS_PROPERTY);
+        Assume.assumeTrue("scaling test is disabled", classCounts != null && !classCounts.trim().isEmpty());
+        double maxGrowthFactor = Double.parseDouble(System.getProperty(MAX_GROWTH_FACTOR_PROPERTY, "2.0"));
+
+        // warm-up, to avoid the first measurement being dominated by class loading and JIT compilation
+        this.measure(1000);
+        List<Measurement> measurements = Stream.of(classCounts.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .sorted()
+                .map(this::measure)
+                .collect(Collectors.toCollection(ArrayList::new));
+        // all measurements are being included in the failure messages, to reveal where the growth started
+        String measurementSummary = measurements.stream()
+                .map(Measurement::toString)
+                .collect(Collectors.joining("; ", " (measurements: ", ")"));
+
+        Measurement smallest = measurements.get(0);
+        Measurement largest = measurements.get(measurements.size() - 1);
+        double timeGrowth = largest.getNanosPerSchema() / smallest.getNanosPerSchema();
+        Assert.assertTrue("generation time per schema grew by factor " + timeGrowth + " from " + smallest + " to " + largest
+                + measurementSummary, timeGrowth <= maxGrowthFactor);
+        double heapGrowth = (double) Math.max(largest.getRetainedBytesPerClass(), RETAINED_BYTES_PER_CLASS_FLOOR)
+                / Math.max(smallest.getRetainedBytesPerClass(), RETAINED_BYTES_PER_CLASS_FLOOR);
+        Assert.assertTrue("retained heap per class grew by factor " + heapGrowth + " from " + smallest + " to " + largest
+                + measurementSummary, heapGrowth <= maxGrowthFactor);
+    }
+
+    private SchemaGenerator createSchemaGenerator() {
+        JavaxValidationModule module = new JavaxValidationModule(JavaxValidationOption.NOT_NULLABLE_FIELD_IS_REQUIRED,
+                JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)
+                .forValidationGroups(SyntheticModelGenerator.GroupA.class);
+        return new SchemaGenerator(new SchemaGeneratorConfigBuilder(new ObjectMapper(), SchemaVersion.DRAFT_2019_09, OptionPreset.PLAIN_JSON)
+                .with(module)
+                .build());
+    }
+
+    private Measurement measure(int classCount) {
+        SyntheticModelGenerator.SyntheticModel model = new SyntheticModelGenerator()
+                .withClassCount(classCount)
+                .generate();
+        long usedHeapBefore = ScalingTest.getUsedHeapAfterGc();
+        SchemaGenerator generator = this.createSchemaGenerator();
+        long startTime = System.nanoTime();
+        for (Class<?> rootClass : model.getRootClasses()) {
+            generator.generateSchema(rootClass);
+        }
+        long duration = System.nanoTime() - startTime;
+        long retainedBytes = ScalingTest.getUsedHeapAfterGc() - usedHeapBefore;
+        // keep the generator and model reachable until after the heap measurement
+        Assert.assertNotNull(generator);
+        Assert.assertEquals(classCount, model.getAllClasses().size());
+        return new Measurement(classCount, model.getRootClasses().size(), duration, retainedBytes);
+    }
+
+    private static long getUsedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int iteration = 0; iteration < 3; iteration++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class Measurement {
+
+        private final int classCount;
+        private final int schemaCount;
+        private final long durationNanos;
+        private final long retainedBytes;
+
+        Measurement(int classCount, int schemaCount, long durationNanos, long retainedBytes) {
+            this.classCount = classCount;
+            this.schemaCount = schemaCount;
+            this.durationNanos = durationNanos;
+            this.retainedBytes = retainedBytes;
+        }
+
+        double getNanosPerSchema() {
+            return (double) this.durationNanos / this.schemaCount;
+        }
+
+        long getRetainedBytesPerClass() {
+            return this.retainedBytes / this.classCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d classes: %.1f schemas/s, %d bytes retained per class", this.classCount,
+                    this.schemaCount * 1_000_000_000d / this.durationNanos, this.getRetainedBytesPerClass());
+        }
+    }
+}
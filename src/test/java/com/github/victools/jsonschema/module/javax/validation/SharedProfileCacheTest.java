@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.SharedProfileCache.ConfigurationKey;
+import com.github.victools.jsonschema.module.javax.validation.SharedProfileCache.EvictionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the {@link SharedProfileCache}.
+ */
+public class SharedProfileCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithoutPositiveSize() {
+        SharedProfileCache.create(0, EvictionPolicy.LRU);
+    }
+
+    @Test
+    public void testLruEviction() {
+        SharedProfileCache cache = SharedProfileCache.create(2, EvictionPolicy.LRU);
+        cache.put("a", ConstraintProfile.EMPTY);
+        cache.put("b", ConstraintProfile.EMPTY);
+        // "a" becomes the most recently used entry
+        Assert.assertSame(ConstraintProfile.EMPTY, cache.get("a"));
+        cache.put("c", ConstraintProfile.EMPTY);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("c"));
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testWindowTinyLfuRetainsFrequentEntriesDuringScan() {
+        SharedProfileCache cache = SharedProfileCache.create(100, EvictionPolicy.WINDOW_TINY_LFU);
+        for (int index = 0; index < 50; index++) {
+            String key = "frequent" + index;
+            for (int access = 0; access < 10; access++) {
+                if (cache.get(key) == null) {
+                    cache.put(key, ConstraintProfile.EMPTY);
+                }
+            }
+        }
+        // a scan over many entries being accessed only once
+        for (int index = 0; index < 1000; index++) {
+            String key = "scan" + index;
+            if (cache.get(key) == null) {
+                cache.put(key, ConstraintProfile.EMPTY);
+            }
+        }
+
+        Assert.assertEquals(100, cache.size());
+        for (int index = 0; index < 50; index++) {
+            Assert.assertNotNull("frequent" + index, cache.get("frequent" + index));
+        }
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testLruDiscardsFrequentEntriesDuringScan() {
+        SharedProfileCache cache = SharedProfileCache.create(100, EvictionPolicy.LRU);
+        cache.put("frequent", ConstraintProfile.EMPTY);
+        for (int access = 0; access < 5; access++) {
+            cache.get("frequent");
+        }
+        for (int index = 0; index < 1000; index++) {
+            cache.put("scan" + index, ConstraintProfile.EMPTY);
+        }
+        Assert.assertNull(cache.get("frequent"));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        SharedProfileCache cache = SharedProfileCache.create(50, EvictionPolicy.WINDOW_TINY_LFU);
+        int threadCount = 4;
+        int lookupsPerThread = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            int seed = threadIndex;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int lookup = 0; lookup < lookupsPerThread; lookup++) {
+                    // skewed distribution: lower keys are being looked-up more frequently
+                    String key = "key" + Math.min(random.nextInt(200), random.nextInt(200));
+                    if (cache.get(key) == null) {
+                        cache.put(key, ConstraintProfile.EMPTY);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(cache.size() <= 50);
+        Assert.assertEquals(threadCount * lookupsPerThread, cache.getHitCount() + cache.getMissCount());
+        Assert.assertTrue(cache.getHitCount() > 0);
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testLookupsWithoutAdditionsAreBeingApplied() {
+        SharedProfileCache cache = SharedProfileCache.create(2, EvictionPolicy.LRU);
+        cache.put("a", ConstraintProfile.EMPTY);
+        cache.put("b", ConstraintProfile.EMPTY);
+        // more look-ups than fit into the buffer of recorded accesses
+        for (int lookup = 0; lookup < 1000; lookup++) {
+            Assert.assertNotNull(cache.get("a"));
+        }
+        cache.put("c", ConstraintProfile.EMPTY);
+
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testClear() {
+        SharedProfileCache cache = SharedProfileCache.create(10, EvictionPolicy.WINDOW_TINY_LFU);
+        cache.put("a", ConstraintProfile.EMPTY);
+        Assert.assertNotNull(cache.get("a"));
+        cache.clear();
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testConfigurationKey() {
+        SharedProfileCache cache = SharedProfileCache.create(10, EvictionPolicy.LRU);
+        JavaxValidationModuleConfig config = new JavaxValidationModuleConfig.Builder()
+                .with(JavaxValidationOption.INCLUDE_PATTERN_EXPRESSIONS)
+                .withSharedProfileCache(cache)
+                .build();
+        ConfigurationKey key = config.getSharedProfileCacheKey();
+        Assert.assertEquals(key, new ConfigurationKey(config.toBuilder().build()));
+        Assert.assertEquals(key.hashCode(), new ConfigurationKey(config.toBuilder().build()).hashCode());
+        Assert.assertNotEquals(key, new ConfigurationKey(config.toBuilder().forValidationGroups(TestGroup.class).build()));
+        Assert.assertNotEquals(key, new ConfigurationKey(config.toBuilder().with(JavaxValidationOption.PREFER_IDN_EMAIL_FORMAT).build()));
+        Assert.assertNull(new JavaxValidationModuleConfig.Builder().build().getSharedProfileCacheKey());
+    }
+
+    @Test
+    public void testProfilesSharedBetweenModules() {
+        SharedProfileCache cache = SharedProfileCache.create(10, EvictionPolicy.WINDOW_TINY_LFU);
+        JavaxValidationModule moduleA = new JavaxValidationModule().withSharedProfileCache(cache);
+        JavaxValidationModule moduleB = new JavaxValidationModule().withSharedProfileCache(cache);
+        TestType testType = new TestType(TestClass.class);
+
+        ConstraintProfile profile = moduleA.getConstraintProfile(testType.getMemberField("text"));
+        Assert.assertEquals(Integer.valueOf(5), profile.getMaxLength());
+        Assert.assertSame(profile, moduleB.getConstraintProfile(testType.getMemberField("text")));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        // a module considering other validation groups must not share the same profiles
+        JavaxValidationModule moduleC = new JavaxValidationModule().forValidationGroups(TestGroup.class).withSharedProfileCache(cache);
+        Assert.assertNull(moduleC.getConstraintProfile(testType.getMemberField("text")).getMaxLength());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testProfilesSharedBetweenModulesWithEqualProgrammaticConstraints() {
+        SharedProfileCache cache = SharedProfileCache.create(10, EvictionPolicy.WINDOW_TINY_LFU);
+        JavaxValidationModule moduleA = new JavaxValidationModule().withSharedProfileCache(cache);
+        moduleA.withConstraints(TestClass.class).member("text").notNull().size(1, 3);
+        JavaxValidationModule moduleB = new JavaxValidationModule().withSharedProfileCache(cache);
+        moduleB.withConstraints(TestClass.class).member("text").notNull().size(1, 3);
+        Assert.assertNotSame(moduleA.getConfig().getProgrammaticConstraints(), moduleB.getConfig().getProgrammaticConstraints());
+        Assert.assertEquals(moduleA.getConfig().getSharedProfileCacheKey(), moduleB.getConfig().getSharedProfileCacheKey());
+        TestType testType = new TestType(TestClass.class);
+
+        ConstraintProfile profile = moduleA.getConstraintProfile(testType.getMemberField("text"));
+        Assert.assertEquals(Integer.valueOf(3), profile.getMaxLength());
+        Assert.assertSame(profile, moduleB.getConstraintProfile(testType.getMemberField("text")));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        // a module with different programmatic constraints must not share the same profiles
+        JavaxValidationModule moduleC = new JavaxValidationModule().withSharedProfileCache(cache);
+        moduleC.withConstraints(TestClass.class).member("text").notNull().size(1, 4);
+        Assert.assertEquals(Integer.valueOf(4), moduleC.getConstraintProfile(testType.getMemberField("text")).getMaxLength());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    private interface TestGroup {
+    }
+
+    private interface OtherGroup {
+    }
+
+    private static class TestClass {
+
+        @NotNull(groups = OtherGroup.class)
+        @Size(max = 5, groups = OtherGroup.class)
+        private String text;
+    }
+}
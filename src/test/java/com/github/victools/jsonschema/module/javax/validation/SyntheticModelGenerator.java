@@ -0,0 +1,232 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ByteArrayClassLoader;
+
+/**
+ * Helper class for generating synthetic domain models of configurable size in tests.
+ * <br>
+ * The classes are arranged in chains of the configured nesting depth, i.e. generating the schema for the first class of a chain (see
+ * {@link SyntheticModel#getRootClasses()}) covers all classes of that chain. The generated models are deterministic for a given configuration.
+ */
+public class SyntheticModelGenerator {
+
+    private static final String PACKAGE_NAME = "com.github.victools.jsonschema.module.javax.validation.synthetic";
+
+    /**
+     * Validation groups being referenced by constraints in the synthetic models.
+     */
+    public interface GroupA {
+    }
+
+    /**
+     * Validation groups being referenced by constraints in the synthetic models.
+     */
+    public interface GroupB {
+    }
+
+    private int classCount = 100;
+    private int membersPerClass = 10;
+    private double constraintDensity = 0.5;
+    private double validationGroupMix = 0.2;
+    private int nestingDepth = 5;
+    private long seed = 42L;
+
+    public SyntheticModelGenerator withClassCount(int classCount) {
+        this.classCount = classCount;
+        return this;
+    }
+
+    public SyntheticModelGenerator withMembersPerClass(int membersPerClass) {
+        this.membersPerClass = membersPerClass;
+        return this;
+    }
+
+    /**
+     * Set the share of members being annotated with constraints.
+     *
+     * @param constraintDensity value between 0 (no constraints at all) and 1 (all members having constraints)
+     * @return this generator instance (for chaining)
+     */
+    public SyntheticModelGenerator withConstraintDensity(double constraintDensity) {
+        this.constraintDensity = constraintDensity;
+        return this;
+    }
+
+    /**
+     * Set the share of constraints referring to a validation group ({@link GroupA} or {@link GroupB}).
+     *
+     * @param validationGroupMix value between 0 (no validation groups at all) and 1 (all constraints referring to a validation group)
+     * @return this generator instance (for chaining)
+     */
+    public SyntheticModelGenerator withValidationGroupMix(double validationGroupMix) {
+        this.validationGroupMix = validationGroupMix;
+        return this;
+    }
+
+    public SyntheticModelGenerator withNestingDepth(int nestingDepth) {
+        this.nestingDepth = nestingDepth;
+        return this;
+    }
+
+    public SyntheticModelGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generate and load the synthetic model classes.
+     *
+     * @return generated model
+     */
+    public SyntheticModel generate() {
+        Random random = new Random(this.seed);
+        ByteBuddy byteBuddy = new ByteBuddy(ClassFileVersion.JAVA_V8);
+        Map<String, byte[]> typeDefinitions = new HashMap<>();
+        List<String> classNames = new ArrayList<>(this.classCount);
+        List<String> rootClassNames = new ArrayList<>();
+        TypeDescription nestedType = null;
+        // generate each chain from its tail to its head, in order to reference the already generated types
+        for (int index = this.classCount - 1; index >= 0; index--) {
+            boolean isChainTail = index % this.nestingDepth == this.nestingDepth - 1 || index == this.classCount - 1;
+            DynamicType.Builder<?> builder = byteBuddy.subclass(Object.class)
+                    .name(PACKAGE_NAME + ".SyntheticClass" + index)
+                    .modifiers(Modifier.PUBLIC);
+            for (int memberIndex = 0; memberIndex < this.membersPerClass; memberIndex++) {
+                builder = this.defineField(builder, "member" + memberIndex, random);
+            }
+            if (!isChainTail) {
+                builder = builder.defineField("nested", nestedType, Modifier.PUBLIC);
+            }
+            DynamicType.Unloaded<?> unloaded = builder.make();
+            typeDefinitions.put(unloaded.getTypeDescription().getName(), unloaded.getBytes());
+            classNames.add(unloaded.getTypeDescription().getName());
+            if (index % this.nestingDepth == 0) {
+                rootClassNames.add(unloaded.getTypeDescription().getName());
+            }
+            nestedType = unloaded.getTypeDescription();
+        }
+        ClassLoader classLoader = new ByteArrayClassLoader(SyntheticModelGenerator.class.getClassLoader(), typeDefinitions);
+        return new SyntheticModel(SyntheticModelGenerator.loadClasses(classNames, classLoader),
+                SyntheticModelGenerator.loadClasses(rootClassNames, classLoader));
+    }
+
+    private static List<Class<?>> loadClasses(List<String> classNames, ClassLoader classLoader) {
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        try {
+            for (String className : classNames) {
+                classes.add(Class.forName(className, false, classLoader));
+            }
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return classes;
+    }
+
+    private DynamicType.Builder<?> defineField(DynamicType.Builder<?> builder, String fieldName, Random random) {
+        boolean withConstraints = random.nextDouble() < this.constraintDensity;
+        List<AnnotationDescription> annotations = new ArrayList<>();
+        TypeDefinition fieldType;
+        switch (random.nextInt(4)) {
+        case 0:
+            fieldType = TypeDescription.STRING;
+            if (withConstraints) {
+                annotations.add(this.annotation(Size.class, random).define("min", 1).define("max", 10 + random.nextInt(100)).build());
+                annotations.add(this.annotation(random.nextBoolean() ? Pattern.class : Email.class, random)
+                        .define("regexp", "^[a-z]{1," + (1 + random.nextInt(20)) + "}$").build());
+                annotations.add(this.annotation(NotBlank.class, random).build());
+            }
+            break;
+        case 1:
+            fieldType = new TypeDescription.ForLoadedType(BigDecimal.class);
+            if (withConstraints) {
+                annotations.add(this.annotation(DecimalMin.class, random).define("value", String.valueOf(random.nextInt(1000))).build());
+                annotations.add(this.annotation(DecimalMax.class, random).define("value", random.nextInt(100000) + ".99").build());
+                annotations.add(this.annotation(NotNull.class, random).build());
+            }
+            break;
+        case 2:
+            fieldType = new TypeDescription.ForLoadedType(Integer.class);
+            if (withConstraints) {
+                annotations.add(this.annotation(Min.class, random).define("value", (long) random.nextInt(10)).build());
+                annotations.add(this.annotation(Max.class, random).define("value", 10L + random.nextInt(1000)).build());
+            }
+            break;
+        default:
+            fieldType = TypeDescription.Generic.Builder.parameterizedType(List.class, String.class).build();
+            if (withConstraints) {
+                annotations.add(this.annotation(NotEmpty.class, random).build());
+                annotations.add(this.annotation(Size.class, random).define("max", 5 + random.nextInt(50)).build());
+            }
+        }
+        return builder.defineField(fieldName, fieldType, Modifier.PUBLIC).annotateField(annotations);
+    }
+
+    private AnnotationDescription.Builder annotation(Class<? extends java.lang.annotation.Annotation> annotationType, Random random) {
+        AnnotationDescription.Builder builder = AnnotationDescription.Builder.ofType(annotationType);
+        if (random.nextDouble() < this.validationGroupMix) {
+            builder = builder.defineTypeArray("groups", random.nextBoolean() ? GroupA.class : GroupB.class);
+        }
+        return builder;
+    }
+
+    /**
+     * Generated synthetic model.
+     */
+    public static class SyntheticModel {
+
+        private final List<Class<?>> allClasses;
+        private final List<Class<?>> rootClasses;
+
+        SyntheticModel(List<Class<?>> allClasses, List<Class<?>> rootClasses) {
+            this.allClasses = allClasses;
+            this.rootClasses = rootClasses;
+        }
+
+        public List<Class<?>> getAllClasses() {
+            return this.allClasses;
+        }
+
+        public List<Class<?>> getRootClasses() {
+            return this.rootClasses;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.generator.FieldScope;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link TypeKind}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class TypeKindTest {
+
+    Object parametersForTestOf() {
+        return new Object[][]{
+            {"text", TypeKind.STRING},
+            {"textBuilder", TypeKind.STRING},
+            {"textList", TypeKind.CONTAINER},
+            {"textSet", TypeKind.CONTAINER},
+            {"textArray", TypeKind.CONTAINER},
+            {"intArray", TypeKind.CONTAINER},
+            {"primitiveInt", TypeKind.NUMERIC},
+            {"primitiveDouble", TypeKind.NUMERIC},
+            {"wrappedLong", TypeKind.NUMERIC},
+            {"decimal", TypeKind.NUMERIC},
+            {"primitiveBoolean", TypeKind.OTHER},
+            {"primitiveChar", TypeKind.OTHER},
+            {"date", TypeKind.OTHER},
+            {"nested", TypeKind.OTHER},
+            {"iterable", TypeKind.OTHER},
+            {"object", TypeKind.MIXED},
+            {"serializable", TypeKind.MIXED},
+            {"comparable", TypeKind.MIXED},
+            {"typeVariable", TypeKind.MIXED},
+            {"numericText", TypeKind.MIXED}
+        };
+    }
+
+    @Test
+    @Parameters
+    public void testOf(String fieldName, TypeKind expectedKind) {
+        FieldScope field = new TestType(TestClass.class).getMemberField(fieldName);
+        Assert.assertSame(expectedKind, TypeKind.of(field.getType()));
+    }
+
+    @Test
+    @Parameters(method = "parametersForTestOf")
+    public void testCachedOf(String fieldName, TypeKind expectedKind) {
+        FieldScope field = new TestType(TestClass.class).getMemberField(fieldName);
+        TypeKind.Cache cache = new TypeKind.Cache();
+        Assert.assertSame(expectedKind, cache.of(field.getType()));
+        // subsequent look-ups are being answered from the cache
+        Assert.assertSame(expectedKind, cache.of(field.getType()));
+        Assert.assertSame(expectedKind, new TypeKind.Cache().of(field.getType()));
+    }
+
+    private abstract static class NumericText extends Number implements CharSequence {
+    }
+
+    private static class TestClass<T> {
+
+        String text;
+        StringBuilder textBuilder;
+        List<String> textList;
+        Set<String> textSet;
+        String[] textArray;
+        int[] intArray;
+        int primitiveInt;
+        double primitiveDouble;
+        Long wrappedLong;
+        BigDecimal decimal;
+        boolean primitiveBoolean;
+        char primitiveChar;
+        LocalDate date;
+        TestClass<String> nested;
+        Iterable<String> iterable;
+        Object object;
+        Serializable serializable;
+        Comparable<String> comparable;
+        T typeVariable;
+        NumericText numericText;
+    }
+}
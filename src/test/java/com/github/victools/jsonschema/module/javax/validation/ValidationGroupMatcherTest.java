@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import javax.validation.GroupSequence;
+import javax.validation.groups.Default;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for the {@link ValidationGroupMatcher}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class ValidationGroupMatcherTest {
+
+    Object parametersForTestIsApplicable() {
+        return new Object[][]{
+            {new Class<?>[0], new Class<?>[0], true},
+            {new Class<?>[0], new Class<?>[]{Test.class}, false},
+            {new Class<?>[]{Test.class}, new Class<?>[0], true},
+            {new Class<?>[]{Test.class}, new Class<?>[]{Test.class}, true},
+            {new Class<?>[]{Test.class}, new Class<?>[]{Object.class, Test.class}, true},
+            {new Class<?>[]{Test.class, Assert.class}, new Class<?>[]{Assert.class}, true},
+            {new Class<?>[]{Test.class}, new Class<?>[]{Object.class}, false},
+            {new Class<?>[]{Integer.class, Double.class}, new Class<?>[]{Object.class, String.class}, false},
+            {new Class<?>[0], new Class<?>[]{Default.class}, true},
+            {new Class<?>[]{Test.class}, new Class<?>[]{Default.class}, true},
+            {new Class<?>[]{ExtendedGroup.class}, new Class<?>[]{BaseGroup.class}, true},
+            {new Class<?>[]{ExtendedGroup.class}, new Class<?>[]{ExtendedGroup.class}, true},
+            {new Class<?>[]{BaseGroup.class}, new Class<?>[]{ExtendedGroup.class}, false},
+            {new Class<?>[]{SequenceGroup.class}, new Class<?>[]{BaseGroup.class}, true},
+            {new Class<?>[]{SequenceGroup.class}, new Class<?>[]{OtherGroup.class}, true},
+            {new Class<?>[]{SequenceGroup.class}, new Class<?>[]{Test.class}, false},
+            {new Class<?>[]{RecursiveSequenceGroup.class}, new Class<?>[]{OtherGroup.class}, true}
+        };
+    }
+
+    @Test
+    @Parameters
+    @TestCaseName("{method}({0}, {1}) [{index}]")
+    public void testIsApplicable(Class<?>[] configuredGroups, Class<?>[] annotationGroups, boolean expectedResult) {
+        ValidationGroupMatcher matcher = ValidationGroupMatcher.of(configuredGroups);
+
+        Assert.assertEquals(expectedResult, matcher.isApplicable(annotationGroups));
+        Assert.assertEquals(expectedResult, matcher.isApplicable(ValidationGroupMatcher.toGroupMask(annotationGroups)));
+    }
+
+    @Test
+    public void testToGroupMaskWithoutGroups() {
+        Assert.assertSame(ValidationGroupMatcher.NO_GROUPS, ValidationGroupMatcher.toGroupMask(null));
+        Assert.assertSame(ValidationGroupMatcher.NO_GROUPS, ValidationGroupMatcher.toGroupMask(new Class<?>[0]));
+    }
+
+    private interface BaseGroup {
+    }
+
+    private interface ExtendedGroup extends BaseGroup {
+    }
+
+    private interface OtherGroup {
+    }
+
+    @GroupSequence({ExtendedGroup.class, OtherGroup.class})
+    private interface SequenceGroup {
+    }
+
+    @GroupSequence({RecursiveSequenceGroup.class, SequenceGroup.class})
+    private interface RecursiveSequenceGroup {
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.IndexedConstraint;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.ElementDescriptor.ConstraintFinder;
+import javax.validation.metadata.PropertyDescriptor;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+
+/**
+ * Test for the {@link ValidatorConstraintIndex}.
+ */
+@RunWith(JUnitParamsRunner.class)
+public class ValidatorConstraintIndexTest {
+
+    private Validator validator;
+    private ValidatorConstraintIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        // the validator's metadata declares constraints that are not present as annotations (e.g. from an XML mapping file)
+        Annotation notNull = TestClass.class.getDeclaredField("annotated").getAnnotation(NotNull.class);
+        Annotation size = TestClass.class.getDeclaredField("annotated").getAnnotation(Size.class);
+        ConstraintDescriptor<?> notNullDescriptor = this.createDescriptor(notNull, Collections.singleton(TestGroup.class));
+        ConstraintDescriptor<?> sizeDescriptor = this.createDescriptor(size, Collections.emptySet());
+
+        ConstraintFinder finder = Mockito.mock(ConstraintFinder.class, Mockito.RETURNS_SELF);
+        Mockito.doReturn(new HashSet<>(Arrays.asList(notNullDescriptor, sizeDescriptor)))
+                .when(finder).getConstraintDescriptors();
+        PropertyDescriptor property = Mockito.mock(PropertyDescriptor.class);
+        Mockito.when(property.findConstraints()).thenReturn(finder);
+        Mockito.when(property.getConstrainedContainerElementTypes()).thenReturn(Collections.emptySet());
+
+        BeanDescriptor bean = Mockito.mock(BeanDescriptor.class);
+        Mockito.when(bean.getConstraintsForProperty("mapped")).thenReturn(property);
+        this.validator = Mockito.mock(Validator.class);
+        Mockito.when(this.validator.getConstraintsForClass(TestClass.class)).thenReturn(bean);
+        this.index = new ValidatorConstraintIndex(this.validator);
+    }
+
+    private ConstraintDescriptor<?> createDescriptor(Annotation annotation, Set<Class<?>> groups) {
+        ConstraintDescriptor<?> descriptor = Mockito.mock(ConstraintDescriptor.class);
+        Mockito.doReturn(annotation).when(descriptor).getAnnotation();
+        Mockito.doReturn(groups).when(descriptor).getGroups();
+        Mockito.doReturn(Collections.emptySet()).when(descriptor).getComposingConstraints();
+        return descriptor;
+    }
+
+    @Test
+    public void testGetIndexedConstraint() throws Exception {
+        Field field = TestClass.class.getDeclaredField("mapped");
+        IndexedConstraint notNull = this.index.getIndexedConstraint(field, NotNull.class);
+        Assert.assertNotNull(notNull);
+        Assert.assertEquals(NotNull.class, notNull.getAnnotation().annotationType());
+        Assert.assertArrayEquals(ValidationGroupMatcher.toGroupMask(new Class<?>[]{TestGroup.class}), notNull.getGroupMask());
+        IndexedConstraint size = this.index.getIndexedConstraint(field, Size.class);
+        Assert.assertNotNull(size);
+        Assert.assertEquals(10, ((Size) size.getAnnotation()).max());
+        Assert.assertNull(this.index.getIndexedContainerElementConstraint(field, Size.class));
+    }
+
+    @Test
+    public void testGetDeclaredConstraintsIsCached() throws Exception {
+        Field field = TestClass.class.getDeclaredField("mapped");
+        Assert.assertSame(this.index.getDeclaredConstraints(field), this.index.getDeclaredConstraints(field));
+        Mockito.verify(this.validator).getConstraintsForClass(TestClass.class);
+    }
+
+    @Test
+    public void testGetDeclaredConstraintsWithoutMetadata() throws Exception {
+        // the annotations themselves are not being considered, only the validator's metadata
+        Assert.assertTrue(this.index.getDeclaredConstraints(TestClass.class.getDeclaredField("annotated")).isEmpty());
+        Assert.assertTrue(this.index.getDeclaredConstraints(TestClass.class.getDeclaredMethod("doSomething")).isEmpty());
+    }
+
+    Object parametersForTestGetPropertyName() throws Exception {
+        return new Object[][]{
+            {TestClass.class.getDeclaredField("mapped"), "mapped"},
+            {TestClass.class.getDeclaredMethod("getMapped"), "mapped"},
+            {TestClass.class.getDeclaredMethod("isActive"), "active"},
+            {TestClass.class.getDeclaredMethod("isWrapped"), null},
+            {TestClass.class.getDeclaredMethod("getURL"), "URL"},
+            {TestClass.class.getDeclaredMethod("get"), null},
+            {TestClass.class.getDeclaredMethod("getValue", int.class), null},
+            {TestClass.class.getDeclaredMethod("doSomething"), null}
+        };
+    }
+
+    @Test
+    @Parameters
+    public void testGetPropertyName(Member member, String expectedName) {
+        Assert.assertEquals(expectedName, ValidatorConstraintIndex.getPropertyName(member));
+    }
+
+    private interface TestGroup {
+    }
+
+    private static class TestClass {
+
+        @NotNull
+        @Size(max = 10)
+        private String annotated;
+        private String mapped;
+
+        public String getMapped() {
+            return this.mapped;
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public Boolean isWrapped() {
+            return Boolean.TRUE;
+        }
+
+        public String getURL() {
+            return null;
+        }
+
+        public String get() {
+            return null;
+        }
+
+        public String getValue(int index) {
+            return null;
+        }
+
+        public void doSomething() {
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.module.javax.validation.ClassConstraintIndex.IndexedConstraint;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the {@link XmlConstraintMappings}.
+ */
+public class XmlConstraintMappingsTest {
+
+    private XmlConstraintMappings mappings;
+
+    @Before
+    public void setUp() throws IOException {
+        try (InputStream input = XmlConstraintMappingsTest.class.getResourceAsStream("xml-constraint-mapping.xml")) {
+            this.mappings = new XmlConstraintMappings.Builder(XmlConstraintMappingsTest.class.getClassLoader())
+                    .addMappingFile(input)
+                    .build();
+        }
+    }
+
+    @Test
+    public void testFieldConstraints() throws Exception {
+        Field field = MappedType.class.getDeclaredField("iban");
+        Assert.assertEquals(1, this.mappings.getMappedClassCount());
+
+        IndexedConstraint notNull = this.mappings.getDeclaredConstraints(field, false).get(NotNull.class);
+        Assert.assertNotNull(notNull);
+        Assert.assertArrayEquals(new Class<?>[]{TestGroup.class}, ((NotNull) notNull.getAnnotation()).groups());
+        Assert.assertArrayEquals(ValidationGroupMatcher.toGroupMask(new Class<?>[]{TestGroup.class}), notNull.getGroupMask());
+
+        Size size = (Size) this.mappings.getDeclaredConstraints(field, false).get(Size.class).getAnnotation();
+        Assert.assertEquals(15, size.min());
+        Assert.assertEquals(34, size.max());
+        Assert.assertEquals("{javax.validation.constraints.Size.message}", size.message());
+
+        Pattern pattern = (Pattern) this.mappings.getDeclaredConstraints(field, false).get(Pattern.class).getAnnotation();
+        Assert.assertEquals("^[A-Z]{2}[0-9]{2}[A-Z0-9]+$", pattern.regexp());
+        Assert.assertArrayEquals(new Pattern.Flag[]{Pattern.Flag.CASE_INSENSITIVE}, pattern.flags());
+
+        // the annotations on a mapped bean are being ignored by default
+        Assert.assertTrue(this.mappings.isIgnoringAnnotations(field));
+        Assert.assertNull(this.mappings.getDeclaredConstraints(field, false).get(Max.class));
+        Assert.assertTrue(this.mappings.getDeclaredConstraints(field, true).isEmpty());
+    }
+
+    @Test
+    public void testContainerElementConstraints() throws Exception {
+        Field field = MappedType.class.getDeclaredField("tags");
+        Assert.assertFalse(this.mappings.isIgnoringAnnotations(field));
+        Assert.assertTrue(this.mappings.getDeclaredConstraints(field, false).isEmpty());
+        Assert.assertNotNull(this.mappings.getDeclaredConstraints(field, true).get(NotBlank.class));
+    }
+
+    @Test
+    public void testGetterConstraints() throws Exception {
+        Method getter = MappedType.class.getDeclaredMethod("getAmount");
+        DecimalMin decimalMin = (DecimalMin) this.mappings.getDeclaredConstraints(getter, false).get(DecimalMin.class).getAnnotation();
+        Assert.assertEquals("0.01", decimalMin.value());
+        Assert.assertFalse(decimalMin.inclusive());
+        Assert.assertEquals(new BigDecimal("0.01"), NumericBounds.parse(decimalMin.value()));
+        // only getters are being considered, not the return values of other methods
+        Assert.assertTrue(this.mappings.getDeclaredConstraints(MappedType.class.getDeclaredMethod("ignored"), false).isEmpty());
+    }
+
+    @Test
+    public void testUnmappedType() throws Exception {
+        Field field = XmlConstraintMappingsTest.class.getDeclaredField("mappings");
+        Assert.assertFalse(this.mappings.isIgnoringAnnotations(field));
+        Assert.assertTrue(this.mappings.getDeclaredConstraints(field, false).isEmpty());
+    }
+
+    @Test
+    public void testContentHash() throws IOException {
+        String otherHash = new XmlConstraintMappings.Builder()
+                .addMappingFile(XmlConstraintMappingsTest.toStream("<constraint-mappings/>"))
+                .build()
+                .getContentHash();
+        Assert.assertNotEquals(this.mappings.getContentHash(), otherHash);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownAnnotation() throws IOException {
+        new XmlConstraintMappings.Builder().addMappingFile(XmlConstraintMappingsTest.toStream("<constraint-mappings><bean class=\"java.lang.Object\">"
+                + "<field name=\"x\"><constraint annotation=\"com.example.Unknown\"/></field></bean></constraint-mappings>"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingMandatoryAttribute() throws IOException {
+        new XmlConstraintMappings.Builder().addMappingFile(XmlConstraintMappingsTest.toStream("<constraint-mappings><bean class=\"java.lang.Object\">"
+                + "<field name=\"x\"><constraint annotation=\"javax.validation.constraints.Max\"/></field></bean></constraint-mappings>"));
+    }
+
+    @Test
+    public void testValidationConfig() throws IOException {
+        XmlConstraintMappings configuredMappings = new XmlConstraintMappings.Builder(XmlConstraintMappingsTest.class.getClassLoader())
+                .addValidationConfig(XmlConstraintMappingsTest.toStream("<validation-config><default-provider>x</default-provider>"
+                        + "<constraint-mapping>/com/github/victools/jsonschema/module/javax/validation/xml-constraint-mapping.xml</constraint-mapping>"
+                        + "</validation-config>"))
+                .build();
+        Assert.assertEquals(1, configuredMappings.getMappedClassCount());
+        Assert.assertEquals(this.mappings.getContentHash(), configuredMappings.getContentHash());
+    }
+
+    private static InputStream toStream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    interface TestGroup {
+    }
+
+    private static class MappedType {
+
+        @Max(10)
+        private String iban;
+        private List<String> tags;
+        private BigDecimal amount;
+
+        public BigDecimal getAmount() {
+            return this.amount;
+        }
+
+        public String ignored() {
+            return null;
+        }
+    }
+}
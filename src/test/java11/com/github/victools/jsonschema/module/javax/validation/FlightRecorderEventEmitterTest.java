@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 VicTools.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.victools.jsonschema.module.javax.validation;
+
+import com.github.victools.jsonschema.generator.FieldScope;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the {@link FlightRecorderEventEmitter} being used by the {@link JavaxValidationModule}.
+ */
+public class FlightRecorderEventEmitterTest {
+
+    private static final String PROFILE_RESOLUTION_EVENT = "com.github.victools.jsonschema.module.javax.validation.ProfileResolution";
+    private static final String CLASS_SCAN_EVENT = "com.github.victools.jsonschema.module.javax.validation.ClassScan";
+
+    @Test
+    public void testLoadFlightRecorderEmitter() {
+        Assert.assertTrue(ResolutionEventEmitter.loadFlightRecorderEmitter() instanceof FlightRecorderEventEmitter);
+    }
+
+    @Test
+    public void testEventsAreRecorded() throws Exception {
+        JavaxValidationModule module = new JavaxValidationModule(JavaxValidationOption.EMIT_FLIGHT_RECORDER_EVENTS);
+        FieldScope field = new TestType(TestClass.class).getMemberField("text");
+
+        List<RecordedEvent> events = this.record(() -> module.getConstraintProfile(field));
+
+        RecordedEvent scanEvent = events.stream()
+                .filter(event -> CLASS_SCAN_EVENT.equals(event.getEventType().getName()))
+                .filter(event -> TestClass.class.getName().equals(event.getString("declaringType")))
+                .findAny()
+                .get();
+        Assert.assertEquals(3, scanEvent.getInt("constrainedMemberCount"));
+        Assert.assertEquals("NotNull, Size", scanEvent.getString("constraints"));
+
+        RecordedEvent profileEvent = events.stream()
+                .filter(event -> PROFILE_RESOLUTION_EVENT.equals(event.getEventType().getName()))
+                .findAny()
+                .get();
+        Assert.assertEquals(TestClass.class.getName(), profileEvent.getString("declaringType"));
+        Assert.assertEquals("text", profileEvent.getString("memberName"));
+        Assert.assertEquals("NotNull, Size", profileEvent.getString("constraints"));
+    }
+
+    @Test
+    public void testNoEventsWithoutOption() throws Exception {
+        // another module in the same JVM emitting events must not enable them for the module without the option
+        new JavaxValidationModule(JavaxValidationOption.EMIT_FLIGHT_RECORDER_EVENTS);
+        JavaxValidationModule module = new JavaxValidationModule();
+        FieldScope field = new TestType(OtherTestClass.class).getMemberField("number");
+
+        List<RecordedEvent> events = this.record(() -> module.getConstraintProfile(field));
+
+        Assert.assertFalse(events.stream().anyMatch(event -> PROFILE_RESOLUTION_EVENT.equals(event.getEventType().getName())));
+        Assert.assertFalse(events.stream().anyMatch(event -> CLASS_SCAN_EVENT.equals(event.getEventType().getName())));
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws Exception {
+        Path recordingFile = Files.createTempFile("javax-validation-module", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PROFILE_RESOLUTION_EVENT);
+            recording.enable(CLASS_SCAN_EVENT);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(recordingFile);
+            return RecordingFile.readAllEvents(recordingFile).stream()
+                    .filter(event -> event.getEventType().getName().startsWith(JavaxValidationModule.class.getPackage().getName()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    private static class TestClass {
+
+        @NotNull
+        String text;
+        @Size(max = 5)
+        String number;
+
+        @Size(max = 10)
+        public String getText() {
+            return this.text;
+        }
+    }
+
+    private static class OtherTestClass {
+
+        @Size(max = 5)
+        String number;
+    }
+}